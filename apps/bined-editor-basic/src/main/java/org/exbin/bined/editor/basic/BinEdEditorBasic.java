@@ -27,9 +27,13 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import javax.swing.AbstractAction;
 import javax.swing.Action;
 import javax.swing.ImageIcon;
@@ -45,12 +49,15 @@ import org.exbin.bined.capability.CharsetCapable;
 import org.exbin.bined.capability.SelectionCapable;
 import org.exbin.bined.operation.swing.CodeAreaOperationCommandHandler;
 import org.exbin.bined.operation.swing.CodeAreaUndoRedo;
+import org.exbin.bined.operation.swing.OperationJournal;
 import org.exbin.bined.swing.basic.CodeArea;
+import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
 import org.exbin.bined.CodeAreaCaretPosition;
 import org.exbin.bined.CodeAreaUtils;
 import org.exbin.bined.CodeCharactersCase;
 import org.exbin.bined.CodeType;
+import org.exbin.bined.PieceTableEditableData;
 import org.exbin.bined.swing.CodeAreaSwingUtils;
 import org.exbin.bined.capability.EditModeCapable;
 
@@ -78,9 +85,22 @@ public class BinEdEditorBasic extends javax.swing.JFrame {
     private static final String ICON_EDIT_DELETE = "edit-delete.png";
     private static final String ICON_EDIT_SELECT_ALL = "edit-select-all.png";
 
+    /**
+     * Files larger than this size are opened as memory mapped data edited
+     * through piece table.
+     */
+    private static final long MAPPED_FILE_SIZE_THRESHOLD = 64 * 1024 * 1024;
+    private static final String JOURNAL_FILE_SUFFIX = ".bined-journal";
+
     private File file = null;
     private CodeArea codeArea;
     private CodeAreaUndoRedo undoHandler;
+    @Nullable
+    private OperationJournal journal;
+    /**
+     * Content differs from file by changes not recorded in undo history.
+     */
+    private boolean untrackedChanges = false;
 
     private Action newFileAction;
     private Action openFileAction;
@@ -114,6 +134,7 @@ public class BinEdEditorBasic extends javax.swing.JFrame {
                     return;
                 }
 
+                closeJournal();
                 System.exit(0);
             }
         });
@@ -610,6 +631,9 @@ public class BinEdEditorBasic extends javax.swing.JFrame {
             return;
         }
 
+        closeJournal();
+        untrackedChanges = false;
+        useEditableContentData();
         ((EditableBinaryData) codeArea.getContentData()).clear();
         codeArea.notifyDataChanged();
         codeArea.repaint();
@@ -625,15 +649,26 @@ public class BinEdEditorBasic extends javax.swing.JFrame {
             JFileChooser fileChooser = new JFileChooser();
             int chooserResult = fileChooser.showOpenDialog(this);
             if (chooserResult == JFileChooser.APPROVE_OPTION) {
+                closeJournal();
+                untrackedChanges = false;
                 file = fileChooser.getSelectedFile();
-                try (FileInputStream stream = new FileInputStream(file)) {
-                    ((EditableBinaryData) codeArea.getContentData()).loadFromStream(stream);
+                try {
+                    if (file.length() > MAPPED_FILE_SIZE_THRESHOLD) {
+                        openMappedFile(file);
+                    } else {
+                        useEditableContentData();
+                        try (FileInputStream stream = new FileInputStream(file)) {
+                            ((EditableBinaryData) codeArea.getContentData()).loadFromStream(stream);
+                        }
+                    }
                     codeArea.notifyDataChanged();
+                    recoverJournal();
                     codeArea.repaint();
                     undoHandler.clear();
                     updateUndoState();
                     updateClipboardState();
                     updateTitle();
+                    openJournal();
                 } catch (IOException ex) {
                     Logger.getLogger(BinEdEditorBasic.class.getName()).log(Level.SEVERE, null, ex);
                 }
@@ -641,6 +676,50 @@ public class BinEdEditorBasic extends javax.swing.JFrame {
         }
     }
 
+    /**
+     * Opens file as memory mapped data without loading it.
+     * <p>
+     * Changes are kept in piece table referencing the mapped file.
+     *
+     * @param file opened file
+     * @throws IOException if file cannot be mapped
+     */
+    private void openMappedFile(File file) throws IOException {
+        MappedFileBinaryData mappedData = new MappedFileBinaryData(file);
+        BinaryData previousData = codeArea.getContentData();
+        codeArea.setContentData(new PieceTableEditableData(mappedData));
+        codeArea.setEditMode(EditMode.EXPANDING);
+        disposeContentData(previousData);
+    }
+
+    /**
+     * Replaces memory mapped content data with editable in-memory data.
+     */
+    private void useEditableContentData() {
+        BinaryData previousData = codeArea.getContentData();
+        if (!(previousData instanceof ByteArrayEditableData)) {
+            codeArea.setContentData(new ByteArrayEditableData());
+            codeArea.setEditMode(EditMode.EXPANDING);
+            disposeContentData(previousData);
+        }
+    }
+
+    /**
+     * Disposes replaced content data including source data of piece table,
+     * which is owned by editor.
+     *
+     * @param data replaced content data
+     */
+    private static void disposeContentData(BinaryData data) {
+        data.dispose();
+        if (data instanceof PieceTableEditableData) {
+            BinaryData sourceData = ((PieceTableEditableData) data).getSourceData();
+            if (sourceData != null) {
+                sourceData.dispose();
+            }
+        }
+    }
+
     private void saveAsFileActionPerformed() {
         JFileChooser fileChooser = new JFileChooser();
         int chooserResult = fileChooser.showSaveDialog(this);
@@ -685,14 +764,195 @@ public class BinEdEditorBasic extends javax.swing.JFrame {
         if (file == null) {
             saveAsFileActionPerformed();
         } else {
-            try (FileOutputStream stream = new FileOutputStream(file)) {
-                codeArea.getContentData().saveToStream(stream);
-                undoHandler.setSyncPosition();
-                updateTitle();
+            BinaryData contentData = codeArea.getContentData();
+            BinaryData sourceData = contentData instanceof PieceTableEditableData ? ((PieceTableEditableData) contentData).getSourceData() : contentData;
+            if (sourceData instanceof MappedFileBinaryData && file.getAbsoluteFile().equals(((MappedFileBinaryData) sourceData).getFile().getAbsoluteFile())) {
+                if (!saveMappedFileInPlace()) {
+                    return;
+                }
+            } else {
+                try (FileOutputStream stream = new FileOutputStream(file)) {
+                    codeArea.getContentData().saveToStream(stream);
+                } catch (IOException ex) {
+                    Logger.getLogger(BinEdEditorBasic.class.getName()).log(Level.SEVERE, null, ex);
+                    return;
+                }
+            }
+            undoHandler.setSyncPosition();
+            untrackedChanges = false;
+            updateTitle();
+
+            if (journal != null && getJournalFile(file).equals(journal.getFile())) {
+                journal.checkpoint();
+            } else {
+                // Saved as different file, journal of the previous file is not needed anymore
+                closeJournal();
+                getJournalFile(file).delete();
+                openJournal();
+            }
+        }
+    }
+
+    /**
+     * Saves data of file opened as memory mapped into the same file.
+     * <p>
+     * Unmodified parts are read from the mapped file, which would be
+     * truncated before reading, so data are written to temporary file in the
+     * same directory first. Mapped file is then released, replaced by the
+     * temporary file and opened again as new source data.
+     *
+     * @return true if file was saved
+     */
+    private boolean saveMappedFileInPlace() {
+        File targetFile = file.getAbsoluteFile();
+        File tempFile;
+        try {
+            tempFile = File.createTempFile(targetFile.getName(), ".tmp", targetFile.getParentFile());
+        } catch (IOException ex) {
+            Logger.getLogger(BinEdEditorBasic.class.getName()).log(Level.SEVERE, null, ex);
+            return false;
+        }
+
+        try (FileOutputStream stream = new FileOutputStream(tempFile)) {
+            codeArea.getContentData().saveToStream(stream);
+        } catch (IOException ex) {
+            Logger.getLogger(BinEdEditorBasic.class.getName()).log(Level.SEVERE, null, ex);
+            tempFile.delete();
+            return false;
+        }
+
+        // Undo history references released source data
+        undoHandler.clear();
+        updateUndoState();
+        disposeContentData(codeArea.getContentData());
+        File savedFile = targetFile;
+        try {
+            try {
+                Files.move(tempFile.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tempFile.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            Logger.getLogger(BinEdEditorBasic.class.getName()).log(Level.SEVERE, null, ex);
+            // Saved data are kept in temporary file which is used instead
+            savedFile = tempFile;
+            untrackedChanges = true;
+        }
+
+        try {
+            codeArea.setContentData(new PieceTableEditableData(new MappedFileBinaryData(savedFile)));
+        } catch (IOException ex) {
+            Logger.getLogger(BinEdEditorBasic.class.getName()).log(Level.SEVERE, null, ex);
+            // Saved file is left intact, empty content must not be saved over it
+            codeArea.setContentData(new ByteArrayEditableData());
+            untrackedChanges = false;
+            JOptionPane.showMessageDialog(this, "Unable to open saved file " + savedFile + ": " + ex.getMessage(), "Save File", JOptionPane.ERROR_MESSAGE);
+            return false;
+        }
+
+        if (savedFile != targetFile) {
+            JOptionPane.showMessageDialog(this, "Unable to replace file " + targetFile + ", data were saved to " + savedFile, "Save File", JOptionPane.ERROR_MESSAGE);
+            return false;
+        }
+
+        return true;
+    }
+
+    private static File getJournalFile(File file) {
+        File absoluteFile = file.getAbsoluteFile();
+        return new File(absoluteFile.getParentFile(), "." + absoluteFile.getName() + JOURNAL_FILE_SUFFIX);
+    }
+
+    /**
+     * Offers to replay changes left in journal of the opened file by editor
+     * which was not closed properly.
+     */
+    private void recoverJournal() {
+        File journalFile = getJournalFile(file);
+        if (!journalFile.isFile()) {
+            return;
+        }
+
+        int result = JOptionPane.showConfirmDialog(this,
+                "Unsaved changes of this file were found. Do you wish to recover them?",
+                "Recover Changes?",
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.QUESTION_MESSAGE);
+        if (result == JOptionPane.YES_OPTION) {
+            try {
+                if (OperationJournal.recover(journalFile, (EditableBinaryData) codeArea.getContentData()) > 0) {
+                    untrackedChanges = true;
+                }
+                codeArea.notifyDataChanged();
+                // Journal is kept and continues after recovered changes
+                return;
             } catch (IOException ex) {
-                Logger.getLogger(BinEdEditorBasic.class.getName()).log(Level.SEVERE, null, ex);
+                Logger.getLogger(BinEdEditorBasic.class.getName()).log(Level.WARNING, "Unable to recover changes from " + journalFile, ex);
+                JOptionPane.showMessageDialog(this, "Unable to recover changes: " + ex.getMessage(), "Recover Changes", JOptionPane.ERROR_MESSAGE);
+                reloadAfterFailedRecovery();
             }
         }
+
+        journalFile.delete();
+    }
+
+    /**
+     * Reverts content data partially modified by failed recovery.
+     */
+    private void reloadAfterFailedRecovery() {
+        try {
+            if (file.length() > MAPPED_FILE_SIZE_THRESHOLD) {
+                openMappedFile(file);
+            } else {
+                EditableBinaryData contentData = (EditableBinaryData) codeArea.getContentData();
+                contentData.clear();
+                try (FileInputStream stream = new FileInputStream(file)) {
+                    contentData.loadFromStream(stream);
+                }
+            }
+            codeArea.notifyDataChanged();
+        } catch (IOException ex) {
+            Logger.getLogger(BinEdEditorBasic.class.getName()).log(Level.SEVERE, null, ex);
+        }
+    }
+
+    /**
+     * Starts journaling changes of the current file.
+     */
+    private void openJournal() {
+        if (file == null || journal != null) {
+            return;
+        }
+
+        try {
+            journal = new OperationJournal(codeArea, getJournalFile(file));
+            codeArea.addDataChangedListener(journal);
+        } catch (IOException ex) {
+            // Editing continues without crash recovery
+            Logger.getLogger(BinEdEditorBasic.class.getName()).log(Level.WARNING, "Unable to open journal for " + file, ex);
+        }
+    }
+
+    /**
+     * Stops journaling and deletes journal, changes were either saved or
+     * discarded.
+     */
+    private void closeJournal() {
+        OperationJournal currentJournal = journal;
+        if (currentJournal == null) {
+            return;
+        }
+
+        journal = null;
+        codeArea.removeDataChangedListener(currentJournal);
+        try {
+            currentJournal.close();
+        } catch (IOException ex) {
+            Logger.getLogger(BinEdEditorBasic.class.getName()).log(Level.WARNING, null, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        currentJournal.getFile().delete();
     }
 
     public boolean releaseFile() {
@@ -774,7 +1034,7 @@ public class BinEdEditorBasic extends javax.swing.JFrame {
     }
 
     public boolean isModified() {
-        return undoHandler.getCommandPosition() != undoHandler.getSyncPosition();
+        return untrackedChanges || undoHandler.getCommandPosition() != undoHandler.getSyncPosition();
     }
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.editor.basic;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Read only binary data backed by memory mapped file.
+ * <p>
+ * File is mapped in windows of fixed size which are mapped on first access so
+ * that opening file is fast regardless of its size and only accessed parts of
+ * file are loaded. Files larger than 2 GB are supported.
+ * <p>
+ * Copies of the whole data share file channel and mapped windows, file is
+ * closed when all copies are disposed.
+ */
+@NullMarked
+public class MappedFileBinaryData implements BinaryData {
+
+    public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final File file;
+    private final int windowSize;
+    private final long dataSize;
+    @Nullable
+    private MappedFile mappedFile;
+
+    public MappedFileBinaryData(File file) throws IOException {
+        this(file, DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedFileBinaryData(File file, int windowSize) throws IOException {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be positive");
+        }
+        this.file = file;
+        this.windowSize = windowSize;
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        dataSize = channel.size();
+        long windowsCount = (dataSize + windowSize - 1) / windowSize;
+        if (windowsCount > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("File is too large for window size " + windowSize);
+        }
+        mappedFile = new MappedFile(channel, (int) windowsCount);
+    }
+
+    private MappedFileBinaryData(MappedFileBinaryData data) {
+        file = data.file;
+        windowSize = data.windowSize;
+        dataSize = data.dataSize;
+        MappedFile sharedMappedFile = data.getMappedFile();
+        sharedMappedFile.acquire();
+        mappedFile = sharedMappedFile;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return dataSize == 0;
+    }
+
+    @Override
+    public long getDataSize() {
+        return dataSize;
+    }
+
+    @Override
+    public byte getByte(long position) {
+        checkRange(position, 1);
+        return getWindow((int) (position / windowSize)).get((int) (position % windowSize));
+    }
+
+    @Override
+    public BinaryData copy() {
+        return new MappedFileBinaryData(this);
+    }
+
+    @Override
+    public BinaryData copy(long startFrom, long length) {
+        checkRange(startFrom, length);
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Copied length exceeds maximum array size");
+        }
+        byte[] data = new byte[(int) length];
+        copyToArray(startFrom, data, 0, (int) length);
+        return new ByteArrayData(data);
+    }
+
+    @Override
+    public void copyToArray(long startFrom, byte[] target, int offset, int length) {
+        checkRange(startFrom, length);
+        long position = startFrom;
+        int targetPosition = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            int windowOffset = (int) (position % windowSize);
+            int chunkLength = Math.min(remaining, windowSize - windowOffset);
+            ByteBuffer buffer = getWindow((int) (position / windowSize)).duplicate();
+            buffer.position(windowOffset);
+            buffer.get(target, targetPosition, chunkLength);
+            position += chunkLength;
+            targetPosition += chunkLength;
+            remaining -= chunkLength;
+        }
+    }
+
+    @Override
+    public void saveToStream(OutputStream outputStream) throws IOException {
+        FileChannel fileChannel = getMappedFile().channel;
+        WritableByteChannel targetChannel = Channels.newChannel(outputStream);
+        long position = 0;
+        while (position < dataSize) {
+            position += fileChannel.transferTo(position, dataSize - position, targetChannel);
+        }
+    }
+
+    @Override
+    public InputStream getDataInputStream() {
+        return new MappedDataInputStream();
+    }
+
+    /**
+     * Releases this copy of the data.
+     * <p>
+     * File channel is closed when all copies are disposed, mapped windows are
+     * released by garbage collector.
+     */
+    @Override
+    public void dispose() {
+        if (mappedFile != null) {
+            mappedFile.release();
+            mappedFile = null;
+        }
+    }
+
+    private MappedByteBuffer getWindow(int windowIndex) {
+        MappedFile currentMappedFile = getMappedFile();
+        MappedByteBuffer window = currentMappedFile.windows.get(windowIndex);
+        if (window == null) {
+            long windowStart = (long) windowIndex * windowSize;
+            try {
+                window = currentMappedFile.channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(windowSize, dataSize - windowStart));
+            } catch (IOException ex) {
+                throw new IllegalStateException("Unable to map file " + file, ex);
+            }
+            if (!currentMappedFile.windows.compareAndSet(windowIndex, null, window)) {
+                // Mapped concurrently by other reader
+                window = currentMappedFile.windows.get(windowIndex);
+            }
+        }
+        return window;
+    }
+
+    private MappedFile getMappedFile() {
+        if (mappedFile == null) {
+            throw new IllegalStateException("Data were already disposed");
+        }
+        return mappedFile;
+    }
+
+    private void checkRange(long startFrom, long length) {
+        if (startFrom < 0 || length < 0 || startFrom > dataSize - length) {
+            throw new IndexOutOfBoundsException("Range " + startFrom + "+" + length + " out of bounds for size " + dataSize);
+        }
+    }
+
+    /**
+     * File channel and mapped windows shared by copies of the data.
+     */
+    private static final class MappedFile {
+
+        private final FileChannel channel;
+        private final AtomicReferenceArray<MappedByteBuffer> windows;
+        private int referenceCount = 1;
+
+        private MappedFile(FileChannel channel, int windowsCount) {
+            this.channel = channel;
+            windows = new AtomicReferenceArray<>(windowsCount);
+        }
+
+        private synchronized void acquire() {
+            if (referenceCount == 0) {
+                throw new IllegalStateException("Data were already disposed");
+            }
+            referenceCount++;
+        }
+
+        private synchronized void release() {
+            referenceCount--;
+            if (referenceCount == 0) {
+                try {
+                    channel.close();
+                } catch (IOException ex) {
+                    // Ignore, file is opened for reading only
+                }
+                for (int i = 0; i < windows.length(); i++) {
+                    windows.set(i, null);
+                }
+            }
+        }
+    }
+
+    private class MappedDataInputStream extends InputStream {
+
+        private long position = 0;
+
+        @Override
+        public int read() {
+            if (position >= dataSize) {
+                return -1;
+            }
+            return getByte(position++) & 0xff;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position >= dataSize) {
+                return -1;
+            }
+            int readLength = (int) Math.min(length, dataSize - position);
+            copyToArray(position, target, offset, readLength);
+            position += readLength;
+            return readLength;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, dataSize - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, dataSize - position);
+        }
+    }
+}
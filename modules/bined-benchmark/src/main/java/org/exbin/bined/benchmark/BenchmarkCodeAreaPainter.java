@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.benchmark;
+
+import org.exbin.bined.basic.CodeAreaScrollPosition;
+import org.exbin.bined.swing.CodeAreaCore;
+import org.exbin.bined.swing.basic.DefaultCodeAreaPainter;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Default painter exposing row rendering steps for benchmarking.
+ */
+@NullMarked
+public class BenchmarkCodeAreaPainter extends DefaultCodeAreaPainter {
+
+    public BenchmarkCodeAreaPainter(CodeAreaCore codeArea) {
+        super(codeArea);
+    }
+
+    @Override
+    public void prepareRowData(long dataPosition) {
+        super.prepareRowData(dataPosition);
+    }
+
+    @Override
+    public void prepareRowColors(long rowDataPosition) {
+        super.prepareRowColors(rowDataPosition);
+    }
+
+    /**
+     * Returns X position of rows for current scroll position.
+     *
+     * @return row position X
+     */
+    public int getRowPositionX() {
+        CodeAreaScrollPosition scrollPosition = scrolling.getScrollPosition();
+        return dimensions.getScrollPanelX() - scrollPosition.getCharPosition() * metrics.getCharacterWidth() - scrollPosition.getCharOffset();
+    }
+
+    /**
+     * Returns Y position of the first row for current scroll position.
+     *
+     * @return row position Y
+     */
+    public int getRowPositionY() {
+        return dimensions.getScrollPanelY() - scrolling.getScrollPosition().getRowOffset();
+    }
+}
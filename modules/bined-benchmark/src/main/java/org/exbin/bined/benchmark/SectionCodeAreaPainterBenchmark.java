@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.benchmark;
+
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+import org.exbin.bined.CodeType;
+import org.exbin.bined.HugeBinaryData;
+import org.exbin.bined.RowWrappingMode;
+import org.exbin.bined.basic.CodeAreaViewMode;
+import org.exbin.bined.swing.section.SectCodeArea;
+import org.exbin.bined.swing.section.SectionCodeAreaPainter;
+import org.jspecify.annotations.NullMarked;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of frame rendering of the section code area painter.
+ *
+ * Results are in frames per second, run with "-prof gc" to get allocations
+ * per frame.
+ */
+@NullMarked
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SectionCodeAreaPainterBenchmark {
+
+    public static final int FRAME_WIDTH = 1600;
+    public static final int FRAME_HEIGHT = 1000;
+
+    @Param({"HEXADECIMAL", "BINARY"})
+    public CodeType codeType;
+
+    @Param({"DUAL", "CODE_MATRIX", "TEXT_PREVIEW"})
+    public CodeAreaViewMode viewMode;
+
+    @Param({"16", "64"})
+    public int bytesPerRow;
+
+    @Param({"ISO-8859-1", "UTF-8"})
+    public String charset;
+
+    private SectCodeArea codeArea;
+    private SectionCodeAreaPainter painter;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        codeArea = new SectCodeArea();
+        painter = (SectionCodeAreaPainter) codeArea.getPainter();
+        // Unattached component has no inherited font
+        codeArea.setCodeFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        codeArea.setContentData(new HugeBinaryData());
+        codeArea.setCodeType(codeType);
+        codeArea.setViewMode(viewMode);
+        codeArea.setCharset(Charset.forName(charset));
+        codeArea.setRowWrapping(RowWrappingMode.NO_WRAPPING);
+        codeArea.setMaxBytesPerRow(bytesPerRow);
+        codeArea.setSize(FRAME_WIDTH, FRAME_HEIGHT);
+
+        image = new BufferedImage(FRAME_WIDTH, FRAME_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+        // Initial paint computes metrics and layout
+        painter.paintComponent(graphics);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        graphics.dispose();
+        painter.detach();
+    }
+
+    @Benchmark
+    public void paintRowsFrame() {
+        painter.paintRows(graphics);
+    }
+
+    @Benchmark
+    public void paintComponentFrame() {
+        painter.paintComponent(graphics);
+    }
+}
@@ -32,6 +32,8 @@ public class CodeAreaUtils {
     public static final char[] UPPER_HEX_CODES = "0123456789ABCDEF".toCharArray();
     public static final char[] LOWER_HEX_CODES = "0123456789abcdef".toCharArray();
     private static final int CODE_BUFFER_LENGTH = 16;
+    private static final char[][] UPPER_CODE_TABLES = createCodeTables(CodeCharactersCase.UPPER);
+    private static final char[][] LOWER_CODE_TABLES = createCodeTables(CodeCharactersCase.LOWER);
 
     public static final String MIME_CLIPBOARD_BINARY = "application/octet-stream";
     public static final String BINED_CLIPBOARD_MIME = "application/x-bined";
@@ -147,6 +149,61 @@ public class CodeAreaUtils {
         }
     }
 
+    /**
+     * Converts sequence of bytes to sequence of characters of given code type.
+     * <p>
+     * Codes are written one after another separated by given number of space
+     * characters. No spacing is written after the last code.
+     *
+     * @param sourceData source array of bytes
+     * @param sourceOffset offset in source array
+     * @param length number of bytes to convert
+     * @param codeType code type
+     * @param charCase case type for alphabetical characters
+     * @param targetData target array of characters (output parameter)
+     * @param targetOffset target position in array of characters
+     * @param spacing number of space characters between codes
+     */
+    public static void bytesToCharsCode(byte[] sourceData, int sourceOffset, int length, CodeType codeType, CodeCharactersCase charCase, char[] targetData, int targetOffset, int spacing) {
+        if (length <= 0) {
+            return;
+        }
+
+        char[] codeTable = getCodeTable(codeType, charCase);
+        int digits = codeType.getMaxDigitsForByte();
+        int targetPosition = targetOffset;
+        int sourceEnd = sourceOffset + length;
+        for (int sourcePosition = sourceOffset; sourcePosition < sourceEnd; sourcePosition++) {
+            if (sourcePosition > sourceOffset) {
+                for (int i = 0; i < spacing; i++) {
+                    targetData[targetPosition++] = ' ';
+                }
+            }
+            int tablePosition = (sourceData[sourcePosition] & 0xff) * digits;
+            for (int i = 0; i < digits; i++) {
+                targetData[targetPosition++] = codeTable[tablePosition + i];
+            }
+        }
+    }
+
+    private static char[] getCodeTable(CodeType codeType, CodeCharactersCase charCase) {
+        return (charCase == CodeCharactersCase.UPPER ? UPPER_CODE_TABLES : LOWER_CODE_TABLES)[codeType.ordinal()];
+    }
+
+    private static char[][] createCodeTables(CodeCharactersCase charCase) {
+        CodeType[] codeTypes = CodeType.values();
+        char[][] codeTables = new char[codeTypes.length][];
+        for (CodeType codeType : codeTypes) {
+            int digits = codeType.getMaxDigitsForByte();
+            char[] codeTable = new char[256 * digits];
+            for (int value = 0; value < 256; value++) {
+                byteToCharsCode((byte) value, codeType, codeTable, value * digits, charCase);
+            }
+            codeTables[codeType.ordinal()] = codeTable;
+        }
+        return codeTables;
+    }
+
     /**
      * Converts string of characters to byte value.
      *
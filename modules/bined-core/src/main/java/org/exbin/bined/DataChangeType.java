@@ -0,0 +1,36 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined;
+
+/**
+ * Enumeration of data change types.
+ */
+public enum DataChangeType {
+
+    /**
+     * Data in range were replaced, data size and position of other data is
+     * not changed.
+     */
+    MODIFY,
+    /**
+     * Data were inserted at position, following data are shifted forward.
+     */
+    INSERT,
+    /**
+     * Data were removed from position, following data are shifted backward.
+     */
+    REMOVE
+}
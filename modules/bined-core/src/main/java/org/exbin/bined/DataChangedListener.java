@@ -24,4 +24,17 @@ public interface DataChangedListener {
      * Fires notification each time data is modified.
      */
     void dataChanged();
+
+    /**
+     * Fires notification when data in specific range is modified.
+     * <p>
+     * Default implementation handles it as change of the whole data.
+     *
+     * @param startPosition start position of the change
+     * @param length length of the changed range in bytes
+     * @param changeType change type
+     */
+    default void dataChanged(long startPosition, long length, DataChangeType changeType) {
+        dataChanged();
+    }
 }
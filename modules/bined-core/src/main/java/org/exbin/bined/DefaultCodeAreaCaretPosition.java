@@ -29,8 +29,10 @@ public class DefaultCodeAreaCaretPosition implements CodeAreaCaretPosition {
 
     private long dataPosition = 0;
     private int codeOffset = 0;
-    @Nullable
-    private CodeAreaSection section = null;
+    /**
+     * Section is kept wrapped so that getter doesn't allocate.
+     */
+    private Optional<CodeAreaSection> section = Optional.empty();
 
     public DefaultCodeAreaCaretPosition() {
     }
@@ -38,7 +40,7 @@ public class DefaultCodeAreaCaretPosition implements CodeAreaCaretPosition {
     public DefaultCodeAreaCaretPosition(long dataPosition, int codeOffset, @Nullable CodeAreaSection section) {
         this.dataPosition = dataPosition;
         this.codeOffset = codeOffset;
-        this.section = section;
+        this.section = Optional.ofNullable(section);
     }
 
     @Override
@@ -61,11 +63,11 @@ public class DefaultCodeAreaCaretPosition implements CodeAreaCaretPosition {
 
     @Override
     public Optional<CodeAreaSection> getSection() {
-        return Optional.ofNullable(section);
+        return section;
     }
 
     public void setSection(@Nullable CodeAreaSection section) {
-        this.section = section;
+        this.section = Optional.ofNullable(section);
     }
 
     /**
@@ -76,14 +78,14 @@ public class DefaultCodeAreaCaretPosition implements CodeAreaCaretPosition {
     public void setPosition(CodeAreaCaretPosition position) {
         dataPosition = position.getDataPosition();
         codeOffset = position.getCodeOffset();
-        section = position.getSection().orElse(null);
+        section = position.getSection();
     }
 
     @Override
     public void reset() {
         this.dataPosition = 0;
         this.codeOffset = 0;
-        this.section = null;
+        this.section = Optional.empty();
     }
 
     @Override
@@ -0,0 +1,342 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Binary data decorator caching pages of slow data source.
+ * <p>
+ * Reads are served from least recently used cache of fixed size pages. When
+ * pages are missed in sequence, following pages in the same direction are
+ * loaded ahead in single read from the source.
+ * <p>
+ * Source data are not expected to change without notification. Register
+ * instance as data changed listener of the code area or call invalidate
+ * methods when source data are modified.
+ */
+@NullMarked
+public class PagedCacheBinaryData implements BinaryData, DataChangedListener {
+
+    public static final int DEFAULT_PAGE_SIZE = 4096;
+    public static final int DEFAULT_PAGES_COUNT = 64;
+    public static final int DEFAULT_READ_AHEAD_PAGES = 4;
+
+    private final BinaryData data;
+    private final int pageSize;
+    private final int pagesCount;
+    private int readAheadPages;
+
+    private final LinkedHashMap<Long, Page> pages;
+    private long dataSize;
+    @Nullable
+    private Page lastPage;
+    private long lastMissedPage = -1;
+    private byte[] readAheadBuffer = new byte[0];
+
+    public PagedCacheBinaryData(BinaryData data) {
+        this(data, DEFAULT_PAGE_SIZE, DEFAULT_PAGES_COUNT);
+    }
+
+    public PagedCacheBinaryData(BinaryData data, int pageSize, int pagesCount) {
+        if (pageSize <= 0 || pagesCount <= 0) {
+            throw new IllegalArgumentException("Page size and pages count must be positive");
+        }
+        this.data = CodeAreaUtils.requireNonNull(data);
+        this.pageSize = pageSize;
+        this.pagesCount = pagesCount;
+        readAheadPages = Math.min(DEFAULT_READ_AHEAD_PAGES, pagesCount - 1);
+        pages = new LinkedHashMap<>(pagesCount * 2, 0.75f, true);
+        dataSize = data.getDataSize();
+    }
+
+    /**
+     * Returns source data.
+     *
+     * @return source data
+     */
+    public BinaryData getData() {
+        return data;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public int getPagesCount() {
+        return pagesCount;
+    }
+
+    public int getReadAheadPages() {
+        return readAheadPages;
+    }
+
+    /**
+     * Sets number of pages loaded ahead when pages are read in sequence.
+     *
+     * @param readAheadPages number of pages, zero disables read ahead
+     */
+    public synchronized void setReadAheadPages(int readAheadPages) {
+        if (readAheadPages < 0) {
+            throw new IllegalArgumentException("Read ahead pages count cannot be negative");
+        }
+        this.readAheadPages = Math.min(readAheadPages, pagesCount - 1);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getDataSize() == 0;
+    }
+
+    @Override
+    public synchronized long getDataSize() {
+        return dataSize;
+    }
+
+    @Override
+    public synchronized byte getByte(long position) {
+        checkRange(position, 1);
+        Page page = getPage(position / pageSize);
+        return page.data[(int) (position - page.position)];
+    }
+
+    @Override
+    public BinaryData copy() {
+        return data.copy();
+    }
+
+    @Override
+    public BinaryData copy(long startFrom, long length) {
+        return data.copy(startFrom, length);
+    }
+
+    @Override
+    public synchronized void copyToArray(long startFrom, byte[] target, int offset, int length) {
+        checkRange(startFrom, length);
+        if (length >= (long) pageSize * pagesCount) {
+            // Too large to be cached
+            data.copyToArray(startFrom, target, offset, length);
+            return;
+        }
+
+        long position = startFrom;
+        int targetPosition = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            Page page = getPage(position / pageSize);
+            int pageOffset = (int) (position - page.position);
+            int chunkLength = Math.min(remaining, page.length - pageOffset);
+            System.arraycopy(page.data, pageOffset, target, targetPosition, chunkLength);
+            position += chunkLength;
+            targetPosition += chunkLength;
+            remaining -= chunkLength;
+        }
+    }
+
+    @Override
+    public void saveToStream(OutputStream outputStream) throws IOException {
+        data.saveToStream(outputStream);
+    }
+
+    @Override
+    public InputStream getDataInputStream() {
+        return data.getDataInputStream();
+    }
+
+    /**
+     * Drops cached pages and disposes source data.
+     */
+    @Override
+    public void dispose() {
+        invalidate();
+        data.dispose();
+    }
+
+    /**
+     * Drops all cached pages and refreshes data size.
+     */
+    public synchronized void invalidate() {
+        pages.clear();
+        lastPage = null;
+        lastMissedPage = -1;
+        dataSize = data.getDataSize();
+    }
+
+    /**
+     * Drops cached pages overlapping given range and refreshes data size.
+     *
+     * @param startPosition start position
+     * @param length length of the range
+     */
+    public synchronized void invalidate(long startPosition, long length) {
+        if (length <= 0) {
+            return;
+        }
+
+        long startPage = startPosition / pageSize;
+        long endPage = length > Long.MAX_VALUE - startPosition ? Long.MAX_VALUE : (startPosition + length - 1) / pageSize;
+        Iterator<Map.Entry<Long, Page>> iterator = pages.entrySet().iterator();
+        while (iterator.hasNext()) {
+            long pageIndex = iterator.next().getKey();
+            if (pageIndex >= startPage && pageIndex <= endPage) {
+                iterator.remove();
+            }
+        }
+        lastPage = null;
+        lastMissedPage = -1;
+        dataSize = data.getDataSize();
+    }
+
+    @Override
+    public void dataChanged() {
+        invalidate();
+    }
+
+    @Override
+    public void dataChanged(long startPosition, long length, DataChangeType changeType) {
+        if (changeType == DataChangeType.MODIFY) {
+            invalidate(startPosition, length);
+        } else {
+            // Following data are shifted
+            invalidate(startPosition, Long.MAX_VALUE);
+        }
+    }
+
+    private Page getPage(long pageIndex) {
+        Page page = lastPage;
+        if (page != null && page.index == pageIndex) {
+            return page;
+        }
+
+        page = pages.get(pageIndex);
+        if (page == null) {
+            loadPages(pageIndex);
+            page = CodeAreaUtils.requireNonNull(pages.get(pageIndex));
+        }
+        lastPage = page;
+        return page;
+    }
+
+    private void loadPages(long pageIndex) {
+        long lastDataPage = (dataSize - 1) / pageSize;
+        long firstPage = pageIndex;
+        long endPage = pageIndex;
+        if (readAheadPages > 0 && lastMissedPage >= 0) {
+            if (pageIndex == lastMissedPage + 1) {
+                endPage = Math.min(pageIndex + readAheadPages, lastDataPage);
+            } else if (pageIndex == lastMissedPage - 1) {
+                firstPage = Math.max(pageIndex - readAheadPages, 0);
+            }
+        }
+        // Skip already cached pages at the edges of the range
+        while (firstPage < pageIndex && pages.containsKey(firstPage)) {
+            firstPage++;
+        }
+        while (endPage > pageIndex && pages.containsKey(endPage)) {
+            endPage--;
+        }
+        // Loaded range has to fit into cache
+        if (endPage - firstPage >= pagesCount) {
+            if (firstPage < pageIndex) {
+                firstPage = Math.max(firstPage, pageIndex - pagesCount + 1);
+            } else {
+                endPage = Math.min(endPage, pageIndex + pagesCount - 1);
+            }
+        }
+        lastMissedPage = firstPage < pageIndex ? firstPage : endPage;
+
+        long startPosition = firstPage * pageSize;
+        int length = (int) (Math.min(dataSize, (endPage + 1) * pageSize) - startPosition);
+        byte[] buffer;
+        if (firstPage == endPage) {
+            buffer = null;
+        } else {
+            if (readAheadBuffer.length < length) {
+                readAheadBuffer = new byte[length];
+            }
+            data.copyToArray(startPosition, readAheadBuffer, 0, length);
+            buffer = readAheadBuffer;
+        }
+
+        for (long index = firstPage; index <= endPage; index++) {
+            Page page = pages.get(index);
+            if (page == null) {
+                page = obtainPage(firstPage, endPage);
+            }
+            page.index = index;
+            page.position = index * pageSize;
+            page.length = (int) Math.min(pageSize, dataSize - page.position);
+            if (buffer == null) {
+                data.copyToArray(page.position, page.data, 0, page.length);
+            } else {
+                System.arraycopy(buffer, (int) (page.position - startPosition), page.data, 0, page.length);
+            }
+            pages.put(index, page);
+        }
+    }
+
+    /**
+     * Returns new page or evicts least recently used page outside of the
+     * range being loaded.
+     *
+     * @param firstPage first page of loaded range
+     * @param endPage last page of loaded range
+     * @return page
+     */
+    private Page obtainPage(long firstPage, long endPage) {
+        if (pages.size() < pagesCount) {
+            return new Page(pageSize);
+        }
+
+        Iterator<Page> iterator = pages.values().iterator();
+        while (true) {
+            Page page = iterator.next();
+            if (page.index < firstPage || page.index > endPage) {
+                iterator.remove();
+                if (page == lastPage) {
+                    lastPage = null;
+                }
+                return page;
+            }
+        }
+    }
+
+    private void checkRange(long startFrom, long length) {
+        if (startFrom < 0 || length < 0 || startFrom > dataSize - length) {
+            throw new IndexOutOfBoundsException("Range " + startFrom + "+" + length + " out of bounds for size " + dataSize);
+        }
+    }
+
+    private static final class Page {
+
+        private final byte[] data;
+        private long index;
+        private long position;
+        private int length;
+
+        public Page(int pageSize) {
+            data = new byte[pageSize];
+        }
+    }
+}
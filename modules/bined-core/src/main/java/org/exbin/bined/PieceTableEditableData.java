@@ -0,0 +1,803 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Editable binary data stored as piece table.
+ * <p>
+ * Data are represented by sequence of pieces referencing either unmodified
+ * source data, append only buffer of added bytes or repeated fill value, so
+ * that cost of insertion and removal depends on number of pieces instead of
+ * data size. Copies share referenced data and only copy pieces.
+ * <p>
+ * Source data are expected not to change and are not disposed together with
+ * this data, as copies may still reference them. Data can be read from
+ * multiple threads concurrently as long as they are not modified meanwhile,
+ * modifications are not thread safe.
+ */
+@NullMarked
+public class PieceTableEditableData implements EditableBinaryData {
+
+    private static final int BLOCK_SIZE_BITS = 16;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SIZE_BITS;
+    private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+    /**
+     * Minimum length of filled range stored as single fill piece instead of
+     * bytes in add buffer.
+     */
+    private static final int FILL_PIECE_THRESHOLD = BLOCK_SIZE;
+
+    @Nullable
+    private final BinaryData sourceData;
+    private final List<Piece> pieces;
+    @Nullable
+    private AddBuffer addBuffer;
+    private long dataSize;
+    /**
+     * Index of the last accessed piece used as hint for sequential access.
+     * <p>
+     * Shared by concurrent readers, so it is always read into local variable
+     * and validated before use.
+     */
+    private int lastPieceIndex = 0;
+
+    public PieceTableEditableData() {
+        sourceData = null;
+        pieces = new ArrayList<>();
+    }
+
+    /**
+     * Creates data referencing given source data.
+     *
+     * @param sourceData source data
+     */
+    public PieceTableEditableData(BinaryData sourceData) {
+        this.sourceData = CodeAreaUtils.requireNonNull(sourceData);
+        pieces = new ArrayList<>();
+        dataSize = sourceData.getDataSize();
+        if (dataSize > 0) {
+            pieces.add(new Piece(new SourcePieceData(sourceData), 0, dataSize, 0));
+        }
+    }
+
+    private PieceTableEditableData(@Nullable BinaryData sourceData, List<Piece> pieces, long dataSize) {
+        this.sourceData = sourceData;
+        this.pieces = pieces;
+        this.dataSize = dataSize;
+    }
+
+    /**
+     * Returns source data.
+     *
+     * @return source data or null if created without source
+     */
+    @Nullable
+    public BinaryData getSourceData() {
+        return sourceData;
+    }
+
+    /**
+     * Returns number of pieces data consist of.
+     *
+     * @return pieces count
+     */
+    public int getPiecesCount() {
+        return pieces.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return dataSize == 0;
+    }
+
+    @Override
+    public long getDataSize() {
+        return dataSize;
+    }
+
+    @Override
+    public byte getByte(long position) {
+        checkRange(position, 1);
+        Piece piece = pieces.get(findPiece(position));
+        return piece.data.getByte(piece.offset + position - piece.position);
+    }
+
+    @Override
+    public void setByte(long position, byte value) {
+        checkRange(position, 1);
+        int index = findPiece(position);
+        Piece piece = pieces.get(index);
+        long offset = piece.offset + position - piece.position;
+        AddBuffer buffer = getAddBuffer();
+        if (piece.data == buffer && buffer.isWritable(offset)) {
+            buffer.set(offset, value);
+            return;
+        }
+
+        long addedOffset = buffer.append(value);
+        replacePieces(position, 1, buffer, addedOffset, 1);
+    }
+
+    @Override
+    public BinaryData copy() {
+        return copy(0, dataSize);
+    }
+
+    /**
+     * Returns data referencing pieces of given range.
+     * <p>
+     * Referenced bytes of add buffer are no longer modified in place.
+     *
+     * @param startFrom start position
+     * @param length length of the range
+     * @return copy of the data
+     */
+    @Override
+    public BinaryData copy(long startFrom, long length) {
+        checkRange(startFrom, length);
+        return new PieceTableEditableData(sourceData, slicePieces(startFrom, length), length);
+    }
+
+    @Override
+    public void copyToArray(long startFrom, byte[] target, int offset, int length) {
+        checkRange(startFrom, length);
+        if (length == 0) {
+            return;
+        }
+
+        int index = findPiece(startFrom);
+        long position = startFrom;
+        int targetPosition = offset;
+        int remaining = length;
+        while (remaining > 0) {
+            Piece piece = pieces.get(index);
+            long pieceOffset = position - piece.position;
+            int chunkLength = (int) Math.min(remaining, piece.length - pieceOffset);
+            piece.data.copyToArray(piece.offset + pieceOffset, target, targetPosition, chunkLength);
+            position += chunkLength;
+            targetPosition += chunkLength;
+            remaining -= chunkLength;
+            index++;
+        }
+        lastPieceIndex = index - 1;
+    }
+
+    @Override
+    public void saveToStream(OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[BLOCK_SIZE];
+        for (Piece piece : pieces) {
+            long position = 0;
+            while (position < piece.length) {
+                int chunkLength = (int) Math.min(BLOCK_SIZE, piece.length - position);
+                piece.data.copyToArray(piece.offset + position, buffer, 0, chunkLength);
+                outputStream.write(buffer, 0, chunkLength);
+                position += chunkLength;
+            }
+        }
+    }
+
+    @Override
+    public InputStream getDataInputStream() {
+        return new PieceTableInputStream();
+    }
+
+    /**
+     * Returns output stream appending written data at the end of the data.
+     *
+     * @return output stream
+     */
+    @Override
+    public OutputStream getDataOutputStream() {
+        return new PieceTableOutputStream();
+    }
+
+    @Override
+    public void setDataSize(long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Data size cannot be negative");
+        }
+
+        if (size > dataSize) {
+            insert(dataSize, size - dataSize);
+        } else if (size < dataSize) {
+            remove(size, dataSize - size);
+        }
+    }
+
+    @Override
+    public void insertUninitialized(long startFrom, long length) {
+        insert(startFrom, length);
+    }
+
+    @Override
+    public void insert(long startFrom, long length) {
+        checkPosition(startFrom);
+        insertFill(startFrom, length, (byte) 0);
+    }
+
+    @Override
+    public void insert(long startFrom, byte[] insertedData) {
+        insert(startFrom, insertedData, 0, insertedData.length);
+    }
+
+    @Override
+    public void insert(long startFrom, byte[] insertedData, int insertedDataOffset, int insertedDataLength) {
+        checkPosition(startFrom);
+        if (insertedDataLength == 0) {
+            return;
+        }
+
+        AddBuffer buffer = getAddBuffer();
+        long addedOffset = buffer.append(insertedData, insertedDataOffset, insertedDataLength);
+        insertPiece(startFrom, buffer, addedOffset, insertedDataLength);
+    }
+
+    @Override
+    public void insert(long startFrom, BinaryData insertedData) {
+        insert(startFrom, insertedData, 0, insertedData.getDataSize());
+    }
+
+    /**
+     * Inserts data.
+     * <p>
+     * Pieces of other piece table data are referenced without copying bytes.
+     *
+     * @param startFrom insertion position
+     * @param insertedData inserted data
+     * @param insertedDataOffset offset in inserted data
+     * @param insertedDataLength length of inserted data
+     */
+    @Override
+    public void insert(long startFrom, BinaryData insertedData, long insertedDataOffset, long insertedDataLength) {
+        checkPosition(startFrom);
+        if (insertedDataLength == 0) {
+            return;
+        }
+
+        if (insertedData instanceof PieceTableEditableData) {
+            List<Piece> insertedPieces = ((PieceTableEditableData) insertedData).slicePieces(insertedDataOffset, insertedDataLength);
+            int index = splitAt(startFrom);
+            long position = startFrom;
+            for (Piece piece : insertedPieces) {
+                piece.position = position;
+                position += piece.length;
+            }
+            pieces.addAll(index, insertedPieces);
+            dataSize += insertedDataLength;
+            shiftPositions(index + insertedPieces.size(), insertedDataLength);
+            mergePieces(index + insertedPieces.size());
+            mergePieces(index);
+            return;
+        }
+
+        AddBuffer buffer = getAddBuffer();
+        long addedOffset = buffer.append(insertedData, insertedDataOffset, insertedDataLength);
+        insertPiece(startFrom, buffer, addedOffset, insertedDataLength);
+    }
+
+    @Override
+    public long insert(long startFrom, InputStream inputStream, long maximumDataSize) throws IOException {
+        checkPosition(startFrom);
+        byte[] buffer = new byte[BLOCK_SIZE];
+        long position = startFrom;
+        long remaining = maximumDataSize;
+        while (remaining != 0) {
+            int readLength = remaining < 0 ? BLOCK_SIZE : (int) Math.min(BLOCK_SIZE, remaining);
+            int length = inputStream.read(buffer, 0, readLength);
+            if (length < 0) {
+                break;
+            }
+
+            insert(position, buffer, 0, length);
+            position += length;
+            if (remaining > 0) {
+                remaining -= length;
+            }
+        }
+        return position - startFrom;
+    }
+
+    @Override
+    public void replace(long targetPosition, BinaryData replacingData) {
+        replace(targetPosition, replacingData, 0, replacingData.getDataSize());
+    }
+
+    @Override
+    public void replace(long targetPosition, BinaryData replacingData, long startFrom, long length) {
+        checkRange(targetPosition, length);
+        if (replacingData instanceof PieceTableEditableData) {
+            // Pieces have to be sliced before current data are modified
+            PieceTableEditableData replacingCopy = (PieceTableEditableData) replacingData.copy(startFrom, length);
+            remove(targetPosition, length);
+            insert(targetPosition, replacingCopy);
+            return;
+        }
+
+        AddBuffer buffer = getAddBuffer();
+        long addedOffset = buffer.append(replacingData, startFrom, length);
+        replacePieces(targetPosition, length, buffer, addedOffset, length);
+    }
+
+    @Override
+    public void replace(long targetPosition, byte[] replacingData) {
+        replace(targetPosition, replacingData, 0, replacingData.length);
+    }
+
+    @Override
+    public void replace(long targetPosition, byte[] replacingData, int replacingDataOffset, int length) {
+        checkRange(targetPosition, length);
+        AddBuffer buffer = getAddBuffer();
+        long addedOffset = buffer.append(replacingData, replacingDataOffset, length);
+        replacePieces(targetPosition, length, buffer, addedOffset, length);
+    }
+
+    @Override
+    public void fillData(long startFrom, long length) {
+        fillData(startFrom, length, (byte) 0);
+    }
+
+    @Override
+    public void fillData(long startFrom, long length, byte fill) {
+        checkRange(startFrom, length);
+        remove(startFrom, length);
+        insertFill(startFrom, length, fill);
+    }
+
+    @Override
+    public void remove(long startFrom, long length) {
+        checkRange(startFrom, length);
+        if (length == 0) {
+            return;
+        }
+
+        int startIndex = splitAt(startFrom);
+        int endIndex = splitAt(startFrom + length);
+        pieces.subList(startIndex, endIndex).clear();
+        dataSize -= length;
+        shiftPositions(startIndex, -length);
+        mergePieces(startIndex);
+    }
+
+    @Override
+    public void clear() {
+        pieces.clear();
+        dataSize = 0;
+        lastPieceIndex = 0;
+        addBuffer = null;
+    }
+
+    @Override
+    public void loadFromStream(InputStream inputStream) throws IOException {
+        clear();
+        insert(0, inputStream, -1);
+    }
+
+    /**
+     * Releases pieces and add buffer, source data are kept intact.
+     */
+    @Override
+    public void dispose() {
+        clear();
+    }
+
+    private AddBuffer getAddBuffer() {
+        if (addBuffer == null) {
+            addBuffer = new AddBuffer();
+        }
+        return addBuffer;
+    }
+
+    private void insertFill(long startFrom, long length, byte fill) {
+        if (length == 0) {
+            return;
+        }
+
+        if (length >= FILL_PIECE_THRESHOLD) {
+            insertPiece(startFrom, new FillPieceData(fill), 0, length);
+        } else {
+            AddBuffer buffer = getAddBuffer();
+            long addedOffset = buffer.appendFill((int) length, fill);
+            insertPiece(startFrom, buffer, addedOffset, length);
+        }
+    }
+
+    private void insertPiece(long position, PieceData data, long offset, long length) {
+        int index = splitAt(position);
+        dataSize += length;
+        if (index > 0) {
+            Piece previous = pieces.get(index - 1);
+            if (previous.data == data && previous.offset + previous.length == offset) {
+                // Continuous with previous piece, typically sequential typing
+                previous.length += length;
+                shiftPositions(index, length);
+                lastPieceIndex = index - 1;
+                return;
+            }
+        }
+
+        pieces.add(index, new Piece(data, offset, length, position));
+        shiftPositions(index + 1, length);
+        mergePieces(index + 1);
+        lastPieceIndex = Math.min(index, pieces.size() - 1);
+    }
+
+    private void replacePieces(long position, long replacedLength, PieceData data, long offset, long length) {
+        remove(position, replacedLength);
+        insertPiece(position, data, offset, length);
+    }
+
+    /**
+     * Returns copies of pieces covering given range.
+     *
+     * @param startFrom start position
+     * @param length length of the range
+     * @return pieces with positions relative to the start of the range
+     */
+    private List<Piece> slicePieces(long startFrom, long length) {
+        checkRange(startFrom, length);
+        List<Piece> result = new ArrayList<>();
+        if (length == 0) {
+            return result;
+        }
+
+        if (addBuffer != null) {
+            // Referenced bytes cannot be modified in place anymore
+            addBuffer.seal();
+        }
+        int index = findPiece(startFrom);
+        long position = startFrom;
+        long endPosition = startFrom + length;
+        while (position < endPosition) {
+            Piece piece = pieces.get(index);
+            long pieceOffset = position - piece.position;
+            long pieceLength = Math.min(endPosition - position, piece.length - pieceOffset);
+            result.add(new Piece(piece.data, piece.offset + pieceOffset, pieceLength, position - startFrom));
+            position += pieceLength;
+            index++;
+        }
+        return result;
+    }
+
+    /**
+     * Splits pieces at given position.
+     *
+     * @param position position
+     * @return index of the first piece starting at given position
+     */
+    private int splitAt(long position) {
+        if (position == dataSize) {
+            return pieces.size();
+        }
+
+        int index = findPiece(position);
+        Piece piece = pieces.get(index);
+        if (piece.position == position) {
+            return index;
+        }
+
+        long splitLength = position - piece.position;
+        pieces.add(index + 1, new Piece(piece.data, piece.offset + splitLength, piece.length - splitLength, position));
+        piece.length = splitLength;
+        return index + 1;
+    }
+
+    /**
+     * Merges piece at given index with previous piece if they are
+     * continuous.
+     *
+     * @param index piece index
+     */
+    private void mergePieces(int index) {
+        if (index <= 0 || index >= pieces.size()) {
+            return;
+        }
+
+        Piece previous = pieces.get(index - 1);
+        Piece piece = pieces.get(index);
+        if (previous.data == piece.data && previous.offset + previous.length == piece.offset) {
+            previous.length += piece.length;
+            pieces.remove(index);
+        }
+    }
+
+    private void shiftPositions(int fromIndex, long shift) {
+        for (int index = fromIndex; index < pieces.size(); index++) {
+            pieces.get(index).position += shift;
+        }
+    }
+
+    /**
+     * Returns index of piece containing given position.
+     *
+     * @param position position in data
+     * @return piece index
+     */
+    private int findPiece(long position) {
+        int hintIndex = lastPieceIndex;
+        if (hintIndex < pieces.size()) {
+            Piece piece = pieces.get(hintIndex);
+            if (position >= piece.position && position < piece.position + piece.length) {
+                return hintIndex;
+            }
+            int nextIndex = hintIndex + 1;
+            if (nextIndex < pieces.size() && position >= piece.position + piece.length) {
+                Piece nextPiece = pieces.get(nextIndex);
+                if (position < nextPiece.position + nextPiece.length) {
+                    lastPieceIndex = nextIndex;
+                    return nextIndex;
+                }
+            }
+        }
+
+        int low = 0;
+        int high = pieces.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (pieces.get(middle).position <= position) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        lastPieceIndex = low;
+        return low;
+    }
+
+    private void checkPosition(long position) {
+        if (position < 0 || position > dataSize) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds for size " + dataSize);
+        }
+    }
+
+    private void checkRange(long startFrom, long length) {
+        if (startFrom < 0 || length < 0 || startFrom > dataSize - length) {
+            throw new IndexOutOfBoundsException("Range " + startFrom + "+" + length + " out of bounds for size " + dataSize);
+        }
+    }
+
+    /**
+     * Data referenced by pieces.
+     */
+    private interface PieceData {
+
+        byte getByte(long position);
+
+        void copyToArray(long startFrom, byte[] target, int offset, int length);
+    }
+
+    private static final class Piece {
+
+        private final PieceData data;
+        private final long offset;
+        private long length;
+        private long position;
+
+        private Piece(PieceData data, long offset, long length, long position) {
+            this.data = data;
+            this.offset = offset;
+            this.length = length;
+            this.position = position;
+        }
+    }
+
+    private static final class SourcePieceData implements PieceData {
+
+        private final BinaryData data;
+
+        private SourcePieceData(BinaryData data) {
+            this.data = data;
+        }
+
+        @Override
+        public byte getByte(long position) {
+            return data.getByte(position);
+        }
+
+        @Override
+        public void copyToArray(long startFrom, byte[] target, int offset, int length) {
+            data.copyToArray(startFrom, target, offset, length);
+        }
+    }
+
+    private static final class FillPieceData implements PieceData {
+
+        private final byte fill;
+
+        private FillPieceData(byte fill) {
+            this.fill = fill;
+        }
+
+        @Override
+        public byte getByte(long position) {
+            return fill;
+        }
+
+        @Override
+        public void copyToArray(long startFrom, byte[] target, int offset, int length) {
+            Arrays.fill(target, offset, offset + length, fill);
+        }
+    }
+
+    /**
+     * Append only buffer of added bytes stored in fixed size blocks.
+     * <p>
+     * Bytes not referenced by any copy yet can be modified in place.
+     */
+    private static final class AddBuffer implements PieceData {
+
+        private byte[][] blocks = new byte[4][];
+        private long length = 0;
+        private long sealedLength = 0;
+
+        private boolean isWritable(long position) {
+            return position >= sealedLength;
+        }
+
+        private void seal() {
+            sealedLength = length;
+        }
+
+        private void set(long position, byte value) {
+            blocks[(int) (position >>> BLOCK_SIZE_BITS)][(int) (position & BLOCK_MASK)] = value;
+        }
+
+        private long append(byte value) {
+            ensureCapacity(length + 1);
+            set(length, value);
+            return length++;
+        }
+
+        private long append(byte[] data, int offset, int dataLength) {
+            ensureCapacity(length + dataLength);
+            long startPosition = length;
+            int position = 0;
+            while (position < dataLength) {
+                int blockOffset = (int) (length & BLOCK_MASK);
+                int chunkLength = Math.min(dataLength - position, BLOCK_SIZE - blockOffset);
+                System.arraycopy(data, offset + position, blocks[(int) (length >>> BLOCK_SIZE_BITS)], blockOffset, chunkLength);
+                position += chunkLength;
+                length += chunkLength;
+            }
+            return startPosition;
+        }
+
+        private long append(BinaryData data, long offset, long dataLength) {
+            ensureCapacity(length + dataLength);
+            long startPosition = length;
+            long position = 0;
+            while (position < dataLength) {
+                int blockOffset = (int) (length & BLOCK_MASK);
+                int chunkLength = (int) Math.min(dataLength - position, BLOCK_SIZE - blockOffset);
+                data.copyToArray(offset + position, blocks[(int) (length >>> BLOCK_SIZE_BITS)], blockOffset, chunkLength);
+                position += chunkLength;
+                length += chunkLength;
+            }
+            return startPosition;
+        }
+
+        private long appendFill(int dataLength, byte fill) {
+            ensureCapacity(length + dataLength);
+            long startPosition = length;
+            int position = 0;
+            while (position < dataLength) {
+                int blockOffset = (int) (length & BLOCK_MASK);
+                int chunkLength = Math.min(dataLength - position, BLOCK_SIZE - blockOffset);
+                Arrays.fill(blocks[(int) (length >>> BLOCK_SIZE_BITS)], blockOffset, blockOffset + chunkLength, fill);
+                position += chunkLength;
+                length += chunkLength;
+            }
+            return startPosition;
+        }
+
+        private void ensureCapacity(long capacity) {
+            int requiredBlocks = (int) ((capacity + BLOCK_MASK) >>> BLOCK_SIZE_BITS);
+            if (requiredBlocks > blocks.length) {
+                blocks = Arrays.copyOf(blocks, Math.max(requiredBlocks, blocks.length * 2));
+            }
+            for (int index = (int) (length >>> BLOCK_SIZE_BITS); index < requiredBlocks; index++) {
+                if (blocks[index] == null) {
+                    blocks[index] = new byte[BLOCK_SIZE];
+                }
+            }
+        }
+
+        @Override
+        public byte getByte(long position) {
+            return blocks[(int) (position >>> BLOCK_SIZE_BITS)][(int) (position & BLOCK_MASK)];
+        }
+
+        @Override
+        public void copyToArray(long startFrom, byte[] target, int offset, int copyLength) {
+            long position = startFrom;
+            int targetPosition = offset;
+            int remaining = copyLength;
+            while (remaining > 0) {
+                int blockOffset = (int) (position & BLOCK_MASK);
+                int chunkLength = Math.min(remaining, BLOCK_SIZE - blockOffset);
+                System.arraycopy(blocks[(int) (position >>> BLOCK_SIZE_BITS)], blockOffset, target, targetPosition, chunkLength);
+                position += chunkLength;
+                targetPosition += chunkLength;
+                remaining -= chunkLength;
+            }
+        }
+    }
+
+    private class PieceTableInputStream extends InputStream {
+
+        private long position = 0;
+
+        @Override
+        public int read() {
+            if (position >= dataSize) {
+                return -1;
+            }
+            return getByte(position++) & 0xff;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (position >= dataSize) {
+                return -1;
+            }
+            int readLength = (int) Math.min(length, dataSize - position);
+            copyToArray(position, target, offset, readLength);
+            position += readLength;
+            return readLength;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, dataSize - position));
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, dataSize - position);
+        }
+    }
+
+    private class PieceTableOutputStream extends OutputStream {
+
+        private final byte[] singleByte = new byte[1];
+
+        @Override
+        public void write(int value) {
+            singleByte[0] = (byte) value;
+            insert(dataSize, singleByte, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] data, int offset, int length) {
+            insert(dataSize, data, offset, length);
+        }
+    }
+}
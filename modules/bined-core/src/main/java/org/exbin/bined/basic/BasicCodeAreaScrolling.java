@@ -16,10 +16,12 @@
 package org.exbin.bined.basic;
 
 import java.util.Optional;
+import java.util.function.UnaryOperator;
 import org.jspecify.annotations.Nullable;
 import org.jspecify.annotations.NullMarked;
 import org.exbin.bined.CodeAreaUtils;
 import org.exbin.bined.DataProvider;
+import org.exbin.bined.ScrollBarOrientation;
 import org.exbin.bined.ScrollBarVisibility;
 import org.exbin.bined.capability.BasicScrollingCapable;
 
@@ -43,6 +45,8 @@ public class BasicCodeAreaScrolling {
     protected HorizontalScrollUnit horizontalScrollUnit = HorizontalScrollUnit.PIXEL;
     protected ScrollBarVisibility horizontalScrollBarVisibility = ScrollBarVisibility.IF_NEEDED;
     protected final CodeAreaScrollPosition maximumScrollPosition = new CodeAreaScrollPosition();
+    protected double verticalWheelRemainder = 0;
+    protected double horizontalWheelRemainder = 0;
 
     protected int maximumScrollBarHeight = Integer.MAX_VALUE;
 
@@ -374,6 +378,88 @@ public class BasicCodeAreaScrolling {
         setScrollPosition(computeScrolling(scrollPosition, direction, rowsPerPage, rowsPerDocument));
     }
 
+    /**
+     * Computes scrolling position for wheel movement of given magnitude.
+     * <p>
+     * Vertical movement is pixel precise when pixel scroll unit is used,
+     * otherwise it is applied in whole rows / characters. Fractional part of
+     * the movement not applied yet is kept and added to the next wheel
+     * movement of the same orientation.
+     *
+     * @param startPosition start position
+     * @param orientation scrolling orientation
+     * @param scrollUnits number of rows / characters to scroll (positive or
+     * negative)
+     * @param rowsPerPage rows per page
+     * @param rowsPerDocument rows per document
+     * @param rowHeight row height
+     * @return target position
+     */
+    public CodeAreaScrollPosition computeWheelScrolling(CodeAreaScrollPosition startPosition, ScrollBarOrientation orientation, double scrollUnits, int rowsPerPage, long rowsPerDocument, int rowHeight) {
+        CodeAreaScrollPosition targetPosition = new CodeAreaScrollPosition();
+        targetPosition.setScrollPosition(startPosition);
+        if (scrollUnits == 0) {
+            return targetPosition;
+        }
+
+        switch (orientation) {
+            case HORIZONTAL: {
+                double units = scrollUnits + horizontalWheelRemainder;
+                long steps = (long) units;
+                horizontalWheelRemainder = units - steps;
+                ScrollingDirection direction = steps > 0 ? ScrollingDirection.LEFT : ScrollingDirection.RIGHT;
+                targetPosition = computeStepScrolling(targetPosition, Math.abs(steps), position -> computeScrolling(position, direction, rowsPerPage, rowsPerDocument));
+                break;
+            }
+            case VERTICAL: {
+                if (verticalScrollUnit == VerticalScrollUnit.PIXEL && rowHeight > 0) {
+                    double units = scrollUnits * rowHeight + verticalWheelRemainder;
+                    long shift = (long) units;
+                    verticalWheelRemainder = units - shift;
+                    long maximumPixel = maximumScrollPosition.getRowPosition() * rowHeight + maximumScrollPosition.getRowOffset();
+                    long targetPixel = Math.max(0, Math.min(maximumPixel, startPosition.getRowPosition() * rowHeight + startPosition.getRowOffset() + shift));
+                    targetPosition.setRowPosition(targetPixel / rowHeight);
+                    targetPosition.setRowOffset((int) (targetPixel % rowHeight));
+                } else {
+                    double units = scrollUnits + verticalWheelRemainder;
+                    long steps = (long) units;
+                    verticalWheelRemainder = units - steps;
+                    long rowPosition = steps > 0
+                            ? Math.min(startPosition.getRowPosition() + steps, Math.max(startPosition.getRowPosition(), maximumScrollPosition.getRowPosition()))
+                            : Math.max(0, startPosition.getRowPosition() + steps);
+                    targetPosition.setRowPosition(rowPosition);
+                    targetPosition.setRowOffset(0);
+                }
+                break;
+            }
+            default:
+                throw CodeAreaUtils.getInvalidTypeException(orientation);
+        }
+
+        return targetPosition;
+    }
+
+    /**
+     * Performs given scrolling step repeatedly until required number of steps
+     * is reached or step no longer changes the position.
+     *
+     * @param startPosition start position
+     * @param steps number of steps
+     * @param stepOperation single step scrolling
+     * @return target position
+     */
+    public static CodeAreaScrollPosition computeStepScrolling(CodeAreaScrollPosition startPosition, long steps, UnaryOperator<CodeAreaScrollPosition> stepOperation) {
+        CodeAreaScrollPosition targetPosition = startPosition;
+        for (long step = steps; step > 0; step--) {
+            CodeAreaScrollPosition nextPosition = stepOperation.apply(targetPosition);
+            if (nextPosition.equals(targetPosition)) {
+                break;
+            }
+            targetPosition = nextPosition;
+        }
+        return targetPosition;
+    }
+
     public PositionScrollVisibility computePositionScrollVisibility(long rowPosition, int charPosition, int bytesPerRow, int rowsPerPage, int charsPerPage, int charOffset, int rowOffset, int characterWidth, int rowHeight) {
         boolean partial = false;
 
@@ -17,7 +17,9 @@ package org.exbin.bined.capability;
 
 import org.jspecify.annotations.NullMarked;
 import org.exbin.bined.CodeAreaCaretPosition;
+import org.exbin.bined.ScrollBarOrientation;
 import org.exbin.bined.ScrollingListener;
+import org.exbin.bined.basic.BasicCodeAreaScrolling;
 import org.exbin.bined.basic.CodeAreaScrollPosition;
 import org.exbin.bined.basic.ScrollingDirection;
 
@@ -64,6 +66,22 @@ public interface ScrollingCapable {
      */
     CodeAreaScrollPosition computeScrolling(CodeAreaScrollPosition startPosition, ScrollingDirection direction);
 
+    /**
+     * Computes scrolling position for wheel movement of given magnitude.
+     *
+     * @param startPosition start position
+     * @param orientation scrolling orientation
+     * @param scrollUnits number of rows / characters to scroll (positive or
+     * negative)
+     * @return scrolling position
+     */
+    default CodeAreaScrollPosition computeWheelScrolling(CodeAreaScrollPosition startPosition, ScrollBarOrientation orientation, double scrollUnits) {
+        ScrollingDirection direction = orientation == ScrollBarOrientation.HORIZONTAL
+                ? (scrollUnits > 0 ? ScrollingDirection.LEFT : ScrollingDirection.RIGHT)
+                : (scrollUnits > 0 ? ScrollingDirection.DOWN : ScrollingDirection.UP);
+        return BasicCodeAreaScrolling.computeStepScrolling(startPosition, Math.round(Math.abs(scrollUnits)), position -> computeScrolling(position, direction));
+    }
+
     /**
      * Reveals scrolling area for current cursor position.
      */
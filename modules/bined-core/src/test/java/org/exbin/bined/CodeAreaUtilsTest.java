@@ -15,6 +15,7 @@
  */
 package org.exbin.bined;
 
+import java.util.Arrays;
 import org.jspecify.annotations.NullMarked;
 import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.auxiliary.binary_data.array.ByteArrayEditableData;
@@ -60,6 +61,35 @@ public class CodeAreaUtilsTest {
         checkResultData(expectedData, resultData);
     }
 
+    @Test
+    public void testBytesToCharsCode() {
+        byte[] sourceData = new byte[256];
+        for (int i = 0; i < 256; i++) {
+            sourceData[i] = (byte) i;
+        }
+
+        for (CodeType codeType : CodeType.values()) {
+            for (CodeCharactersCase charCase : CodeCharactersCase.values()) {
+                int digits = codeType.getMaxDigitsForByte();
+                for (int spacing = 0; spacing < 3; spacing++) {
+                    char[] expectedChars = new char[256 * (digits + spacing) + 2];
+                    char[] resultChars = new char[expectedChars.length];
+                    Arrays.fill(expectedChars, '_');
+                    Arrays.fill(resultChars, '_');
+                    for (int i = 0; i < 256; i++) {
+                        int position = 1 + i * (digits + spacing);
+                        CodeAreaUtils.byteToCharsCode(sourceData[i], codeType, expectedChars, position, charCase);
+                        if (i < 255) {
+                            Arrays.fill(expectedChars, position + digits, position + digits + spacing, ' ');
+                        }
+                    }
+                    CodeAreaUtils.bytesToCharsCode(sourceData, 0, 256, codeType, charCase, resultChars, 1, spacing);
+                    Assert.assertArrayEquals(expectedChars, resultChars);
+                }
+            }
+        }
+    }
+
     public static void checkResultData(byte[] expectedData, BinaryData data) {
         Assert.assertEquals(expectedData.length, data.getDataSize());
         byte[] resultData = new byte[expectedData.length];
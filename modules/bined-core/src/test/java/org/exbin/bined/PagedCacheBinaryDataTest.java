@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined;
+
+import java.util.Random;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayEditableData;
+import org.jspecify.annotations.NullMarked;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test PagedCacheBinaryData class.
+ */
+@NullMarked
+public class PagedCacheBinaryDataTest {
+
+    private static final int DATA_SIZE = 10000;
+
+    @Test
+    public void testReadData() {
+        byte[] sourceData = createSourceData();
+        CountingBinaryData source = new CountingBinaryData(sourceData);
+        PagedCacheBinaryData cachedData = new PagedCacheBinaryData(source, 256, 8);
+
+        Assert.assertEquals(DATA_SIZE, cachedData.getDataSize());
+        for (int i = 0; i < DATA_SIZE; i++) {
+            Assert.assertEquals(sourceData[i], cachedData.getByte(i));
+        }
+        for (int i = DATA_SIZE - 1; i >= 0; i--) {
+            Assert.assertEquals(sourceData[i], cachedData.getByte(i));
+        }
+
+        byte[] target = new byte[1000];
+        cachedData.copyToArray(DATA_SIZE - 1000, target, 0, 1000);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(sourceData[DATA_SIZE - 1000 + i], target[i]);
+        }
+    }
+
+    @Test
+    public void testCachedReads() {
+        CountingBinaryData source = new CountingBinaryData(createSourceData());
+        PagedCacheBinaryData cachedData = new PagedCacheBinaryData(source, 256, 8);
+        cachedData.setReadAheadPages(0);
+
+        for (int i = 0; i < 1024; i++) {
+            cachedData.getByte(i);
+        }
+        Assert.assertEquals(4, source.readCount);
+
+        byte[] target = new byte[16];
+        for (int i = 0; i < 1024; i += 16) {
+            cachedData.copyToArray(i, target, 0, 16);
+        }
+        Assert.assertEquals(4, source.readCount);
+    }
+
+    @Test
+    public void testReadAhead() {
+        CountingBinaryData source = new CountingBinaryData(createSourceData());
+        PagedCacheBinaryData cachedData = new PagedCacheBinaryData(source, 256, 8);
+        cachedData.setReadAheadPages(4);
+
+        for (int i = 0; i < 256 * 7; i++) {
+            cachedData.getByte(i);
+        }
+        // First two pages are missed separately, then next four are read ahead
+        Assert.assertEquals(3, source.readCount);
+
+        cachedData.invalidate();
+        source.readCount = 0;
+        for (int i = DATA_SIZE - 1; i >= DATA_SIZE - 256 * 6; i--) {
+            cachedData.getByte(i);
+        }
+        Assert.assertEquals(3, source.readCount);
+    }
+
+    @Test
+    public void testReadAheadSmallCache() {
+        byte[] sourceData = createSourceData();
+        PagedCacheBinaryData cachedData = new PagedCacheBinaryData(new CountingBinaryData(sourceData), 256, 2);
+        Assert.assertEquals(1, cachedData.getReadAheadPages());
+
+        for (int i = 0; i < DATA_SIZE; i++) {
+            Assert.assertEquals(sourceData[i], cachedData.getByte(i));
+        }
+        for (int i = DATA_SIZE - 1; i >= 0; i--) {
+            Assert.assertEquals(sourceData[i], cachedData.getByte(i));
+        }
+    }
+
+    @Test
+    public void testInvalidate() {
+        byte[] sourceData = createSourceData();
+        ByteArrayEditableData source = new ByteArrayEditableData(sourceData.clone());
+        PagedCacheBinaryData cachedData = new PagedCacheBinaryData(source, 256, 8);
+        Assert.assertEquals(sourceData[300], cachedData.getByte(300));
+
+        source.setByte(300, (byte) (sourceData[300] + 1));
+        Assert.assertEquals(sourceData[300], cachedData.getByte(300));
+        cachedData.dataChanged(300, 1, DataChangeType.MODIFY);
+        Assert.assertEquals((byte) (sourceData[300] + 1), cachedData.getByte(300));
+
+        source.remove(0, 100);
+        cachedData.dataChanged(0, 100, DataChangeType.REMOVE);
+        Assert.assertEquals(DATA_SIZE - 100, cachedData.getDataSize());
+        Assert.assertEquals(sourceData[1100], cachedData.getByte(1000));
+    }
+
+    private static byte[] createSourceData() {
+        byte[] sourceData = new byte[DATA_SIZE];
+        new Random(1).nextBytes(sourceData);
+        return sourceData;
+    }
+
+    @NullMarked
+    private static class CountingBinaryData extends ByteArrayData {
+
+        private int readCount = 0;
+
+        public CountingBinaryData(byte[] data) {
+            super(data);
+        }
+
+        @Override
+        public byte getByte(long position) {
+            readCount++;
+            return super.getByte(position);
+        }
+
+        @Override
+        public void copyToArray(long startFrom, byte[] target, int offset, int length) {
+            readCount++;
+            super.copyToArray(startFrom, target, offset, length);
+        }
+    }
+}
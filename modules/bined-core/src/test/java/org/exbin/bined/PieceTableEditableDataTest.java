@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayEditableData;
+import org.jspecify.annotations.NullMarked;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test PieceTableEditableData class.
+ */
+@NullMarked
+public class PieceTableEditableDataTest {
+
+    private static final int DATA_SIZE = 10000;
+
+    @Test
+    public void testRandomEdits() {
+        Random random = new Random(1);
+        byte[] sourceData = createSourceData();
+        PieceTableEditableData data = new PieceTableEditableData(new ByteArrayData(sourceData));
+        EditableBinaryData expectedData = new ByteArrayEditableData(sourceData.clone());
+
+        for (int i = 0; i < 500; i++) {
+            long dataSize = expectedData.getDataSize();
+            long position = (long) (random.nextDouble() * (dataSize + 1));
+            long length = (long) (random.nextDouble() * Math.min(1000, dataSize - position + 1));
+            switch (random.nextInt(6)) {
+                case 0: {
+                    byte[] insertedData = new byte[random.nextInt(100)];
+                    random.nextBytes(insertedData);
+                    data.insert(position, insertedData);
+                    expectedData.insert(position, insertedData);
+                    break;
+                }
+                case 1: {
+                    data.remove(position, length);
+                    expectedData.remove(position, length);
+                    break;
+                }
+                case 2: {
+                    if (dataSize > 0) {
+                        long bytePosition = random.nextInt((int) dataSize);
+                        byte value = (byte) random.nextInt();
+                        data.setByte(bytePosition, value);
+                        expectedData.setByte(bytePosition, value);
+                    }
+                    break;
+                }
+                case 3: {
+                    BinaryData copy = data.copy(position, length);
+                    long targetPosition = (long) (random.nextDouble() * (dataSize + 1));
+                    data.insert(targetPosition, copy);
+                    expectedData.insert(targetPosition, expectedData.copy(position, length));
+                    break;
+                }
+                case 4: {
+                    byte fill = (byte) random.nextInt();
+                    data.fillData(position, length, fill);
+                    expectedData.fillData(position, length, fill);
+                    break;
+                }
+                case 5: {
+                    byte[] replacingData = new byte[(int) length];
+                    random.nextBytes(replacingData);
+                    data.replace(position, replacingData);
+                    expectedData.replace(position, replacingData);
+                    break;
+                }
+            }
+        }
+
+        checkData(expectedData, data);
+    }
+
+    @Test
+    public void testCopyIsolation() {
+        byte[] sourceData = createSourceData();
+        PieceTableEditableData data = new PieceTableEditableData(new ByteArrayData(sourceData));
+        data.insert(100, new byte[]{1, 2, 3});
+        BinaryData copy = data.copy(0, 200);
+        byte[] expectedCopy = new byte[200];
+        copy.copyToArray(0, expectedCopy, 0, 200);
+
+        data.setByte(101, (byte) 10);
+        data.remove(0, 50);
+        data.fillData(0, 200, (byte) 5);
+        Assert.assertEquals(200, copy.getDataSize());
+        for (int i = 0; i < 200; i++) {
+            Assert.assertEquals(expectedCopy[i], copy.getByte(i));
+        }
+    }
+
+    @Test
+    public void testTypingPieces() {
+        PieceTableEditableData data = new PieceTableEditableData(new ByteArrayData(createSourceData()));
+        for (int i = 0; i < 1000; i++) {
+            data.insertUninitialized(500 + i, 1);
+            data.setByte(500 + i, (byte) i);
+        }
+        Assert.assertEquals(3, data.getPiecesCount());
+        Assert.assertEquals(DATA_SIZE + 1000, data.getDataSize());
+
+        // Removal of typed data restores single piece
+        BinaryData typedData = data.copy(500, 1000);
+        data.remove(500, 1000);
+        Assert.assertEquals(1, data.getPiecesCount());
+        data.insert(500, typedData);
+        Assert.assertEquals(3, data.getPiecesCount());
+        Assert.assertEquals((byte) 999, data.getByte(1499));
+    }
+
+    @Test
+    public void testHugeSource() {
+        HugeBinaryData sourceData = new HugeBinaryData();
+        PieceTableEditableData data = new PieceTableEditableData(sourceData);
+        long position = sourceData.getDataSize() / 2;
+        data.insert(position, new byte[]{1, 2});
+        data.remove(10, 1000);
+
+        Assert.assertEquals(sourceData.getDataSize() + 2 - 1000, data.getDataSize());
+        Assert.assertEquals(1, data.getByte(position - 1000));
+        Assert.assertEquals(sourceData.getByte(position), data.getByte(position - 1000 + 2));
+        Assert.assertEquals(sourceData.getByte(1010), data.getByte(10));
+    }
+
+    @Test
+    public void testConcurrentReads() throws InterruptedException {
+        byte[] sourceData = createSourceData();
+        PieceTableEditableData data = new PieceTableEditableData(new ByteArrayData(sourceData));
+        EditableBinaryData expectedData = new ByteArrayEditableData(sourceData.clone());
+        for (int position = 0; position < DATA_SIZE; position += 20) {
+            data.setByte(position, (byte) position);
+            expectedData.setByte(position, (byte) position);
+        }
+        byte[] expectedBytes = new byte[DATA_SIZE];
+        expectedData.copyToArray(0, expectedBytes, 0, DATA_SIZE);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            Random random = new Random(i);
+            threads[i] = new Thread(() -> {
+                try {
+                    byte[] buffer = new byte[100];
+                    for (int j = 0; j < 20000; j++) {
+                        int position = random.nextInt(DATA_SIZE - buffer.length);
+                        Assert.assertEquals(expectedBytes[position], data.getByte(position));
+                        data.copyToArray(position, buffer, 0, buffer.length);
+                        for (int k = 0; k < buffer.length; k++) {
+                            Assert.assertEquals(expectedBytes[position + k], buffer[k]);
+                        }
+                    }
+                } catch (Throwable ex) {
+                    failure.compareAndSet(null, ex);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assert.assertNull(failure.get());
+    }
+
+    private static void checkData(EditableBinaryData expectedData, PieceTableEditableData data) {
+        Assert.assertEquals(expectedData.getDataSize(), data.getDataSize());
+        byte[] expectedBytes = new byte[(int) expectedData.getDataSize()];
+        expectedData.copyToArray(0, expectedBytes, 0, expectedBytes.length);
+        byte[] bytes = new byte[(int) data.getDataSize()];
+        data.copyToArray(0, bytes, 0, bytes.length);
+        Assert.assertArrayEquals(expectedBytes, bytes);
+        for (int i = 0; i < bytes.length; i++) {
+            Assert.assertEquals(expectedBytes[i], data.getByte(i));
+        }
+    }
+
+    private static byte[] createSourceData() {
+        byte[] sourceData = new byte[DATA_SIZE];
+        new Random(1).nextBytes(sourceData);
+        return sourceData;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.basic;
+
+import org.exbin.bined.ScrollBarOrientation;
+import org.jspecify.annotations.NullMarked;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test BasicCodeAreaScrolling class.
+ */
+@NullMarked
+public class BasicCodeAreaScrollingTest {
+
+    private static final int ROW_HEIGHT = 20;
+    private static final int ROWS_PER_PAGE = 10;
+    private static final long ROWS_PER_DOCUMENT = 100;
+
+    @Test
+    public void testWheelScrollingRows() {
+        BasicCodeAreaScrolling scrolling = createScrolling(VerticalScrollUnit.ROW);
+
+        CodeAreaScrollPosition position = scrolling.computeWheelScrolling(new CodeAreaScrollPosition(), ScrollBarOrientation.VERTICAL, 3, ROWS_PER_PAGE, ROWS_PER_DOCUMENT, ROW_HEIGHT);
+        Assert.assertEquals(new CodeAreaScrollPosition(3, 0, 0, 0), position);
+
+        position = scrolling.computeWheelScrolling(position, ScrollBarOrientation.VERTICAL, 0.2, ROWS_PER_PAGE, ROWS_PER_DOCUMENT, ROW_HEIGHT);
+        Assert.assertEquals(new CodeAreaScrollPosition(3, 0, 0, 0), position);
+
+        // Fractional movements are accumulated
+        position = scrolling.computeWheelScrolling(position, ScrollBarOrientation.VERTICAL, 0.5, ROWS_PER_PAGE, ROWS_PER_DOCUMENT, ROW_HEIGHT);
+        Assert.assertEquals(new CodeAreaScrollPosition(3, 0, 0, 0), position);
+        position = scrolling.computeWheelScrolling(position, ScrollBarOrientation.VERTICAL, 0.5, ROWS_PER_PAGE, ROWS_PER_DOCUMENT, ROW_HEIGHT);
+        Assert.assertEquals(new CodeAreaScrollPosition(4, 0, 0, 0), position);
+
+        position = scrolling.computeWheelScrolling(position, ScrollBarOrientation.VERTICAL, 1000, ROWS_PER_PAGE, ROWS_PER_DOCUMENT, ROW_HEIGHT);
+        Assert.assertEquals(new CodeAreaScrollPosition(90, 0, 0, 0), position);
+
+        position = scrolling.computeWheelScrolling(position, ScrollBarOrientation.VERTICAL, -1000, ROWS_PER_PAGE, ROWS_PER_DOCUMENT, ROW_HEIGHT);
+        Assert.assertEquals(new CodeAreaScrollPosition(), position);
+    }
+
+    @Test
+    public void testWheelScrollingPixels() {
+        BasicCodeAreaScrolling scrolling = createScrolling(VerticalScrollUnit.PIXEL);
+
+        CodeAreaScrollPosition position = scrolling.computeWheelScrolling(new CodeAreaScrollPosition(), ScrollBarOrientation.VERTICAL, 1.5, ROWS_PER_PAGE, ROWS_PER_DOCUMENT, ROW_HEIGHT);
+        Assert.assertEquals(new CodeAreaScrollPosition(1, 10, 0, 0), position);
+
+        position = scrolling.computeWheelScrolling(position, ScrollBarOrientation.VERTICAL, -0.25, ROWS_PER_PAGE, ROWS_PER_DOCUMENT, ROW_HEIGHT);
+        Assert.assertEquals(new CodeAreaScrollPosition(1, 5, 0, 0), position);
+
+        position = scrolling.computeWheelScrolling(position, ScrollBarOrientation.VERTICAL, 1000, ROWS_PER_PAGE, ROWS_PER_DOCUMENT, ROW_HEIGHT);
+        Assert.assertEquals(new CodeAreaScrollPosition(90, 7, 0, 0), position);
+
+        position = scrolling.computeWheelScrolling(position, ScrollBarOrientation.VERTICAL, -1000, ROWS_PER_PAGE, ROWS_PER_DOCUMENT, ROW_HEIGHT);
+        Assert.assertEquals(new CodeAreaScrollPosition(), position);
+    }
+
+    private static BasicCodeAreaScrolling createScrolling(VerticalScrollUnit verticalScrollUnit) {
+        BasicCodeAreaScrolling scrolling = new BasicCodeAreaScrolling();
+        scrolling.verticalScrollUnit = verticalScrollUnit;
+        scrolling.updateMaximumScrollPosition(ROWS_PER_DOCUMENT, ROWS_PER_PAGE, 0, 0, 0, 7);
+        return scrolling;
+    }
+}
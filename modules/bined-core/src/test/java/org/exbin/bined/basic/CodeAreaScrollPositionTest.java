@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.basic;
+
+import org.jspecify.annotations.NullMarked;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test CodeAreaScrollPosition class.
+ */
+@NullMarked
+public class CodeAreaScrollPositionTest {
+
+    @Test
+    public void testEquals() {
+        CodeAreaScrollPosition position = new CodeAreaScrollPosition(10, 2, 5, 3);
+        CodeAreaScrollPosition copy = new CodeAreaScrollPosition();
+        copy.setScrollPosition(position);
+        Assert.assertEquals(position, copy);
+        Assert.assertEquals(position.hashCode(), copy.hashCode());
+
+        copy.setCharOffset(4);
+        Assert.assertNotEquals(position, copy);
+        copy.setCharOffset(3);
+        copy.setRowPosition(11);
+        Assert.assertNotEquals(position, copy);
+    }
+}
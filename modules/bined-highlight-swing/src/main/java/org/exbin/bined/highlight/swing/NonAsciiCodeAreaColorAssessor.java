@@ -27,6 +27,7 @@ import org.exbin.bined.highlight.swing.color.CodeAreaColorizationColorType;
 import org.exbin.bined.swing.CodeAreaPaintState;
 import org.exbin.bined.swing.basic.color.CodeAreaColorsProfile;
 import org.exbin.bined.swing.CodeAreaColorAssessor;
+import org.exbin.bined.swing.CodeAreaRowColors;
 
 /**
  * Support for highlighting of non-ascii characters.
@@ -47,10 +48,21 @@ public class NonAsciiCodeAreaColorAssessor implements CodeAreaColorAssessor {
     @Nullable
     protected Color textColor;
     protected boolean nonAsciiHighlightingEnabled = true;
+    private long colorStateStamp = 0;
 
     protected long dataSize;
     protected BinaryData contentData;
 
+    /**
+     * Derived colors are cached per text color to avoid allocation on each paint.
+     */
+    @Nullable
+    private Color derivedColorsSource;
+    @Nullable
+    private Color derivedControlCodesColor;
+    @Nullable
+    private Color derivedUpperCodesColor;
+
     public NonAsciiCodeAreaColorAssessor(@Nullable CodeAreaColorAssessor parentAssessor) {
         this.parentAssessor = parentAssessor;
     }
@@ -67,72 +79,98 @@ public class NonAsciiCodeAreaColorAssessor implements CodeAreaColorAssessor {
             textColor = Color.BLACK;
         }
 
+        if (!textColor.equals(derivedColorsSource)) {
+            derivedColorsSource = textColor;
+            derivedControlCodesColor = deriveControlCodesColor(textColor);
+            derivedUpperCodesColor = deriveUpperCodesColor(textColor);
+        }
+
         controlCodesColor = colorsProfile.getColor(CodeAreaColorizationColorType.CONTROL_CODES_COLOR);
         if (controlCodesColor == null) {
-            int controlCodesRed = textColor.getRed();
-            int controlCodesRedDiff = 0;
-            if (controlCodesRed > 32) {
-                if (controlCodesRed > 192) {
-                    controlCodesRedDiff = controlCodesRed - 192;
-                }
-                controlCodesRed = 255;
-            } else {
-                controlCodesRed += 224;
-            }
-
-            int controlCodesBlue = textColor.getBlue();
-            int controlCodesBlueDiff = 0;
-            if (controlCodesBlue > 32) {
-                if (controlCodesBlue > 192) {
-                    controlCodesBlueDiff = controlCodesBlue - 192;
-                }
-                controlCodesBlue = 255;
-            } else {
-                controlCodesBlue += 224;
-            }
-
-            controlCodesColor = new Color(
-                    controlCodesRed,
-                    downShift(textColor.getGreen(), controlCodesBlueDiff + controlCodesRedDiff),
-                    controlCodesBlue);
+            controlCodesColor = derivedControlCodesColor;
         }
         controlCodesBackground = colorsProfile.getColor(CodeAreaColorizationColorType.CONTROL_CODES_BACKGROUND);
 
         upperCodesColor = colorsProfile.getColor(CodeAreaColorizationColorType.UPPER_CODES_COLOR);
         if (upperCodesColor == null) {
-            int upperCodesGreen = textColor.getGreen();
-            int upperCodesGreenDiff = 0;
-            if (upperCodesGreen > 64) {
-                if (upperCodesGreen > 192) {
-                    upperCodesGreenDiff = upperCodesGreen - 192;
-                }
+            upperCodesColor = derivedUpperCodesColor;
+        }
+        upperCodesBackground = colorsProfile.getColor(CodeAreaColorizationColorType.UPPER_CODES_BACKGROUND);
 
-                upperCodesGreen = 255;
-            } else {
-                upperCodesGreen += 192;
+        if (parentAssessor != null) {
+            parentAssessor.startPaint(codeAreaPaintState);
+        }
+    }
+
+    /**
+     * Derives control codes color from text color.
+     *
+     * @param textColor text color
+     * @return control codes color
+     */
+    private static Color deriveControlCodesColor(Color textColor) {
+        int controlCodesRed = textColor.getRed();
+        int controlCodesRedDiff = 0;
+        if (controlCodesRed > 32) {
+            if (controlCodesRed > 192) {
+                controlCodesRedDiff = controlCodesRed - 192;
             }
+            controlCodesRed = 255;
+        } else {
+            controlCodesRed += 224;
+        }
 
-            int upperCodesBlue = textColor.getBlue();
-            int upperCodesBlueDiff = 0;
-            if (upperCodesBlue > 64) {
-                if (upperCodesBlue > 192) {
-                    upperCodesBlueDiff = upperCodesBlue - 192;
-                }
+        int controlCodesBlue = textColor.getBlue();
+        int controlCodesBlueDiff = 0;
+        if (controlCodesBlue > 32) {
+            if (controlCodesBlue > 192) {
+                controlCodesBlueDiff = controlCodesBlue - 192;
+            }
+            controlCodesBlue = 255;
+        } else {
+            controlCodesBlue += 224;
+        }
+
+        return new Color(
+                controlCodesRed,
+                downShift(textColor.getGreen(), controlCodesBlueDiff + controlCodesRedDiff),
+                controlCodesBlue);
+    }
 
-                upperCodesBlue = 255;
-            } else {
-                upperCodesBlue += 192;
+    /**
+     * Derives upper codes color from text color.
+     *
+     * @param textColor text color
+     * @return upper codes color
+     */
+    private static Color deriveUpperCodesColor(Color textColor) {
+        int upperCodesGreen = textColor.getGreen();
+        int upperCodesGreenDiff = 0;
+        if (upperCodesGreen > 64) {
+            if (upperCodesGreen > 192) {
+                upperCodesGreenDiff = upperCodesGreen - 192;
             }
 
-            upperCodesColor = new Color(
-                    downShift(textColor.getRed(), upperCodesGreenDiff + upperCodesBlueDiff),
-                    upperCodesGreen, upperCodesBlue);
+            upperCodesGreen = 255;
+        } else {
+            upperCodesGreen += 192;
         }
-        upperCodesBackground = colorsProfile.getColor(CodeAreaColorizationColorType.UPPER_CODES_BACKGROUND);
 
-        if (parentAssessor != null) {
-            parentAssessor.startPaint(codeAreaPaintState);
+        int upperCodesBlue = textColor.getBlue();
+        int upperCodesBlueDiff = 0;
+        if (upperCodesBlue > 64) {
+            if (upperCodesBlue > 192) {
+                upperCodesBlueDiff = upperCodesBlue - 192;
+            }
+
+            upperCodesBlue = 255;
+        } else {
+            upperCodesBlue += 192;
         }
+
+        return new Color(
+                downShift(textColor.getRed(), upperCodesGreenDiff + upperCodesBlueDiff),
+                upperCodesGreen, upperCodesBlue);
     }
 
     @Nullable
@@ -177,17 +215,76 @@ public class NonAsciiCodeAreaColorAssessor implements CodeAreaColorAssessor {
         return color;
     }
 
+    @Override
+    public void assessRowColors(long rowDataPosition, CodeAreaRowColors rowColors) {
+        if (parentAssessor != null) {
+            parentAssessor.assessRowColors(rowDataPosition, rowColors);
+        }
+
+        if (!nonAsciiHighlightingEnabled) {
+            return;
+        }
+
+        boolean backgroundUsed = upperCodesBackground != null || controlCodesBackground != null;
+        int positionsCount = rowColors.getPositionsCount();
+        int lastByteOnRow = -1;
+        byte value = 0;
+        for (int i = 0; i < positionsCount; i++) {
+            if (rowColors.getSection(i) != BasicCodeAreaSection.CODE_MATRIX) {
+                continue;
+            }
+
+            int byteOnRow = rowColors.getBytePosition(i);
+            long dataPosition = rowDataPosition + byteOnRow;
+            if (dataPosition >= dataSize) {
+                continue;
+            }
+
+            if (byteOnRow != lastByteOnRow) {
+                value = contentData.getByte(dataPosition);
+                lastByteOnRow = byteOnRow;
+            }
+            if (value >= 0x20) {
+                continue;
+            }
+
+            Color color = rowColors.getTextColor(i);
+            if (color == null || color.equals(textColor)) {
+                rowColors.setTextColor(i, value < 0 ? upperCodesColor : controlCodesColor);
+            }
+
+            if (backgroundUsed) {
+                color = rowColors.getBackgroundColor(i);
+                if (color == null || color.equals(textColor)) {
+                    if (upperCodesBackground != null && value < 0) {
+                        rowColors.setBackgroundColor(i, upperCodesBackground);
+                    } else if (controlCodesBackground != null) {
+                        rowColors.setBackgroundColor(i, controlCodesBackground);
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     public Optional<CodeAreaColorAssessor> getParentColorAssessor() {
         return Optional.ofNullable(parentAssessor);
     }
 
+    @Override
+    public long getColorStateStamp() {
+        return parentAssessor == null ? colorStateStamp : colorStateStamp + parentAssessor.getColorStateStamp();
+    }
+
     public boolean isNonAsciiHighlightingEnabled() {
         return nonAsciiHighlightingEnabled;
     }
 
     public void setNonAsciiHighlightingEnabled(boolean nonAsciiHighlightingEnabled) {
-        this.nonAsciiHighlightingEnabled = nonAsciiHighlightingEnabled;
+        if (this.nonAsciiHighlightingEnabled != nonAsciiHighlightingEnabled) {
+            this.nonAsciiHighlightingEnabled = nonAsciiHighlightingEnabled;
+            colorStateStamp++;
+        }
     }
 
     protected static int downShift(int color, int diff) {
@@ -16,8 +16,7 @@
 package org.exbin.bined.highlight.swing;
 
 import java.awt.Color;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.Optional;
 import org.jspecify.annotations.Nullable;
 import org.jspecify.annotations.NullMarked;
@@ -28,6 +27,7 @@ import org.exbin.bined.highlight.swing.color.CodeAreaNonprintablesColorType;
 import org.exbin.bined.swing.CodeAreaCharAssessor;
 import org.exbin.bined.swing.CodeAreaPaintState;
 import org.exbin.bined.swing.CodeAreaColorAssessor;
+import org.exbin.bined.swing.CodeAreaRowColors;
 import org.exbin.bined.swing.basic.color.CodeAreaColorsProfile;
 
 /**
@@ -39,15 +39,34 @@ public class NonprintablesCodeAreaAssessor implements CodeAreaColorAssessor, Cod
     protected final CodeAreaColorAssessor parentColorAssessor;
     protected final CodeAreaCharAssessor parentCharAssessor;
 
+    /**
+     * Replacement characters indexed by nonprintable character, zero for
+     * characters without replacement.
+     */
     @Nullable
-    protected Map<Character, Character> nonprintableCharactersMapping = null;
+    protected char[] nonprintableCharactersMapping = null;
     protected boolean showNonprintables = true;
+    private long stateStamp = 0;
 
     @Nullable
     protected Color nonprintablesColor;
     @Nullable
     protected Color nonprintablesBackground;
 
+    @Nullable
+    private Color derivedColorSource;
+    @Nullable
+    private Color derivedNonprintablesColor;
+
+    /**
+     * Parent preview characters of the current row, valid for positions with
+     * current stamp.
+     */
+    private long cachedRowDataPosition;
+    private char[] cachedRowCharacters = new char[0];
+    private int[] cachedRowStamps = new int[0];
+    private int cachedRowStamp = 1;
+
     public NonprintablesCodeAreaAssessor(@Nullable CodeAreaColorAssessor parentColorAssessor, @Nullable CodeAreaCharAssessor parentCharAssessor) {
         this.parentColorAssessor = parentColorAssessor;
         this.parentCharAssessor = parentCharAssessor;
@@ -58,7 +77,10 @@ public class NonprintablesCodeAreaAssessor implements CodeAreaColorAssessor, Cod
     }
 
     public void setShowNonprintables(boolean showNonprintables) {
-        this.showNonprintables = showNonprintables;
+        if (this.showNonprintables != showNonprintables) {
+            this.showNonprintables = showNonprintables;
+            stateStamp++;
+        }
     }
 
     @Override
@@ -66,13 +88,18 @@ public class NonprintablesCodeAreaAssessor implements CodeAreaColorAssessor, Cod
         if (nonprintableCharactersMapping == null) {
             buildNonprintableCharactersMapping();
         }
+        invalidateRowCache();
 
         CodeAreaColorsProfile colorsProfile = codeAreaPaintState.getColorsProfile();
         nonprintablesColor = colorsProfile.getColor(CodeAreaNonprintablesColorType.NONPRINTABLES_COLOR);
         if (nonprintablesColor == null) {
             Color textColor = colorsProfile.getColor(CodeAreaBasicColors.TEXT_COLOR);
             if (textColor != null) {
-                nonprintablesColor = new Color(textColor.getRed(), textColor.getGreen(), (textColor.getBlue() + 196) % 256);
+                if (!textColor.equals(derivedColorSource)) {
+                    derivedColorSource = textColor;
+                    derivedNonprintablesColor = new Color(textColor.getRed(), textColor.getGreen(), (textColor.getBlue() + 196) % 256);
+                }
+                nonprintablesColor = derivedNonprintablesColor;
             }
         }
         nonprintablesBackground = colorsProfile.getColor(CodeAreaNonprintablesColorType.NONPRINTABLES_BACKGROUND);
@@ -90,9 +117,7 @@ public class NonprintablesCodeAreaAssessor implements CodeAreaColorAssessor, Cod
     @Override
     public Color getPositionTextColor(long rowDataPosition, int offsetDataPosition, int columnPosition, CodeAreaSection section, boolean inSelection) {
         if (showNonprintables && section == BasicCodeAreaSection.TEXT_PREVIEW) {
-            // Cache results to speed up?
-            Character character = parentCharAssessor != null ? parentCharAssessor.getPreviewCharacter(rowDataPosition, offsetDataPosition, columnPosition, section) : null;
-            if (character != null && nonprintableCharactersMapping.containsKey(character)) {
+            if (parentCharAssessor != null && isNonprintable(getParentPreviewCharacter(rowDataPosition, offsetDataPosition, columnPosition, section))) {
                 return nonprintablesColor;
             }
         }
@@ -108,9 +133,7 @@ public class NonprintablesCodeAreaAssessor implements CodeAreaColorAssessor, Cod
     @Override
     public Color getPositionBackgroundColor(long rowDataPosition, int offsetDataPosition, int columnPosition, CodeAreaSection section, boolean inSelection) {
         if (nonprintablesBackground != null && showNonprintables && section == BasicCodeAreaSection.TEXT_PREVIEW) {
-            // Cache results to speed up?
-            Character character = parentCharAssessor != null ? parentCharAssessor.getPreviewCharacter(rowDataPosition, offsetDataPosition, columnPosition, section) : null;
-            if (character != null && nonprintableCharactersMapping.containsKey(character)) {
+            if (parentCharAssessor != null && isNonprintable(getParentPreviewCharacter(rowDataPosition, offsetDataPosition, columnPosition, section))) {
                 return nonprintablesBackground;
             }
         }
@@ -122,26 +145,51 @@ public class NonprintablesCodeAreaAssessor implements CodeAreaColorAssessor, Cod
         return null;
     }
 
+    @Override
+    public void assessRowColors(long rowDataPosition, CodeAreaRowColors rowColors) {
+        if (parentColorAssessor != null) {
+            parentColorAssessor.assessRowColors(rowDataPosition, rowColors);
+        }
+
+        if (!showNonprintables || parentCharAssessor == null) {
+            return;
+        }
+
+        int positionsCount = rowColors.getPositionsCount();
+        for (int i = 0; i < positionsCount; i++) {
+            CodeAreaSection section = rowColors.getSection(i);
+            if (section != BasicCodeAreaSection.TEXT_PREVIEW) {
+                continue;
+            }
+
+            char character = getParentPreviewCharacter(rowDataPosition, rowColors.getBytePosition(i), rowColors.getCharPosition(i), section);
+            if (isNonprintable(character)) {
+                rowColors.setTextColor(i, nonprintablesColor);
+                if (nonprintablesBackground != null) {
+                    rowColors.setBackgroundColor(i, nonprintablesBackground);
+                }
+            }
+        }
+    }
+
     @Override
     public char getPreviewCharacter(long rowDataPosition, int offsetDataPosition, int columnPosition, CodeAreaSection section) {
-        Character character = parentCharAssessor != null ? parentCharAssessor.getPreviewCharacter(rowDataPosition, offsetDataPosition, columnPosition, section) : null;
-        if (showNonprintables && section == BasicCodeAreaSection.TEXT_PREVIEW && character != null) {
-            Character altChar = nonprintableCharactersMapping.get(character);
-            return altChar == null ? character : altChar;
+        if (parentCharAssessor == null) {
+            return ' ';
         }
 
-        return character == null ? ' ' : character;
+        char character = getParentPreviewCharacter(rowDataPosition, offsetDataPosition, columnPosition, section);
+        return showNonprintables && section == BasicCodeAreaSection.TEXT_PREVIEW ? mapNonprintable(character) : character;
     }
 
     @Override
     public char getPreviewCursorCharacter(long rowDataPosition, int offsetDataPosition, int columnPosition, byte[] cursorData, int cursorDataLength, CodeAreaSection section) {
-        Character character = parentCharAssessor != null ? parentCharAssessor.getPreviewCursorCharacter(rowDataPosition, offsetDataPosition, columnPosition, cursorData, cursorDataLength, section) : null;
-        if (showNonprintables && section == BasicCodeAreaSection.TEXT_PREVIEW && character != null) {
-            Character altChar = nonprintableCharactersMapping.get(character);
-            return altChar == null ? character : altChar;
+        if (parentCharAssessor == null) {
+            return ' ';
         }
 
-        return character == null ? ' ' : character;
+        char character = parentCharAssessor.getPreviewCursorCharacter(rowDataPosition, offsetDataPosition, columnPosition, cursorData, cursorDataLength, section);
+        return showNonprintables && section == BasicCodeAreaSection.TEXT_PREVIEW ? mapNonprintable(character) : character;
     }
 
     @Override
@@ -149,26 +197,116 @@ public class NonprintablesCodeAreaAssessor implements CodeAreaColorAssessor, Cod
         return Optional.ofNullable(parentCharAssessor);
     }
 
+    @Override
+    public long getStateStamp() {
+        return parentCharAssessor == null ? stateStamp : stateStamp + parentCharAssessor.getStateStamp();
+    }
+
     @Override
     public Optional<CodeAreaColorAssessor> getParentColorAssessor() {
         return Optional.ofNullable(parentColorAssessor);
     }
 
+    @Override
+    public long getColorStateStamp() {
+        return parentColorAssessor == null ? stateStamp : stateStamp + parentColorAssessor.getColorStateStamp();
+    }
+
+    /**
+     * Returns true if character has nonprintable replacement.
+     *
+     * @param character character
+     * @return true if nonprintable
+     */
+    protected boolean isNonprintable(char character) {
+        return character < nonprintableCharactersMapping.length && nonprintableCharactersMapping[character] != 0;
+    }
+
+    /**
+     * Returns replacement for nonprintable character or character itself.
+     *
+     * @param character character
+     * @return replacement character
+     */
+    protected char mapNonprintable(char character) {
+        if (character >= nonprintableCharactersMapping.length) {
+            return character;
+        }
+
+        char altChar = nonprintableCharactersMapping[character];
+        return altChar == 0 ? character : altChar;
+    }
+
+    /**
+     * Sets replacement for nonprintable character.
+     *
+     * @param character nonprintable character
+     * @param replacement replacement character
+     */
+    protected void putNonprintableMapping(char character, char replacement) {
+        if (nonprintableCharactersMapping == null) {
+            nonprintableCharactersMapping = new char[character + 1];
+        } else if (character >= nonprintableCharactersMapping.length) {
+            nonprintableCharactersMapping = Arrays.copyOf(nonprintableCharactersMapping, character + 1);
+        }
+        nonprintableCharactersMapping[character] = replacement;
+    }
+
     protected void buildNonprintableCharactersMapping() {
-        nonprintableCharactersMapping = new HashMap<>();
+        nonprintableCharactersMapping = new char[128];
         // Unicode control characters, might not be supported by font
         for (int i = 0; i < 32; i++) {
-            nonprintableCharactersMapping.put((char) i, Character.toChars(9216 + i)[0]);
+            putNonprintableMapping((char) i, Character.toChars(9216 + i)[0]);
         }
         // Space -> Middle Dot
-        nonprintableCharactersMapping.put(' ', Character.toChars(183)[0]);
+        putNonprintableMapping(' ', Character.toChars(183)[0]);
         // Tab -> Right-Pointing Double Angle Quotation Mark
-        nonprintableCharactersMapping.put('\t', Character.toChars(187)[0]);
+        putNonprintableMapping('\t', Character.toChars(187)[0]);
         // Line Feed -> Currency Sign
-        nonprintableCharactersMapping.put('\r', Character.toChars(164)[0]);
+        putNonprintableMapping('\r', Character.toChars(164)[0]);
         // Carriage Return -> Pilcrow Sign
-        nonprintableCharactersMapping.put('\n', Character.toChars(182)[0]);
+        putNonprintableMapping('\n', Character.toChars(182)[0]);
         // Ideographic Space -> Degree Sign
-        nonprintableCharactersMapping.put(Character.toChars(127)[0], Character.toChars(176)[0]);
+        putNonprintableMapping(Character.toChars(127)[0], Character.toChars(176)[0]);
+    }
+
+    /**
+     * Returns preview character of parent assessor memoized for the current
+     * row so that text color, background color and character share single
+     * decoding.
+     *
+     * @param rowDataPosition row data position
+     * @param offsetDataPosition data offset position on the current row
+     * @param columnPosition column position on the current row
+     * @param section current section
+     * @return preview character
+     */
+    private char getParentPreviewCharacter(long rowDataPosition, int offsetDataPosition, int columnPosition, CodeAreaSection section) {
+        if (section != BasicCodeAreaSection.TEXT_PREVIEW || offsetDataPosition < 0) {
+            return parentCharAssessor.getPreviewCharacter(rowDataPosition, offsetDataPosition, columnPosition, section);
+        }
+
+        if (rowDataPosition != cachedRowDataPosition) {
+            invalidateRowCache();
+            cachedRowDataPosition = rowDataPosition;
+        }
+        if (offsetDataPosition >= cachedRowCharacters.length) {
+            int length = Math.max(offsetDataPosition + 1, cachedRowCharacters.length * 2);
+            cachedRowCharacters = Arrays.copyOf(cachedRowCharacters, length);
+            cachedRowStamps = Arrays.copyOf(cachedRowStamps, length);
+        }
+        if (cachedRowStamps[offsetDataPosition] != cachedRowStamp) {
+            cachedRowCharacters[offsetDataPosition] = parentCharAssessor.getPreviewCharacter(rowDataPosition, offsetDataPosition, columnPosition, section);
+            cachedRowStamps[offsetDataPosition] = cachedRowStamp;
+        }
+        return cachedRowCharacters[offsetDataPosition];
+    }
+
+    private void invalidateRowCache() {
+        cachedRowStamp++;
+        if (cachedRowStamp == 0) {
+            Arrays.fill(cachedRowStamps, 0);
+            cachedRowStamp = 1;
+        }
     }
 }
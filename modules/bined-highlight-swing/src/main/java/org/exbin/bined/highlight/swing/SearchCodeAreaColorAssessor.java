@@ -16,7 +16,7 @@
 package org.exbin.bined.highlight.swing;
 
 import java.awt.Color;
-import java.util.ArrayList;
+import java.util.AbstractList;
 import java.util.List;
 import java.util.Optional;
 import org.jspecify.annotations.Nullable;
@@ -26,6 +26,7 @@ import org.exbin.bined.CodeAreaSection;
 import org.exbin.bined.highlight.swing.color.CodeAreaMatchColorType;
 import org.exbin.bined.swing.CodeAreaPaintState;
 import org.exbin.bined.swing.CodeAreaColorAssessor;
+import org.exbin.bined.swing.CodeAreaRowColors;
 import org.exbin.bined.swing.basic.color.CodeAreaColorsProfile;
 
 /**
@@ -34,15 +35,32 @@ import org.exbin.bined.swing.basic.color.CodeAreaColorsProfile;
 @NullMarked
 public class SearchCodeAreaColorAssessor implements CodeAreaColorAssessor {
 
+    protected static final Color DEFAULT_MATCH_BACKGROUND = new Color(180, 255, 180);
+    protected static final Color DEFAULT_CURRENT_MATCH_BACKGROUND = new Color(255, 210, 180);
+
     protected final CodeAreaColorAssessor parentAssessor;
 
     /**
-     * Matches must be ordered by position.
+     * Matches ordered by position.
      */
-    protected final List<SearchMatch> matches = new ArrayList<>();
+    protected final SearchMatchIndex matches = new SearchMatchIndex();
     private int currentMatchIndex = -1;
-    private int matchIndex = 0;
-    private long matchPosition = -1;
+    private int matchesGeneration = 0;
+    private long colorStateStamp = 0;
+    private final List<SearchMatch> matchesView = new AbstractList<SearchMatch>() {
+        @Override
+        public SearchMatch get(int index) {
+            return matches.getMatch(index);
+        }
+
+        @Override
+        public int size() {
+            return matches.size();
+        }
+    };
+    @Nullable
+    private SearchMatch currentMatch;
+    private long currentMatchStamp = -1;
 
     @Nullable
     protected Color foundMatchesColor;
@@ -60,20 +78,19 @@ public class SearchCodeAreaColorAssessor implements CodeAreaColorAssessor {
 
     @Override
     public void startPaint(CodeAreaPaintState codeAreaPaintState) {
-        matchIndex = 0;
         charactersPerRow = codeAreaPaintState.getCharactersPerRow();
         CodeAreaColorsProfile colorsProfile = codeAreaPaintState.getColorsProfile();
 
         foundMatchesColor = colorsProfile.getColor(CodeAreaMatchColorType.MATCH_COLOR);
         foundMatchesBackground = colorsProfile.getColor(CodeAreaMatchColorType.MATCH_BACKGROUND);
         if (foundMatchesBackground == null) {
-            foundMatchesBackground = new Color(180, 255, 180);
+            foundMatchesBackground = DEFAULT_MATCH_BACKGROUND;
         }
 
         currentMatchColor = colorsProfile.getColor(CodeAreaMatchColorType.CURRENT_MATCH_COLOR);
         currentMatchBackground = colorsProfile.getColor(CodeAreaMatchColorType.CURRENT_MATCH_BACKGROUND);
         if (currentMatchBackground == null) {
-            currentMatchBackground = new Color(255, 210, 180);
+            currentMatchBackground = DEFAULT_CURRENT_MATCH_BACKGROUND;
         }
 
         if (parentAssessor != null) {
@@ -85,42 +102,12 @@ public class SearchCodeAreaColorAssessor implements CodeAreaColorAssessor {
     @Override
     public Color getPositionTextColor(long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section, boolean inSelection) {
         if ((currentMatchColor != null || foundMatchesColor != null) && !matches.isEmpty() && charOnRow < charactersPerRow - 1) {
-            long dataPosition = rowDataPosition + byteOnRow;
-            if (currentMatchIndex >= 0) {
-                SearchMatch currentMatch = matches.get(currentMatchIndex);
-                if (currentMatchColor != null && dataPosition >= currentMatch.position && dataPosition < currentMatch.position + currentMatch.length
-                        && (section == BasicCodeAreaSection.TEXT_PREVIEW || charOnRow != ((currentMatch.position + currentMatch.length) - rowDataPosition) * charactersPerRow - 1)) {
-                    return currentMatchColor;
-                }
-            }
-
-            if (matchPosition < rowDataPosition) {
-                matchIndex = 0;
+            if (currentMatchColor != null && currentMatchIndex >= 0 && isInMatch(currentMatchIndex, rowDataPosition, byteOnRow, charOnRow, section)) {
+                return currentMatchColor;
             }
-            int lineMatchIndex = matchIndex;
-            while (lineMatchIndex < matches.size()) {
-                SearchMatch match = matches.get(lineMatchIndex);
-                if (dataPosition >= match.position && dataPosition < match.position + match.length
-                        && (section == BasicCodeAreaSection.TEXT_PREVIEW || charOnRow != ((match.position + match.length) - rowDataPosition) * charactersPerRow - 1)) {
-                    if (byteOnRow == 0) {
-                        matchIndex = lineMatchIndex;
-                        matchPosition = match.position;
-                    }
-                    if (foundMatchesColor != null) {
-                        return foundMatchesColor;
-                    }
-                    break;
-                }
-
-                if (match.position > dataPosition) {
-                    break;
-                }
 
-                if (byteOnRow == 0) {
-                    matchIndex = lineMatchIndex;
-                    matchPosition = match.position;
-                }
-                lineMatchIndex++;
+            if (foundMatchesColor != null && isInMatches(rowDataPosition, byteOnRow, charOnRow, section)) {
+                return foundMatchesColor;
             }
         }
 
@@ -135,47 +122,95 @@ public class SearchCodeAreaColorAssessor implements CodeAreaColorAssessor {
     @Override
     public Color getPositionBackgroundColor(long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section, boolean inSelection) {
         if (!matches.isEmpty() && charOnRow < charactersPerRow) {
-            long dataPosition = rowDataPosition + byteOnRow;
-            if (currentMatchIndex >= 0) {
-                SearchMatch currentMatch = matches.get(currentMatchIndex);
-                if (dataPosition >= currentMatch.position && dataPosition < currentMatch.position + currentMatch.length
-                        && (section == BasicCodeAreaSection.TEXT_PREVIEW || charOnRow != ((currentMatch.position + currentMatch.length) - rowDataPosition) * charactersPerRow - 1)) {
-                    return currentMatchBackground;
-                }
+            if (currentMatchIndex >= 0 && isInMatch(currentMatchIndex, rowDataPosition, byteOnRow, charOnRow, section)) {
+                return currentMatchBackground;
             }
 
-            if (matchPosition < rowDataPosition) {
-                matchIndex = 0;
+            if (isInMatches(rowDataPosition, byteOnRow, charOnRow, section)) {
+                return foundMatchesBackground;
             }
-            int lineMatchIndex = matchIndex;
-            while (lineMatchIndex < matches.size()) {
-                SearchMatch match = matches.get(lineMatchIndex);
-                if (dataPosition >= match.position && dataPosition < match.position + match.length
-                        && (section == BasicCodeAreaSection.TEXT_PREVIEW || charOnRow != ((match.position + match.length) - rowDataPosition) * charactersPerRow - 1)) {
-                    if (byteOnRow == 0) {
-                        matchIndex = lineMatchIndex;
-                        matchPosition = match.position;
-                    }
-                    return foundMatchesBackground;
-                }
+        }
 
-                if (match.position > dataPosition) {
-                    break;
-                }
+        if (parentAssessor != null) {
+            return parentAssessor.getPositionBackgroundColor(rowDataPosition, byteOnRow, charOnRow, section, inSelection);
+        }
 
-                if (byteOnRow == 0) {
-                    matchIndex = lineMatchIndex;
-                    matchPosition = match.position;
+        return null;
+    }
+
+    @Override
+    public void assessRowColors(long rowDataPosition, CodeAreaRowColors rowColors) {
+        if (parentAssessor != null) {
+            parentAssessor.assessRowColors(rowDataPosition, rowColors);
+        }
+
+        if (matches.isEmpty()) {
+            return;
+        }
+
+        int positionsCount = rowColors.getPositionsCount();
+        for (int i = 0; i < positionsCount; i++) {
+            int byteOnRow = rowColors.getBytePosition(i);
+            int charOnRow = rowColors.getCharPosition(i);
+            CodeAreaSection section = rowColors.getSection(i);
+            if (charOnRow >= charactersPerRow) {
+                continue;
+            }
+
+            boolean inCurrentMatch = currentMatchIndex >= 0 && isInMatch(currentMatchIndex, rowDataPosition, byteOnRow, charOnRow, section);
+            boolean inMatches = isInMatches(rowDataPosition, byteOnRow, charOnRow, section);
+            if (inCurrentMatch) {
+                rowColors.setBackgroundColor(i, currentMatchBackground);
+            } else if (inMatches) {
+                rowColors.setBackgroundColor(i, foundMatchesBackground);
+            }
+
+            if (charOnRow < charactersPerRow - 1) {
+                if (inCurrentMatch && currentMatchColor != null) {
+                    rowColors.setTextColor(i, currentMatchColor);
+                } else if (inMatches && foundMatchesColor != null) {
+                    rowColors.setTextColor(i, foundMatchesColor);
                 }
-                lineMatchIndex++;
             }
         }
+    }
 
-        if (parentAssessor != null) {
-            return parentAssessor.getPositionBackgroundColor(rowDataPosition, byteOnRow, charOnRow, section, inSelection);
+    /**
+     * Returns true if given position is part of the match.
+     *
+     * @param index match index
+     * @param rowDataPosition row data position
+     * @param byteOnRow byte on row
+     * @param charOnRow character on row
+     * @param section section
+     * @return true if in match
+     */
+    protected boolean isInMatch(int index, long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section) {
+        long dataPosition = rowDataPosition + byteOnRow;
+        long matchPosition = matches.getPosition(index);
+        long matchEnd = matchPosition + matches.getLength(index);
+        return dataPosition >= matchPosition && dataPosition < matchEnd
+                && (section == BasicCodeAreaSection.TEXT_PREVIEW || charOnRow != (matchEnd - rowDataPosition) * charactersPerRow - 1);
+    }
+
+    /**
+     * Returns true if given position is part of any of the matches.
+     *
+     * @param rowDataPosition row data position
+     * @param byteOnRow byte on row
+     * @param charOnRow character on row
+     * @param section section
+     * @return true if in any match
+     */
+    protected boolean isInMatches(long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section) {
+        long dataPosition = rowDataPosition + byteOnRow;
+        for (int index = matches.findNextOverlapping(dataPosition, 0); index >= 0; index = matches.findNextOverlapping(dataPosition, index + 1)) {
+            if (isInMatch(index, rowDataPosition, byteOnRow, charOnRow, section)) {
+                return true;
+            }
         }
 
-        return null;
+        return false;
     }
 
     @Override
@@ -183,28 +218,129 @@ public class SearchCodeAreaColorAssessor implements CodeAreaColorAssessor {
         return Optional.ofNullable(parentAssessor);
     }
 
+    @Override
+    public long getColorStateStamp() {
+        return parentAssessor == null ? colorStateStamp : colorStateStamp + parentAssessor.getColorStateStamp();
+    }
+
+    /**
+     * Returns matches ordered by position.
+     * <p>
+     * Returned list is unmodifiable view of the internal index reflecting
+     * later changes of the matches. Use {@link #setMatches(List)},
+     * {@link #addMatches(List)} or {@link #clearMatches()} to change matches.
+     *
+     * @return list of matches
+     */
     public List<SearchMatch> getMatches() {
-        return matches;
+        return matchesView;
     }
 
+    public int getMatchesCount() {
+        return matches.size();
+    }
+
+    /**
+     * Returns generation of the matches increased each time matches are
+     * replaced or cleared.
+     * <p>
+     * Allows to detect results of the previous search arriving late.
+     *
+     * @return matches generation
+     */
+    public int getMatchesGeneration() {
+        return matchesGeneration;
+    }
+
+    /**
+     * Replaces matches.
+     * <p>
+     * Matches are sorted by position.
+     *
+     * @param matches list of matches
+     */
     public void setMatches(List<SearchMatch> matches) {
+        matchesGeneration++;
+        colorStateStamp++;
         this.matches.clear();
         this.matches.addAll(matches);
         currentMatchIndex = -1;
     }
 
+    /**
+     * Adds multiple matches.
+     * <p>
+     * Matches are sorted by position if needed and merged in linear time.
+     *
+     * @param matches list of matches
+     */
+    public void addMatches(List<SearchMatch> matches) {
+        SearchMatch currentMatch = getCurrentMatch();
+        colorStateStamp++;
+        this.matches.addAll(matches);
+        if (currentMatch != null) {
+            currentMatchIndex = this.matches.indexOf(currentMatch.position, currentMatch.length);
+        }
+    }
+
+    /**
+     * Adds match.
+     *
+     * @param match search match
+     */
+    public void addMatch(SearchMatch match) {
+        colorStateStamp++;
+        int index = matches.add(match.position, match.length);
+        if (currentMatchIndex >= index) {
+            currentMatchIndex++;
+        }
+    }
+
+    /**
+     * Removes match.
+     *
+     * @param match search match
+     * @return true if match was found and removed
+     */
+    public boolean removeMatch(SearchMatch match) {
+        int index = matches.indexOf(match.position, match.length);
+        if (index < 0) {
+            return false;
+        }
+
+        colorStateStamp++;
+        matches.remove(index);
+        if (currentMatchIndex == index) {
+            currentMatchIndex = -1;
+        } else if (currentMatchIndex > index) {
+            currentMatchIndex--;
+        }
+        return true;
+    }
+
     public void clearMatches() {
+        matchesGeneration++;
+        colorStateStamp++;
         this.matches.clear();
         currentMatchIndex = -1;
     }
 
+    /**
+     * Returns current match.
+     * <p>
+     * Returned instance is shared until matches or current match change and
+     * should not be modified.
+     *
+     * @return current match or null if there is no current match
+     */
     @Nullable
     public SearchMatch getCurrentMatch() {
-        if (currentMatchIndex >= 0) {
-            return matches.get(currentMatchIndex);
+        if (currentMatchStamp != colorStateStamp) {
+            currentMatch = currentMatchIndex >= 0 ? matches.getMatch(currentMatchIndex) : null;
+            currentMatchStamp = colorStateStamp;
         }
 
-        return null;
+        return currentMatch;
     }
 
     public int getCurrentMatchIndex() {
@@ -213,5 +349,6 @@ public class SearchCodeAreaColorAssessor implements CodeAreaColorAssessor {
 
     public void setCurrentMatchIndex(int currentMatchIndex) {
         this.currentMatchIndex = currentMatchIndex;
+        colorStateStamp++;
     }
 }
@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.highlight.swing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Index of search matches ordered by position.
+ * <p>
+ * Matches are stored in primitive arrays sorted by position and looked up
+ * using binary search. Maximum end of the matches up to each index and of the
+ * blocks of matches is maintained, so that matches overlapping given position
+ * are found without scanning matches which end before it. Ends are
+ * recomputed lazily from the first modified index.
+ */
+@NullMarked
+public class SearchMatchIndex {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int BLOCK_SIZE = 64;
+
+    protected long[] positions = new long[INITIAL_CAPACITY];
+    protected long[] lengths = new long[INITIAL_CAPACITY];
+    protected int size = 0;
+    protected long[] maxEnds = new long[INITIAL_CAPACITY];
+    protected long[] blockMaxEnds = new long[1];
+    protected int validEndsCount = 0;
+
+    public SearchMatchIndex() {
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+        validEndsCount = 0;
+    }
+
+    public long getPosition(int index) {
+        checkIndex(index);
+        return positions[index];
+    }
+
+    public long getLength(int index) {
+        checkIndex(index);
+        return lengths[index];
+    }
+
+    public SearchMatch getMatch(int index) {
+        checkIndex(index);
+        return new SearchMatch(positions[index], lengths[index]);
+    }
+
+    /**
+     * Adds match.
+     * <p>
+     * Match is placed after all matches with the same or lower position.
+     *
+     * @param position match position
+     * @param length match length
+     * @return index of added match
+     */
+    public int add(long position, long length) {
+        int index = findFirstAfter(position);
+        ensureCapacity(size + 1);
+        if (index < size) {
+            System.arraycopy(positions, index, positions, index + 1, size - index);
+            System.arraycopy(lengths, index, lengths, index + 1, size - index);
+        }
+        positions[index] = position;
+        lengths[index] = length;
+        size++;
+        invalidateEnds(index);
+        return index;
+    }
+
+    /**
+     * Adds multiple matches.
+     * <p>
+     * Matches not ordered by position are sorted first, then all matches are
+     * merged in linear time.
+     *
+     * @param matches matches
+     */
+    public void addAll(List<SearchMatch> matches) {
+        int count = matches.size();
+        if (count == 0) {
+            return;
+        }
+        if (!isOrdered(matches)) {
+            List<SearchMatch> sortedMatches = new ArrayList<>(matches);
+            sortedMatches.sort(Comparator.comparingLong(SearchMatch::getPosition));
+            matches = sortedMatches;
+        }
+
+        invalidateEnds(findFirstAfter(matches.get(0).getPosition()));
+        ensureCapacity(size + count);
+        int target = size + count - 1;
+        int source = size - 1;
+        for (int i = count - 1; i >= 0; i--) {
+            SearchMatch match = matches.get(i);
+            long position = match.getPosition();
+            while (source >= 0 && positions[source] > position) {
+                positions[target] = positions[source];
+                lengths[target] = lengths[source];
+                target--;
+                source--;
+            }
+            positions[target] = position;
+            lengths[target] = match.getLength();
+            target--;
+        }
+        size += count;
+    }
+
+    /**
+     * Removes match at given index.
+     *
+     * @param index match index
+     */
+    public void remove(int index) {
+        checkIndex(index);
+        if (index < size - 1) {
+            System.arraycopy(positions, index + 1, positions, index, size - index - 1);
+            System.arraycopy(lengths, index + 1, lengths, index, size - index - 1);
+        }
+        size--;
+        invalidateEnds(index);
+    }
+
+    /**
+     * Returns index of match with given position and length.
+     *
+     * @param position match position
+     * @param length match length
+     * @return index or -1 if not found
+     */
+    public int indexOf(long position, long length) {
+        int index = findFirstAfter(position - 1);
+        while (index < size && positions[index] == position) {
+            if (lengths[index] == length) {
+                return index;
+            }
+            index++;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns index of the first match which might overlap given position or
+     * any following position.
+     * <p>
+     * All matches overlapping given position are at this or higher index and
+     * start at or before given position. All matches before this index end
+     * at or before given position.
+     *
+     * @param position data position
+     * @return index of the first candidate match or size if there is none
+     */
+    public int findFirstOverlapping(long position) {
+        updateEnds();
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (maxEnds[middle] <= position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Returns index of the next match overlapping given position.
+     * <p>
+     * Blocks of matches ending at or before given position are skipped.
+     *
+     * @param position data position
+     * @param fromIndex index to start search from
+     * @return index of the match or -1 if there is none
+     */
+    public int findNextOverlapping(long position, int fromIndex) {
+        int index = Math.max(fromIndex, findFirstOverlapping(position));
+        while (index < size && positions[index] <= position) {
+            if (index % BLOCK_SIZE == 0 && blockMaxEnds[index / BLOCK_SIZE] <= position) {
+                index += BLOCK_SIZE;
+                continue;
+            }
+
+            if (positions[index] + lengths[index] > position) {
+                return index;
+            }
+            index++;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns index of the first match with position greater than given
+     * position.
+     *
+     * @param position data position
+     * @return index or size if there is no such match
+     */
+    public int findFirstAfter(long position) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (positions[middle] <= position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private void invalidateEnds(int index) {
+        if (index < validEndsCount) {
+            validEndsCount = index;
+        }
+    }
+
+    private void updateEnds() {
+        if (validEndsCount >= size) {
+            return;
+        }
+
+        int blocksCount = (size + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        if (blocksCount > blockMaxEnds.length) {
+            blockMaxEnds = Arrays.copyOf(blockMaxEnds, Math.max(blocksCount, blockMaxEnds.length * 2));
+        }
+
+        // Restart at the block start to recompute maximum end of the block
+        int index = validEndsCount - validEndsCount % BLOCK_SIZE;
+        long maxEnd = index > 0 ? maxEnds[index - 1] : Long.MIN_VALUE;
+        long blockMaxEnd = Long.MIN_VALUE;
+        for (; index < size; index++) {
+            long end = positions[index] + lengths[index];
+            if (end > maxEnd) {
+                maxEnd = end;
+            }
+            maxEnds[index] = maxEnd;
+            if (index % BLOCK_SIZE == 0 || end > blockMaxEnd) {
+                blockMaxEnd = end;
+            }
+            blockMaxEnds[index / BLOCK_SIZE] = blockMaxEnd;
+        }
+        validEndsCount = size;
+    }
+
+    private static boolean isOrdered(List<SearchMatch> matches) {
+        long lastPosition = Long.MIN_VALUE;
+        for (SearchMatch match : matches) {
+            if (match.getPosition() < lastPosition) {
+                return false;
+            }
+            lastPosition = match.getPosition();
+        }
+        return true;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > positions.length) {
+            int newCapacity = Math.max(capacity, positions.length + (positions.length >> 1));
+            positions = Arrays.copyOf(positions, newCapacity);
+            lengths = Arrays.copyOf(lengths, newCapacity);
+            maxEnds = Arrays.copyOf(maxEnds, newCapacity);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.highlight.swing.search;
+
+import java.util.List;
+import javax.swing.SwingUtilities;
+import org.exbin.bined.highlight.swing.SearchCodeAreaColorAssessor;
+import org.exbin.bined.highlight.swing.SearchMatch;
+import org.exbin.bined.swing.CodeAreaCore;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Search listener passing found matches to search color assessor.
+ * <p>
+ * Matches are added on event dispatch thread and code area is repainted.
+ * Create new listener for each search after matches of the previous search
+ * were cleared. Matches arriving after the assessor matches were cleared or
+ * replaced again are dropped.
+ */
+@NullMarked
+public class ColorAssessorSearchListener implements SearchListener {
+
+    protected final CodeAreaCore codeArea;
+    protected final SearchCodeAreaColorAssessor colorAssessor;
+    @Nullable
+    protected final SearchListener listener;
+    protected final int matchesGeneration;
+
+    public ColorAssessorSearchListener(CodeAreaCore codeArea, SearchCodeAreaColorAssessor colorAssessor) {
+        this(codeArea, colorAssessor, null);
+    }
+
+    /**
+     * Creates listener.
+     *
+     * @param codeArea code area
+     * @param colorAssessor search color assessor
+     * @param listener optional listener to pass all events to
+     */
+    public ColorAssessorSearchListener(CodeAreaCore codeArea, SearchCodeAreaColorAssessor colorAssessor, @Nullable SearchListener listener) {
+        this.codeArea = codeArea;
+        this.colorAssessor = colorAssessor;
+        this.listener = listener;
+        matchesGeneration = colorAssessor.getMatchesGeneration();
+    }
+
+    @Override
+    public void matchesFound(List<SearchMatch> matches) {
+        SwingUtilities.invokeLater(() -> {
+            if (colorAssessor.getMatchesGeneration() != matchesGeneration) {
+                // Stale matches of the previous search
+                return;
+            }
+
+            colorAssessor.addMatches(matches);
+            codeArea.repaint();
+        });
+
+        if (listener != null) {
+            listener.matchesFound(matches);
+        }
+    }
+
+    @Override
+    public void progressChanged(long processedSize, long dataSize) {
+        if (listener != null) {
+            listener.progressChanged(processedSize, dataSize);
+        }
+    }
+
+    @Override
+    public void searchFailed(Throwable failure) {
+        if (listener != null) {
+            listener.searchFailed(failure);
+        }
+    }
+
+    @Override
+    public void searchFinished(boolean cancelled) {
+        if (listener != null) {
+            listener.searchFinished(cancelled);
+        }
+    }
+}
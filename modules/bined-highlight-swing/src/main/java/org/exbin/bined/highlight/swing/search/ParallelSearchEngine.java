@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.highlight.swing.search;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.bined.highlight.swing.SearchMatch;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Search engine scanning binary data in parallel chunks.
+ * <p>
+ * Data is split into chunks processed as separate tasks of the fork-join
+ * pool. Each chunk is read with overlap of pattern length so that matches
+ * crossing chunk boundary are found. Pattern is matched using
+ * Boyer-Moore-Horspool algorithm.
+ * <p>
+ * Data must support concurrent reading.
+ */
+@NullMarked
+public class ParallelSearchEngine {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final ForkJoinPool pool;
+    protected int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    public ParallelSearchEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelSearchEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Starts search for text encoded using given charset.
+     *
+     * @param data data to search in
+     * @param text text to search for
+     * @param charset charset
+     * @param listener listener for results
+     * @return search task
+     */
+    public SearchTask searchText(BinaryData data, String text, Charset charset, SearchListener listener) {
+        ByteBuffer buffer = charset.encode(text);
+        byte[] pattern = new byte[buffer.remaining()];
+        buffer.get(pattern);
+        return search(data, pattern, listener);
+    }
+
+    /**
+     * Starts search for byte pattern.
+     *
+     * @param data data to search in
+     * @param pattern byte pattern
+     * @param listener listener for results
+     * @return search task
+     */
+    public SearchTask search(BinaryData data, byte[] pattern, SearchListener listener) {
+        if (pattern.length == 0) {
+            throw new IllegalArgumentException("Pattern cannot be empty");
+        }
+
+        long dataSize = data.getDataSize();
+        long chunksCount = dataSize < pattern.length ? 0 : (dataSize + chunkSize - 1) / chunkSize;
+        if (chunksCount > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many chunks, increase chunk size");
+        }
+
+        SearchTask task = new SearchTask(dataSize, (int) chunksCount, listener);
+        int[] shiftTable = createShiftTable(pattern);
+        for (long chunk = 0; chunk < chunksCount; chunk++) {
+            long chunkStart = chunk * chunkSize;
+            long chunkEnd = Math.min(chunkStart + chunkSize, dataSize);
+            pool.execute(() -> {
+                try {
+                    searchChunk(data, pattern, shiftTable, chunkStart, chunkEnd, task);
+                } catch (Throwable ex) {
+                    task.chunkFailed(ex);
+                } finally {
+                    task.chunkProcessed(chunkEnd - chunkStart);
+                }
+            });
+        }
+
+        return task;
+    }
+
+    /**
+     * Searches for matches starting in given range of the data.
+     *
+     * @param data data
+     * @param pattern pattern
+     * @param shiftTable shift table of the pattern
+     * @param start start position
+     * @param end end position (exclusive)
+     * @param task search task
+     */
+    protected void searchChunk(BinaryData data, byte[] pattern, int[] shiftTable, long start, long end, SearchTask task) {
+        int patternLength = pattern.length;
+        long dataSize = data.getDataSize();
+        byte[] buffer = new byte[Math.max(BUFFER_SIZE, patternLength * 2)];
+        List<SearchMatch> matches = new ArrayList<>();
+        long position = start;
+        while (position < end && !task.isCancelled()) {
+            int length = (int) Math.min(buffer.length, dataSize - position);
+            if (length < patternLength) {
+                break;
+            }
+
+            data.copyToArray(position, buffer, 0, length);
+            // Matches starting beyond buffer limit are found in the next buffer
+            int limit = (int) Math.min(length - patternLength + 1, end - position);
+            int offset = 0;
+            while (offset < limit) {
+                int matchOffset = indexOf(buffer, offset, length, pattern, shiftTable);
+                if (matchOffset < 0 || matchOffset >= limit) {
+                    break;
+                }
+
+                matches.add(new SearchMatch(position + matchOffset, patternLength));
+                offset = matchOffset + 1;
+            }
+
+            position += limit;
+        }
+
+        if (!matches.isEmpty() && !task.isCancelled()) {
+            task.listener.matchesFound(matches);
+        }
+    }
+
+    /**
+     * Creates Horspool shift table for given pattern.
+     *
+     * @param pattern pattern
+     * @return shift table indexed by unsigned byte value
+     */
+    public static int[] createShiftTable(byte[] pattern) {
+        int patternLength = pattern.length;
+        int[] shiftTable = new int[256];
+        Arrays.fill(shiftTable, patternLength);
+        for (int i = 0; i < patternLength - 1; i++) {
+            shiftTable[pattern[i] & 0xff] = patternLength - 1 - i;
+        }
+        return shiftTable;
+    }
+
+    /**
+     * Returns offset of the first occurrence of the pattern in given range of
+     * the buffer.
+     *
+     * @param buffer buffer
+     * @param from start offset
+     * @param to end offset (exclusive)
+     * @param pattern pattern
+     * @param shiftTable shift table of the pattern
+     * @return offset or -1 if not found
+     */
+    public static int indexOf(byte[] buffer, int from, int to, byte[] pattern, int[] shiftTable) {
+        int patternLast = pattern.length - 1;
+        byte lastByte = pattern[patternLast];
+        int offset = from;
+        while (offset + patternLast < to) {
+            byte value = buffer[offset + patternLast];
+            if (value == lastByte) {
+                int i = patternLast - 1;
+                while (i >= 0 && buffer[offset + i] == pattern[i]) {
+                    i--;
+                }
+                if (i < 0) {
+                    return offset;
+                }
+            }
+            offset += shiftTable[value & 0xff];
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.highlight.swing.search;
+
+import java.util.List;
+import org.exbin.bined.highlight.swing.SearchMatch;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Listener for search results and progress.
+ * <p>
+ * Methods are called from search worker threads.
+ */
+@NullMarked
+public interface SearchListener {
+
+    /**
+     * Reports matches found in processed part of the data.
+     * <p>
+     * Matches are ordered by position within single call, but calls for
+     * different parts of the data can come in any order.
+     *
+     * @param matches found matches
+     */
+    void matchesFound(List<SearchMatch> matches);
+
+    /**
+     * Reports search progress.
+     *
+     * @param processedSize size of already processed data
+     * @param dataSize total size of the data
+     */
+    default void progressChanged(long processedSize, long dataSize) {
+    }
+
+    /**
+     * Reports end of the search.
+     *
+     * @param cancelled true if search was cancelled
+     */
+    default void searchFinished(boolean cancelled) {
+    }
+
+    /**
+     * Reports end of the search failed on processing of some part of the
+     * data.
+     * <p>
+     * Called instead of {@link #searchFinished(boolean)}, by default reported
+     * as cancelled search.
+     *
+     * @param failure first failure, following failures are suppressed
+     */
+    default void searchFailed(Throwable failure) {
+        searchFinished(true);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.highlight.swing.search;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Handle of running search.
+ */
+@NullMarked
+public class SearchTask {
+
+    protected final long dataSize;
+    protected final SearchListener listener;
+    protected final AtomicBoolean cancelled = new AtomicBoolean();
+    protected final AtomicLong processedSize = new AtomicLong();
+    protected final AtomicInteger remainingChunks;
+    protected final CountDownLatch finished = new CountDownLatch(1);
+    protected final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    public SearchTask(long dataSize, int chunksCount, SearchListener listener) {
+        this.dataSize = dataSize;
+        this.listener = listener;
+        remainingChunks = new AtomicInteger(chunksCount);
+        if (chunksCount == 0) {
+            finish();
+        }
+    }
+
+    /**
+     * Requests cancellation of the search.
+     * <p>
+     * Chunks already being processed are stopped at the next check.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    public boolean isDone() {
+        return finished.getCount() == 0;
+    }
+
+    /**
+     * Returns failure of the search.
+     *
+     * @return first failure or null if search didn't fail
+     */
+    @Nullable
+    public Throwable getFailure() {
+        return failure.get();
+    }
+
+    public long getProcessedSize() {
+        return processedSize.get();
+    }
+
+    public long getDataSize() {
+        return dataSize;
+    }
+
+    /**
+     * Waits for the search to finish.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void waitFor() throws InterruptedException {
+        finished.await();
+    }
+
+    /**
+     * Reports processing of the part of the data.
+     *
+     * @param size size of processed data
+     */
+    protected void chunkProcessed(long size) {
+        long processed = processedSize.addAndGet(size);
+        if (!cancelled.get()) {
+            listener.progressChanged(processed, dataSize);
+        }
+
+        if (remainingChunks.decrementAndGet() == 0) {
+            finish();
+        }
+    }
+
+    /**
+     * Reports failure of processing of the part of the data.
+     * <p>
+     * Remaining parts are cancelled.
+     *
+     * @param chunkFailure failure
+     */
+    protected void chunkFailed(Throwable chunkFailure) {
+        if (!failure.compareAndSet(null, chunkFailure)) {
+            Throwable firstFailure = failure.get();
+            if (firstFailure != chunkFailure) {
+                firstFailure.addSuppressed(chunkFailure);
+            }
+        }
+        cancelled.set(true);
+    }
+
+    private void finish() {
+        Throwable searchFailure = failure.get();
+        if (searchFailure != null) {
+            listener.searchFailed(searchFailure);
+        } else {
+            listener.searchFinished(cancelled.get());
+        }
+        finished.countDown();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.highlight.swing;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.exbin.bined.basic.CodeAreaViewMode;
+import org.exbin.bined.swing.CodeAreaPaintAllocation;
+import org.exbin.bined.swing.CodeAreaPainter;
+import org.exbin.bined.swing.basic.CodeArea;
+import org.exbin.bined.swing.basic.DefaultCodeAreaPainter;
+import org.jspecify.annotations.NullMarked;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for memory allocated while painting code area with highlighting
+ * assessors.
+ */
+@NullMarked
+public class HighlightPaintAllocationTest {
+
+    public HighlightPaintAllocationTest() {
+    }
+
+    @Test
+    public void testSteadyStatePaintAllocation() throws Exception {
+        for (CodeAreaViewMode viewMode : CodeAreaViewMode.values()) {
+            long bytesPerFrame = CodeAreaPaintAllocation.measureBytesPerFrame(() -> createPainter(viewMode), null);
+            Assert.assertTrue(viewMode + ": " + bytesPerFrame + " bytes per frame", bytesPerFrame <= CodeAreaPaintAllocation.MAX_BYTES_PER_FRAME);
+        }
+    }
+
+    private static CodeAreaPainter createPainter(CodeAreaViewMode viewMode) {
+        CodeArea codeArea = new CodeArea();
+        CodeAreaPaintAllocation.initCodeArea(codeArea);
+        codeArea.setViewMode(viewMode);
+
+        DefaultCodeAreaPainter painter = (DefaultCodeAreaPainter) codeArea.getPainter();
+        NonprintablesCodeAreaAssessor nonprintablesAssessor = new NonprintablesCodeAreaAssessor(painter.getColorAssessor(), painter.getCharAssessor());
+        NonAsciiCodeAreaColorAssessor nonAsciiAssessor = new NonAsciiCodeAreaColorAssessor(nonprintablesAssessor);
+        SearchCodeAreaColorAssessor searchAssessor = new SearchCodeAreaColorAssessor(nonAsciiAssessor);
+        List<SearchMatch> matches = new ArrayList<>();
+        matches.add(new SearchMatch(5, 3));
+        matches.add(new SearchMatch(30, 20));
+        searchAssessor.setMatches(matches);
+        searchAssessor.setCurrentMatchIndex(1);
+        painter.setColorAssessor(searchAssessor);
+        painter.setCharAssessor(nonprintablesAssessor);
+        return painter;
+    }
+}
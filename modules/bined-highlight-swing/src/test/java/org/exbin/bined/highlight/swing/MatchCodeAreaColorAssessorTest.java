@@ -15,7 +15,17 @@
  */
 package org.exbin.bined.highlight.swing;
 
+import java.util.ArrayList;
+import java.util.List;
+import org.exbin.auxiliary.binary_data.array.ByteArrayEditableData;
+import org.exbin.bined.CodeAreaSection;
+import org.exbin.bined.basic.BasicCodeAreaSection;
+import org.exbin.bined.swing.CodeAreaColorAssessor;
+import org.exbin.bined.swing.CodeAreaRowColors;
 import org.exbin.bined.swing.basic.CodeArea;
+import org.exbin.bined.swing.basic.DefaultCodeAreaColorAssessor;
+import org.exbin.bined.swing.basic.DefaultCodeAreaPainter;
+import org.junit.Assert;
 import org.junit.Test;
 
 /**
@@ -32,4 +42,99 @@ public class MatchCodeAreaColorAssessorTest {
 //        HighlightCodeAreaPainter painter = new HighlightCodeAreaPainter(codeArea);
 //        codeArea.setPainter(painter);
     }
+
+    @Test
+    public void testAssessRowColors() {
+        CodeArea codeArea = new CodeArea();
+        byte[] data = new byte[64];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 9);
+        }
+        codeArea.setContentData(new ByteArrayEditableData(data));
+        DefaultCodeAreaPainter painter = (DefaultCodeAreaPainter) codeArea.getPainter();
+
+        SearchCodeAreaColorAssessor assessor = new SearchCodeAreaColorAssessor(new NonAsciiCodeAreaColorAssessor(new DefaultCodeAreaColorAssessor()));
+        List<SearchMatch> matches = new ArrayList<>();
+        matches.add(new SearchMatch(18, 3));
+        matches.add(new SearchMatch(25, 4));
+        assessor.setMatches(matches);
+        assessor.setCurrentMatchIndex(1);
+
+        long rowDataPosition = 16;
+        CodeAreaRowColors rowColors = new CodeAreaRowColors();
+        rowColors.reset(48);
+        for (int charOnRow = 0; charOnRow < 48; charOnRow++) {
+            CodeAreaSection section = charOnRow < 32 ? BasicCodeAreaSection.CODE_MATRIX : BasicCodeAreaSection.TEXT_PREVIEW;
+            int byteOnRow = charOnRow < 32 ? charOnRow / 2 : charOnRow - 32;
+            rowColors.addPosition(byteOnRow, charOnRow, section, byteOnRow >= 12);
+        }
+        assessor.startPaint(painter);
+        assessor.assessRowColors(rowDataPosition, rowColors);
+
+        assessor.startPaint(painter);
+        assertPositionColors(assessor, rowDataPosition, rowColors);
+    }
+
+    @Test
+    public void testColorStateStamp() {
+        NonAsciiCodeAreaColorAssessor parentAssessor = new NonAsciiCodeAreaColorAssessor(new DefaultCodeAreaColorAssessor());
+        SearchCodeAreaColorAssessor assessor = new SearchCodeAreaColorAssessor(parentAssessor);
+        long stateStamp = assessor.getColorStateStamp();
+
+        List<SearchMatch> matches = new ArrayList<>();
+        matches.add(new SearchMatch(18, 3));
+        assessor.setMatches(matches);
+        Assert.assertNotEquals(stateStamp, assessor.getColorStateStamp());
+        stateStamp = assessor.getColorStateStamp();
+
+        assessor.setCurrentMatchIndex(0);
+        Assert.assertNotEquals(stateStamp, assessor.getColorStateStamp());
+        stateStamp = assessor.getColorStateStamp();
+
+        parentAssessor.setNonAsciiHighlightingEnabled(false);
+        Assert.assertNotEquals(stateStamp, assessor.getColorStateStamp());
+    }
+
+    @Test
+    public void testMatchesView() {
+        SearchCodeAreaColorAssessor assessor = new SearchCodeAreaColorAssessor(null);
+        List<SearchMatch> matches = assessor.getMatches();
+        Assert.assertTrue(matches.isEmpty());
+
+        assessor.addMatch(new SearchMatch(25, 4));
+        assessor.addMatch(new SearchMatch(18, 3));
+        Assert.assertEquals(2, matches.size());
+        Assert.assertEquals(18, matches.get(0).getPosition());
+        Assert.assertEquals(25, matches.get(1).getPosition());
+        try {
+            matches.add(new SearchMatch(40, 1));
+            Assert.fail("Matches view should be unmodifiable");
+        } catch (UnsupportedOperationException ex) {
+            // Expected
+        }
+
+        assessor.setCurrentMatchIndex(1);
+        SearchMatch currentMatch = assessor.getCurrentMatch();
+        Assert.assertNotNull(currentMatch);
+        Assert.assertEquals(25, currentMatch.getPosition());
+        Assert.assertSame(currentMatch, assessor.getCurrentMatch());
+
+        assessor.addMatch(new SearchMatch(10, 2));
+        Assert.assertEquals(2, assessor.getCurrentMatchIndex());
+        Assert.assertEquals(25, assessor.getCurrentMatch().getPosition());
+        assessor.clearMatches();
+        Assert.assertTrue(matches.isEmpty());
+        Assert.assertNull(assessor.getCurrentMatch());
+    }
+
+    private static void assertPositionColors(CodeAreaColorAssessor assessor, long rowDataPosition, CodeAreaRowColors rowColors) {
+        for (int i = 0; i < rowColors.getPositionsCount(); i++) {
+            int byteOnRow = rowColors.getBytePosition(i);
+            int charOnRow = rowColors.getCharPosition(i);
+            CodeAreaSection section = rowColors.getSection(i);
+            boolean inSelection = rowColors.isInSelection(i);
+            Assert.assertEquals(assessor.getPositionTextColor(rowDataPosition, byteOnRow, charOnRow, section, inSelection), rowColors.getTextColor(i));
+            Assert.assertEquals(assessor.getPositionBackgroundColor(rowDataPosition, byteOnRow, charOnRow, section, inSelection), rowColors.getBackgroundColor(i));
+        }
+    }
 }
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.highlight.swing;
+
+import java.util.Optional;
+import org.exbin.bined.CodeAreaSection;
+import org.exbin.bined.basic.BasicCodeAreaSection;
+import org.exbin.bined.swing.CodeAreaCharAssessor;
+import org.exbin.bined.swing.CodeAreaPaintState;
+import org.exbin.bined.swing.CodeAreaRowColors;
+import org.exbin.bined.swing.basic.CodeArea;
+import org.exbin.bined.swing.basic.DefaultCodeAreaColorAssessor;
+import org.exbin.bined.swing.basic.DefaultCodeAreaPainter;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for nonprintable characters assessor.
+ */
+public class NonprintablesCodeAreaAssessorTest {
+
+    private static final String ROW_TEXT = "A \t\n\u007f\u00e9\u2000z";
+
+    public NonprintablesCodeAreaAssessorTest() {
+    }
+
+    @Test
+    public void testCharacterMapping() {
+        CountingCharAssessor parentAssessor = new CountingCharAssessor();
+        NonprintablesCodeAreaAssessor assessor = createAssessor(parentAssessor);
+
+        char[] expected = {'A', '\u00b7', '\u00bb', '\u00b6', '\u00b0', '\u00e9', '\u2000', 'z'};
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals("Byte " + i, expected[i], assessor.getPreviewCharacter(0, i, 0, BasicCodeAreaSection.TEXT_PREVIEW));
+        }
+        Assert.assertEquals('\t', assessor.getPreviewCharacter(0, 2, 0, BasicCodeAreaSection.CODE_MATRIX));
+
+        long stateStamp = assessor.getStateStamp();
+        assessor.setShowNonprintables(false);
+        Assert.assertEquals('\t', assessor.getPreviewCharacter(0, 2, 0, BasicCodeAreaSection.TEXT_PREVIEW));
+        Assert.assertNotEquals(stateStamp, assessor.getStateStamp());
+    }
+
+    @Test
+    public void testParentCharacterMemoized() {
+        CountingCharAssessor parentAssessor = new CountingCharAssessor();
+        NonprintablesCodeAreaAssessor assessor = createAssessor(parentAssessor);
+
+        int length = ROW_TEXT.length();
+        CodeAreaRowColors rowColors = new CodeAreaRowColors();
+        rowColors.reset(length);
+        for (int i = 0; i < length; i++) {
+            rowColors.addPosition(i, i, BasicCodeAreaSection.TEXT_PREVIEW, false);
+        }
+        for (int i = 0; i < length; i++) {
+            assessor.getPreviewCharacter(0, i, i, BasicCodeAreaSection.TEXT_PREVIEW);
+        }
+        assessor.assessRowColors(0, rowColors);
+        for (int i = 0; i < length; i++) {
+            assessor.getPositionTextColor(0, i, i, BasicCodeAreaSection.TEXT_PREVIEW, false);
+            assessor.getPositionBackgroundColor(0, i, i, BasicCodeAreaSection.TEXT_PREVIEW, false);
+        }
+        Assert.assertEquals(length, parentAssessor.callsCount);
+        Assert.assertNotNull(assessor.nonprintablesColor);
+        Assert.assertEquals(assessor.nonprintablesColor, rowColors.getTextColor(1));
+        Assert.assertNotEquals(assessor.nonprintablesColor, rowColors.getTextColor(0));
+
+        // Next row and next paint decode again
+        assessor.getPreviewCharacter(16, 0, 0, BasicCodeAreaSection.TEXT_PREVIEW);
+        Assert.assertEquals(length + 1, parentAssessor.callsCount);
+        assessor.startPaint(parentAssessor.paintState);
+        assessor.getPreviewCharacter(16, 0, 0, BasicCodeAreaSection.TEXT_PREVIEW);
+        Assert.assertEquals(length + 2, parentAssessor.callsCount);
+    }
+
+    private static NonprintablesCodeAreaAssessor createAssessor(CountingCharAssessor parentAssessor) {
+        CodeArea codeArea = new CodeArea();
+        DefaultCodeAreaPainter painter = (DefaultCodeAreaPainter) codeArea.getPainter();
+        NonprintablesCodeAreaAssessor assessor = new NonprintablesCodeAreaAssessor(new DefaultCodeAreaColorAssessor(), parentAssessor);
+        parentAssessor.paintState = painter;
+        assessor.startPaint(painter);
+        return assessor;
+    }
+
+    private static class CountingCharAssessor implements CodeAreaCharAssessor {
+
+        private int callsCount = 0;
+        private CodeAreaPaintState paintState;
+
+        @Override
+        public void startPaint(CodeAreaPaintState codeAreaPaintState) {
+        }
+
+        @Override
+        public char getPreviewCharacter(long rowDataPosition, int offsetDataPosition, int columnPosition, CodeAreaSection section) {
+            callsCount++;
+            return ROW_TEXT.charAt(offsetDataPosition);
+        }
+
+        @Override
+        public char getPreviewCursorCharacter(long rowDataPosition, int offsetDataPosition, int columnPosition, byte[] cursorData, int cursorDataLength, CodeAreaSection section) {
+            return ROW_TEXT.charAt(offsetDataPosition);
+        }
+
+        @Override
+        public Optional<CodeAreaCharAssessor> getParentCharAssessor() {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.highlight.swing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for search match index.
+ */
+public class SearchMatchIndexTest {
+
+    public SearchMatchIndexTest() {
+    }
+
+    @Test
+    public void testAddKeepsOrder() {
+        SearchMatchIndex index = new SearchMatchIndex();
+        for (int i = 0; i < 100; i++) {
+            index.add((i * 37) % 100, 1);
+        }
+
+        Assert.assertEquals(100, index.size());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i, index.getPosition(i));
+        }
+    }
+
+    @Test
+    public void testFindFirstOverlapping() {
+        SearchMatchIndex index = new SearchMatchIndex();
+        index.add(10, 2);
+        index.add(20, 10);
+        index.add(25, 2);
+        index.add(40, 1);
+
+        Assert.assertEquals(0, index.findFirstOverlapping(5));
+        Assert.assertEquals(1, index.findFirstOverlapping(22));
+        Assert.assertEquals(1, index.findFirstOverlapping(29));
+        Assert.assertEquals(3, index.findFirstOverlapping(40));
+        Assert.assertEquals(4, index.findFirstOverlapping(50));
+    }
+
+    @Test
+    public void testRemove() {
+        SearchMatchIndex index = new SearchMatchIndex();
+        index.add(10, 2);
+        index.add(20, 10);
+        index.add(30, 3);
+
+        Assert.assertEquals(-1, index.indexOf(20, 3));
+        int matchIndex = index.indexOf(20, 10);
+        Assert.assertEquals(1, matchIndex);
+        index.remove(matchIndex);
+        Assert.assertEquals(2, index.size());
+        Assert.assertEquals(30, index.getPosition(1));
+        // Maximum length is recomputed after removal of the longest match
+        Assert.assertEquals(1, index.findFirstOverlapping(29));
+    }
+
+    @Test
+    public void testAddAll() {
+        SearchMatchIndex index = new SearchMatchIndex();
+        index.add(10, 1);
+        index.add(30, 1);
+        List<SearchMatch> matches = new ArrayList<>();
+        matches.add(new SearchMatch(5, 1));
+        matches.add(new SearchMatch(20, 4));
+        matches.add(new SearchMatch(40, 1));
+        index.addAll(matches);
+
+        Assert.assertEquals(5, index.size());
+        long[] expected = {5, 10, 20, 30, 40};
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(expected[i], index.getPosition(i));
+        }
+        Assert.assertEquals(2, index.findFirstOverlapping(23));
+    }
+
+    @Test
+    public void testAddAllUnordered() {
+        SearchMatchIndex index = new SearchMatchIndex();
+        index.add(15, 1);
+        List<SearchMatch> matches = new ArrayList<>();
+        matches.add(new SearchMatch(40, 1));
+        matches.add(new SearchMatch(5, 1));
+        matches.add(new SearchMatch(20, 4));
+        index.addAll(matches);
+
+        long[] expected = {5, 15, 20, 40};
+        Assert.assertEquals(expected.length, index.size());
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(expected[i], index.getPosition(i));
+        }
+    }
+
+    @Test
+    public void testFindNextOverlapping() {
+        SearchMatchIndex index = new SearchMatchIndex();
+        // Long match covering many short matches
+        index.add(0, 10000);
+        for (int i = 0; i < 1000; i++) {
+            index.add(i * 10, 2);
+        }
+
+        Assert.assertEquals(0, index.findNextOverlapping(5001, 0));
+        int matchIndex = index.findNextOverlapping(5001, 1);
+        Assert.assertEquals(5000, index.getPosition(matchIndex));
+        Assert.assertEquals(-1, index.findNextOverlapping(5001, matchIndex + 1));
+        Assert.assertEquals(-1, index.findNextOverlapping(5003, 1));
+        Assert.assertEquals(-1, index.findNextOverlapping(10000, 0));
+    }
+
+    @Test
+    public void testRandomOverlapping() {
+        Random random = new Random(1);
+        SearchMatchIndex index = new SearchMatchIndex();
+        List<SearchMatch> matches = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            matches.add(new SearchMatch(random.nextInt(10000), random.nextInt(i % 50 == 0 ? 2000 : 20)));
+        }
+        index.addAll(matches.subList(0, 250));
+        for (SearchMatch match : matches.subList(250, 500)) {
+            index.add(match.getPosition(), match.getLength());
+        }
+        index.remove(100);
+
+        for (long position = 0; position < 12000; position += 7) {
+            int expectedCount = 0;
+            for (int i = 0; i < index.size(); i++) {
+                if (index.getPosition(i) <= position && index.getPosition(i) + index.getLength(i) > position) {
+                    expectedCount++;
+                }
+            }
+            int count = 0;
+            for (int i = index.findNextOverlapping(position, 0); i >= 0; i = index.findNextOverlapping(position, i + 1)) {
+                Assert.assertTrue(index.getPosition(i) <= position && index.getPosition(i) + index.getLength(i) > position);
+                count++;
+            }
+            Assert.assertEquals(expectedCount, count);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.highlight.swing.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.exbin.bined.highlight.swing.SearchMatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for parallel search engine.
+ */
+public class ParallelSearchEngineTest {
+
+    public ParallelSearchEngineTest() {
+    }
+
+    @Test
+    public void testSearchAcrossChunks() throws InterruptedException {
+        byte[] data = new byte[100000];
+        Random random = new Random(1);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) random.nextInt(4);
+        }
+        byte[] pattern = new byte[]{1, 2, 1, 3};
+
+        ParallelSearchEngine searchEngine = new ParallelSearchEngine();
+        searchEngine.setChunkSize(1000);
+        CollectingListener listener = new CollectingListener();
+        SearchTask task = searchEngine.search(new ByteArrayData(data), pattern, listener);
+        task.waitFor();
+
+        Assert.assertTrue(task.isDone());
+        Assert.assertTrue(listener.finished);
+        Assert.assertFalse(listener.cancelled);
+        Assert.assertEquals(data.length, task.getProcessedSize());
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i <= data.length - pattern.length; i++) {
+            int j = 0;
+            while (j < pattern.length && data[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                expected.add((long) i);
+            }
+        }
+        Assert.assertEquals(expected, listener.getPositions());
+    }
+
+    @Test
+    public void testSearchText() throws InterruptedException {
+        byte[] data = "abcabcabx-abcab".getBytes(StandardCharsets.US_ASCII);
+        ParallelSearchEngine searchEngine = new ParallelSearchEngine();
+        searchEngine.setChunkSize(4);
+        CollectingListener listener = new CollectingListener();
+        searchEngine.searchText(new ByteArrayData(data), "cab", StandardCharsets.US_ASCII, listener).waitFor();
+
+        List<Long> expected = new ArrayList<>();
+        expected.add(2L);
+        expected.add(5L);
+        expected.add(12L);
+        Assert.assertEquals(expected, listener.getPositions());
+    }
+
+    @Test
+    public void testCancel() throws InterruptedException {
+        ParallelSearchEngine searchEngine = new ParallelSearchEngine();
+        searchEngine.setChunkSize(16);
+        CollectingListener listener = new CollectingListener();
+        SearchTask task = searchEngine.search(new ByteArrayData(new byte[100000]), new byte[]{0, 0}, listener);
+        task.cancel();
+        task.waitFor();
+
+        Assert.assertTrue(task.isCancelled());
+        Assert.assertTrue(listener.cancelled);
+    }
+
+    @Test
+    public void testFailure() throws InterruptedException {
+        ParallelSearchEngine searchEngine = new ParallelSearchEngine();
+        searchEngine.setChunkSize(1000);
+        CollectingListener listener = new CollectingListener();
+        ByteArrayData data = new ByteArrayData(new byte[10000]) {
+            @Override
+            public void copyToArray(long startFrom, byte[] target, int offset, int length) {
+                if (startFrom >= 5000) {
+                    throw new IllegalStateException("Read failed");
+                }
+                super.copyToArray(startFrom, target, offset, length);
+            }
+        };
+        SearchTask task = searchEngine.search(data, new byte[]{1}, listener);
+        task.waitFor();
+
+        Assert.assertTrue(task.isDone());
+        Assert.assertTrue(task.getFailure() instanceof IllegalStateException);
+        Assert.assertSame(task.getFailure(), listener.failure);
+        Assert.assertFalse(listener.finished);
+    }
+
+    private static class CollectingListener implements SearchListener {
+
+        private final List<SearchMatch> matches = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean finished = false;
+        private volatile boolean cancelled = false;
+        private volatile Throwable failure = null;
+
+        @Override
+        public void matchesFound(List<SearchMatch> matches) {
+            this.matches.addAll(matches);
+        }
+
+        @Override
+        public void searchFailed(Throwable failure) {
+            this.failure = failure;
+        }
+
+        @Override
+        public void searchFinished(boolean cancelled) {
+            this.cancelled = cancelled;
+            finished = true;
+        }
+
+        private List<Long> getPositions() {
+            List<SearchMatch> sorted = new ArrayList<>(matches);
+            sorted.sort(Comparator.comparingLong(SearchMatch::getPosition));
+            List<Long> positions = new ArrayList<>();
+            for (SearchMatch match : sorted) {
+                positions.add(match.getPosition());
+            }
+            return positions;
+        }
+    }
+}
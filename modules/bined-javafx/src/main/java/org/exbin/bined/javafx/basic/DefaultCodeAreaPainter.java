@@ -784,9 +784,9 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
             int skipToCode = visibility.getSkipToCode();
             int skipRestFromCode = visibility.getSkipRestFromCode();
             int endCode = Math.min(skipRestFromCode, rowBytesLimit);
-            for (int byteOnRow = Math.max(skipToCode, rowStart); byteOnRow < endCode; byteOnRow++) {
-                byte dataByte = rowDataCache.rowData[byteOnRow];
-                CodeAreaUtils.byteToCharsCode(dataByte, codeType, rowDataCache.rowCharacters, structure.computeFirstCodeCharacterPos(byteOnRow), codeCharactersCase);
+            int startCode = Math.max(skipToCode, rowStart);
+            if (startCode < endCode) {
+                CodeAreaUtils.bytesToCharsCode(rowDataCache.rowData, startCode, endCode - startCode, codeType, codeCharactersCase, rowDataCache.rowCharacters, structure.computeFirstCodeCharacterPos(startCode), 1);
             }
             if (bytesPerRow > rowBytesLimit) {
                 Arrays.fill(rowDataCache.rowCharacters, structure.computeFirstCodeCharacterPos(rowBytesLimit), rowDataCache.rowCharacters.length, ' ');
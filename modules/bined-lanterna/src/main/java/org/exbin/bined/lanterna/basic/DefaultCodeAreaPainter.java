@@ -704,14 +704,13 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
             int skipToCode = visibility.getSkipToCode();
             int skipRestFromCode = visibility.getSkipRestFromCode();
             int endCode = Math.min(skipRestFromCode, rowBytesLimit);
-            for (int byteOnRow = Math.max(skipToCode, rowStart); byteOnRow < endCode; byteOnRow++) {
-                byte dataByte = rowDataCache.rowData[byteOnRow];
-
-                int byteRowPos = structure.computeFirstCodeCharacterPos(byteOnRow);
+            int startCode = Math.max(skipToCode, rowStart);
+            if (startCode < endCode) {
+                int byteRowPos = structure.computeFirstCodeCharacterPos(startCode);
                 if (byteRowPos > 0) {
                     rowDataCache.rowCharacters[byteRowPos - 1] = ' ';
                 }
-                CodeAreaUtils.byteToCharsCode(dataByte, codeType, rowDataCache.rowCharacters, byteRowPos, codeCharactersCase);
+                CodeAreaUtils.bytesToCharsCode(rowDataCache.rowData, startCode, endCode - startCode, codeType, codeCharactersCase, rowDataCache.rowCharacters, byteRowPos, 1);
             }
 
             if (bytesPerRow > rowBytesLimit) {
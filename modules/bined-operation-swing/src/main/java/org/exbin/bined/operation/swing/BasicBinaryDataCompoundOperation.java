@@ -28,7 +28,7 @@ import org.exbin.bined.operation.BinaryDataUndoableOperation;
  * Compound binary data operation.
  */
 @NullMarked
-public class BasicBinaryDataCompoundOperation implements BinaryDataCompoundOperation, BinaryDataUndoableOperation {
+public class BasicBinaryDataCompoundOperation implements BinaryDataCompoundOperation, BinaryDataUndoableOperation, DecomposableOperation {
 
     protected final List<BinaryDataOperation> operations = new ArrayList<>();
 
@@ -81,6 +81,25 @@ public class BasicBinaryDataCompoundOperation implements BinaryDataCompoundOpera
         return operations.isEmpty();
     }
 
+    @Override
+    public boolean collectBasicOperations(List<BinaryDataUndoableOperation> basicOperations) {
+        for (BinaryDataOperation operation : operations) {
+            if (!SquashedOperationPlanner.collectBasicOperations(operation, basicOperations)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long getRetainedSize() {
+        long retainedSize = 0;
+        for (BinaryDataOperation operation : operations) {
+            retainedSize += operation.getRetainedSize();
+        }
+        return retainedSize;
+    }
+
     @Override
     public void dispose() {
     }
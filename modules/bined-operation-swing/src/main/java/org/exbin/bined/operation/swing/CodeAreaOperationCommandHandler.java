@@ -27,6 +27,7 @@ import java.nio.charset.Charset;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import org.exbin.bined.basic.BasicCodeAreaSection;
 import org.exbin.bined.CharsetStreamTranslator;
 import org.exbin.bined.CodeAreaUtils;
@@ -97,6 +98,8 @@ public class CodeAreaOperationCommandHandler implements CodeAreaCommandHandler {
 
     protected final BinaryDataUndoRedo undoRedo;
     protected EditDataCommand editCommand = null;
+    @Nullable
+    protected UndoDataSpillStore undoDataSpillStore = new UndoDataSpillStore();
 
     public CodeAreaOperationCommandHandler(CodeAreaCore codeArea, BinaryDataUndoRedo undoRedo) {
         this.codeArea = codeArea;
@@ -132,6 +135,32 @@ public class CodeAreaOperationCommandHandler implements CodeAreaCommandHandler {
         return undoRedo;
     }
 
+    @Nullable
+    public UndoDataSpillStore getUndoDataSpillStore() {
+        return undoDataSpillStore;
+    }
+
+    /**
+     * Sets store for large undo data of deletions and pastes.
+     *
+     * @param undoDataSpillStore spill store or null to keep undo data in heap
+     */
+    public void setUndoDataSpillStore(@Nullable UndoDataSpillStore undoDataSpillStore) {
+        this.undoDataSpillStore = undoDataSpillStore;
+    }
+
+    /**
+     * Releases resources held by the handler.
+     * <p>
+     * Closes store of large undo data, undo history using it cannot be
+     * performed afterwards.
+     */
+    public void dispose() {
+        if (undoDataSpillStore != null) {
+            undoDataSpillStore.close();
+        }
+    }
+
     private void updateCanPaste() {
         canPaste = CodeAreaSwingUtils.canPaste(clipboard, binedDataFlavor) || CodeAreaSwingUtils.canPaste(clipboard, DataFlavor.stringFlavor);
     }
@@ -327,7 +356,7 @@ public class CodeAreaOperationCommandHandler implements CodeAreaCommandHandler {
                 if (codeArea.hasSelection()) {
                     dataPosition = ((SelectionCapable) codeArea).getSelection().getFirst();
                     codeOffset = 0;
-                    deleteSelectionCommand = new DeleteSelectionCommand(codeArea);
+                    deleteSelectionCommand = new DeleteSelectionCommand(codeArea, undoDataSpillStore);
                     ((CaretCapable) codeArea).setActiveCaretPosition(dataPosition);
                     sequenceBreak();
                 }
@@ -371,7 +400,6 @@ public class CodeAreaOperationCommandHandler implements CodeAreaCommandHandler {
                 }
             }
 
-            codeArea.notifyDataChanged();
             revealCursor();
         }
     }
@@ -400,7 +428,7 @@ public class CodeAreaOperationCommandHandler implements CodeAreaCommandHandler {
                 if (codeArea.hasSelection()) {
                     sequenceBreak();
                     dataPosition = ((SelectionCapable) codeArea).getSelection().getFirst();
-                    deleteCommand = new DeleteSelectionCommand(codeArea);
+                    deleteCommand = new DeleteSelectionCommand(codeArea, undoDataSpillStore);
                     ((CaretCapable) codeArea).setActiveCaretPosition(dataPosition);
                 }
 
@@ -443,7 +471,6 @@ public class CodeAreaOperationCommandHandler implements CodeAreaCommandHandler {
                 }
             }
 
-            codeArea.notifyDataChanged();
             revealCursor();
         }
     }
@@ -506,10 +533,9 @@ public class CodeAreaOperationCommandHandler implements CodeAreaCommandHandler {
 
     protected void deleteAction(char keyChar) {
         if (codeArea.hasSelection()) {
-            DeleteSelectionCommand deleteSelectionCommand = new DeleteSelectionCommand(codeArea);
+            DeleteSelectionCommand deleteSelectionCommand = new DeleteSelectionCommand(codeArea, undoDataSpillStore);
             undoRedo.execute(deleteSelectionCommand);
             sequenceBreak();
-            codeArea.notifyDataChanged();
         } else {
 //            if (editCommand != null && editCommand.wasReverted()) {
 //                editCommand = null;
@@ -543,7 +569,6 @@ public class CodeAreaOperationCommandHandler implements CodeAreaCommandHandler {
                     undoRedo.execute(editCommand);
                 }
             }
-            codeArea.notifyDataChanged();
         }
     }
 
@@ -553,9 +578,8 @@ public class CodeAreaOperationCommandHandler implements CodeAreaCommandHandler {
             return;
         }
 
-        undoRedo.execute(new DeleteSelectionCommand(codeArea));
+        undoRedo.execute(new DeleteSelectionCommand(codeArea, undoDataSpillStore));
         sequenceBreak();
-        codeArea.notifyDataChanged();
     }
 
     @Override
@@ -612,9 +636,8 @@ public class CodeAreaOperationCommandHandler implements CodeAreaCommandHandler {
         if (!selection.isEmpty()) {
             copy();
             if (editMode == EditMode.EXPANDING) {
-                undoRedo.execute(new DeleteSelectionCommand(codeArea));
+                undoRedo.execute(new DeleteSelectionCommand(codeArea, undoDataSpillStore));
                 sequenceBreak();
-                codeArea.notifyDataChanged();
             }
         }
     }
@@ -676,15 +699,14 @@ public class CodeAreaOperationCommandHandler implements CodeAreaCommandHandler {
     public void pasteBinaryData(BinaryData pastedData) {
         DeleteSelectionCommand deleteSelectionCommand = null;
         if (codeArea.hasSelection()) {
-            deleteSelectionCommand = new DeleteSelectionCommand(codeArea);
+            deleteSelectionCommand = new DeleteSelectionCommand(codeArea, undoDataSpillStore);
         }
 
-        PasteDataCommand pasteDataCommand = new PasteDataCommand(codeArea, pastedData);
+        PasteDataCommand pasteDataCommand = new PasteDataCommand(codeArea, pastedData, undoDataSpillStore);
         CodeAreaCommand pasteCommand = CodeAreaCompoundCommand.buildCompoundCommand(codeArea, deleteSelectionCommand, pasteDataCommand);
         undoRedo.execute(pasteCommand);
 
         sequenceBreak();
-        codeArea.notifyDataChanged();
         revealCursor();
         clearSelection();
     }
@@ -725,7 +747,7 @@ public class CodeAreaOperationCommandHandler implements CodeAreaCommandHandler {
         updateSelection(selecting, caretPosition);
 
         sequenceBreak();
-        codeArea.repaint();
+        codeArea.repaintCursor();
     }
 
     public void move(SelectingMode selectingMode, MovementDirection direction) {
@@ -744,7 +766,7 @@ public class CodeAreaOperationCommandHandler implements CodeAreaCommandHandler {
         CodeAreaScrollPosition scrollPosition = ((ScrollingCapable) codeArea).computeScrolling(sourcePosition, direction);
         if (!sourcePosition.equals(scrollPosition)) {
             ((ScrollingCapable) codeArea).setScrollPosition(scrollPosition);
-            codeArea.resetPainter();
+            codeArea.repaint();
         }
     }
 
@@ -771,6 +793,16 @@ public class CodeAreaOperationCommandHandler implements CodeAreaCommandHandler {
         }
     }
 
+    @Override
+    public void preciseWheelScroll(double scrollUnits, ScrollBarOrientation orientation) {
+        CodeAreaScrollPosition sourcePosition = ((ScrollingCapable) codeArea).getScrollPosition();
+        CodeAreaScrollPosition scrollPosition = ((ScrollingCapable) codeArea).computeWheelScrolling(sourcePosition, orientation, scrollUnits);
+        if (!sourcePosition.equals(scrollPosition)) {
+            ((ScrollingCapable) codeArea).setScrollPosition(scrollPosition);
+            codeArea.repaint();
+        }
+    }
+
     private boolean isAppendAllowed() {
         return undoRedo.getCommandPosition() != undoRedo.getSyncPosition();
     }
@@ -824,8 +856,14 @@ public class CodeAreaOperationCommandHandler implements CodeAreaCommandHandler {
     }
 
     private void revealCursor() {
+        CodeAreaScrollPosition scrollPosition = new CodeAreaScrollPosition();
+        scrollPosition.setScrollPosition(((ScrollingCapable) codeArea).getScrollPosition());
         ((ScrollingCapable) codeArea).revealCursor();
-        codeArea.repaint();
+        if (scrollPosition.equals(((ScrollingCapable) codeArea).getScrollPosition())) {
+            codeArea.repaintCursor();
+        } else {
+            codeArea.repaint();
+        }
     }
 
     @Override
@@ -15,30 +15,50 @@
  */
 package org.exbin.bined.operation.swing;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import org.jspecify.annotations.NullMarked;
+import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.exbin.bined.CodeAreaUtils;
+import org.exbin.bined.operation.BinaryDataUndoableOperation;
 import org.exbin.bined.operation.command.BinaryDataCommand;
+import org.exbin.bined.operation.command.BinaryDataCommandPhase;
 import org.exbin.bined.operation.command.BinaryDataAppendableCommand;
 import org.exbin.bined.operation.command.BinaryDataAppendableUndoRedo;
 import org.exbin.bined.swing.CodeAreaCore;
 import org.exbin.bined.operation.command.BinaryDataUndoRedo;
 import org.exbin.bined.operation.BinaryDataUndoRedoChangeListener;
 import org.exbin.bined.operation.command.BinaryDataUndoableCommand;
+import org.exbin.bined.operation.swing.command.CodeAreaCommand;
+import org.exbin.bined.operation.swing.command.SquashableOperationCommand;
+import org.exbin.bined.operation.swing.command.SquashableCommand;
 
 /**
  * Undo handler for binary editor.
+ * <p>
+ * Commands are kept in ring buffer together with size of the data they
+ * retain. When maximum count or maximum size is exceeded, the oldest undo
+ * commands are discarded. The last executed command is always kept.
+ * <p>
+ * Multiple undo or redo steps over squashable commands are planned as single
+ * set of edits applied to the data at once.
  */
 @NullMarked
 public class CodeAreaUndoRedo implements BinaryDataUndoRedo, BinaryDataAppendableUndoRedo {
 
+    public static final int DEFAULT_UNDO_MAXIMUM_COUNT = 1024;
+    public static final long DEFAULT_UNDO_MAXIMUM_SIZE = 16 * 1024 * 1024;
+
     protected int undoMaximumCount;
-    protected int undoMaximumSize;
-    protected int usedSize;
+    protected long undoMaximumSize;
+    protected long usedSize;
     protected int commandPosition;
     protected int syncPosition = -1;
-    protected final List<BinaryDataCommand> commands = new ArrayList<>();
+    protected final CommandHistory commands = new CommandHistory();
     protected final CodeAreaCore codeArea;
     protected final List<BinaryDataUndoRedoChangeListener> listeners = new ArrayList<>();
 
@@ -49,8 +69,8 @@ public class CodeAreaUndoRedo implements BinaryDataUndoRedo, BinaryDataAppendabl
      */
     public CodeAreaUndoRedo(CodeAreaCore codeArea) {
         this.codeArea = codeArea;
-        undoMaximumCount = 1024;
-        undoMaximumSize = 65535;
+        undoMaximumCount = DEFAULT_UNDO_MAXIMUM_COUNT;
+        undoMaximumSize = DEFAULT_UNDO_MAXIMUM_SIZE;
         init();
     }
 
@@ -68,6 +88,7 @@ public class CodeAreaUndoRedo implements BinaryDataUndoRedo, BinaryDataAppendabl
     @Override
     public void execute(BinaryDataCommand command) {
         command.execute();
+        commandPerformed(command);
         commandAdded(command);
     }
 
@@ -76,7 +97,12 @@ public class CodeAreaUndoRedo implements BinaryDataUndoRedo, BinaryDataAppendabl
         if (commandPosition > 0) {
             BinaryDataCommand lastCommand = commands.get(commandPosition - 1);
             if (lastCommand instanceof BinaryDataAppendableCommand) {
-                if (((BinaryDataAppendableCommand) lastCommand).appendExecute(command)) {
+                boolean appended = ((BinaryDataAppendableCommand) lastCommand).appendExecute(command);
+                commandPerformed(command);
+                if (appended) {
+                    updateRetainedSize(commandPosition - 1);
+                    enforceLimits();
+                    undoUpdated();
                     return true;
                 } else {
                     commandAdded(command);
@@ -90,18 +116,46 @@ public class CodeAreaUndoRedo implements BinaryDataUndoRedo, BinaryDataAppendabl
     }
 
     private void commandAdded(BinaryDataCommand addedCommand) {
-        // TODO: Check for undoOperationsMaximumCount & size
         while (commands.size() > commandPosition) {
-            BinaryDataCommand command = commands.get((int) commandPosition);
-            command.dispose();
-            commands.remove(command);
+            usedSize -= commands.getRetainedSize(commands.size() - 1);
+            commands.removeLast().dispose();
+        }
+        if (syncPosition > commandPosition) {
+            // Synchronized state was discarded with redo commands
+            syncPosition = -1;
         }
-        commands.add(addedCommand);
+
+        long retainedSize = addedCommand.getRetainedSize();
+        commands.addLast(addedCommand, retainedSize);
+        usedSize += retainedSize;
         commandPosition++;
+        enforceLimits();
 
         undoUpdated();
     }
 
+    /**
+     * Discards the oldest undo commands while maximum count or size is
+     * exceeded.
+     */
+    private void enforceLimits() {
+        while (commandPosition > 1 && (commands.size() > undoMaximumCount || usedSize > undoMaximumSize)) {
+            usedSize -= commands.getRetainedSize(0);
+            commands.removeFirst().dispose();
+            commandPosition--;
+            if (syncPosition >= 0) {
+                // Synchronized state is no longer reachable when it was before discarded command
+                syncPosition = syncPosition == 0 ? -1 : syncPosition - 1;
+            }
+        }
+    }
+
+    private void updateRetainedSize(int index) {
+        long retainedSize = commands.get(index).getRetainedSize();
+        usedSize += retainedSize - commands.getRetainedSize(index);
+        commands.setRetainedSize(index, retainedSize);
+    }
+
     @Override
     public void performUndo() {
         performUndoInt();
@@ -109,10 +163,12 @@ public class CodeAreaUndoRedo implements BinaryDataUndoRedo, BinaryDataAppendabl
     }
 
     private void performUndoInt() {
-        BinaryDataCommand command = commands.get((int) commandPosition - 1);
+        BinaryDataCommand command = commands.get(commandPosition - 1);
         if (command instanceof BinaryDataUndoableCommand) {
             ((BinaryDataUndoableCommand) command).undo();
+            commandPerformed(command);
             commandPosition--;
+            updateRetainedSize(commandPosition);
         } else {
             throw new UnsupportedOperationException("Not supported yet.");
         }
@@ -125,9 +181,11 @@ public class CodeAreaUndoRedo implements BinaryDataUndoRedo, BinaryDataAppendabl
     }
 
     private void performRedoInt() {
-        BinaryDataCommand command = commands.get((int) commandPosition);
+        BinaryDataCommand command = commands.get(commandPosition);
         if (command instanceof BinaryDataUndoableCommand) {
             ((BinaryDataUndoableCommand) command).redo();
+            commandPerformed(command);
+            updateRetainedSize(commandPosition);
             commandPosition++;
         } else {
             throw new UnsupportedOperationException("Not supported yet.");
@@ -140,8 +198,13 @@ public class CodeAreaUndoRedo implements BinaryDataUndoRedo, BinaryDataAppendabl
             throw new IllegalArgumentException("Unable to perform " + count + " undo steps");
         }
         while (count > 0) {
-            performUndoInt();
-            count--;
+            int squashedCount = performSquashed(true, count);
+            if (squashedCount > 0) {
+                count -= squashedCount;
+            } else {
+                performUndoInt();
+                count--;
+            }
         }
         undoUpdated();
     }
@@ -152,17 +215,82 @@ public class CodeAreaUndoRedo implements BinaryDataUndoRedo, BinaryDataAppendabl
             throw new IllegalArgumentException("Unable to perform " + count + " redo steps");
         }
         while (count > 0) {
-            performRedoInt();
-            count--;
+            int squashedCount = performSquashed(false, count);
+            if (squashedCount > 0) {
+                count -= squashedCount;
+            } else {
+                performRedoInt();
+                count--;
+            }
         }
         undoUpdated();
     }
 
+    /**
+     * Performs undo or redo of following squashable commands as single
+     * sequence of edits.
+     *
+     * @param undo true for undo, false for redo
+     * @param maxCount maximum number of commands
+     * @return number of performed commands, zero if there are less than two
+     * squashable commands
+     */
+    private int performSquashed(boolean undo, int maxCount) {
+        List<SquashableOperationCommand> operationCommands = new ArrayList<>();
+        int squashedCount = 0;
+        while (squashedCount < maxCount) {
+            BinaryDataCommand command = commands.get(undo ? commandPosition - 1 - squashedCount : commandPosition + squashedCount);
+            if (!(command instanceof SquashableCommand)) {
+                break;
+            }
+
+            List<SquashableOperationCommand> commandOperations = new ArrayList<>();
+            if (!((SquashableCommand) command).collectOperationCommands(commandOperations)) {
+                break;
+            }
+            if (undo) {
+                Collections.reverse(commandOperations);
+            }
+            operationCommands.addAll(commandOperations);
+            squashedCount++;
+        }
+        if (squashedCount < 2) {
+            return 0;
+        }
+
+        SquashedOperationPlanner planner = new SquashedOperationPlanner((EditableBinaryData) codeArea.getContentData());
+        for (SquashableOperationCommand operationCommand : operationCommands) {
+            planner.addOperation(CodeAreaUtils.requireNonNull(operationCommand.getOperation()));
+        }
+        List<BinaryDataUndoableOperation> inverseOperations = planner.createInverseOperations();
+        planner.applyEdits();
+        for (int i = 0; i < operationCommands.size(); i++) {
+            operationCommands.get(i).setSquashedOperation(inverseOperations.get(i));
+        }
+
+        BinaryDataCommandPhase phase = undo ? BinaryDataCommandPhase.REVERTED : BinaryDataCommandPhase.EXECUTED;
+        int firstIndex = undo ? commandPosition - squashedCount : commandPosition;
+        for (int index = firstIndex; index < firstIndex + squashedCount; index++) {
+            ((SquashableCommand) commands.get(index)).squashedPhaseChanged(phase);
+            updateRetainedSize(index);
+        }
+        commandPosition += undo ? -squashedCount : squashedCount;
+
+        planner.notifyDataChanged(codeArea);
+        BinaryDataCommand lastCommand = commands.get(undo ? firstIndex : firstIndex + squashedCount - 1);
+        if (lastCommand instanceof CodeAreaCommand) {
+            CodeAreaCommand codeAreaCommand = (CodeAreaCommand) lastCommand;
+            Optional<CodeAreaState> state = undo ? codeAreaCommand.getBeforeState() : codeAreaCommand.getAfterState();
+            state.ifPresent(codeAreaCommand::restoreState);
+        }
+        return squashedCount;
+    }
+
     @Override
     public void clear() {
-        commands.forEach((command) -> {
-            command.dispose();
-        });
+        for (int i = 0; i < commands.size(); i++) {
+            commands.get(i).dispose();
+        }
         commands.clear();
         init();
         undoUpdated();
@@ -194,8 +322,8 @@ public class CodeAreaUndoRedo implements BinaryDataUndoRedo, BinaryDataAppendabl
 
     @Override
     public Optional<BinaryDataCommand> getTopUndoCommand() {
-        if (commandPosition >= 0) {
-            return Optional.of(commands.get((int) (commandPosition - 1)));
+        if (commandPosition > 0) {
+            return Optional.of(commands.get(commandPosition - 1));
         }
         return Optional.empty();
     }
@@ -210,6 +338,10 @@ public class CodeAreaUndoRedo implements BinaryDataUndoRedo, BinaryDataAppendabl
      */
     @Override
     public void performSync() {
+        if (syncPosition < 0) {
+            throw new IllegalStateException("Synchronization position is no longer available");
+        }
+
         setCommandPosition(syncPosition);
     }
 
@@ -217,15 +349,63 @@ public class CodeAreaUndoRedo implements BinaryDataUndoRedo, BinaryDataAppendabl
         this.undoMaximumCount = maxUndo;
     }
 
+    /**
+     * Returns maximum size of the data retained by commands.
+     *
+     * @return maximum size in bytes, clamped to integer range
+     * @deprecated use {@link #getUndoMaximumDataSize()}
+     */
+    @Deprecated
     public int getUndoMaximumSize() {
-        return undoMaximumSize;
+        return (int) Math.min(Integer.MAX_VALUE, undoMaximumSize);
     }
 
+    /**
+     * Sets maximum size of the data retained by commands.
+     *
+     * @param maxSize maximum size in bytes
+     * @deprecated use {@link #setUndoMaximumDataSize(long)}
+     */
+    @Deprecated
     public void setUndoMaximumSize(int maxSize) {
-        this.undoMaximumSize = maxSize;
+        setUndoMaximumDataSize(maxSize);
     }
 
+    /**
+     * Returns size of the data retained by all commands.
+     *
+     * @return used size in bytes, clamped to integer range
+     * @deprecated use {@link #getUsedDataSize()}
+     */
+    @Deprecated
     public int getUsedSize() {
+        return (int) Math.min(Integer.MAX_VALUE, usedSize);
+    }
+
+    /**
+     * Returns maximum size of the data retained by commands.
+     *
+     * @return maximum size in bytes
+     */
+    public long getUndoMaximumDataSize() {
+        return undoMaximumSize;
+    }
+
+    /**
+     * Sets maximum size of the data retained by commands.
+     *
+     * @param maxSize maximum size in bytes
+     */
+    public void setUndoMaximumDataSize(long maxSize) {
+        this.undoMaximumSize = maxSize;
+    }
+
+    /**
+     * Returns size of the data retained by all commands.
+     *
+     * @return used size in bytes
+     */
+    public long getUsedDataSize() {
         return usedSize;
     }
 
@@ -249,6 +429,16 @@ public class CodeAreaUndoRedo implements BinaryDataUndoRedo, BinaryDataAppendabl
         return commands;
     }
 
+    /**
+     * Returns size of the data retained by command.
+     *
+     * @param index command index
+     * @return retained size in bytes
+     */
+    public long getRetainedSize(int index) {
+        return commands.getRetainedSize(index);
+    }
+
     /**
      * Performs undo or redo operation to reach given position.
      *
@@ -262,8 +452,14 @@ public class CodeAreaUndoRedo implements BinaryDataUndoRedo, BinaryDataAppendabl
         }
     }
 
+    private void commandPerformed(BinaryDataCommand command) {
+        if (!(command instanceof CodeAreaCommand)) {
+            // Code area commands report changed data range by themselves
+            codeArea.notifyDataChanged();
+        }
+    }
+
     private void undoUpdated() {
-        codeArea.notifyDataChanged();
         listeners.forEach(BinaryDataUndoRedoChangeListener::undoChanged);
     }
 
@@ -276,4 +472,104 @@ public class CodeAreaUndoRedo implements BinaryDataUndoRedo, BinaryDataAppendabl
     public void removeChangeListener(BinaryDataUndoRedoChangeListener listener) {
         listeners.remove(listener);
     }
+
+    /**
+     * Read-only list of commands stored in ring buffer.
+     * <p>
+     * Commands can be added or removed at both ends in constant time.
+     */
+    @NullMarked
+    protected static class CommandHistory extends AbstractList<BinaryDataCommand> {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private BinaryDataCommand[] items = new BinaryDataCommand[INITIAL_CAPACITY];
+        private long[] retainedSizes = new long[INITIAL_CAPACITY];
+        private int head = 0;
+        private int count = 0;
+
+        @Override
+        public BinaryDataCommand get(int index) {
+            checkIndex(index);
+            return items[slot(index)];
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+
+        public long getRetainedSize(int index) {
+            checkIndex(index);
+            return retainedSizes[slot(index)];
+        }
+
+        public void setRetainedSize(int index, long retainedSize) {
+            checkIndex(index);
+            retainedSizes[slot(index)] = retainedSize;
+        }
+
+        public void addLast(BinaryDataCommand command, long retainedSize) {
+            if (count == items.length) {
+                grow();
+            }
+            int slot = slot(count);
+            items[slot] = command;
+            retainedSizes[slot] = retainedSize;
+            count++;
+            modCount++;
+        }
+
+        public BinaryDataCommand removeFirst() {
+            checkIndex(0);
+            BinaryDataCommand command = items[head];
+            items[head] = null;
+            head = (head + 1) % items.length;
+            count--;
+            modCount++;
+            return command;
+        }
+
+        public BinaryDataCommand removeLast() {
+            checkIndex(count - 1);
+            int slot = slot(count - 1);
+            BinaryDataCommand command = items[slot];
+            items[slot] = null;
+            count--;
+            modCount++;
+            return command;
+        }
+
+        @Override
+        public void clear() {
+            Arrays.fill(items, null);
+            head = 0;
+            count = 0;
+            modCount++;
+        }
+
+        private int slot(int index) {
+            int slot = head + index;
+            return slot < items.length ? slot : slot - items.length;
+        }
+
+        private void grow() {
+            int capacity = items.length * 2;
+            BinaryDataCommand[] newItems = new BinaryDataCommand[capacity];
+            long[] newRetainedSizes = new long[capacity];
+            for (int i = 0; i < count; i++) {
+                newItems[i] = items[slot(i)];
+                newRetainedSizes[i] = retainedSizes[slot(i)];
+            }
+            items = newItems;
+            retainedSizes = newRetainedSizes;
+            head = 0;
+        }
+
+        private void checkIndex(int index) {
+            if (index < 0 || index >= count) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + count);
+            }
+        }
+    }
 }
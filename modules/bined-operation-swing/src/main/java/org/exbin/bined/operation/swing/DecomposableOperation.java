@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.operation.swing;
+
+import java.util.List;
+import org.exbin.bined.operation.BinaryDataUndoableOperation;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Operation which can be expressed as sequence of insert, remove and modify
+ * data operations.
+ */
+@NullMarked
+public interface DecomposableOperation {
+
+    /**
+     * Adds insert, remove and modify data operations with the same effect as
+     * this operation in order of execution.
+     * <p>
+     * Added operations share data with this operation and are valid only
+     * until this operation is disposed.
+     *
+     * @param operations target list
+     * @return false if operation cannot be decomposed
+     */
+    boolean collectBasicOperations(List<BinaryDataUndoableOperation> operations);
+}
@@ -15,6 +15,7 @@
  */
 package org.exbin.bined.operation.swing;
 
+import java.util.List;
 import org.jspecify.annotations.Nullable;
 import org.jspecify.annotations.NullMarked;
 import org.exbin.auxiliary.binary_data.BinaryData;
@@ -102,7 +103,7 @@ public class DeleteEditDataOperation extends CharEditDataOperation {
      * undo step.
      */
     @NullMarked
-    private static class DeleteEditUndoOperation extends InsertDataOperation implements BinaryDataAppendableOperation {
+    private static class DeleteEditUndoOperation extends InsertDataOperation implements BinaryDataAppendableOperation, DecomposableOperation {
 
         private char value;
 
@@ -138,5 +139,11 @@ public class DeleteEditDataOperation extends CharEditDataOperation {
 
             return false;
         }
+
+        @Override
+        public boolean collectBasicOperations(List<BinaryDataUndoableOperation> operations) {
+            operations.add(new InsertDataOperation(position, codeOffset, data));
+            return true;
+        }
     }
 }
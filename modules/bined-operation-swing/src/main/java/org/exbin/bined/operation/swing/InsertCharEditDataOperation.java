@@ -16,6 +16,7 @@
 package org.exbin.bined.operation.swing;
 
 import java.nio.charset.Charset;
+import java.util.List;
 import org.jspecify.annotations.Nullable;
 import org.jspecify.annotations.NullMarked;
 import org.exbin.bined.CodeAreaUtils;
@@ -82,7 +83,7 @@ public class InsertCharEditDataOperation extends CharEditDataOperation {
      * Appendable variant of RemoveDataOperation.
      */
     @NullMarked
-    private static class UndoOperation implements BinaryDataUndoableOperation, BinaryDataAppendableOperation {
+    private static class UndoOperation implements BinaryDataUndoableOperation, BinaryDataAppendableOperation, DecomposableOperation {
 
         private final long position;
         private long length;
@@ -128,6 +129,12 @@ public class InsertCharEditDataOperation extends CharEditDataOperation {
             return undoOperation;
         }
 
+        @Override
+        public boolean collectBasicOperations(List<BinaryDataUndoableOperation> operations) {
+            operations.add(new RemoveDataOperation(position, 0, length));
+            return true;
+        }
+
         @Override
         public void dispose() {
         }
@@ -15,6 +15,7 @@
  */
 package org.exbin.bined.operation.swing;
 
+import java.util.List;
 import org.jspecify.annotations.Nullable;
 import org.jspecify.annotations.NullMarked;
 import org.exbin.bined.CodeType;
@@ -145,7 +146,7 @@ public class InsertCodeEditDataOperation extends CodeEditDataOperation {
      * Appendable variant of RemoveDataOperation.
      */
     @NullMarked
-    private static class UndoOperation implements BinaryDataUndoableOperation, BinaryDataAppendableOperation {
+    private static class UndoOperation implements BinaryDataUndoableOperation, BinaryDataAppendableOperation, DecomposableOperation {
 
         private final long position;
         private final CodeType codeType;
@@ -199,6 +200,12 @@ public class InsertCodeEditDataOperation extends CodeEditDataOperation {
             return undoOperation;
         }
 
+        @Override
+        public boolean collectBasicOperations(List<BinaryDataUndoableOperation> operations) {
+            operations.add(new RemoveDataOperation(position, codeOffset, length));
+            return true;
+        }
+
         @Override
         public void dispose() {
         }
@@ -31,11 +31,27 @@ public class InsertDataOperation implements BinaryDataUndoableOperation {
     protected long position;
     protected int codeOffset;
     protected final BinaryData data;
+    @Nullable
+    protected final UndoDataSpillStore spillStore;
 
     public InsertDataOperation(long position, int codeOffset, BinaryData data) {
+        this(position, codeOffset, data, null);
+    }
+
+    /**
+     * Creates operation with store used for undo data of the reverse
+     * operation.
+     *
+     * @param position position
+     * @param codeOffset code offset
+     * @param data inserted data
+     * @param spillStore store for undo data or null to keep them in heap
+     */
+    public InsertDataOperation(long position, int codeOffset, BinaryData data, @Nullable UndoDataSpillStore spillStore) {
         this.position = position;
         this.codeOffset = codeOffset;
         this.data = data;
+        this.spillStore = spillStore;
     }
 
     @Override
@@ -58,7 +74,7 @@ public class InsertDataOperation implements BinaryDataUndoableOperation {
         BinaryDataUndoableOperation undoOperation = null;
         contentData.insert(position, data);
         if (withUndo) {
-            undoOperation = new RemoveDataOperation(position, codeOffset, data.getDataSize());
+            undoOperation = new RemoveDataOperation(position, codeOffset, data.getDataSize(), spillStore);
         }
         return undoOperation;
     }
@@ -67,10 +83,26 @@ public class InsertDataOperation implements BinaryDataUndoableOperation {
         ((EditableBinaryData) data).insert(data.getDataSize(), appendData);
     }
 
+    public long getPosition() {
+        return position;
+    }
+
     public BinaryData getData() {
         return data;
     }
 
+    /**
+     * Returns size of the data retained in heap.
+     * <p>
+     * Data stored in file by spill store are not counted.
+     *
+     * @return size in bytes
+     */
+    @Override
+    public long getRetainedSize() {
+        return data instanceof UndoDataSpillStore.SpilledData ? 0 : data.getDataSize();
+    }
+
     @Override
     public void dispose() {
         data.dispose();
@@ -30,10 +30,24 @@ public class ModifyDataOperation implements BinaryDataUndoableOperation {
 
     protected final long position;
     protected final BinaryData data;
+    @Nullable
+    protected final UndoDataSpillStore spillStore;
 
     public ModifyDataOperation(long position, BinaryData data) {
+        this(position, data, null);
+    }
+
+    /**
+     * Creates operation storing replaced data for undo using given store.
+     *
+     * @param position position
+     * @param data new data
+     * @param spillStore store for undo data or null to keep them in heap
+     */
+    public ModifyDataOperation(long position, BinaryData data, @Nullable UndoDataSpillStore spillStore) {
         this.position = position;
         this.data = data;
+        this.spillStore = spillStore;
     }
 
     @Override
@@ -51,17 +65,38 @@ public class ModifyDataOperation implements BinaryDataUndoableOperation {
         return CodeAreaUtils.requireNonNull(execute(contentData, true));
     }
 
+    public long getPosition() {
+        return position;
+    }
+
+    public BinaryData getData() {
+        return data;
+    }
+
     @Nullable
     private BinaryDataUndoableOperation execute(EditableBinaryData contentData, boolean withUndo) {
         BinaryDataUndoableOperation undoOperation = null;
         if (withUndo) {
-            BinaryData undoData = contentData.copy(position, data.getDataSize());
-            undoOperation = new ModifyDataOperation(position, undoData);
+            long length = data.getDataSize();
+            BinaryData undoData = spillStore != null ? spillStore.copy(contentData, position, length) : contentData.copy(position, length);
+            undoOperation = new ModifyDataOperation(position, undoData, spillStore);
         }
         contentData.replace(position, data);
         return undoOperation;
     }
 
+    /**
+     * Returns size of the data retained in heap.
+     * <p>
+     * Data stored in file by spill store are not counted.
+     *
+     * @return size in bytes
+     */
+    @Override
+    public long getRetainedSize() {
+        return data instanceof UndoDataSpillStore.SpilledData ? 0 : data.getDataSize();
+    }
+
     @Override
     public void dispose() {
         data.dispose();
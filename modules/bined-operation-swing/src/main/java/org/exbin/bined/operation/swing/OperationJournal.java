@@ -0,0 +1,574 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.operation.swing;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayEditableData;
+import org.exbin.bined.CodeAreaUtils;
+import org.exbin.bined.DataChangeType;
+import org.exbin.bined.DataChangedListener;
+import org.exbin.bined.operation.BinaryDataOperation;
+import org.exbin.bined.swing.CodeAreaCore;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Append-only journal of data changes for crash recovery.
+ * <p>
+ * Register instance as data changed listener of the code area. Each change
+ * reported with its range is stored as insert, remove or modify record with
+ * its data. Records are written by background thread, all records queued in
+ * the meantime are written together and forced to disk once.
+ * <p>
+ * After document is saved, call {@link #checkpoint()} to drop records up to
+ * this point. When document is opened after crash, call
+ * {@link #recover(File, EditableBinaryData)} to replay changes made since the
+ * last checkpoint before creating journal for the same file.
+ * <p>
+ * Change of the whole data cannot be journaled, such change marks journal
+ * as not replayable until next checkpoint.
+ * <p>
+ * Changes reported after {@link #close()} are ignored, journal should be
+ * removed from listeners of the code area before closing.
+ * <p>
+ * File format: magic and version header followed by records of type byte,
+ * position and length as unsigned variable length numbers, data for insert
+ * and modify records and CRC32 checksum of the record.
+ */
+@NullMarked
+public class OperationJournal implements DataChangedListener {
+
+    public static final int MAX_RECORD_DATA_SIZE = 16 * 1024 * 1024;
+
+    private static final byte[] MAGIC = "BINEDJNL".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = MAGIC.length + 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int RECORD_INSERT = 1;
+    private static final int RECORD_REMOVE = 2;
+    private static final int RECORD_MODIFY = 3;
+    private static final int RECORD_CHECKPOINT = 4;
+    private static final int RECORD_INVALID = 5;
+    private static final int RECORD_CLOSE = 0;
+
+    private final CodeAreaCore codeArea;
+    private final File file;
+    private final FileChannel channel;
+    private final LinkedBlockingQueue<Record> queue = new LinkedBlockingQueue<>();
+    private final Thread writerThread;
+    private final Object writtenLock = new Object();
+    private long queuedCount = 0;
+    private long writtenCount = 0;
+    private volatile boolean closed = false;
+    @Nullable
+    private volatile IOException writeFailure;
+
+    /**
+     * Opens journal for given code area.
+     * <p>
+     * Valid records of existing journal are kept and new records are
+     * appended after them, otherwise new journal is started with checkpoint
+     * of the current data.
+     *
+     * @param codeArea code area
+     * @param file journal file
+     * @throws IOException if file cannot be opened
+     */
+    public OperationJournal(CodeAreaCore codeArea, File file) throws IOException {
+        this.codeArea = codeArea;
+        this.file = file;
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long validEnd;
+        try {
+            validEnd = scan(file, null).validEnd;
+        } catch (IOException ex) {
+            validEnd = 0;
+        }
+        if (validEnd == 0) {
+            writeCheckpoint(codeArea.getDataSize());
+        } else {
+            channel.truncate(validEnd);
+            channel.position(validEnd);
+        }
+
+        writerThread = new Thread(this::writeRecords, "OperationJournalWriter");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public void dataChanged() {
+        if (closed) {
+            return;
+        }
+
+        enqueue(new Record(RECORD_INVALID, 0, 0, null));
+    }
+
+    @Override
+    public void dataChanged(long startPosition, long length, DataChangeType changeType) {
+        if (closed || writeFailure != null) {
+            return;
+        }
+
+        switch (changeType) {
+            case INSERT:
+            case MODIFY: {
+                BinaryData contentData = codeArea.getContentData();
+                int recordType = changeType == DataChangeType.INSERT ? RECORD_INSERT : RECORD_MODIFY;
+                long offset = 0;
+                while (offset < length) {
+                    long recordLength = Math.min(MAX_RECORD_DATA_SIZE, length - offset);
+                    BinaryData data = contentData.copy(startPosition + offset, recordLength);
+                    enqueue(new Record(recordType, startPosition + offset, recordLength, data));
+                    offset += recordLength;
+                }
+                break;
+            }
+            case REMOVE: {
+                enqueue(new Record(RECORD_REMOVE, startPosition, length, null));
+                break;
+            }
+            default:
+                throw CodeAreaUtils.getInvalidTypeException(changeType);
+        }
+    }
+
+    /**
+     * Drops all records and starts journal with checkpoint of the current
+     * data.
+     * <p>
+     * Call after document was saved.
+     */
+    public void checkpoint() {
+        enqueue(new Record(RECORD_CHECKPOINT, codeArea.getDataSize(), 0, null));
+    }
+
+    /**
+     * Waits until all queued records are written to disk.
+     *
+     * @throws IOException if writing failed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void flush() throws IOException, InterruptedException {
+        synchronized (writtenLock) {
+            while (writtenCount < queuedCount && writeFailure == null) {
+                writtenLock.wait();
+            }
+        }
+        checkFailure();
+    }
+
+    /**
+     * Writes queued records, stops writer thread and closes file.
+     *
+     * @throws IOException if writing failed
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void close() throws IOException, InterruptedException {
+        if (!closed) {
+            enqueue(new Record(RECORD_CLOSE, 0, 0, null));
+            closed = true;
+            writerThread.join();
+            channel.close();
+        }
+        checkFailure();
+    }
+
+    /**
+     * Replays changes recorded after the last checkpoint.
+     * <p>
+     * Incomplete record at the end of the journal left by crash is ignored.
+     *
+     * @param file journal file
+     * @param data data in state of the last checkpoint
+     * @return number of replayed records
+     * @throws IOException if journal cannot be read, doesn't match data or
+     * contains changes which cannot be replayed
+     */
+    public static long recover(File file, EditableBinaryData data) throws IOException {
+        ScanResult result = scan(file, null);
+        if (result.invalid) {
+            throw new IOException("Journal contains changes which cannot be replayed");
+        }
+        if (result.checkpointSize != data.getDataSize()) {
+            throw new IOException("Journal does not match data of size " + data.getDataSize());
+        }
+
+        return scan(file, data).recordsCount;
+    }
+
+    private static ScanResult scan(File file, @Nullable EditableBinaryData data) throws IOException {
+        ScanResult result = new ScanResult();
+        try (InputStream stream = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE)) {
+            byte[] header = new byte[HEADER_SIZE];
+            if (readFully(stream, header, HEADER_SIZE) < HEADER_SIZE) {
+                return result;
+            }
+            if (!Arrays.equals(Arrays.copyOf(header, MAGIC.length), MAGIC) || header[MAGIC.length] != VERSION) {
+                throw new IOException("Unsupported journal file " + file);
+            }
+
+            long position = HEADER_SIZE;
+            CRC32 crc = new CRC32();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (true) {
+                crc.reset();
+                RecordReader reader = new RecordReader(stream, crc);
+                try {
+                    int recordType = reader.readByte();
+                    long recordPosition = reader.readNumber();
+                    long recordLength = reader.readNumber();
+                    BinaryDataOperation operation = null;
+                    if (recordType == RECORD_INSERT || recordType == RECORD_MODIFY) {
+                        if (recordLength < 0 || recordLength > MAX_RECORD_DATA_SIZE) {
+                            break;
+                        }
+                        byte[] recordData = new byte[(int) recordLength];
+                        reader.readFully(recordData);
+                        if (data != null) {
+                            operation = recordType == RECORD_INSERT
+                                    ? new InsertDataOperation(recordPosition, 0, new ByteArrayEditableData(recordData))
+                                    : new ModifyDataOperation(recordPosition, new ByteArrayEditableData(recordData));
+                        }
+                    } else if (recordType == RECORD_REMOVE) {
+                        if (data != null) {
+                            operation = new RemoveDataOperation(recordPosition, 0, recordLength);
+                        }
+                    } else if (recordType != RECORD_CHECKPOINT && recordType != RECORD_INVALID) {
+                        break;
+                    }
+                    long checksum = crc.getValue();
+                    if (reader.readChecksum() != checksum) {
+                        break;
+                    }
+
+                    position += reader.getReadCount();
+                    result.validEnd = position;
+                    if (recordType == RECORD_CHECKPOINT) {
+                        result.checkpointSize = recordPosition;
+                        result.recordsCount = 0;
+                        result.invalid = false;
+                    } else if (recordType == RECORD_INVALID) {
+                        result.invalid = true;
+                    } else {
+                        if (operation != null) {
+                            operation.execute(CodeAreaUtils.requireNonNull(data));
+                            operation.dispose();
+                        }
+                        result.recordsCount++;
+                    }
+                } catch (EOFException ex) {
+                    // Incomplete last record
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private void enqueue(Record record) {
+        if (closed) {
+            throw new IllegalStateException("Journal was already closed");
+        }
+        if (writeFailure != null) {
+            // Writer thread has stopped, failure is reported by flush or close
+            if (record.data != null) {
+                record.data.dispose();
+            }
+            return;
+        }
+
+        synchronized (writtenLock) {
+            queuedCount++;
+        }
+        queue.add(record);
+    }
+
+    private void writeRecords() {
+        List<Record> batch = new ArrayList<>();
+        RecordWriter writer = new RecordWriter();
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queue.drainTo(batch);
+
+            int processedCount = 0;
+            try {
+                for (Record record : batch) {
+                    switch (record.type) {
+                        case RECORD_CLOSE: {
+                            running = false;
+                            break;
+                        }
+                        case RECORD_CHECKPOINT: {
+                            writer.flush();
+                            writeCheckpoint(record.position);
+                            break;
+                        }
+                        default: {
+                            writer.write(record);
+                        }
+                    }
+                    if (record.data != null) {
+                        record.data.dispose();
+                    }
+                    processedCount++;
+                }
+                writer.flush();
+                channel.force(false);
+            } catch (IOException ex) {
+                Logger.getLogger(OperationJournal.class.getName()).log(Level.WARNING, "Unable to write journal " + file, ex);
+                writeFailure = ex;
+                running = false;
+                // Drop records which will not be written anymore
+                queue.drainTo(batch);
+                for (Record record : batch.subList(processedCount, batch.size())) {
+                    if (record.data != null) {
+                        record.data.dispose();
+                    }
+                }
+            }
+
+            synchronized (writtenLock) {
+                writtenCount += batch.size();
+                writtenLock.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    private void writeCheckpoint(long dataSize) throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        RecordWriter writer = new RecordWriter();
+        writer.put(MAGIC, 0, MAGIC.length);
+        writer.put((byte) VERSION);
+        writer.write(new Record(RECORD_CHECKPOINT, dataSize, 0, null));
+        writer.flush();
+    }
+
+    private void checkFailure() throws IOException {
+        IOException failure = writeFailure;
+        if (failure != null) {
+            throw new IOException("Unable to write journal " + file, failure);
+        }
+    }
+
+    private static int readFully(InputStream stream, byte[] target, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            int read = stream.read(target, offset, length - offset);
+            if (read < 0) {
+                break;
+            }
+            offset += read;
+        }
+        return offset;
+    }
+
+    private static final class Record {
+
+        private final int type;
+        private final long position;
+        private final long length;
+        @Nullable
+        private final BinaryData data;
+
+        private Record(int type, long position, long length, @Nullable BinaryData data) {
+            this.type = type;
+            this.position = position;
+            this.length = length;
+            this.data = data;
+        }
+    }
+
+    private static final class ScanResult {
+
+        private long validEnd = 0;
+        private long checkpointSize = -1;
+        private long recordsCount = 0;
+        private boolean invalid = false;
+    }
+
+    /**
+     * Encoder of records into buffer written to journal file.
+     */
+    private final class RecordWriter {
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        private final byte[] dataBuffer = new byte[BUFFER_SIZE];
+        private final CRC32 crc = new CRC32();
+
+        private void write(Record record) throws IOException {
+            crc.reset();
+            putChecked((byte) record.type);
+            putNumber(record.position);
+            putNumber(record.length);
+            BinaryData data = record.data;
+            if (data != null) {
+                long offset = 0;
+                while (offset < record.length) {
+                    int chunkLength = (int) Math.min(BUFFER_SIZE, record.length - offset);
+                    data.copyToArray(offset, dataBuffer, 0, chunkLength);
+                    crc.update(dataBuffer, 0, chunkLength);
+                    put(dataBuffer, 0, chunkLength);
+                    offset += chunkLength;
+                }
+            }
+            int checksum = (int) crc.getValue();
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                put((byte) (checksum >> shift));
+            }
+        }
+
+        private void putNumber(long value) throws IOException {
+            long remaining = value;
+            while ((remaining & ~0x7fL) != 0) {
+                putChecked((byte) ((remaining & 0x7f) | 0x80));
+                remaining >>>= 7;
+            }
+            putChecked((byte) remaining);
+        }
+
+        private void putChecked(byte value) throws IOException {
+            crc.update(value);
+            put(value);
+        }
+
+        private void put(byte value) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put(value);
+        }
+
+        private void put(byte[] source, int offset, int length) throws IOException {
+            int position = offset;
+            int remaining = length;
+            while (remaining > 0) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int chunkLength = Math.min(remaining, buffer.remaining());
+                buffer.put(source, position, chunkLength);
+                position += chunkLength;
+                remaining -= chunkLength;
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Decoder of record fields tracking checksum and number of read bytes.
+     */
+    private static final class RecordReader {
+
+        private final InputStream stream;
+        private final CRC32 crc;
+        private long readCount = 0;
+
+        private RecordReader(InputStream stream, CRC32 crc) {
+            this.stream = stream;
+            this.crc = crc;
+        }
+
+        private int readByte() throws IOException {
+            int value = stream.read();
+            if (value < 0) {
+                throw new EOFException();
+            }
+            crc.update(value);
+            readCount++;
+            return value;
+        }
+
+        private long readNumber() throws IOException {
+            long value = 0;
+            int shift = 0;
+            int part;
+            do {
+                if (shift > 63) {
+                    throw new EOFException("Invalid number");
+                }
+                part = readByte();
+                value |= (long) (part & 0x7f) << shift;
+                shift += 7;
+            } while ((part & 0x80) != 0);
+            return value;
+        }
+
+        private void readFully(byte[] target) throws IOException {
+            if (OperationJournal.readFully(stream, target, target.length) < target.length) {
+                throw new EOFException();
+            }
+            crc.update(target, 0, target.length);
+            readCount += target.length;
+        }
+
+        private long readChecksum() throws IOException {
+            long checksum = 0;
+            for (int i = 0; i < 4; i++) {
+                int value = stream.read();
+                if (value < 0) {
+                    throw new EOFException();
+                }
+                checksum = (checksum << 8) | value;
+                readCount++;
+            }
+            return checksum;
+        }
+
+        private long getReadCount() {
+            return readCount;
+        }
+    }
+}
@@ -16,6 +16,7 @@
 package org.exbin.bined.operation.swing;
 
 import java.nio.charset.Charset;
+import java.util.List;
 import org.jspecify.annotations.Nullable;
 import org.jspecify.annotations.NullMarked;
 import org.exbin.auxiliary.binary_data.BinaryData;
@@ -101,7 +102,7 @@ public class OverwriteCharEditDataOperation extends CharEditDataOperation {
         return charLength;
     }
 
-    private static class UndoOperation implements BinaryDataUndoableOperation, BinaryDataAppendableOperation {
+    private static class UndoOperation implements BinaryDataUndoableOperation, BinaryDataAppendableOperation, DecomposableOperation {
 
         private final long position;
         private final BinaryData data;
@@ -165,6 +166,22 @@ public class OverwriteCharEditDataOperation extends CharEditDataOperation {
             return undoOperation;
         }
 
+        @Override
+        public boolean collectBasicOperations(List<BinaryDataUndoableOperation> operations) {
+            if (!data.isEmpty()) {
+                operations.add(new ModifyDataOperation(position, data));
+            }
+            if (removeLength > 0) {
+                operations.add(new RemoveDataOperation(position + data.getDataSize(), 0, removeLength));
+            }
+            return true;
+        }
+
+        @Override
+        public long getRetainedSize() {
+            return data.getDataSize();
+        }
+
         @Override
         public void dispose() {
         }
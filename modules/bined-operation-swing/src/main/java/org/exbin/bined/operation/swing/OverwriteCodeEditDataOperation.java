@@ -15,6 +15,7 @@
  */
 package org.exbin.bined.operation.swing;
 
+import java.util.List;
 import org.jspecify.annotations.Nullable;
 import org.jspecify.annotations.NullMarked;
 import org.exbin.auxiliary.binary_data.BinaryData;
@@ -112,7 +113,7 @@ public class OverwriteCodeEditDataOperation extends CodeEditDataOperation {
     }
 
     @NullMarked
-    private static class UndoOperation implements BinaryDataUndoableOperation, BinaryDataAppendableOperation {
+    private static class UndoOperation implements BinaryDataUndoableOperation, BinaryDataAppendableOperation, DecomposableOperation {
 
         private final long position;
         private final BinaryData data;
@@ -184,6 +185,22 @@ public class OverwriteCodeEditDataOperation extends CodeEditDataOperation {
             return undoOperation;
         }
 
+        @Override
+        public boolean collectBasicOperations(List<BinaryDataUndoableOperation> operations) {
+            if (!data.isEmpty()) {
+                operations.add(new ModifyDataOperation(position, data));
+            }
+            if (removeLength > 0) {
+                operations.add(new RemoveDataOperation(position + data.getDataSize(), 0, removeLength));
+            }
+            return true;
+        }
+
+        @Override
+        public long getRetainedSize() {
+            return data.getDataSize();
+        }
+
         @Override
         public void dispose() {
         }
@@ -18,6 +18,7 @@ package org.exbin.bined.operation.swing;
 import org.jspecify.annotations.Nullable;
 import org.jspecify.annotations.NullMarked;
 
+import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
 import org.exbin.bined.CodeAreaUtils;
 import org.exbin.bined.operation.BinaryDataUndoableOperation;
@@ -31,11 +32,26 @@ public class RemoveDataOperation implements BinaryDataUndoableOperation {
     protected final long position;
     protected final int codeOffset;
     protected final long length;
+    @Nullable
+    protected final UndoDataSpillStore spillStore;
 
     public RemoveDataOperation(long position, int codeOffset, long length) {
+        this(position, codeOffset, length, null);
+    }
+
+    /**
+     * Creates operation storing removed data for undo using given store.
+     *
+     * @param position position
+     * @param codeOffset code offset
+     * @param length length of removed data
+     * @param spillStore store for undo data or null to keep them in heap
+     */
+    public RemoveDataOperation(long position, int codeOffset, long length, @Nullable UndoDataSpillStore spillStore) {
         this.position = position;
         this.codeOffset = codeOffset;
         this.length = length;
+        this.spillStore = spillStore;
     }
 
     @Override
@@ -53,12 +69,20 @@ public class RemoveDataOperation implements BinaryDataUndoableOperation {
         return CodeAreaUtils.requireNonNull(execute(contentData, true));
     }
 
+    public long getPosition() {
+        return position;
+    }
+
+    public long getLength() {
+        return length;
+    }
+
     @Nullable
     private BinaryDataUndoableOperation execute(EditableBinaryData contentData, boolean withUndo) {
         BinaryDataUndoableOperation undoOperation = null;
         if (withUndo) {
-            EditableBinaryData undoData = (EditableBinaryData) contentData.copy(position, length);
-            undoOperation = new InsertDataOperation(position, codeOffset, undoData);
+            BinaryData undoData = spillStore != null ? spillStore.copy(contentData, position, length) : contentData.copy(position, length);
+            undoOperation = new InsertDataOperation(position, codeOffset, undoData, spillStore);
         }
         contentData.remove(position, length);
         return undoOperation;
@@ -0,0 +1,477 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.operation.swing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayEditableData;
+import org.exbin.bined.DataChangeType;
+import org.exbin.bined.operation.BinaryDataOperation;
+import org.exbin.bined.operation.BinaryDataUndoableOperation;
+import org.exbin.bined.swing.CodeAreaCore;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Planner composing sequence of data operations into minimal set of edits.
+ * <p>
+ * Operations are applied to list of pieces referencing either the current
+ * content data or data of the operations, so that no data are moved while
+ * planning. Inverse operations are prepared from the intermediate states
+ * and the final state is then reached by single pass of edits applied to
+ * the content data from its end. Adjacent and overlapping changes are
+ * merged into single edit.
+ * <p>
+ * Insert, remove and modify data operations and operations decomposable
+ * into them are supported. Data of the planned operations must stay valid
+ * until edits are applied.
+ */
+@NullMarked
+public class SquashedOperationPlanner {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final EditableBinaryData contentData;
+    private final List<Piece> pieces = new ArrayList<>();
+    private final List<InverseOperation> inverseOperations = new ArrayList<>();
+    private final List<Integer> basicOperationsCounts = new ArrayList<>();
+    private final List<Edit> edits = new ArrayList<>();
+
+    public SquashedOperationPlanner(EditableBinaryData contentData) {
+        this.contentData = contentData;
+        long dataSize = contentData.getDataSize();
+        if (dataSize > 0) {
+            pieces.add(new Piece(null, 0, dataSize));
+        }
+    }
+
+    /**
+     * Returns true if operation can be planned.
+     *
+     * @param operation operation
+     * @return true if supported
+     */
+    public static boolean isSupported(BinaryDataUndoableOperation operation) {
+        return collectBasicOperations(operation, new ArrayList<>());
+    }
+
+    /**
+     * Adds insert, remove and modify data operations equivalent to given
+     * operation.
+     *
+     * @param operation operation
+     * @param operations target list
+     * @return false if operation is not supported
+     */
+    public static boolean collectBasicOperations(BinaryDataOperation operation, List<BinaryDataUndoableOperation> operations) {
+        Class<?> operationClass = operation.getClass();
+        if (operationClass == InsertDataOperation.class
+                || operationClass == RemoveDataOperation.class
+                || operationClass == ModifyDataOperation.class) {
+            operations.add((BinaryDataUndoableOperation) operation);
+            return true;
+        }
+
+        return operation instanceof DecomposableOperation && ((DecomposableOperation) operation).collectBasicOperations(operations);
+    }
+
+    /**
+     * Adds operation to the planned sequence.
+     *
+     * @param operation operation
+     */
+    public void addOperation(BinaryDataUndoableOperation operation) {
+        List<BinaryDataUndoableOperation> basicOperations = new ArrayList<>();
+        if (!collectBasicOperations(operation, basicOperations)) {
+            throw new IllegalArgumentException("Unsupported operation " + operation.getClass().getName());
+        }
+
+        for (BinaryDataUndoableOperation basicOperation : basicOperations) {
+            addBasicOperation(basicOperation);
+        }
+        basicOperationsCounts.add(basicOperations.size());
+    }
+
+    private void addBasicOperation(BinaryDataUndoableOperation operation) {
+        if (operation.getClass() == InsertDataOperation.class) {
+            InsertDataOperation insertOperation = (InsertDataOperation) operation;
+            long length = insertOperation.data.getDataSize();
+            int index = splitAt(insertOperation.position);
+            if (length > 0) {
+                pieces.add(index, new Piece(insertOperation.data, 0, length));
+            }
+            inverseOperations.add(new InverseOperation(operation, new ArrayList<>()));
+        } else if (operation.getClass() == RemoveDataOperation.class) {
+            RemoveDataOperation removeOperation = (RemoveDataOperation) operation;
+            List<Piece> removedPieces = extract(removeOperation.position, removeOperation.length);
+            inverseOperations.add(new InverseOperation(operation, removedPieces));
+        } else if (operation.getClass() == ModifyDataOperation.class) {
+            ModifyDataOperation modifyOperation = (ModifyDataOperation) operation;
+            long length = modifyOperation.data.getDataSize();
+            List<Piece> replacedPieces = extract(modifyOperation.position, length);
+            if (length > 0) {
+                pieces.add(splitAt(modifyOperation.position), new Piece(modifyOperation.data, 0, length));
+            }
+            inverseOperations.add(new InverseOperation(operation, replacedPieces));
+        } else {
+            throw new IllegalArgumentException("Unsupported operation " + operation.getClass().getName());
+        }
+    }
+
+    /**
+     * Creates inverse operations for all added operations in the order of
+     * addition.
+     * <p>
+     * Has to be called before edits are applied.
+     *
+     * @return inverse operations
+     */
+    public List<BinaryDataUndoableOperation> createInverseOperations() {
+        List<BinaryDataUndoableOperation> result = new ArrayList<>(basicOperationsCounts.size());
+        int index = 0;
+        for (int basicOperationsCount : basicOperationsCounts) {
+            if (basicOperationsCount == 1) {
+                result.add(createInverseOperation(inverseOperations.get(index)));
+            } else {
+                // Inverse of decomposed operation reverts its parts in reverse order
+                BasicBinaryDataCompoundOperation compoundOperation = new BasicBinaryDataCompoundOperation();
+                for (int i = 0; i < basicOperationsCount; i++) {
+                    compoundOperation.insertOperation(0, createInverseOperation(inverseOperations.get(index + i)));
+                }
+                result.add(compoundOperation);
+            }
+            index += basicOperationsCount;
+        }
+        return result;
+    }
+
+    private BinaryDataUndoableOperation createInverseOperation(InverseOperation inverseOperation) {
+        BinaryDataUndoableOperation operation = inverseOperation.operation;
+        if (operation instanceof InsertDataOperation) {
+            InsertDataOperation insertOperation = (InsertDataOperation) operation;
+            return new RemoveDataOperation(insertOperation.position, insertOperation.codeOffset, insertOperation.data.getDataSize(), insertOperation.spillStore);
+        } else if (operation instanceof RemoveDataOperation) {
+            RemoveDataOperation removeOperation = (RemoveDataOperation) operation;
+            BinaryData undoData = createData(inverseOperation.pieces, removeOperation.spillStore);
+            return new InsertDataOperation(removeOperation.position, removeOperation.codeOffset, undoData, removeOperation.spillStore);
+        } else {
+            ModifyDataOperation modifyOperation = (ModifyDataOperation) operation;
+            BinaryData undoData = createData(inverseOperation.pieces, modifyOperation.spillStore);
+            return new ModifyDataOperation(modifyOperation.position, undoData, modifyOperation.spillStore);
+        }
+    }
+
+    /**
+     * Applies edits transforming content data to the final state.
+     */
+    public void applyEdits() {
+        collectEdits();
+        for (int i = edits.size() - 1; i >= 0; i--) {
+            Edit edit = edits.get(i);
+            long position = edit.position;
+            long replaced = 0;
+            for (Piece piece : edit.inserted) {
+                long offset = piece.offset;
+                long remaining = piece.length;
+                if (replaced < edit.removedLength) {
+                    long replaceLength = Math.min(remaining, edit.removedLength - replaced);
+                    contentData.replace(position, getSource(piece), offset, replaceLength);
+                    position += replaceLength;
+                    replaced += replaceLength;
+                    offset += replaceLength;
+                    remaining -= replaceLength;
+                }
+                if (remaining > 0) {
+                    contentData.insert(position, getSource(piece), offset, remaining);
+                    position += remaining;
+                }
+            }
+            if (replaced < edit.removedLength) {
+                contentData.remove(position, edit.removedLength - replaced);
+            }
+        }
+    }
+
+    /**
+     * Reports applied edits to code area.
+     * <p>
+     * Each edit is reported as ranged change in ascending order, so that
+     * positions of each notification are valid after all previous
+     * notifications are processed.
+     *
+     * @param codeArea code area
+     */
+    public void notifyDataChanged(CodeAreaCore codeArea) {
+        long shift = 0;
+        for (Edit edit : edits) {
+            long position = edit.position + shift;
+            long insertedLength = edit.getInsertedLength();
+            long modifiedLength = Math.min(insertedLength, edit.removedLength);
+            if (modifiedLength > 0) {
+                codeArea.notifyDataChanged(position, modifiedLength, DataChangeType.MODIFY);
+            }
+            if (insertedLength > edit.removedLength) {
+                codeArea.notifyDataChanged(position + modifiedLength, insertedLength - modifiedLength, DataChangeType.INSERT);
+            } else if (insertedLength < edit.removedLength) {
+                codeArea.notifyDataChanged(position + modifiedLength, edit.removedLength - modifiedLength, DataChangeType.REMOVE);
+            }
+            shift += insertedLength - edit.removedLength;
+        }
+    }
+
+    /**
+     * Returns number of edits applied to content data.
+     *
+     * @return edits count
+     */
+    public int getEditsCount() {
+        return edits.size();
+    }
+
+    private void collectEdits() {
+        edits.clear();
+        long originalPosition = 0;
+        Edit edit = null;
+        for (Piece piece : pieces) {
+            if (piece.source == null) {
+                if (piece.offset > originalPosition) {
+                    if (edit == null) {
+                        edit = new Edit(originalPosition);
+                    }
+                    edit.removedLength = piece.offset - originalPosition;
+                }
+                if (edit != null) {
+                    edits.add(edit);
+                    edit = null;
+                }
+                originalPosition = piece.offset + piece.length;
+            } else {
+                if (edit == null) {
+                    edit = new Edit(originalPosition);
+                }
+                edit.inserted.add(piece);
+            }
+        }
+
+        long dataSize = contentData.getDataSize();
+        if (originalPosition < dataSize) {
+            if (edit == null) {
+                edit = new Edit(originalPosition);
+            }
+            edit.removedLength = dataSize - originalPosition;
+        }
+        if (edit != null) {
+            edits.add(edit);
+        }
+    }
+
+    private BinaryData getSource(Piece piece) {
+        return piece.source == null ? contentData : piece.source;
+    }
+
+    private BinaryData createData(List<Piece> dataPieces, @Nullable UndoDataSpillStore spillStore) {
+        if (dataPieces.size() == 1) {
+            Piece piece = dataPieces.get(0);
+            BinaryData source = getSource(piece);
+            return spillStore != null ? spillStore.copy(source, piece.offset, piece.length) : source.copy(piece.offset, piece.length);
+        }
+
+        PiecesData piecesData = new PiecesData(dataPieces);
+        return spillStore != null ? spillStore.copy(piecesData, 0, piecesData.dataSize) : piecesData.copy(0, piecesData.dataSize);
+    }
+
+    /**
+     * Splits pieces at given position.
+     *
+     * @param position position
+     * @return index of the first piece starting at given position
+     */
+    private int splitAt(long position) {
+        long piecePosition = 0;
+        for (int index = 0; index < pieces.size(); index++) {
+            if (piecePosition == position) {
+                return index;
+            }
+
+            Piece piece = pieces.get(index);
+            if (position < piecePosition + piece.length) {
+                long splitLength = position - piecePosition;
+                pieces.set(index, new Piece(piece.source, piece.offset, splitLength));
+                pieces.add(index + 1, new Piece(piece.source, piece.offset + splitLength, piece.length - splitLength));
+                return index + 1;
+            }
+            piecePosition += piece.length;
+        }
+
+        if (position != piecePosition) {
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds for size " + piecePosition);
+        }
+        return pieces.size();
+    }
+
+    private List<Piece> extract(long position, long length) {
+        int startIndex = splitAt(position);
+        int endIndex = splitAt(position + length);
+        List<Piece> range = pieces.subList(startIndex, endIndex);
+        List<Piece> extracted = new ArrayList<>(range);
+        range.clear();
+        return extracted;
+    }
+
+    private static final class Piece {
+
+        @Nullable
+        private final BinaryData source;
+        private final long offset;
+        private final long length;
+
+        private Piece(@Nullable BinaryData source, long offset, long length) {
+            this.source = source;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Read only view of sequence of pieces used as source of the copied
+     * inverse data.
+     */
+    private final class PiecesData implements BinaryData {
+
+        private final List<Piece> dataPieces;
+        private final long dataSize;
+
+        private PiecesData(List<Piece> dataPieces) {
+            this.dataPieces = dataPieces;
+            long size = 0;
+            for (Piece piece : dataPieces) {
+                size += piece.length;
+            }
+            dataSize = size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return dataSize == 0;
+        }
+
+        @Override
+        public long getDataSize() {
+            return dataSize;
+        }
+
+        @Override
+        public byte getByte(long position) {
+            long piecePosition = 0;
+            for (Piece piece : dataPieces) {
+                if (position < piecePosition + piece.length) {
+                    return getSource(piece).getByte(piece.offset + position - piecePosition);
+                }
+                piecePosition += piece.length;
+            }
+            throw new IndexOutOfBoundsException("Position " + position + " out of bounds for size " + dataSize);
+        }
+
+        @Override
+        public BinaryData copy() {
+            return copy(0, dataSize);
+        }
+
+        @Override
+        public BinaryData copy(long startFrom, long length) {
+            EditableBinaryData data = new ByteArrayEditableData();
+            long piecePosition = 0;
+            for (Piece piece : dataPieces) {
+                long copyStart = Math.max(startFrom, piecePosition);
+                long copyEnd = Math.min(startFrom + length, piecePosition + piece.length);
+                if (copyStart < copyEnd) {
+                    data.insert(data.getDataSize(), getSource(piece), piece.offset + copyStart - piecePosition, copyEnd - copyStart);
+                }
+                piecePosition += piece.length;
+            }
+            return data;
+        }
+
+        @Override
+        public void copyToArray(long startFrom, byte[] target, int offset, int length) {
+            long piecePosition = 0;
+            for (Piece piece : dataPieces) {
+                long copyStart = Math.max(startFrom, piecePosition);
+                long copyEnd = Math.min(startFrom + length, piecePosition + piece.length);
+                if (copyStart < copyEnd) {
+                    getSource(piece).copyToArray(piece.offset + copyStart - piecePosition, target, offset + (int) (copyStart - startFrom), (int) (copyEnd - copyStart));
+                }
+                piecePosition += piece.length;
+            }
+        }
+
+        @Override
+        public void saveToStream(OutputStream outputStream) throws IOException {
+            byte[] buffer = new byte[(int) Math.min(BUFFER_SIZE, dataSize)];
+            long position = 0;
+            while (position < dataSize) {
+                int chunkLength = (int) Math.min(buffer.length, dataSize - position);
+                copyToArray(position, buffer, 0, chunkLength);
+                outputStream.write(buffer, 0, chunkLength);
+                position += chunkLength;
+            }
+        }
+
+        @Override
+        public InputStream getDataInputStream() {
+            return copy().getDataInputStream();
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+
+    private static final class InverseOperation {
+
+        private final BinaryDataUndoableOperation operation;
+        private final List<Piece> pieces;
+
+        private InverseOperation(BinaryDataUndoableOperation operation, List<Piece> pieces) {
+            this.operation = operation;
+            this.pieces = pieces;
+        }
+    }
+
+    private static final class Edit {
+
+        private final long position;
+        private long removedLength = 0;
+        private final List<Piece> inserted = new ArrayList<>();
+
+        private Edit(long position) {
+            this.position = position;
+        }
+
+        private long getInsertedLength() {
+            long length = 0;
+            for (Piece piece : inserted) {
+                length += piece.length;
+            }
+            return length;
+        }
+    }
+}
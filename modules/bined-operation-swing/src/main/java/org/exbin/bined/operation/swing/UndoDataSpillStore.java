@@ -0,0 +1,365 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.operation.swing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.bined.PieceTableEditableData;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Store moving large undo data out of heap into temporary file.
+ * <p>
+ * Data are appended as segments at the end of single temporary file and
+ * read back lazily through returned binary data. File is created on first
+ * use and deleted when all segments are disposed, space of disposed
+ * segments is not reused otherwise.
+ * <p>
+ * When data cannot be written, heap copy is returned instead.
+ */
+@NullMarked
+public class UndoDataSpillStore {
+
+    public static final long DEFAULT_THRESHOLD = 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int WINDOW_SIZE = 4096;
+
+    private long threshold;
+    @Nullable
+    private File file;
+    @Nullable
+    private FileChannel channel;
+    private long fileSize = 0;
+    private int segmentsCount = 0;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    public UndoDataSpillStore() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    public UndoDataSpillStore(long threshold) {
+        this.threshold = threshold;
+    }
+
+    public long getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Sets minimum size of the data moved to file.
+     *
+     * @param threshold size in bytes
+     */
+    public void setThreshold(long threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns size of the temporary file.
+     *
+     * @return size in bytes
+     */
+    public synchronized long getFileSize() {
+        return fileSize;
+    }
+
+    /**
+     * Returns number of segments not disposed yet.
+     *
+     * @return segments count
+     */
+    public synchronized int getSegmentsCount() {
+        return segmentsCount;
+    }
+
+    /**
+     * Returns copy of the given range of data.
+     * <p>
+     * Data of at least threshold size are stored in file, smaller data are
+     * copied in heap. Piece table data are not stored as their copies only
+     * reference existing data.
+     *
+     * @param data source data
+     * @param startFrom start position
+     * @param length length of the range
+     * @return copy of the data
+     */
+    public BinaryData copy(BinaryData data, long startFrom, long length) {
+        if (length < threshold || length == 0 || data instanceof PieceTableEditableData) {
+            return data.copy(startFrom, length);
+        }
+
+        try {
+            return new SpilledData(this, write(data, startFrom, length), length);
+        } catch (IOException ex) {
+            Logger.getLogger(UndoDataSpillStore.class.getName()).log(Level.WARNING, "Unable to store undo data in temporary file", ex);
+            return data.copy(startFrom, length);
+        }
+    }
+
+    /**
+     * Closes and deletes temporary file.
+     * <p>
+     * Data returned by this store cannot be read afterwards.
+     */
+    public synchronized void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException ex) {
+                Logger.getLogger(UndoDataSpillStore.class.getName()).log(Level.WARNING, null, ex);
+            }
+            channel = null;
+        }
+        if (file != null) {
+            file.delete();
+            file = null;
+        }
+        fileSize = 0;
+    }
+
+    private synchronized long write(BinaryData data, long startFrom, long length) throws IOException {
+        FileChannel fileChannel = openChannel();
+        long segmentStart = fileSize;
+        long position = 0;
+        try {
+            while (position < length) {
+                int chunkLength = (int) Math.min(BUFFER_SIZE, length - position);
+                data.copyToArray(startFrom + position, buffer, 0, chunkLength);
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, chunkLength);
+                while (chunk.hasRemaining()) {
+                    fileChannel.write(chunk, segmentStart + position + chunk.position());
+                }
+                position += chunkLength;
+            }
+        } catch (IOException ex) {
+            // Drop partially written segment
+            fileChannel.truncate(segmentStart);
+            throw ex;
+        }
+
+        fileSize = segmentStart + length;
+        segmentsCount++;
+        return segmentStart;
+    }
+
+    private synchronized void read(long position, byte[] target, int offset, int length) {
+        if (channel == null) {
+            throw new IllegalStateException("Undo data store was already closed");
+        }
+
+        ByteBuffer targetBuffer = ByteBuffer.wrap(target, offset, length);
+        try {
+            while (targetBuffer.hasRemaining()) {
+                if (channel.read(targetBuffer, position + targetBuffer.position() - offset) < 0) {
+                    throw new IOException("Unexpected end of file " + file);
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Unable to read undo data from file " + file, ex);
+        }
+    }
+
+    private synchronized void transferTo(long position, long length, WritableByteChannel target) throws IOException {
+        if (channel == null) {
+            throw new IllegalStateException("Undo data store was already closed");
+        }
+
+        long transferred = 0;
+        while (transferred < length) {
+            transferred += channel.transferTo(position + transferred, length - transferred, target);
+        }
+    }
+
+    private synchronized void acquire() {
+        segmentsCount++;
+    }
+
+    private synchronized void release() {
+        segmentsCount--;
+        if (segmentsCount == 0) {
+            // File is created again when needed
+            close();
+        }
+    }
+
+    private FileChannel openChannel() throws IOException {
+        if (channel == null) {
+            File tempFile = File.createTempFile("bined-undo", ".tmp");
+            tempFile.deleteOnExit();
+            channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            file = tempFile;
+            fileSize = 0;
+        }
+        return channel;
+    }
+
+    /**
+     * Read only view of the segment stored in file.
+     */
+    @NullMarked
+    protected static class SpilledData implements BinaryData {
+
+        private final UndoDataSpillStore store;
+        private final long filePosition;
+        private final long dataSize;
+        private boolean disposed = false;
+        @Nullable
+        private byte[] window;
+        private long windowStart = 0;
+        private int windowLength = 0;
+
+        private SpilledData(UndoDataSpillStore store, long filePosition, long dataSize) {
+            this.store = store;
+            this.filePosition = filePosition;
+            this.dataSize = dataSize;
+        }
+
+        public UndoDataSpillStore getStore() {
+            return store;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return dataSize == 0;
+        }
+
+        @Override
+        public long getDataSize() {
+            return dataSize;
+        }
+
+        @Override
+        public synchronized byte getByte(long position) {
+            checkRange(position, 1);
+            byte[] windowData = window;
+            if (windowData == null) {
+                windowData = new byte[(int) Math.min(WINDOW_SIZE, dataSize)];
+                window = windowData;
+            }
+            if (position < windowStart || position >= windowStart + windowLength) {
+                // Aligned window serves sequential access in both directions
+                long start = position - position % windowData.length;
+                int length = (int) Math.min(windowData.length, dataSize - start);
+                windowLength = 0;
+                store.read(filePosition + start, windowData, 0, length);
+                windowStart = start;
+                windowLength = length;
+            }
+            return windowData[(int) (position - windowStart)];
+        }
+
+        @Override
+        public BinaryData copy() {
+            return copy(0, dataSize);
+        }
+
+        @Override
+        public BinaryData copy(long startFrom, long length) {
+            checkRange(startFrom, length);
+            store.acquire();
+            return new SpilledData(store, filePosition + startFrom, length);
+        }
+
+        @Override
+        public void copyToArray(long startFrom, byte[] target, int offset, int length) {
+            checkRange(startFrom, length);
+            store.read(filePosition + startFrom, target, offset, length);
+        }
+
+        @Override
+        public void saveToStream(OutputStream outputStream) throws IOException {
+            checkDisposed();
+            store.transferTo(filePosition, dataSize, Channels.newChannel(outputStream));
+        }
+
+        @Override
+        public InputStream getDataInputStream() {
+            return new SpilledDataInputStream();
+        }
+
+        @Override
+        public void dispose() {
+            if (!disposed) {
+                disposed = true;
+                store.release();
+            }
+        }
+
+        private void checkDisposed() {
+            if (disposed) {
+                throw new IllegalStateException("Data were already disposed");
+            }
+        }
+
+        private void checkRange(long startFrom, long length) {
+            checkDisposed();
+            if (startFrom < 0 || length < 0 || startFrom > dataSize - length) {
+                throw new IndexOutOfBoundsException("Range " + startFrom + "+" + length + " out of bounds for size " + dataSize);
+            }
+        }
+
+        private class SpilledDataInputStream extends InputStream {
+
+            private long position = 0;
+
+            @Override
+            public int read() {
+                if (position >= dataSize) {
+                    return -1;
+                }
+                return getByte(position++) & 0xff;
+            }
+
+            @Override
+            public int read(byte[] target, int offset, int length) {
+                if (length == 0) {
+                    return 0;
+                }
+                if (position >= dataSize) {
+                    return -1;
+                }
+                int readLength = (int) Math.min(length, dataSize - position);
+                copyToArray(position, target, offset, readLength);
+                position += readLength;
+                return readLength;
+            }
+
+            @Override
+            public long skip(long n) {
+                long skipped = Math.max(0, Math.min(n, dataSize - position));
+                position += skipped;
+                return skipped;
+            }
+
+            @Override
+            public int available() {
+                return (int) Math.min(Integer.MAX_VALUE, dataSize - position);
+            }
+        }
+    }
+}
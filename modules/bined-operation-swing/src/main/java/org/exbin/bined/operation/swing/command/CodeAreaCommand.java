@@ -43,6 +43,7 @@ public abstract class CodeAreaCommand extends BinaryDataAbstractCommand {
     @Override
     public void redo() {
         performRedo();
+        notifyDataChanged();
         restoreState(afterState);
     }
 
@@ -50,12 +51,14 @@ public abstract class CodeAreaCommand extends BinaryDataAbstractCommand {
     public void execute() {
         beforeState = fetchState();
         performExecute();
+        notifyDataChanged();
         afterState = fetchState();
     }
 
     @Override
     public void undo() {
         performUndo();
+        notifyDataChanged();
         restoreState(beforeState);
     }
 
@@ -76,6 +79,15 @@ public abstract class CodeAreaCommand extends BinaryDataAbstractCommand {
      */
     public abstract void performUndo();
 
+    /**
+     * Notifies code area about data change performed by the command.
+     * <p>
+     * Default implementation reports change of the whole data.
+     */
+    protected void notifyDataChanged() {
+        codeArea.notifyDataChanged();
+    }
+
     public Optional<CodeAreaState> getBeforeState() {
         return Optional.ofNullable(beforeState);
     }
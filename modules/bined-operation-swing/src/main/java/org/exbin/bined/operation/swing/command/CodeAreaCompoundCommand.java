@@ -31,7 +31,7 @@ import org.exbin.bined.swing.CodeAreaCore;
  * Class for compound command on binary document.
  */
 @NullMarked
-public class CodeAreaCompoundCommand extends CodeAreaCommand implements BinaryDataCompoundCommand, BinaryDataAppendableCommand {
+public class CodeAreaCompoundCommand extends CodeAreaCommand implements BinaryDataCompoundCommand, BinaryDataAppendableCommand, SquashableCommand {
 
     protected final List<BinaryDataCommand> commands = new ArrayList<>();
     protected BinaryDataCommandPhase phase = BinaryDataCommandPhase.CREATED;
@@ -114,6 +114,17 @@ public class CodeAreaCompoundCommand extends CodeAreaCommand implements BinaryDa
         phase = BinaryDataCommandPhase.REVERTED;
     }
 
+    @Override
+    protected void notifyDataChanged() {
+        // Code area commands report their own changes
+        for (BinaryDataCommand command : commands) {
+            if (!(command instanceof CodeAreaCommand)) {
+                super.notifyDataChanged();
+                return;
+            }
+        }
+    }
+
     @Override
     public boolean appendExecute(BinaryDataCommand command) {
         if (phase != BinaryDataCommandPhase.EXECUTED) {
@@ -156,6 +167,33 @@ public class CodeAreaCompoundCommand extends CodeAreaCommand implements BinaryDa
         return commands.isEmpty();
     }
 
+    @Override
+    public boolean collectOperationCommands(List<SquashableOperationCommand> operationCommands) {
+        for (BinaryDataCommand command : commands) {
+            if (!(command instanceof SquashableCommand) || !((SquashableCommand) command).collectOperationCommands(operationCommands)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void squashedPhaseChanged(BinaryDataCommandPhase phase) {
+        for (BinaryDataCommand command : commands) {
+            ((SquashableCommand) command).squashedPhaseChanged(phase);
+        }
+        this.phase = phase;
+    }
+
+    @Override
+    public long getRetainedSize() {
+        long retainedSize = 0;
+        for (BinaryDataCommand command : commands) {
+            retainedSize += command.getRetainedSize();
+        }
+        return retainedSize;
+    }
+
     @Override
     public void dispose() {
         super.dispose();
@@ -16,10 +16,14 @@
 package org.exbin.bined.operation.swing.command;
 
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.exbin.bined.DataChangeType;
 import org.exbin.bined.SelectionRange;
 import org.exbin.bined.capability.CaretCapable;
 import org.exbin.bined.capability.SelectionCapable;
+import org.exbin.bined.operation.command.BinaryDataCommandPhase;
 import org.exbin.bined.operation.swing.RemoveDataOperation;
+import org.exbin.bined.operation.swing.UndoDataSpillStore;
 import org.exbin.bined.swing.CodeAreaCore;
 
 /**
@@ -29,13 +33,24 @@ import org.exbin.bined.swing.CodeAreaCore;
 public class DeleteSelectionCommand extends OpCodeAreaCommand {
 
     protected long position;
+    protected long size;
 
     public DeleteSelectionCommand(CodeAreaCore codeArea) {
+        this(codeArea, null);
+    }
+
+    /**
+     * Creates command storing deleted data for undo using given store.
+     *
+     * @param codeArea code area
+     * @param spillStore store for undo data or null to keep them in heap
+     */
+    public DeleteSelectionCommand(CodeAreaCore codeArea, @Nullable UndoDataSpillStore spillStore) {
         super(codeArea);
         SelectionRange selection = ((SelectionCapable) codeArea).getSelection();
         position = selection.getFirst();
-        long size = selection.getLast() - position + 1;
-        super.setOperation(new RemoveDataOperation(position, 0, size));
+        size = selection.getLast() - position + 1;
+        super.setOperation(new RemoveDataOperation(position, 0, size, spillStore));
     }
 
     @Override
@@ -49,4 +64,9 @@ public class DeleteSelectionCommand extends OpCodeAreaCommand {
     public CodeAreaCommandType getType() {
         return CodeAreaCommandType.DATA_REMOVED;
     }
+
+    @Override
+    protected void notifyDataChanged() {
+        codeArea.notifyDataChanged(position, size, phase == BinaryDataCommandPhase.EXECUTED ? DataChangeType.REMOVE : DataChangeType.INSERT);
+    }
 }
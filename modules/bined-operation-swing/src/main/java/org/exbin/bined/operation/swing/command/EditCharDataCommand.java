@@ -15,6 +15,7 @@
  */
 package org.exbin.bined.operation.swing.command;
 
+import java.util.List;
 import org.jspecify.annotations.NullMarked;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
 import org.exbin.bined.CodeAreaCaretPosition;
@@ -28,6 +29,7 @@ import org.exbin.bined.operation.command.BinaryDataCommandPhase;
 import org.exbin.bined.operation.swing.DeleteEditDataOperation;
 import org.exbin.bined.operation.swing.InsertCharEditDataOperation;
 import org.exbin.bined.operation.swing.OverwriteCharEditDataOperation;
+import org.exbin.bined.operation.swing.SquashedOperationPlanner;
 import org.exbin.bined.operation.command.BinaryDataAppendableCommand;
 import org.exbin.bined.operation.BinaryDataAppendableOperation;
 import org.exbin.bined.operation.BinaryDataUndoableOperation;
@@ -37,9 +39,10 @@ import org.exbin.bined.swing.CodeAreaCore;
  * Command for editing data in text mode.
  */
 @NullMarked
-public class EditCharDataCommand extends EditDataCommand implements BinaryDataAppendableCommand {
+public class EditCharDataCommand extends EditDataCommand implements BinaryDataAppendableCommand, SquashableCommand, SquashableOperationCommand {
 
     protected final EditOperationType editOperationType;
+    protected final long position;
     protected BinaryDataCommandPhase phase = BinaryDataCommandPhase.CREATED;
     protected BinaryDataUndoableOperation activeOperation;
     protected CodeAreaCaretPosition afterCaretPosition;
@@ -47,6 +50,7 @@ public class EditCharDataCommand extends EditDataCommand implements BinaryDataAp
     public EditCharDataCommand(CodeAreaCore codeArea, EditOperationType editOperationType, long position, char charData) {
         super(codeArea);
         this.editOperationType = editOperationType;
+        this.position = position;
         CodeAreaSection activeSection = ((CaretCapable) codeArea).getActiveSection();
         switch (editOperationType) {
             case INSERT: {
@@ -83,16 +87,23 @@ public class EditCharDataCommand extends EditDataCommand implements BinaryDataAp
         }
         
         EditableBinaryData contentData = (EditableBinaryData) codeArea.getContentData();
+        long dataSize = contentData.getDataSize();
         BinaryDataUndoableOperation undoOperation = activeOperation.executeWithUndo(contentData);
         switch (editOperationType) {
             case INSERT: {
+                recordDataChange(position, ((InsertCharEditDataOperation) activeOperation).getCharLength(), dataSize);
                 afterCaretPosition = new DefaultCodeAreaCaretPosition(afterCaretPosition.getDataPosition() + ((InsertCharEditDataOperation) activeOperation).getCharLength(), afterCaretPosition.getCodeOffset(), afterCaretPosition.getSection().orElse(null));
                 break;
             }
             case OVERWRITE: {
+                recordDataChange(position, ((OverwriteCharEditDataOperation) activeOperation).getCharLength(), dataSize);
                 afterCaretPosition = new DefaultCodeAreaCaretPosition(afterCaretPosition.getDataPosition() + ((OverwriteCharEditDataOperation) activeOperation).getCharLength(), afterCaretPosition.getCodeOffset(), afterCaretPosition.getSection().orElse(null));
                 break;
             }
+            case DELETE: {
+                recordDataChange(((DeleteEditDataOperation) activeOperation).isBackSpace() ? position - 1 : position, 1, dataSize);
+                break;
+            }
         }
         ((CaretCapable) codeArea).setActiveCaretPosition(afterCaretPosition);
 
@@ -108,6 +119,7 @@ public class EditCharDataCommand extends EditDataCommand implements BinaryDataAp
         }
 
         EditableBinaryData contentData = (EditableBinaryData) codeArea.getContentData();
+        recordOperationChanges(activeOperation);
         BinaryDataUndoableOperation undoOperation = activeOperation.executeWithUndo(contentData);
         activeOperation.dispose();
         activeOperation = undoOperation;
@@ -121,6 +133,7 @@ public class EditCharDataCommand extends EditDataCommand implements BinaryDataAp
         }
 
         EditableBinaryData contentData = (EditableBinaryData) codeArea.getContentData();
+        recordOperationChanges(activeOperation);
         BinaryDataUndoableOperation undoOperation = activeOperation.executeWithUndo(contentData);
         activeOperation.dispose();
         activeOperation = undoOperation;
@@ -156,6 +169,42 @@ public class EditCharDataCommand extends EditDataCommand implements BinaryDataAp
         return editOperationType;
     }
 
+    @Override
+    public BinaryDataUndoableOperation getOperation() {
+        return activeOperation;
+    }
+
+    @Override
+    public void setSquashedOperation(BinaryDataUndoableOperation inverseOperation) {
+        if (phase == BinaryDataCommandPhase.CREATED) {
+            throw new IllegalStateException();
+        }
+
+        activeOperation.dispose();
+        activeOperation = inverseOperation;
+        phase = phase == BinaryDataCommandPhase.EXECUTED ? BinaryDataCommandPhase.REVERTED : BinaryDataCommandPhase.EXECUTED;
+    }
+
+    @Override
+    public boolean collectOperationCommands(List<SquashableOperationCommand> commands) {
+        if (phase == BinaryDataCommandPhase.CREATED || !SquashedOperationPlanner.isSupported(activeOperation)) {
+            return false;
+        }
+
+        commands.add(this);
+        return true;
+    }
+
+    @Override
+    public void squashedPhaseChanged(BinaryDataCommandPhase phase) {
+        // Phase is switched with operation
+    }
+
+    @Override
+    public long getRetainedSize() {
+        return activeOperation.getRetainedSize();
+    }
+
     @Override
     public void dispose() {
         super.dispose();
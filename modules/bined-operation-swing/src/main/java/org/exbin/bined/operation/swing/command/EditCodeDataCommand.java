@@ -15,6 +15,7 @@
  */
 package org.exbin.bined.operation.swing.command;
 
+import java.util.List;
 import org.jspecify.annotations.NullMarked;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
 import org.exbin.bined.CodeAreaCaretPosition;
@@ -31,15 +32,17 @@ import org.exbin.bined.operation.command.BinaryDataAppendableCommand;
 import org.exbin.bined.operation.BinaryDataAppendableOperation;
 import org.exbin.bined.operation.BinaryDataUndoableOperation;
 import org.exbin.bined.operation.swing.DeleteEditDataOperation;
+import org.exbin.bined.operation.swing.SquashedOperationPlanner;
 import org.exbin.bined.swing.CodeAreaCore;
 
 /**
  * Command for editing data in code section.
  */
 @NullMarked
-public class EditCodeDataCommand extends EditDataCommand implements BinaryDataAppendableCommand {
+public class EditCodeDataCommand extends EditDataCommand implements BinaryDataAppendableCommand, SquashableCommand, SquashableOperationCommand {
 
     protected final EditOperationType editOperationType;
+    protected final long position;
     protected BinaryDataCommandPhase phase = BinaryDataCommandPhase.CREATED;
     protected BinaryDataUndoableOperation activeOperation;
     protected CodeAreaCaretPosition afterCaretPosition;
@@ -47,6 +50,7 @@ public class EditCodeDataCommand extends EditDataCommand implements BinaryDataAp
     public EditCodeDataCommand(CodeAreaCore codeArea, EditOperationType editOperationType, long position, int positionCodeOffset, byte value) {
         super(codeArea);
         this.editOperationType = editOperationType;
+        this.position = position;
         CodeAreaSection activeSection = ((CaretCapable) codeArea).getActiveSection();
         switch (editOperationType) {
             case INSERT: {
@@ -91,7 +95,10 @@ public class EditCodeDataCommand extends EditDataCommand implements BinaryDataAp
         }
 
         EditableBinaryData contentData = (EditableBinaryData) codeArea.getContentData();
+        long dataSize = contentData.getDataSize();
         BinaryDataUndoableOperation undoOperation = activeOperation.executeWithUndo(contentData);
+        boolean backSpace = activeOperation instanceof DeleteEditDataOperation && ((DeleteEditDataOperation) activeOperation).isBackSpace();
+        recordDataChange(backSpace ? position - 1 : position, 1, dataSize);
         ((CaretCapable) codeArea).setActiveCaretPosition(afterCaretPosition);
 
         activeOperation.dispose();
@@ -106,6 +113,7 @@ public class EditCodeDataCommand extends EditDataCommand implements BinaryDataAp
         }
 
         EditableBinaryData contentData = (EditableBinaryData) codeArea.getContentData();
+        recordOperationChanges(activeOperation);
         BinaryDataUndoableOperation undoOperation = activeOperation.executeWithUndo(contentData);
         activeOperation.dispose();
         activeOperation = undoOperation;
@@ -119,6 +127,7 @@ public class EditCodeDataCommand extends EditDataCommand implements BinaryDataAp
         }
 
         EditableBinaryData contentData = (EditableBinaryData) codeArea.getContentData();
+        recordOperationChanges(activeOperation);
         BinaryDataUndoableOperation undoOperation = activeOperation.executeWithUndo(contentData);
         activeOperation.dispose();
         activeOperation = undoOperation;
@@ -155,6 +164,42 @@ public class EditCodeDataCommand extends EditDataCommand implements BinaryDataAp
         return editOperationType;
     }
 
+    @Override
+    public BinaryDataUndoableOperation getOperation() {
+        return activeOperation;
+    }
+
+    @Override
+    public void setSquashedOperation(BinaryDataUndoableOperation inverseOperation) {
+        if (phase == BinaryDataCommandPhase.CREATED) {
+            throw new IllegalStateException();
+        }
+
+        activeOperation.dispose();
+        activeOperation = inverseOperation;
+        phase = phase == BinaryDataCommandPhase.EXECUTED ? BinaryDataCommandPhase.REVERTED : BinaryDataCommandPhase.EXECUTED;
+    }
+
+    @Override
+    public boolean collectOperationCommands(List<SquashableOperationCommand> commands) {
+        if (phase == BinaryDataCommandPhase.CREATED || !SquashedOperationPlanner.isSupported(activeOperation)) {
+            return false;
+        }
+
+        commands.add(this);
+        return true;
+    }
+
+    @Override
+    public void squashedPhaseChanged(BinaryDataCommandPhase phase) {
+        // Phase is switched with operation
+    }
+
+    @Override
+    public long getRetainedSize() {
+        return activeOperation.getRetainedSize();
+    }
+
     @Override
     public void dispose() {
         super.dispose();
@@ -15,7 +15,15 @@
  */
 package org.exbin.bined.operation.swing.command;
 
+import java.util.ArrayList;
+import java.util.List;
 import org.jspecify.annotations.NullMarked;
+import org.exbin.bined.DataChangeType;
+import org.exbin.bined.operation.BinaryDataUndoableOperation;
+import org.exbin.bined.operation.swing.InsertDataOperation;
+import org.exbin.bined.operation.swing.ModifyDataOperation;
+import org.exbin.bined.operation.swing.RemoveDataOperation;
+import org.exbin.bined.operation.swing.SquashedOperationPlanner;
 import org.exbin.bined.swing.CodeAreaCore;
 
 /**
@@ -24,10 +32,78 @@ import org.exbin.bined.swing.CodeAreaCore;
 @NullMarked
 public abstract class EditDataCommand extends CodeAreaCommand {
 
+    protected final List<DataChange> dataChanges = new ArrayList<>();
+    protected boolean dataChangeTracked = false;
+
     public EditDataCommand(CodeAreaCore codeArea) {
         super(codeArea);
     }
 
+    /**
+     * Records range of data changed by command execution.
+     *
+     * @param position position of the edit
+     * @param length length of data modified in place
+     * @param previousDataSize data size before execution
+     */
+    protected void recordDataChange(long position, long length, long previousDataSize) {
+        long dataSize = codeArea.getDataSize();
+        dataChanges.clear();
+        if (dataSize > previousDataSize) {
+            dataChanges.add(new DataChange(position, dataSize - previousDataSize, DataChangeType.INSERT));
+        } else if (dataSize < previousDataSize) {
+            dataChanges.add(new DataChange(position, previousDataSize - dataSize, DataChangeType.REMOVE));
+        } else {
+            dataChanges.add(new DataChange(position, length, DataChangeType.MODIFY));
+        }
+        dataChangeTracked = true;
+    }
+
+    /**
+     * Records ranges of data changed by operation which is about to be
+     * executed.
+     *
+     * @param operation operation
+     */
+    protected void recordOperationChanges(BinaryDataUndoableOperation operation) {
+        dataChanges.clear();
+        List<BinaryDataUndoableOperation> basicOperations = new ArrayList<>();
+        dataChangeTracked = SquashedOperationPlanner.collectBasicOperations(operation, basicOperations);
+        if (!dataChangeTracked) {
+            return;
+        }
+
+        for (BinaryDataUndoableOperation basicOperation : basicOperations) {
+            if (basicOperation instanceof InsertDataOperation) {
+                InsertDataOperation insertOperation = (InsertDataOperation) basicOperation;
+                dataChanges.add(new DataChange(insertOperation.getPosition(), insertOperation.getData().getDataSize(), DataChangeType.INSERT));
+            } else if (basicOperation instanceof RemoveDataOperation) {
+                RemoveDataOperation removeOperation = (RemoveDataOperation) basicOperation;
+                dataChanges.add(new DataChange(removeOperation.getPosition(), removeOperation.getLength(), DataChangeType.REMOVE));
+            } else {
+                ModifyDataOperation modifyOperation = (ModifyDataOperation) basicOperation;
+                dataChanges.add(new DataChange(modifyOperation.getPosition(), modifyOperation.getData().getDataSize(), DataChangeType.MODIFY));
+            }
+        }
+    }
+
+    @Override
+    protected void notifyDataChanged() {
+        if (!dataChangeTracked) {
+            // Range of appended operations is not tracked
+            super.notifyDataChanged();
+            return;
+        }
+
+        for (DataChange dataChange : dataChanges) {
+            if (dataChange.length > 0) {
+                codeArea.notifyDataChanged(dataChange.position, dataChange.length, dataChange.changeType);
+            }
+        }
+        dataChanges.clear();
+        dataChangeTracked = false;
+    }
+
     @Override
     public CodeAreaCommandType getType() {
         return CodeAreaCommandType.DATA_EDITED;
@@ -38,4 +114,21 @@ public abstract class EditDataCommand extends CodeAreaCommand {
     public enum EditOperationType {
         INSERT, OVERWRITE, DELETE
     }
+
+    /**
+     * Range of changed data.
+     */
+    @NullMarked
+    protected static final class DataChange {
+
+        private final long position;
+        private final long length;
+        private final DataChangeType changeType;
+
+        public DataChange(long position, long length, DataChangeType changeType) {
+            this.position = position;
+            this.length = length;
+            this.changeType = changeType;
+        }
+    }
 }
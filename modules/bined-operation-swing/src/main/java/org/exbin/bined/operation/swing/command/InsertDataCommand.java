@@ -16,9 +16,13 @@
 package org.exbin.bined.operation.swing.command;
 
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.bined.DataChangeType;
 import org.exbin.bined.capability.CaretCapable;
+import org.exbin.bined.operation.command.BinaryDataCommandPhase;
 import org.exbin.bined.operation.swing.InsertDataOperation;
+import org.exbin.bined.operation.swing.UndoDataSpillStore;
 import org.exbin.bined.swing.CodeAreaCore;
 
 /**
@@ -31,10 +35,23 @@ public class InsertDataCommand extends OpCodeAreaCommand {
     protected final long dataLength;
 
     public InsertDataCommand(CodeAreaCore codeArea, long position, int codeOffset, BinaryData data) {
+        this(codeArea, position, codeOffset, data, null);
+    }
+
+    /**
+     * Creates command storing data removed on undo using given store.
+     *
+     * @param codeArea code area
+     * @param position position
+     * @param codeOffset code offset
+     * @param data inserted data
+     * @param spillStore store for undo data or null to keep them in heap
+     */
+    public InsertDataCommand(CodeAreaCore codeArea, long position, int codeOffset, BinaryData data, @Nullable UndoDataSpillStore spillStore) {
         super(codeArea);
         this.position = position;
         dataLength = data.getDataSize();
-        super.setOperation(new InsertDataOperation(position, codeOffset, data));
+        super.setOperation(new InsertDataOperation(position, codeOffset, data, spillStore));
     }
 
     @Override
@@ -47,4 +64,9 @@ public class InsertDataCommand extends OpCodeAreaCommand {
         super.performExecute();
         ((CaretCapable) codeArea).setActiveCaretPosition(position + dataLength);
     }
+
+    @Override
+    protected void notifyDataChanged() {
+        codeArea.notifyDataChanged(position, dataLength, phase == BinaryDataCommandPhase.EXECUTED ? DataChangeType.INSERT : DataChangeType.REMOVE);
+    }
 }
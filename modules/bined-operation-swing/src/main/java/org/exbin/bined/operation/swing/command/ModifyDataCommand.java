@@ -16,7 +16,10 @@
 package org.exbin.bined.operation.swing.command;
 
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.exbin.bined.DataChangeType;
 import org.exbin.bined.operation.swing.ModifyDataOperation;
+import org.exbin.bined.operation.swing.UndoDataSpillStore;
 import org.exbin.bined.swing.CodeAreaCore;
 import org.exbin.auxiliary.binary_data.BinaryData;
 
@@ -26,13 +29,35 @@ import org.exbin.auxiliary.binary_data.BinaryData;
 @NullMarked
 public class ModifyDataCommand extends OpCodeAreaCommand {
 
+    protected final long position;
+    protected final long dataLength;
+
     public ModifyDataCommand(CodeAreaCore codeArea, long position, BinaryData data) {
+        this(codeArea, position, data, null);
+    }
+
+    /**
+     * Creates command storing replaced data for undo using given store.
+     *
+     * @param codeArea code area
+     * @param position position
+     * @param data new data
+     * @param spillStore store for undo data or null to keep them in heap
+     */
+    public ModifyDataCommand(CodeAreaCore codeArea, long position, BinaryData data, @Nullable UndoDataSpillStore spillStore) {
         super(codeArea);
-        super.setOperation(new ModifyDataOperation(position, data));
+        this.position = position;
+        dataLength = data.getDataSize();
+        super.setOperation(new ModifyDataOperation(position, data, spillStore));
     }
 
     @Override
     public CodeAreaCommandType getType() {
         return CodeAreaCommandType.DATA_MODIFIED;
     }
+
+    @Override
+    protected void notifyDataChanged() {
+        codeArea.notifyDataChanged(position, dataLength, DataChangeType.MODIFY);
+    }
 }
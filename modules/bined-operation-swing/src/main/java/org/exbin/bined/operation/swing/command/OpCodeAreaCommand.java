@@ -15,6 +15,7 @@
  */
 package org.exbin.bined.operation.swing.command;
 
+import java.util.List;
 import org.jspecify.annotations.Nullable;
 import org.jspecify.annotations.NullMarked;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
@@ -22,13 +23,14 @@ import org.exbin.auxiliary.binary_data.EditableBinaryData;
 import org.exbin.bined.CodeAreaUtils;
 import org.exbin.bined.operation.command.BinaryDataCommandPhase;
 import org.exbin.bined.operation.BinaryDataUndoableOperation;
+import org.exbin.bined.operation.swing.SquashedOperationPlanner;
 import org.exbin.bined.swing.CodeAreaCore;
 
 /**
  * Abstract class for operation on binary document.
  */
 @NullMarked
-public abstract class OpCodeAreaCommand extends CodeAreaCommand {
+public abstract class OpCodeAreaCommand extends CodeAreaCommand implements SquashableCommand, SquashableOperationCommand {
 
     @Nullable
     protected BinaryDataUndoableOperation operation;
@@ -84,6 +86,43 @@ public abstract class OpCodeAreaCommand extends CodeAreaCommand {
         phase = BinaryDataCommandPhase.EXECUTED;
     }
 
+    @Nullable
+    @Override
+    public BinaryDataUndoableOperation getOperation() {
+        return operation;
+    }
+
+    @Override
+    public void setSquashedOperation(BinaryDataUndoableOperation inverseOperation) {
+        if (phase == BinaryDataCommandPhase.CREATED) {
+            throw new IllegalStateException();
+        }
+
+        CodeAreaUtils.requireNonNull(operation).dispose();
+        operation = inverseOperation;
+        phase = phase == BinaryDataCommandPhase.EXECUTED ? BinaryDataCommandPhase.REVERTED : BinaryDataCommandPhase.EXECUTED;
+    }
+
+    @Override
+    public boolean collectOperationCommands(List<SquashableOperationCommand> commands) {
+        if (operation == null || !SquashedOperationPlanner.isSupported(operation)) {
+            return false;
+        }
+
+        commands.add(this);
+        return true;
+    }
+
+    @Override
+    public void squashedPhaseChanged(BinaryDataCommandPhase phase) {
+        // Phase is switched with operation
+    }
+
+    @Override
+    public long getRetainedSize() {
+        return operation == null ? 0 : operation.getRetainedSize();
+    }
+
     @Override
     public void dispose() {
         super.dispose();
@@ -15,27 +15,46 @@
  */
 package org.exbin.bined.operation.swing.command;
 
+import java.util.List;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.EditableBinaryData;
 import org.exbin.bined.EditMode;
 import org.exbin.bined.EditOperation;
 import org.exbin.bined.capability.CaretCapable;
 import org.exbin.bined.capability.EditModeCapable;
+import org.exbin.bined.operation.command.BinaryDataCommandPhase;
+import org.exbin.bined.operation.swing.UndoDataSpillStore;
 import org.exbin.bined.swing.CodeAreaCore;
 
 /**
  * Paste data command.
  */
 @NullMarked
-public class PasteDataCommand extends CodeAreaCommand {
+public class PasteDataCommand extends CodeAreaCommand implements SquashableCommand {
 
     protected CodeAreaCommand modifyCommand = null;
     protected CodeAreaCommand insertCommand = null;
     protected BinaryData pastedData;
+    @Nullable
+    protected final UndoDataSpillStore spillStore;
 
     public PasteDataCommand(CodeAreaCore codeArea, BinaryData pastedData) {
+        this(codeArea, pastedData, null);
+    }
+
+    /**
+     * Creates command storing undo data using given store.
+     *
+     * @param codeArea code area
+     * @param pastedData pasted data
+     * @param spillStore store for undo data or null to keep them in heap
+     */
+    public PasteDataCommand(CodeAreaCore codeArea, BinaryData pastedData, @Nullable UndoDataSpillStore spillStore) {
         super(codeArea);
         this.pastedData = pastedData.copy();
+        this.spillStore = spillStore;
     }
 
     public boolean isEmpty() {
@@ -52,37 +71,58 @@ public class PasteDataCommand extends CodeAreaCommand {
         BinaryData insertedData = null;
         long clipDataSize = pastedData.getDataSize();
         long insertionPosition = dataPosition;
+        long replacedPartSize = 0;
         if (editMode == EditMode.INPLACE) {
-            long toReplace = clipDataSize;
-            if (dataPosition + toReplace > codeArea.getDataSize()) {
-                toReplace = codeArea.getDataSize() - dataPosition;
-            }
-            if (toReplace > 0) {
-                modifyCommand = new ModifyDataCommand(codeArea, dataPosition, pastedData.copy(0, toReplace));
+            replacedPartSize = clipDataSize;
+            if (dataPosition + replacedPartSize > dataSize) {
+                replacedPartSize = dataSize - dataPosition;
             }
         } else {
-            long replacedPartSize = 0;
             if (editOperation == EditOperation.OVERWRITE) {
                 replacedPartSize = clipDataSize;
                 if (insertionPosition + replacedPartSize > dataSize) {
                     replacedPartSize = dataSize - insertionPosition;
                 }
-                if (replacedPartSize > 0) {
-                    modifyCommand = new ModifyDataCommand(codeArea, dataPosition, pastedData.copy(0, replacedPartSize));
-                }
             }
 
             if (editMode == EditMode.EXPANDING && clipDataSize > replacedPartSize) {
-                insertedData = pastedData.copy(replacedPartSize, clipDataSize - replacedPartSize);
                 insertionPosition += replacedPartSize;
+                insertedData = pastedData;
             }
         }
 
-        pastedData.dispose();
+        boolean pastedDataUsed = false;
+        if (replacedPartSize > 0) {
+            BinaryData replacingData;
+            if (insertedData == null && replacedPartSize == clipDataSize) {
+                // Whole pasted data are used without copying
+                replacingData = pastedData;
+                pastedDataUsed = true;
+            } else {
+                replacingData = pastedData.copy(0, replacedPartSize);
+            }
+            modifyCommand = new ModifyDataCommand(codeArea, dataPosition, replacingData, spillStore);
+        }
+
+        if (insertedData != null) {
+            if (replacedPartSize > 0) {
+                if (pastedData instanceof EditableBinaryData) {
+                    // Drop replaced part in place instead of copying the rest
+                    ((EditableBinaryData) pastedData).remove(0, replacedPartSize);
+                } else {
+                    insertedData = pastedData.copy(replacedPartSize, clipDataSize - replacedPartSize);
+                }
+            }
+            pastedDataUsed |= insertedData == pastedData;
+        }
+
+        if (!pastedDataUsed) {
+            pastedData.dispose();
+        }
         pastedData = null;
 
         if (insertedData != null && !insertedData.isEmpty()) {
-            insertCommand = new InsertDataCommand(codeArea, insertionPosition, ((CaretCapable) codeArea).getCodeOffset(), insertedData);
+            insertCommand = new InsertDataCommand(codeArea, insertionPosition, ((CaretCapable) codeArea).getCodeOffset(), insertedData, spillStore);
         }
 
         if (modifyCommand != null) {
@@ -114,6 +154,36 @@ public class PasteDataCommand extends CodeAreaCommand {
         }
     }
 
+    @Override
+    public boolean collectOperationCommands(List<SquashableOperationCommand> commands) {
+        if (modifyCommand != null && !(modifyCommand instanceof SquashableCommand && ((SquashableCommand) modifyCommand).collectOperationCommands(commands))) {
+            return false;
+        }
+        return insertCommand == null || (insertCommand instanceof SquashableCommand && ((SquashableCommand) insertCommand).collectOperationCommands(commands));
+    }
+
+    @Override
+    public void squashedPhaseChanged(BinaryDataCommandPhase phase) {
+        // Inner commands are switched by their operations
+    }
+
+    @Override
+    public long getRetainedSize() {
+        long retainedSize = pastedData == null ? 0 : pastedData.getDataSize();
+        if (modifyCommand != null) {
+            retainedSize += modifyCommand.getRetainedSize();
+        }
+        if (insertCommand != null) {
+            retainedSize += insertCommand.getRetainedSize();
+        }
+        return retainedSize;
+    }
+
+    @Override
+    protected void notifyDataChanged() {
+        // Inner commands report their changes
+    }
+
     @Override
     public CodeAreaCommandType getType() {
         return CodeAreaCommandType.COMPOUND;
@@ -16,6 +16,8 @@
 package org.exbin.bined.operation.swing.command;
 
 import org.jspecify.annotations.NullMarked;
+import org.exbin.bined.DataChangeType;
+import org.exbin.bined.operation.command.BinaryDataCommandPhase;
 import org.exbin.bined.operation.swing.RemoveDataOperation;
 import org.exbin.bined.swing.CodeAreaCore;
 
@@ -25,8 +27,13 @@ import org.exbin.bined.swing.CodeAreaCore;
 @NullMarked
 public class RemoveDataCommand extends OpCodeAreaCommand {
 
+    protected final long position;
+    protected final long size;
+
     public RemoveDataCommand(CodeAreaCore codeArea, long position, int codeOffset, long size) {
         super(codeArea);
+        this.position = position;
+        this.size = size;
         super.setOperation(new RemoveDataOperation(position, codeOffset, size));
     }
 
@@ -34,4 +41,9 @@ public class RemoveDataCommand extends OpCodeAreaCommand {
     public CodeAreaCommandType getType() {
         return CodeAreaCommandType.DATA_REMOVED;
     }
+
+    @Override
+    protected void notifyDataChanged() {
+        codeArea.notifyDataChanged(position, size, phase == BinaryDataCommandPhase.EXECUTED ? DataChangeType.REMOVE : DataChangeType.INSERT);
+    }
 }
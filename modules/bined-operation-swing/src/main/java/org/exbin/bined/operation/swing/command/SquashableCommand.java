@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.operation.swing.command;
+
+import java.util.List;
+import org.exbin.bined.operation.command.BinaryDataCommandPhase;
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Command which can be undone or redone together with other commands as
+ * single squashed sequence of data operations.
+ */
+@NullMarked
+public interface SquashableCommand {
+
+    /**
+     * Collects operation commands in order of execution.
+     *
+     * @param commands target list
+     * @return false if command has part which cannot be squashed
+     */
+    boolean collectOperationCommands(List<SquashableOperationCommand> commands);
+
+    /**
+     * Updates command after its operations were undone or redone as part of
+     * squashed sequence.
+     *
+     * @param phase new phase
+     */
+    void squashedPhaseChanged(BinaryDataCommandPhase phase);
+}
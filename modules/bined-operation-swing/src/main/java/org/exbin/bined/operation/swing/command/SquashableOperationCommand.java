@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.operation.swing.command;
+
+import org.exbin.bined.operation.BinaryDataUndoableOperation;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Command performing single data operation which can be part of squashed
+ * sequence.
+ */
+@NullMarked
+public interface SquashableOperationCommand {
+
+    /**
+     * Returns operation performed by the next undo or redo.
+     *
+     * @return operation
+     */
+    @Nullable
+    BinaryDataUndoableOperation getOperation();
+
+    /**
+     * Switches command to the opposite phase after its operation was
+     * performed as part of squashed sequence.
+     *
+     * @param inverseOperation inverse of the current operation
+     */
+    void setSquashedOperation(BinaryDataUndoableOperation inverseOperation);
+}
@@ -19,7 +19,11 @@ import org.jspecify.annotations.NullMarked;
 import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.auxiliary.binary_data.array.ByteArrayEditableData;
 import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import java.util.ArrayList;
+import java.util.List;
 import org.exbin.bined.CodeAreaTest;
+import org.exbin.bined.DataChangeType;
+import org.exbin.bined.DataChangedListener;
 import org.exbin.bined.SelectionRange;
 import org.exbin.bined.capability.SelectionCapable;
 import org.exbin.bined.operation.swing.command.DeleteSelectionCommand;
@@ -29,6 +33,7 @@ import org.exbin.bined.operation.swing.command.EditDataCommand;
 import org.exbin.bined.operation.swing.command.InsertDataCommand;
 import org.exbin.bined.operation.swing.command.ModifyDataCommand;
 import org.exbin.bined.operation.swing.command.RemoveDataCommand;
+import org.exbin.bined.operation.command.BinaryDataAppendableUndoRedo;
 import org.exbin.bined.operation.command.BinaryDataUndoRedo;
 import org.exbin.bined.swing.CodeAreaCore;
 import org.exbin.bined.swing.basic.CodeArea;
@@ -437,6 +442,191 @@ public class CodeAreaUndoRedoTest extends CodeAreaComponentTest {
         checkResultData(expectedData, codeArea.getContentData());
     }
 
+    @Test
+    public void dataChangeRanges() {
+        CodeAreaCore codeArea = createCodeArea();
+        BinaryDataUndoRedo undoRedo = ((CodeAreaOperationCommandHandler) codeArea.getCommandHandler()).getUndoRedo();
+
+        EditableBinaryData sampleData = CodeAreaTest.getSampleData(CodeAreaTest.SAMPLE_ALLBYTES);
+        codeArea.setContentData(sampleData);
+        List<String> changes = new ArrayList<>();
+        codeArea.addDataChangedListener(new DataChangedListener() {
+            @Override
+            public void dataChanged() {
+                changes.add("ALL");
+            }
+
+            @Override
+            public void dataChanged(long startPosition, long length, DataChangeType changeType) {
+                changes.add(changeType.name() + " " + startPosition + " " + length);
+            }
+        });
+
+        undoRedo.execute(new InsertDataCommand(codeArea, 125, 0, new ByteArrayEditableData(new byte[]{1, 2, 3})));
+        undoRedo.performUndo();
+        undoRedo.execute(new ModifyDataCommand(codeArea, 10, new ByteArrayEditableData(new byte[]{1, 2})));
+        undoRedo.execute(new RemoveDataCommand(codeArea, 20, 0, 5));
+        undoRedo.execute(new EditCodeDataCommand(codeArea, EditDataCommand.EditOperationType.OVERWRITE, 30, 0, (byte) 1));
+        undoRedo.execute(new EditCharDataCommand(codeArea, EditDataCommand.EditOperationType.DELETE, 40, BACKSPACE_CHAR));
+        undoRedo.performUndo();
+        undoRedo.performUndo();
+        undoRedo.performRedo();
+        undoRedo.performRedo();
+
+        String[] expectedChanges = new String[]{"INSERT 125 3", "REMOVE 125 3", "MODIFY 10 2", "REMOVE 20 5", "MODIFY 30 1", "REMOVE 39 1",
+            "INSERT 39 1", "MODIFY 30 1", "MODIFY 30 1", "REMOVE 39 1"};
+        Assert.assertArrayEquals(expectedChanges, changes.toArray(new String[0]));
+    }
+
+    @Test
+    public void squashedUndoRedo() {
+        CodeAreaCore codeArea = createCodeArea();
+        BinaryDataUndoRedo undoRedo = ((CodeAreaOperationCommandHandler) codeArea.getCommandHandler()).getUndoRedo();
+
+        EditableBinaryData sampleData = CodeAreaTest.getSampleData(CodeAreaTest.SAMPLE_ALLBYTES);
+        byte[] initialData = new byte[256];
+        sampleData.copyToArray(0, initialData, 0, 256);
+        codeArea.setContentData(sampleData);
+        undoRedo.execute(new InsertDataCommand(codeArea, 10, 0, new ByteArrayEditableData(new byte[]{1, 2, 3})));
+        undoRedo.execute(new RemoveDataCommand(codeArea, 11, 0, 20));
+        undoRedo.execute(new ModifyDataCommand(codeArea, 5, new ByteArrayEditableData(new byte[]{4, 5, 6, 7, 8, 9, 10})));
+        undoRedo.execute(new InsertDataCommand(codeArea, 200, 0, new ByteArrayEditableData(new byte[]{11, 12})));
+        byte[] finalData = new byte[(int) codeArea.getDataSize()];
+        codeArea.getContentData().copyToArray(0, finalData, 0, finalData.length);
+
+        List<String> changes = new ArrayList<>();
+        codeArea.addDataChangedListener(new DataChangedListener() {
+            @Override
+            public void dataChanged() {
+                changes.add("ALL");
+            }
+
+            @Override
+            public void dataChanged(long startPosition, long length, DataChangeType changeType) {
+                changes.add(changeType.name() + " " + startPosition + " " + length);
+            }
+        });
+
+        undoRedo.performUndo(4);
+        Assert.assertEquals(0, undoRedo.getCommandPosition());
+        checkResultData(initialData, codeArea.getContentData());
+        Assert.assertArrayEquals(new String[]{"MODIFY 5 7", "INSERT 12 17", "REMOVE 217 2"}, changes.toArray(new String[0]));
+
+        changes.clear();
+        undoRedo.performRedo(4);
+        Assert.assertEquals(4, undoRedo.getCommandPosition());
+        checkResultData(finalData, codeArea.getContentData());
+        Assert.assertArrayEquals(new String[]{"MODIFY 5 7", "REMOVE 12 17", "INSERT 200 2"}, changes.toArray(new String[0]));
+
+        // Single steps continue from squashed state
+        undoRedo.performUndo();
+        undoRedo.performUndo();
+        undoRedo.performRedo(2);
+        checkResultData(finalData, codeArea.getContentData());
+
+        undoRedo.setSyncPosition(1);
+        undoRedo.performSync();
+        Assert.assertEquals(1, undoRedo.getCommandPosition());
+        Assert.assertEquals(259, codeArea.getDataSize());
+    }
+
+    @Test
+    public void squashedTypingUndoRedo() {
+        CodeAreaCore codeArea = createCodeArea();
+        BinaryDataUndoRedo undoRedo = ((CodeAreaOperationCommandHandler) codeArea.getCommandHandler()).getUndoRedo();
+
+        EditableBinaryData sampleData = CodeAreaTest.getSampleData(CodeAreaTest.SAMPLE_ALLBYTES);
+        byte[] initialData = new byte[256];
+        sampleData.copyToArray(0, initialData, 0, 256);
+        codeArea.setContentData(sampleData);
+        undoRedo.execute(new EditCharDataCommand(codeArea, EditDataCommand.EditOperationType.INSERT, 10, 'a'));
+        ((BinaryDataAppendableUndoRedo) undoRedo).appendExecute(new EditCharDataCommand(codeArea, EditDataCommand.EditOperationType.INSERT, 11, 'b'));
+        undoRedo.execute(new EditCodeDataCommand(codeArea, EditDataCommand.EditOperationType.OVERWRITE, 100, 0, (byte) 1));
+        undoRedo.execute(new EditCodeDataCommand(codeArea, EditDataCommand.EditOperationType.INSERT, 50, 0, (byte) 2));
+        undoRedo.execute(new EditCharDataCommand(codeArea, EditDataCommand.EditOperationType.DELETE, 20, BACKSPACE_CHAR));
+        Assert.assertEquals(4, undoRedo.getCommandPosition());
+        byte[] finalData = new byte[(int) codeArea.getDataSize()];
+        codeArea.getContentData().copyToArray(0, finalData, 0, finalData.length);
+
+        undoRedo.performUndo(4);
+        Assert.assertEquals(0, undoRedo.getCommandPosition());
+        checkResultData(initialData, codeArea.getContentData());
+
+        undoRedo.performRedo(4);
+        Assert.assertEquals(4, undoRedo.getCommandPosition());
+        checkResultData(finalData, codeArea.getContentData());
+
+        // Single steps continue from squashed state
+        undoRedo.performUndo();
+        undoRedo.performUndo();
+        Assert.assertEquals(2, undoRedo.getCommandPosition());
+        undoRedo.performRedo(2);
+        checkResultData(finalData, codeArea.getContentData());
+        undoRedo.performUndo(4);
+        checkResultData(initialData, codeArea.getContentData());
+    }
+
+    @Test
+    public void undoMaximumCount() {
+        CodeAreaCore codeArea = createCodeArea();
+        CodeAreaUndoRedo undoRedo = (CodeAreaUndoRedo) ((CodeAreaOperationCommandHandler) codeArea.getCommandHandler()).getUndoRedo();
+        undoRedo.setUndoMaxCount(3);
+
+        EditableBinaryData sampleData = CodeAreaTest.getSampleData(CodeAreaTest.SAMPLE_ALLBYTES);
+        codeArea.setContentData(sampleData);
+        for (int i = 0; i < 5; i++) {
+            undoRedo.execute(new RemoveDataCommand(codeArea, 0, 0, 10));
+        }
+        Assert.assertEquals(3, undoRedo.getCommandList().size());
+        Assert.assertEquals(3, undoRedo.getCommandPosition());
+        Assert.assertEquals(30, undoRedo.getUsedDataSize());
+        Assert.assertEquals(-1, undoRedo.getSyncPosition());
+
+        undoRedo.performUndo(3);
+        Assert.assertEquals(0, undoRedo.getCommandPosition());
+        Assert.assertEquals(236, codeArea.getDataSize());
+        Assert.assertFalse(undoRedo.canUndo());
+    }
+
+    @Test
+    public void undoMaximumSize() {
+        CodeAreaCore codeArea = createCodeArea();
+        CodeAreaUndoRedo undoRedo = (CodeAreaUndoRedo) ((CodeAreaOperationCommandHandler) codeArea.getCommandHandler()).getUndoRedo();
+        undoRedo.setUndoMaximumDataSize(50);
+
+        EditableBinaryData sampleData = CodeAreaTest.getSampleData(CodeAreaTest.SAMPLE_ALLBYTES);
+        codeArea.setContentData(sampleData);
+        undoRedo.execute(new RemoveDataCommand(codeArea, 0, 0, 20));
+        undoRedo.setSyncPosition();
+        undoRedo.execute(new RemoveDataCommand(codeArea, 0, 0, 20));
+        Assert.assertEquals(2, undoRedo.getCommandList().size());
+        Assert.assertEquals(40, undoRedo.getUsedDataSize());
+
+        undoRedo.execute(new RemoveDataCommand(codeArea, 0, 0, 20));
+        Assert.assertEquals(2, undoRedo.getCommandList().size());
+        Assert.assertEquals(40, undoRedo.getUsedDataSize());
+        Assert.assertEquals(0, undoRedo.getSyncPosition());
+
+        // Last command is kept even when exceeding limit
+        undoRedo.execute(new RemoveDataCommand(codeArea, 0, 0, 100));
+        Assert.assertEquals(1, undoRedo.getCommandList().size());
+        Assert.assertEquals(100, undoRedo.getUsedDataSize());
+        Assert.assertEquals(-1, undoRedo.getSyncPosition());
+
+        undoRedo.performUndo();
+        Assert.assertEquals(196, codeArea.getDataSize());
+        undoRedo.execute(new InsertDataCommand(codeArea, 0, 0, new ByteArrayEditableData(new byte[]{1, 2, 3})));
+        Assert.assertEquals(1, undoRedo.getCommandList().size());
+        // Undo of insertion retains no data, inserted data are retained for redo
+        Assert.assertEquals(0, undoRedo.getUsedDataSize());
+        undoRedo.performUndo();
+        Assert.assertEquals(3, undoRedo.getUsedDataSize());
+
+        undoRedo.clear();
+        Assert.assertEquals(0, undoRedo.getCommandList().size());
+        Assert.assertEquals(0, undoRedo.getUsedDataSize());
+    }
+
     public static void checkResultData(byte[] expectedData, BinaryData data) {
         Assert.assertEquals(expectedData.length, data.getDataSize());
         byte[] resultData = new byte[expectedData.length];
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.operation.swing;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayEditableData;
+import org.exbin.bined.CodeAreaTest;
+import org.exbin.bined.operation.swing.command.InsertDataCommand;
+import org.exbin.bined.operation.swing.command.ModifyDataCommand;
+import org.exbin.bined.operation.swing.command.RemoveDataCommand;
+import org.exbin.bined.swing.basic.CodeArea;
+import org.jspecify.annotations.NullMarked;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for OperationJournal.
+ */
+@NullMarked
+public class OperationJournalTest {
+
+    public OperationJournalTest() {
+    }
+
+    @Test
+    public void recoverChanges() throws IOException, InterruptedException {
+        File journalFile = File.createTempFile("bined-test", ".jnl");
+        try {
+            CodeArea codeArea = new CodeArea();
+            CodeAreaUndoRedo undoRedo = new CodeAreaUndoRedo(codeArea);
+            EditableBinaryData sampleData = CodeAreaTest.getSampleData(CodeAreaTest.SAMPLE_ALLBYTES);
+            EditableBinaryData savedData = (EditableBinaryData) sampleData.copy();
+            codeArea.setContentData(sampleData);
+
+            OperationJournal journal = new OperationJournal(codeArea, journalFile);
+            codeArea.addDataChangedListener(journal);
+            undoRedo.execute(new InsertDataCommand(codeArea, 10, 0, new ByteArrayEditableData(new byte[]{1, 2, 3})));
+            undoRedo.execute(new RemoveDataCommand(codeArea, 100, 0, 20));
+            undoRedo.execute(new ModifyDataCommand(codeArea, 5, new ByteArrayEditableData(new byte[]{4, 5})));
+            undoRedo.performUndo();
+            codeArea.removeDataChangedListener(journal);
+            journal.close();
+
+            Assert.assertEquals(4, OperationJournal.recover(journalFile, savedData));
+            checkData(codeArea, savedData);
+
+            // Incomplete record written during crash is ignored
+            journal = new OperationJournal(codeArea, journalFile);
+            codeArea.addDataChangedListener(journal);
+            undoRedo.performRedo();
+            codeArea.removeDataChangedListener(journal);
+            journal.close();
+            try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+                file.setLength(file.length() - 1);
+            }
+            EditableBinaryData recoveredData = (EditableBinaryData) CodeAreaTest.getSampleData(CodeAreaTest.SAMPLE_ALLBYTES);
+            Assert.assertEquals(4, OperationJournal.recover(journalFile, recoveredData));
+        } finally {
+            journalFile.delete();
+        }
+    }
+
+    @Test
+    public void checkpoint() throws IOException, InterruptedException {
+        File journalFile = File.createTempFile("bined-test", ".jnl");
+        try {
+            CodeArea codeArea = new CodeArea();
+            CodeAreaUndoRedo undoRedo = new CodeAreaUndoRedo(codeArea);
+            codeArea.setContentData(CodeAreaTest.getSampleData(CodeAreaTest.SAMPLE_ALLBYTES));
+
+            OperationJournal journal = new OperationJournal(codeArea, journalFile);
+            codeArea.addDataChangedListener(journal);
+            undoRedo.execute(new RemoveDataCommand(codeArea, 0, 0, 10));
+            journal.checkpoint();
+            EditableBinaryData savedData = (EditableBinaryData) codeArea.getContentData().copy();
+            undoRedo.execute(new RemoveDataCommand(codeArea, 0, 0, 10));
+            journal.flush();
+
+            Assert.assertEquals(1, OperationJournal.recover(journalFile, savedData));
+            checkData(codeArea, savedData);
+
+            codeArea.notifyDataChanged();
+            codeArea.removeDataChangedListener(journal);
+            journal.close();
+            try {
+                OperationJournal.recover(journalFile, (EditableBinaryData) codeArea.getContentData().copy());
+                Assert.fail("Change of the whole data should not be replayable");
+            } catch (IOException ex) {
+                // Expected
+            }
+        } finally {
+            journalFile.delete();
+        }
+    }
+
+    private static void checkData(CodeArea codeArea, EditableBinaryData data) {
+        byte[] expectedData = new byte[(int) codeArea.getDataSize()];
+        codeArea.getContentData().copyToArray(0, expectedData, 0, expectedData.length);
+        CodeAreaUndoRedoTest.checkResultData(expectedData, data);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.operation.swing;
+
+import java.util.Random;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.EditableBinaryData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayEditableData;
+import org.exbin.bined.CodeAreaTest;
+import org.exbin.bined.SelectionRange;
+import org.exbin.bined.capability.SelectionCapable;
+import org.exbin.bined.operation.swing.command.DeleteSelectionCommand;
+import org.exbin.bined.swing.CodeAreaCore;
+import org.exbin.bined.swing.basic.CodeArea;
+import org.jspecify.annotations.NullMarked;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for UndoDataSpillStore.
+ */
+@NullMarked
+public class UndoDataSpillStoreTest {
+
+    public UndoDataSpillStoreTest() {
+    }
+
+    @Test
+    public void copyBelowThreshold() {
+        UndoDataSpillStore spillStore = new UndoDataSpillStore(100);
+        EditableBinaryData sampleData = CodeAreaTest.getSampleData(CodeAreaTest.SAMPLE_ALLBYTES);
+
+        BinaryData copy = spillStore.copy(sampleData, 10, 50);
+        Assert.assertFalse(copy instanceof UndoDataSpillStore.SpilledData);
+        Assert.assertEquals(0, spillStore.getFileSize());
+        spillStore.close();
+    }
+
+    @Test
+    public void copyAboveThreshold() {
+        UndoDataSpillStore spillStore = new UndoDataSpillStore(100);
+        EditableBinaryData sampleData = CodeAreaTest.getSampleData(CodeAreaTest.SAMPLE_ALLBYTES);
+
+        BinaryData copy = spillStore.copy(sampleData, 10, 200);
+        Assert.assertTrue(copy instanceof UndoDataSpillStore.SpilledData);
+        Assert.assertEquals(200, spillStore.getFileSize());
+        Assert.assertEquals(200, copy.getDataSize());
+        byte[] expectedData = new byte[200];
+        sampleData.copyToArray(10, expectedData, 0, 200);
+        CodeAreaUndoRedoTest.checkResultData(expectedData, copy);
+
+        BinaryData part = copy.copy(50, 10);
+        Assert.assertEquals(sampleData.getByte(65), part.getByte(5));
+        copy.dispose();
+        Assert.assertEquals(1, spillStore.getSegmentsCount());
+        Assert.assertEquals(200, spillStore.getFileSize());
+
+        part.dispose();
+        Assert.assertEquals(0, spillStore.getSegmentsCount());
+        Assert.assertEquals(0, spillStore.getFileSize());
+        spillStore.close();
+    }
+
+    @Test
+    public void readBytes() {
+        UndoDataSpillStore spillStore = new UndoDataSpillStore(100);
+        byte[] sourceData = new byte[10000];
+        new Random(1).nextBytes(sourceData);
+
+        BinaryData copy = spillStore.copy(new ByteArrayEditableData(sourceData), 100, 9000);
+        Assert.assertTrue(copy instanceof UndoDataSpillStore.SpilledData);
+        for (int i = 0; i < 9000; i++) {
+            Assert.assertEquals(sourceData[100 + i], copy.getByte(i));
+        }
+        for (int i = 8999; i >= 0; i -= 7) {
+            Assert.assertEquals(sourceData[100 + i], copy.getByte(i));
+        }
+
+        BinaryData part = copy.copy(5000, 10);
+        Assert.assertEquals(sourceData[5109], part.getByte(9));
+        copy.dispose();
+        part.dispose();
+        Assert.assertEquals(0, spillStore.getFileSize());
+        spillStore.close();
+    }
+
+    @Test
+    public void undoDeleteSelection() {
+        CodeArea codeArea = new CodeArea();
+        CodeAreaUndoRedo undoRedo = new CodeAreaUndoRedo(codeArea);
+        codeArea.setCommandHandler(new CodeAreaOperationCommandHandler(codeArea, undoRedo));
+        UndoDataSpillStore spillStore = new UndoDataSpillStore(100);
+
+        EditableBinaryData sampleData = CodeAreaTest.getSampleData(CodeAreaTest.SAMPLE_ALLBYTES);
+        byte[] expectedData = new byte[256];
+        sampleData.copyToArray(0, expectedData, 0, 256);
+        codeArea.setContentData(sampleData);
+        ((SelectionCapable) codeArea).setSelection(new SelectionRange(20, 220));
+        undoRedo.execute(new DeleteSelectionCommand(codeArea, spillStore));
+        Assert.assertEquals(56, codeArea.getDataSize());
+        Assert.assertEquals(200, spillStore.getFileSize());
+        Assert.assertEquals(0, undoRedo.getUsedDataSize());
+
+        undoRedo.performUndo();
+        checkContentData(expectedData, codeArea);
+
+        undoRedo.performRedo();
+        Assert.assertEquals(56, codeArea.getDataSize());
+
+        undoRedo.clear();
+        Assert.assertEquals(0, spillStore.getSegmentsCount());
+        Assert.assertEquals(0, spillStore.getFileSize());
+        spillStore.close();
+    }
+
+    private static void checkContentData(byte[] expectedData, CodeAreaCore codeArea) {
+        BinaryData contentData = codeArea.getContentData();
+        Assert.assertTrue(contentData instanceof ByteArrayEditableData);
+        CodeAreaUndoRedoTest.checkResultData(expectedData, contentData);
+    }
+}
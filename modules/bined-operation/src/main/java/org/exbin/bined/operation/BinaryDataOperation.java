@@ -38,6 +38,15 @@ public interface BinaryDataOperation {
      */
     void execute(EditableBinaryData contentData);
 
+    /**
+     * Returns size of the data retained by the operation.
+     *
+     * @return retained size in bytes
+     */
+    default long getRetainedSize() {
+        return 0;
+    }
+
     /**
      * Disposes of the operation's resources.
      */
@@ -35,6 +35,15 @@ public interface BinaryDataCommand {
      */
     void execute();
 
+    /**
+     * Returns size of the data retained by the command for undo or redo.
+     *
+     * @return retained size in bytes
+     */
+    default long getRetainedSize() {
+        return 0;
+    }
+
     /**
      * Disposes command.
      */
@@ -28,6 +28,7 @@ import javax.swing.UIManager;
 import javax.swing.border.Border;
 import org.exbin.bined.basic.BasicCodeAreaSection;
 import org.exbin.bined.ClipboardHandlingMode;
+import org.exbin.bined.DataChangeType;
 import org.exbin.bined.DefaultCodeAreaCaretPosition;
 import org.exbin.bined.CodeAreaSection;
 import org.exbin.bined.CodeAreaUtils;
@@ -38,6 +39,7 @@ import org.exbin.bined.EditMode;
 import org.exbin.bined.EditOperation;
 import org.exbin.bined.PositionCodeType;
 import org.exbin.bined.CaretOverlapMode;
+import org.exbin.bined.ScrollBarOrientation;
 import org.exbin.bined.ScrollBarVisibility;
 import org.exbin.bined.ScrollingListener;
 import org.exbin.bined.SelectionChangedListener;
@@ -377,6 +379,11 @@ public class SectCodeArea extends CodeAreaCore implements SectionCodeArea, CodeA
         return painter.computeScrolling(startPosition, scrollingShift);
     }
 
+    @Override
+    public CodeAreaScrollPosition computeWheelScrolling(CodeAreaScrollPosition startPosition, ScrollBarOrientation orientation, double scrollUnits) {
+        return painter.computeWheelScrolling(startPosition, orientation, scrollUnits);
+    }
+
     protected void updateScrollBars() {
         painter.updateScrollBars();
         repaint();
@@ -487,9 +494,16 @@ public class SectCodeArea extends CodeAreaCore implements SectionCodeArea, CodeA
         painter.reset();
     }
 
+    @Override
+    public void repaintCursor() {
+        if (!painter.repaintCursor()) {
+            repaint();
+        }
+    }
+
     protected void notifyCaretChanged() {
         painter.resetCaret();
-        repaint();
+        repaintCursor();
     }
 
     @Override
@@ -498,6 +512,14 @@ public class SectCodeArea extends CodeAreaCore implements SectionCodeArea, CodeA
         updateLayout();
     }
 
+    @Override
+    public void notifyDataChanged(long startPosition, long length, DataChangeType changeType) {
+        super.notifyDataChanged(startPosition, length, changeType);
+        if (changeType != DataChangeType.MODIFY) {
+            updateLayout();
+        }
+    }
+
     @Override
     public AntialiasingMode getAntialiasingMode() {
         return antialiasingMode;
@@ -517,23 +539,32 @@ public class SectCodeArea extends CodeAreaCore implements SectionCodeArea, CodeA
 
     @Override
     public void setSelection(SelectionRange selectionRange) {
+        boolean wasEmpty = selection.isEmpty();
         this.selection.setRange(CodeAreaUtils.requireNonNull(selectionRange));
         notifySelectionChanged();
-        repaint();
+        if (!wasEmpty || !selection.isEmpty()) {
+            repaint();
+        }
     }
 
     @Override
     public void setSelection(long start, long end) {
+        boolean wasEmpty = selection.isEmpty();
         this.selection.setSelection(start, end);
         notifySelectionChanged();
-        repaint();
+        if (!wasEmpty || !selection.isEmpty()) {
+            repaint();
+        }
     }
 
     @Override
     public void clearSelection() {
+        boolean wasEmpty = selection.isEmpty();
         this.selection.clearSelection();
         notifySelectionChanged();
-        repaint();
+        if (!wasEmpty || !selection.isEmpty()) {
+            repaint();
+        }
     }
 
     @Override
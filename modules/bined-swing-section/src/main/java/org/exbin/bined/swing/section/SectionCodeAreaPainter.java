@@ -31,7 +31,11 @@ import java.awt.Stroke;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.event.ComponentListener;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.util.Arrays;
 import java.util.Optional;
 import org.jspecify.annotations.Nullable;
@@ -50,6 +54,7 @@ import org.exbin.bined.CodeCharactersCase;
 import org.exbin.bined.CodeType;
 import org.exbin.bined.EditOperation;
 import org.exbin.bined.PositionCodeType;
+import org.exbin.bined.ScrollBarOrientation;
 import org.exbin.bined.CaretOverlapMode;
 import org.exbin.bined.basic.CodeAreaScrollPosition;
 import org.exbin.bined.basic.MovementDirection;
@@ -62,13 +67,16 @@ import org.exbin.bined.capability.RowWrappingCapable;
 import org.exbin.bined.capability.ScrollingCapable;
 import org.exbin.bined.color.BasicCodeAreaDecorationColorType;
 import org.exbin.bined.color.CodeAreaBasicColors;
+import org.exbin.bined.swing.basic.color.CodeAreaColorSlots;
 import org.exbin.bined.swing.basic.color.CodeAreaColorsProfile;
 import org.exbin.bined.swing.section.caret.DefaultExtendedCodeAreaCaretsProfile;
 import org.exbin.bined.section.capability.PositionCodeTypeCapable;
 import org.exbin.bined.section.theme.SectionBackgroundPaintMode;
 import org.exbin.bined.swing.CodeAreaCore;
 import org.exbin.bined.swing.CodeAreaPainter;
+import org.exbin.bined.swing.CodeAreaRowColors;
 import org.exbin.bined.swing.CodeAreaSwingUtils;
+import org.exbin.bined.swing.ScrollBlitBuffer;
 import org.exbin.bined.swing.basic.AntialiasingMode;
 import org.exbin.bined.swing.basic.BasicCodeAreaMetrics;
 import org.exbin.bined.swing.basic.DefaultCodeAreaCaret;
@@ -85,6 +93,7 @@ import org.exbin.bined.section.layout.PositionIterator;
 import org.exbin.bined.swing.basic.DefaultCodeAreaMouseListener;
 import org.exbin.bined.CodeAreaCaretPosition;
 import org.exbin.bined.CodeAreaSelection;
+import org.exbin.bined.DataChangeType;
 import org.exbin.bined.DataChangedListener;
 import org.exbin.bined.basic.ScrollViewDimension;
 import org.exbin.bined.capability.SelectionCapable;
@@ -133,6 +142,8 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
 
     protected SectionCodeAreaLayoutProfile layoutProfile = new DefaultSectionCodeAreaLayoutProfile();
     protected CodeAreaColorsProfile colorsProfile = new SectionCodeAreaColorProfile();
+    protected final CodeAreaColorSlots colorSlots = new CodeAreaColorSlots();
+    protected final int decorationLineSlot = colorSlots.getSlot(BasicCodeAreaDecorationColorType.LINE);
     protected SectionCodeAreaThemeProfile themeProfile = new SectionCodeAreaThemeProfile();
     protected SectionCodeAreaCaretsProfile caretsProfile = new DefaultExtendedCodeAreaCaretsProfile();
 
@@ -163,6 +174,20 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
     protected RowDataCache rowDataCache = null;
     @Nullable
     protected CursorDataCache cursorDataCache = null;
+    protected final CodeAreaRowColors rowColors = new CodeAreaRowColors();
+    protected final ScrollBlitBuffer blitBuffer = new ScrollBlitBuffer();
+    protected final long[] blitLayoutKey = new long[24];
+    protected boolean blitScrollingUsed = false;
+    /**
+     * Rectangles reused during paint to avoid allocation.
+     */
+    protected final Rectangle paintClipBounds = new Rectangle();
+    protected final Rectangle paintClipRect = new Rectangle();
+    protected final Rectangle rowsClipBounds = new Rectangle();
+    protected final Rectangle blitClipBounds = new Rectangle();
+    protected final Rectangle blitScrolledRect = new Rectangle();
+    protected final Rectangle blitExposedRect = new Rectangle();
+    protected final Point positionPoint = new Point();
 
     protected static final char SPACE_CHAR = ' '; //\u2003
 
@@ -215,7 +240,21 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
                 recomputeLayout();
             }
         };
-        codeAreaDataChangeListener = () -> dataChanged();
+        codeAreaDataChangeListener = new DataChangedListener() {
+            @Override
+            public void dataChanged() {
+                SectionCodeAreaPainter.this.dataChanged();
+            }
+
+            @Override
+            public void dataChanged(long startPosition, long length, DataChangeType changeType) {
+                if (changeType == DataChangeType.MODIFY) {
+                    dataModified(startPosition, length);
+                } else {
+                    SectionCodeAreaPainter.this.dataChanged();
+                }
+            }
+        };
         SectionCodeAreaPainter.this.rebuildColors();
     }
 
@@ -250,11 +289,13 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
     @Override
     public void resetColors() {
         resetColors = true;
+        blitBuffer.invalidate();
     }
 
     @Override
     public void resetFont() {
         fontChanged = true;
+        blitBuffer.invalidate();
         resetLayout();
     }
 
@@ -271,6 +312,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
     @Override
     public void rebuildColors() {
         colorsProfile.reinitialize();
+        colorSlots.compile(colorsProfile);
     }
 
     private void recomputeLayout() {
@@ -365,7 +407,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         rowDataCache.headerCodeData = new char[structure.getCodeType().getMaxDigitsForByte()];
         rowDataCache.headerChars = new char[maxRowDataChars + codeLength];
         rowDataCache.headerCharsShifted = shifted ? new char[maxRowDataChars + codeLength] : null;
-        rowDataCache.rowCodeData = new char[structure.getCodeType().getMaxDigitsForByte()];
+        rowDataCache.rowCodeData = new char[structure.getBytesPerRow() * codeLength];
         rowDataCache.rowData = new byte[structure.getBytesPerRow() + metrics.getMaxBytesPerChar() - 1];
         rowDataCache.rowPositionCode = new char[rowPositionLength];
         rowDataCache.rowCharacters = new char[maxRowDataChars];
@@ -380,6 +422,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         charset = ((CharsetCapable) codeArea).getCharset();
         font = ((FontCapable) codeArea).getCodeFont();
         metrics.recomputeMetrics(g.getFontMetrics(font), charset);
+        blitBuffer.invalidate();
 
         recomputeLayout();
         recomputeCharPositions();
@@ -426,16 +469,101 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
             recomputeCharPositions();
         }
 
+        if (blitScrollingUsed) {
+            paintBlitted(g);
+            return;
+        }
+
         paintOutsideArea(g);
         paintHeader(g);
         paintRowPosition(g);
         paintMainArea(g);
     }
 
+    /**
+     * Paints component using persistent buffer, shifting already painted rows
+     * when view was scrolled vertically.
+     *
+     * @param g graphics
+     */
+    private void paintBlitted(Graphics g) {
+        Rectangle componentRect = dimensions.getComponentRectangle();
+        Graphics2D bufferGraphics = blitBuffer.prepare(g, componentRect.x + componentRect.width, componentRect.y + componentRect.height);
+        if (bufferGraphics == null) {
+            paintOutsideArea(g);
+            paintHeader(g);
+            paintRowPosition(g);
+            paintMainArea(g);
+            return;
+        }
+
+        updateBlitLayoutKey();
+        CodeAreaScrollPosition scrollPosition = scrolling.getScrollPosition();
+        Rectangle dataViewRect = dimensions.getDataViewRectangle();
+        boolean clipped = CodeAreaSwingUtils.getClipBounds(g, blitClipBounds);
+        Rectangle paintedRect = componentRect;
+        if (blitBuffer.isContentValid(blitLayoutKey)) {
+            int shift = blitBuffer.computeShift(scrollPosition.getRowPosition(), scrollPosition.getRowOffset(), metrics.getRowHeight(), dataViewRect.height);
+            Rectangle scrolledRect = blitScrolledRect;
+            scrolledRect.setBounds(componentRect.x, dataViewRect.y, componentRect.width, dataViewRect.height);
+            if (shift == 0) {
+                if (clipped) {
+                    paintedRect = blitClipBounds;
+                }
+            } else if (shift != ScrollBlitBuffer.NO_SHIFT && (!clipped || blitClipBounds.contains(scrolledRect))) {
+                paintedRect = blitBuffer.shift(bufferGraphics, scrolledRect, shift, blitExposedRect);
+            }
+        }
+
+        bufferGraphics.setClip(paintedRect);
+        paintOutsideArea(bufferGraphics);
+        paintHeader(bufferGraphics);
+        paintRowPosition(bufferGraphics);
+        paintMainAreaContent(bufferGraphics);
+        bufferGraphics.dispose();
+
+        blitBuffer.commit(g, blitLayoutKey, scrollPosition.getRowPosition(), scrollPosition.getRowOffset());
+        paintCursor(g);
+    }
+
+    private void updateBlitLayoutKey() {
+        Rectangle componentRect = dimensions.getComponentRectangle();
+        Rectangle dataViewRect = dimensions.getDataViewRectangle();
+        CodeAreaScrollPosition scrollPosition = scrolling.getScrollPosition();
+        CodeAreaSelection selectionHandler = ((SelectionCapable) codeArea).getSelectionHandler();
+        blitLayoutKey[0] = componentRect.x;
+        blitLayoutKey[1] = componentRect.y;
+        blitLayoutKey[2] = componentRect.width;
+        blitLayoutKey[3] = componentRect.height;
+        blitLayoutKey[4] = dataViewRect.x;
+        blitLayoutKey[5] = dataViewRect.y;
+        blitLayoutKey[6] = dataViewRect.width;
+        blitLayoutKey[7] = dataViewRect.height;
+        blitLayoutKey[8] = metrics.getRowHeight();
+        blitLayoutKey[9] = metrics.getCharacterWidth();
+        blitLayoutKey[10] = scrollPosition.getCharPosition();
+        blitLayoutKey[11] = scrollPosition.getCharOffset();
+        blitLayoutKey[12] = structure.getBytesPerRow();
+        blitLayoutKey[13] = structure.getCodeType().ordinal();
+        blitLayoutKey[14] = structure.getViewMode().ordinal();
+        blitLayoutKey[15] = codeCharactersCase.ordinal();
+        blitLayoutKey[16] = rowPositionLength;
+        blitLayoutKey[17] = codeArea.getDataSize();
+        blitLayoutKey[18] = selectionHandler.getStart();
+        blitLayoutKey[19] = selectionHandler.getEnd();
+        blitLayoutKey[20] = ((CaretCapable) codeArea).getActiveSection() == BasicCodeAreaSection.TEXT_PREVIEW ? 1 : 0;
+        blitLayoutKey[21] = structure.getHalfCharsPerRow();
+        blitLayoutKey[22] = colorAssessor.getColorStateStamp();
+        blitLayoutKey[23] = charAssessor.getStateStamp();
+    }
+
     protected synchronized void updateCache() {
         if (resetColors) {
             resetColors = false;
             rebuildColors();
+        } else if (colorSlots.update(colorsProfile)) {
+            // Colors of the profile were modified in place
+            blitBuffer.invalidate();
         }
     }
 
@@ -444,11 +572,11 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         int rowPositionAreaWidth = dimensions.getRowPositionAreaWidth();
         Rectangle componentRect = dimensions.getComponentRectangle();
         int characterWidth = metrics.getCharacterWidth();
-        g.setColor(colorsProfile.getColor(CodeAreaBasicColors.TEXT_BACKGROUND));
+        g.setColor(colorSlots.getColor(CodeAreaBasicColors.TEXT_BACKGROUND));
         g.fillRect(componentRect.x, componentRect.y, componentRect.width, headerAreaHeight);
 
         // Decoration lines
-        g.setColor(colorsProfile.getColor(BasicCodeAreaDecorationColorType.LINE));
+        g.setColor(colorSlots.getColor(decorationLineSlot));
         if (themeProfile.showHeaderLine()) {
             g.drawLine(componentRect.x, componentRect.y + headerAreaHeight - 1, componentRect.x + rowPositionAreaWidth, componentRect.y + headerAreaHeight - 1);
         }
@@ -472,8 +600,8 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
 
         Rectangle headerArea = dimensions.getHeaderAreaRectangle();
 
-        Rectangle clipBounds = g.getClipBounds();
-        g.setClip(clipBounds != null ? clipBounds.intersection(headerArea) : headerArea);
+        boolean clipped = CodeAreaSwingUtils.getClipBounds(g, paintClipBounds);
+        g.setClip(clipped ? CodeAreaSwingUtils.intersection(paintClipBounds, headerArea, paintClipRect) : headerArea);
 
         int characterWidth = metrics.getCharacterWidth();
         int halfSpaceWidth = characterWidth / 2;
@@ -484,7 +612,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         int skipRestFromChar = visibility.getSkipRestFromChar();
 
         g.setFont(font);
-        g.setColor(colorsProfile.getColor(CodeAreaBasicColors.TEXT_BACKGROUND));
+        g.setColor(colorSlots.getColor(CodeAreaBasicColors.TEXT_BACKGROUND));
         g.fillRect(headerArea.x, headerArea.y, headerArea.width, headerArea.height);
 
         CodeAreaViewMode viewMode = structure.getViewMode();
@@ -499,7 +627,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
 
             int codeLength = structure.getCodeType().getMaxDigitsForByte();
             int base = structure.getPositionCodeType().getBase();
-            g.setColor(colorsProfile.getColor(CodeAreaBasicColors.ALTERNATE_BACKGROUND));
+            g.setColor(colorSlots.getColor(CodeAreaBasicColors.ALTERNATE_BACKGROUND));
             positionIterator.reset();
             positionIterator.skip(visibility.getSkipTo());
             int halfCharPos = positionIterator.getHalfCharPosition();
@@ -538,7 +666,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
                 }
             } while (!positionIterator.isEndReached());
 
-            g.setColor(colorsProfile.getColor(CodeAreaBasicColors.TEXT_COLOR));
+            g.setColor(colorSlots.getColor(CodeAreaBasicColors.TEXT_COLOR));
             positionIterator.reset();
             positionIterator.skip(visibility.getSkipTo());
             halfCharPos = positionIterator.getHalfCharPosition();
@@ -561,7 +689,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
                             continue;
                         }
 
-                        Color color = colorsProfile.getColor(CodeAreaBasicColors.TEXT_COLOR);
+                        Color color = colorSlots.getColor(CodeAreaBasicColors.TEXT_COLOR);
                         if (!CodeAreaSwingUtils.areSameColors(color, renderColor)) {
                             sequenceBreak = true;
                         }
@@ -584,7 +712,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
                             continue;
                         }
 
-                        Color color = colorsProfile.getColor(CodeAreaBasicColors.TEXT_COLOR);
+                        Color color = colorSlots.getColor(CodeAreaBasicColors.TEXT_COLOR);
                         if (!CodeAreaSwingUtils.areSameColors(color, renderColorShifted)) {
                             sequenceBreak = true;
                         }
@@ -617,7 +745,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         }
 
         // Decoration lines
-        g.setColor(colorsProfile.getColor(BasicCodeAreaDecorationColorType.LINE));
+        g.setColor(colorSlots.getColor(decorationLineSlot));
 
         if (themeProfile.showHeaderLine() || themeProfile.showBoxLine()) {
             g.drawLine(headerArea.x, headerArea.y + headerArea.height - 1, headerArea.x + headerArea.width, headerArea.y + headerArea.height - 1);
@@ -655,7 +783,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
             }
         }
 
-        g.setClip(clipBounds);
+        g.setClip(clipped ? paintClipBounds : null);
     }
 
     public void paintRowPosition(Graphics g) {
@@ -671,11 +799,11 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         int rowsPerRect = dimensions.getRowsPerRect();
         Rectangle rowPosRectangle = dimensions.getRowPositionAreaRectangle();
         Rectangle dataViewRectangle = dimensions.getDataViewRectangle();
-        Rectangle clipBounds = g.getClipBounds();
-        g.setClip(clipBounds != null ? clipBounds.intersection(rowPosRectangle) : rowPosRectangle);
+        boolean clipped = CodeAreaSwingUtils.getClipBounds(g, paintClipBounds);
+        g.setClip(clipped ? CodeAreaSwingUtils.intersection(paintClipBounds, rowPosRectangle, paintClipRect) : rowPosRectangle);
 
         g.setFont(font);
-        g.setColor(colorsProfile.getColor(CodeAreaBasicColors.TEXT_BACKGROUND));
+        g.setColor(colorSlots.getColor(CodeAreaBasicColors.TEXT_BACKGROUND));
         g.fillRect(rowPosRectangle.x, rowPosRectangle.y, rowPosRectangle.width, rowPosRectangle.height);
 
         CodeAreaScrollPosition scrollPosition = scrolling.getScrollPosition();
@@ -685,7 +813,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
                 || themeProfile.getBackgroundPaintMode() == SectionBackgroundPaintMode.CHESSBOARD)) {
             long dataPosition = scrollPosition.getRowPosition() * bytesPerRow + ((scrollPosition.getRowPosition() & 1) > 0 ? 0 : bytesPerRow);
             int stripePositionY = rowPosRectangle.y - scrollPosition.getRowOffset() + ((scrollPosition.getRowPosition() & 1) > 0 ? 0 : rowHeight);
-            g.setColor(colorsProfile.getColor(CodeAreaBasicColors.ALTERNATE_BACKGROUND));
+            g.setColor(colorSlots.getColor(CodeAreaBasicColors.ALTERNATE_BACKGROUND));
             for (int row = 0; row <= rowsPerRect / 2; row++) {
                 if (dataPosition > dataSize) {
                     break;
@@ -699,7 +827,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
 
         long dataPosition = bytesPerRow * scrollPosition.getRowPosition();
         int positionY = rowPosRectangle.y + rowHeight - subFontSpace - scrollPosition.getRowOffset();
-        g.setColor(colorsProfile.getColor(CodeAreaBasicColors.TEXT_COLOR));
+        g.setColor(colorSlots.getColor(CodeAreaBasicColors.TEXT_COLOR));
         for (int row = 0; row <= rowsPerRect; row++) {
             if (dataPosition > dataSize) {
                 break;
@@ -716,7 +844,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         }
 
         // Decoration lines
-        g.setColor(colorsProfile.getColor(BasicCodeAreaDecorationColorType.LINE));
+        g.setColor(colorSlots.getColor(decorationLineSlot));
         if (themeProfile.showRowPositionLine()) {
             int lineX = rowPosRectangle.x + rowPosRectangle.width - (characterWidth / 2);
             if (lineX >= rowPosRectangle.x) {
@@ -730,11 +858,18 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
             }
         }
 
-        g.setClip(clipBounds);
+        g.setClip(clipped ? paintClipBounds : null);
     }
 
     @Override
     public void paintMainArea(Graphics g) {
+        paintMainAreaContent(g);
+        paintCursor(g);
+
+//        paintDebugInfo(g, mainAreaRect, scrolling.getScrollPosition());
+    }
+
+    private void paintMainAreaContent(Graphics g) {
         if (!initialized) {
             reset();
         }
@@ -747,8 +882,8 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         Rectangle dataViewRectangle = dimensions.getDataViewRectangle();
         int splitLinePos = visibility.getSplitLinePos();
 
-        Rectangle clipBounds = g.getClipBounds();
-        g.setClip(clipBounds != null ? clipBounds.intersection(mainAreaRect) : mainAreaRect);
+        boolean clipped = CodeAreaSwingUtils.getClipBounds(g, paintClipBounds);
+        g.setClip(clipped ? CodeAreaSwingUtils.intersection(paintClipBounds, mainAreaRect, paintClipRect) : mainAreaRect);
         colorAssessor.startPaint(this);
         charAssessor.startPaint(this);
 
@@ -757,7 +892,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         int characterWidth = metrics.getCharacterWidth();
         paintRows(g);
 
-        g.setColor(colorsProfile.getColor(BasicCodeAreaDecorationColorType.LINE));
+        g.setColor(colorSlots.getColor(decorationLineSlot));
         {
             int lineX = dataViewRectangle.x + splitLinePos - scrolling.getHorizontalScrollX(characterWidth);
             if (themeProfile.showSplitLine() && splitLinePos > 0) {
@@ -793,10 +928,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
             }
         }
 
-        g.setClip(clipBounds);
-        paintCursor(g);
-
-//        paintDebugInfo(g, mainAreaRect, scrolling.getScrollPosition());
+        g.setClip(clipped ? paintClipBounds : null);
     }
 
 //    // Debugging counter
@@ -829,7 +961,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         Rectangle dataViewRect = dimensions.getDataViewRectangle();
         CodeAreaScrollPosition scrollPosition = scrolling.getScrollPosition();
 
-        g.setColor(colorsProfile.getColor(CodeAreaBasicColors.TEXT_BACKGROUND));
+        g.setColor(colorSlots.getColor(CodeAreaBasicColors.TEXT_BACKGROUND));
         if (themeProfile.getBackgroundPaintMode() != SectionBackgroundPaintMode.TRANSPARENT) {
             g.fillRect(dataViewRect.x, dataViewRect.y, dataViewRect.width, dataViewRect.height);
         }
@@ -837,12 +969,21 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         if (themeProfile.getBackgroundPaintMode() == SectionBackgroundPaintMode.STRIPED
                 || themeProfile.getBackgroundPaintMode() == SectionBackgroundPaintMode.GRIDDED
                 || themeProfile.getBackgroundPaintMode() == SectionBackgroundPaintMode.CHESSBOARD) {
-            g.setColor(colorsProfile.getColor(CodeAreaBasicColors.ALTERNATE_BACKGROUND));
+            g.setColor(colorSlots.getColor(CodeAreaBasicColors.ALTERNATE_BACKGROUND));
             long dataPosition = scrollPosition.getRowPosition() * bytesPerRow;
             int rowAlternatingOffset = (int) (scrollPosition.getRowPosition() & 1);
             int stripePositionY = dataViewRect.y - scrollPosition.getRowOffset();
+            int firstRow = 0;
+            int lastRow = rowsPerRect;
+            Rectangle clipBounds = rowsClipBounds;
+            if (CodeAreaSwingUtils.getClipBounds(g, clipBounds)) {
+                firstRow = Math.max(0, Math.floorDiv(clipBounds.y - stripePositionY, rowHeight));
+                lastRow = Math.min(rowsPerRect, Math.floorDiv(clipBounds.y + clipBounds.height - 1 - stripePositionY, rowHeight));
+                stripePositionY += firstRow * rowHeight;
+                dataPosition += (long) firstRow * bytesPerRow;
+            }
 
-            for (int row = 0; row <= rowsPerRect; row++) {
+            for (int row = firstRow; row <= lastRow; row++) {
                 if (dataPosition > dataSize) {
                     break;
                 }
@@ -904,13 +1045,31 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         int rowPositionX = dataViewX - scrolling.getHorizontalScrollX(characterWidth);
         int rowPositionY = dataViewY - scrollPosition.getRowOffset();
 
-        g.setColor(colorsProfile.getColor(CodeAreaBasicColors.TEXT_COLOR));
-        for (int row = 0; row <= rowsPerRect; row++) {
+        // Limit painting to rows intersecting clip with margin for overlapping glyphs
+        int firstRow = 0;
+        int lastRow = rowsPerRect;
+        Rectangle clipBounds = rowsClipBounds;
+        if (CodeAreaSwingUtils.getClipBounds(g, clipBounds)) {
+            firstRow = Math.max(0, Math.floorDiv(clipBounds.y - rowPositionY, rowHeight) - 1);
+            lastRow = Math.min(rowsPerRect, Math.floorDiv(clipBounds.y + clipBounds.height - 1 - rowPositionY, rowHeight) + 1);
+            if (firstRow > 0) {
+                rowPositionY += firstRow * rowHeight;
+                if ((Long.MAX_VALUE - dataPosition) / bytesPerRow < firstRow) {
+                    dataPosition = Long.MAX_VALUE;
+                } else {
+                    dataPosition += (long) firstRow * bytesPerRow;
+                }
+            }
+        }
+
+        g.setColor(colorSlots.getColor(CodeAreaBasicColors.TEXT_COLOR));
+        for (int row = firstRow; row <= lastRow; row++) {
             if (dataPosition > dataSize) {
                 break;
             }
 
             prepareRowData(dataPosition);
+            prepareRowColors(dataPosition);
             paintRowBackground(g, dataPosition, rowPositionX, rowPositionY);
             paintRowText(g, dataPosition, rowPositionX, rowPositionY);
 
@@ -947,12 +1106,17 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
             Arrays.fill(rowDataCache.rowCharactersShifted, SPACE_CHAR);
         }
 
+        if (structure.getViewMode() != CodeAreaViewMode.TEXT_PREVIEW && dataPosition < dataSize) {
+            int rowBytesLimit = (int) Math.min(bytesPerRow, dataSize - dataPosition);
+            CodeAreaUtils.bytesToCharsCode(rowDataCache.rowData, rowStart, rowBytesLimit - rowStart, codeType, codeCharactersCase, rowDataCache.rowCodeData, rowStart * codeType.getMaxDigitsForByte(), 0);
+        }
+
         positionIterator.reset();
         positionIterator.skip(visibility.getSkipTo());
         char targetChar;
         int skipToChar = visibility.getSkipToChar();
         int halfCharPos = positionIterator.getHalfCharPosition();
-        boolean first = true;
+        int codeLength = codeType.getMaxDigitsForByte();
         int byteOnRow;
         do {
             BasicCodeAreaSection section = positionIterator.getSection();
@@ -963,17 +1127,13 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
             byteOnRow = positionIterator.getBytePosition();
             int charPos = halfCharPos / 2 - skipToChar;
             int codeOffset = positionIterator.getCodeOffset();
-            byte dataByte = rowDataCache.rowData[byteOnRow];
             if (section == BasicCodeAreaSection.CODE_MATRIX) {
                 if (dataPosition + byteOnRow < dataSize) {
-                    if (first || codeOffset == 0) {
-                        CodeAreaUtils.byteToCharsCode(dataByte, codeType, rowDataCache.rowCodeData, 0, codeCharactersCase);
-                        first = false;
-                    }
+                    char codeChar = rowDataCache.rowCodeData[byteOnRow * codeLength + codeOffset];
                     if ((halfCharPos & 1) == 0) {
-                        rowDataCache.rowCharacters[charPos] = rowDataCache.rowCodeData[codeOffset];
+                        rowDataCache.rowCharacters[charPos] = codeChar;
                     } else {
-                        rowDataCache.rowCharactersShifted[charPos] = rowDataCache.rowCodeData[codeOffset];
+                        rowDataCache.rowCharactersShifted[charPos] = codeChar;
                     }
                 }
             } else {
@@ -1002,6 +1162,33 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         } while (!positionIterator.isEndReached());
     }
 
+    /**
+     * Prepares colors for visible positions of the row.
+     *
+     * @param rowDataPosition row data position
+     */
+    private void prepareRowColors(long rowDataPosition) {
+        CodeAreaSelection selectionHandler = ((SelectionCapable) codeArea).getSelectionHandler();
+
+        rowColors.reset(structure.getHalfCharsPerRow());
+        positionIterator.reset();
+        positionIterator.skip(visibility.getSkipTo());
+        int halfCharPos = positionIterator.getHalfCharPosition();
+        do {
+            CodeAreaSection section = positionIterator.getSection();
+            int byteOnRow = positionIterator.getBytePosition();
+            boolean inSelection = selectionHandler.isInSelection(rowDataPosition + byteOnRow);
+            rowColors.addPosition(byteOnRow, halfCharPos, section, inSelection);
+
+            halfCharPos += 2 + positionIterator.nextSpaceType().getHalfCharSize();
+            if (positionIterator.getPosition() == visibility.getSkipRestFrom()) {
+                break;
+            }
+        } while (!positionIterator.isEndReached());
+
+        colorAssessor.assessRowColors(rowDataPosition, rowColors);
+    }
+
     /**
      * Paints row background.
      *
@@ -1020,8 +1207,8 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         int renderOffset = positionIterator.getHalfCharPosition();
         int spaceSize = 0;
         int halfCharPos = positionIterator.getHalfCharPosition();
+        int positionIndex = 0;
         do {
-            CodeAreaSection section = positionIterator.getSection();
             if (positionIterator.getPosition() == visibility.getSkipRestFrom()) {
                 break;
             }
@@ -1030,9 +1217,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
             int charPos = halfCharPos;
 
             boolean sequenceBreak = false;
-            CodeAreaSelection selectionHandler = ((SelectionCapable) codeArea).getSelectionHandler();
-            boolean inSelection = selectionHandler.isInSelection(rowDataPosition + byteOnRow);
-            Color color = colorAssessor.getPositionBackgroundColor(rowDataPosition, byteOnRow, halfCharPos, section, inSelection);
+            Color color = rowColors.getBackgroundColor(positionIndex);
             if (!CodeAreaSwingUtils.areSameColors(color, renderColor)) {
                 sequenceBreak = true;
             }
@@ -1063,6 +1248,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
 
             spaceSize = positionIterator.nextSpaceType().getHalfCharSize();
             halfCharPos += 2 + spaceSize;
+            positionIndex++;
         } while (!positionIterator.isEndReached());
 
         if (renderOffset < charactersPerRow) {
@@ -1159,11 +1345,9 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         int halfCharPos = positionIterator.getHalfCharPosition();
         int renderCharOffset = halfCharPos / 2;
         int renderCharOffsetShifted = renderCharOffset;
+        int positionIndex = 0;
         char currentChar;
         do {
-            CodeAreaSection section = positionIterator.getSection();
-            int byteOnRow = positionIterator.getBytePosition();
-
             int charPos = halfCharPos / 2;
 
             if ((halfCharPos & 1) == 0) {
@@ -1174,11 +1358,9 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
                     continue;
                 }
 
-                CodeAreaSelection selectionHandler = ((SelectionCapable) codeArea).getSelectionHandler();
-                boolean inSelection = selectionHandler.isInSelection(rowDataPosition + byteOnRow);
-                Color color = colorAssessor.getPositionTextColor(rowDataPosition, byteOnRow, halfCharPos, section, inSelection);
+                Color color = rowColors.getTextColor(positionIndex);
                 if (color == null) {
-                    color = colorsProfile.getColor(CodeAreaBasicColors.TEXT_COLOR);
+                    color = colorSlots.getColor(CodeAreaBasicColors.TEXT_COLOR);
                 }
 
                 boolean sequenceBreak = false;
@@ -1216,11 +1398,9 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
                     continue;
                 }
 
-                CodeAreaSelection selectionHandler = ((SelectionCapable) codeArea).getSelectionHandler();
-                boolean inSelection = selectionHandler.isInSelection(rowDataPosition + byteOnRow);
-                Color color = colorAssessor.getPositionTextColor(rowDataPosition, byteOnRow, halfCharPos, section, inSelection);
+                Color color = rowColors.getTextColor(positionIndex);
                 if (color == null) {
-                    color = colorsProfile.getColor(CodeAreaBasicColors.TEXT_COLOR);
+                    color = colorSlots.getColor(CodeAreaBasicColors.TEXT_COLOR);
                 }
 
                 boolean sequenceBreak = false;
@@ -1253,6 +1433,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
             }
 
             halfCharPos += 2 + positionIterator.nextSpaceType().getHalfCharSize();
+            positionIndex++;
 
             if (positionIterator.getPosition() == visibility.getSkipRestFrom()) {
                 break;
@@ -1285,6 +1466,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
     @Override
     public void setColorAssessor(CodeAreaColorAssessor colorAssessor) {
         this.colorAssessor = CodeAreaUtils.requireNonNull(colorAssessor);
+        blitBuffer.invalidate();
     }
 
     @Override
@@ -1295,11 +1477,15 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
     @Override
     public void setCharAssessor(CodeAreaCharAssessor charAssessor) {
         this.charAssessor = charAssessor;
+        blitBuffer.invalidate();
     }
 
     @Override
     public void paintCursor(Graphics g) {
         if (!codeArea.hasFocus()) {
+            if (cursorDataCache != null) {
+                cursorDataCache.caretRect.setSize(0, 0);
+            }
             return;
         }
 
@@ -1326,20 +1512,21 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         }
 
         DefaultCodeAreaCaret caret = (DefaultCodeAreaCaret) ((CaretCapable) codeArea).getCodeAreaCaret();
-        Rectangle cursorRect = getCursorPositionRect(caret.getDataPosition(), caret.getCodeOffset(), caret.getSection());
+        Rectangle cursorRect = cursorDataCache.cursorRect;
+        updateRectToCursorPosition(cursorRect, caret.getDataPosition(), caret.getCodeOffset(), caret.getSection());
         if (cursorRect.isEmpty()) {
+            cursorDataCache.caretRect.setSize(0, 0);
             return;
         }
 
-        Rectangle scrolledCursorRect = new Rectangle(cursorRect.x, cursorRect.y, cursorRect.width, cursorRect.height);
-        Rectangle clipBounds = g.getClipBounds();
-        Rectangle intersection = scrolledCursorRect.intersection(mainAreaRect);
+        boolean clipped = CodeAreaSwingUtils.getClipBounds(g, paintClipBounds);
+        Rectangle intersection = CodeAreaSwingUtils.intersection(cursorRect, mainAreaRect, cursorDataCache.caretRect);
         boolean cursorVisible = caret.isCursorVisible() && !intersection.isEmpty();
 
         if (cursorVisible) {
             g.setClip(intersection);
             DefaultCodeAreaCaret.CursorRenderingMode renderingMode = caret.getRenderingMode();
-            g.setColor(colorsProfile.getColor(CodeAreaBasicColors.CURSOR_COLOR));
+            g.setColor(colorSlots.getColor(CodeAreaBasicColors.CURSOR_COLOR));
 
             CodeAreaCaretShape caretShape = caretsProfile.identifyCaretShape(CodeAreaCaretType.INSERT);
             paintCursorRect(g, intersection.x, intersection.y, intersection.width, intersection.height, renderingMode, caret, caretShape);
@@ -1350,19 +1537,54 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
             updateMirrorCursorRect(caret.getDataPosition(), caret.getSection());
             Rectangle mirrorCursorRect = cursorDataCache.mirrorCursorRect;
             if (!mirrorCursorRect.isEmpty()) {
-                intersection = mainAreaRect.intersection(mirrorCursorRect);
+                intersection = CodeAreaSwingUtils.intersection(mainAreaRect, mirrorCursorRect, paintClipRect);
                 boolean mirrorCursorVisible = !intersection.isEmpty();
                 if (mirrorCursorVisible) {
                     g.setClip(intersection);
-                    g.setColor(colorsProfile.getColor(CodeAreaBasicColors.CURSOR_COLOR));
-                    Graphics2D g2d = (Graphics2D) g.create();
+                    g.setColor(colorSlots.getColor(CodeAreaBasicColors.CURSOR_COLOR));
+                    Graphics2D g2d = (Graphics2D) g;
+                    Stroke stroke = g2d.getStroke();
                     g2d.setStroke(cursorDataCache.dashedStroke);
                     g2d.drawRect(mirrorCursorRect.x, mirrorCursorRect.y, mirrorCursorRect.width - 1, mirrorCursorRect.height - 1);
-                    g2d.dispose();
+                    g2d.setStroke(stroke);
                 }
             }
         }
-        g.setClip(clipBounds);
+        g.setClip(clipped ? paintClipBounds : null);
+    }
+
+    @Override
+    public boolean repaintCursor() {
+        if (!initialized || layoutChanged || cursorDataCache == null) {
+            codeArea.repaint();
+            return true;
+        }
+
+        if (caretChanged) {
+            updateCaret();
+        }
+
+        // Previously painted cursor
+        if (!cursorDataCache.caretRect.isEmpty()) {
+            codeArea.repaint(cursorDataCache.caretRect);
+        }
+        if (!cursorDataCache.mirrorCursorRect.isEmpty()) {
+            codeArea.repaint(cursorDataCache.mirrorCursorRect);
+        }
+
+        DefaultCodeAreaCaret caret = (DefaultCodeAreaCaret) ((CaretCapable) codeArea).getCodeAreaCaret();
+        Rectangle cursorRect = getCursorPositionRect(caret.getDataPosition(), caret.getCodeOffset(), caret.getSection());
+        Rectangle intersection = cursorRect.intersection(dimensions.getMainAreaRectangle());
+        if (!intersection.isEmpty()) {
+            codeArea.repaint(intersection);
+        }
+        if (structure.getViewMode() == CodeAreaViewMode.DUAL && showMirrorCursor) {
+            updateMirrorCursorRect(caret.getDataPosition(), caret.getSection());
+            if (!cursorDataCache.mirrorCursorRect.isEmpty()) {
+                codeArea.repaint(cursorDataCache.mirrorCursorRect);
+            }
+        }
+        return true;
     }
 
     private void paintCursorRect(Graphics g, int cursorX, int cursorY, int width, int height, DefaultCodeAreaCaret.CursorRenderingMode renderingMode, DefaultCodeAreaCaret caret, CodeAreaCaretShape caretShape) {
@@ -1372,7 +1594,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
                 break;
             }
             case XOR: {
-                g.setXORMode(colorsProfile.getColor(CodeAreaBasicColors.TEXT_BACKGROUND));
+                g.setXORMode(colorSlots.getColor(CodeAreaBasicColors.TEXT_BACKGROUND));
                 caretsProfile.paintCaret(g, cursorX, cursorY, width, height, caretShape);
                 g.setPaintMode();
                 break;
@@ -1390,7 +1612,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
                 long dataSize = codeArea.getDataSize();
                 CodeType codeType = structure.getCodeType();
                 caretsProfile.paintCaret(g, cursorX, cursorY, width, height, caretShape);
-                g.setColor(colorsProfile.getColor(CodeAreaBasicColors.CURSOR_NEGATIVE_COLOR));
+                g.setColor(colorSlots.getColor(CodeAreaBasicColors.CURSOR_NEGATIVE_COLOR));
                 BinaryData contentData = codeArea.getContentData();
                 int row = (cursorY + scrollPosition.getRowOffset() - dataViewY) / rowHeight;
                 // int scrolledX = cursorX + scrolling.getHorizontalScrollX(characterWidth);
@@ -1426,10 +1648,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
 
                             contentData.copyToArray(dataPosition, cursorDataCache.cursorData, 0, charDataLength);
                             cursorDataCache.cursorChars[0] = charAssessor.getPreviewCursorCharacter(dataPosition, byteOnRow, previewCharPos, cursorDataCache.cursorData, charDataLength, BasicCodeAreaSection.TEXT_PREVIEW);
-                            String displayString = new String(cursorDataCache.cursorData, 0, charDataLength, charset);
-                            if (!displayString.isEmpty()) {
-                                cursorDataCache.cursorChars[0] = displayString.charAt(0);
-                            }
+                            cursorDataCache.cursorChars[0] = decodeCursorChar(charDataLength, cursorDataCache.cursorChars[0]);
                         } else {
                             cursorDataCache.cursorData[0] = contentData.getByte(dataPosition);
                             cursorDataCache.cursorChars[0] = charAssessor.getPreviewCursorCharacter(dataPosition, byteOnRow, previewCharPos, cursorDataCache.cursorData, 1, BasicCodeAreaSection.TEXT_PREVIEW);
@@ -1538,6 +1757,13 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         return scrolling.computeScrolling(startPosition, direction, rowsPerPage, rowsPerDocument);
     }
 
+    @Override
+    public CodeAreaScrollPosition computeWheelScrolling(CodeAreaScrollPosition startPosition, ScrollBarOrientation orientation, double scrollUnits) {
+        int rowsPerPage = dimensions.getRowsPerPage();
+        long rowsPerDocument = structure.getRowsPerDocument();
+        return scrolling.computeWheelScrolling(startPosition, orientation, scrollUnits, rowsPerPage, rowsPerDocument, metrics.getRowHeight());
+    }
+
     /**
      * Returns relative cursor position in code area or null if cursor is not
      * visible.
@@ -1549,6 +1775,20 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
      */
     @Nullable
     public Point getPositionPoint(long dataPosition, int codeOffset, CodeAreaSection section) {
+        Point point = new Point();
+        return updatePointToPosition(point, dataPosition, codeOffset, section) ? point : null;
+    }
+
+    /**
+     * Stores relative cursor position in code area to given point.
+     *
+     * @param point target point
+     * @param dataPosition data position
+     * @param codeOffset code offset
+     * @param section section
+     * @return true if cursor is visible and point was updated
+     */
+    protected boolean updatePointToPosition(Point point, long dataPosition, int codeOffset, CodeAreaSection section) {
         int bytesPerRow = structure.getBytesPerRow();
         int rowsPerRect = dimensions.getRowsPerRect();
         int characterWidth = metrics.getCharacterWidth();
@@ -1557,7 +1797,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         CodeAreaScrollPosition scrollPosition = scrolling.getScrollPosition();
         long row = dataPosition / bytesPerRow - scrollPosition.getRowPosition();
         if (row < -1 || row > rowsPerRect) {
-            return null;
+            return false;
         }
 
         int byteOffset = (int) (dataPosition % bytesPerRow);
@@ -1570,13 +1810,14 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         caretX = dataViewRect.x + layoutProfile.computePositionX(halfCharPos, characterWidth, characterWidth / 2);
         caretX -= scrolling.getHorizontalScrollX(characterWidth);
 
-        return new Point(caretX, caretY);
+        point.setLocation(caretX, caretY);
+        return true;
     }
 
     private void updateMirrorCursorRect(long dataPosition, CodeAreaSection section) {
         CodeType codeType = structure.getCodeType();
-        Point mirrorCursorPoint = getPositionPoint(dataPosition, 0, section == BasicCodeAreaSection.CODE_MATRIX ? BasicCodeAreaSection.TEXT_PREVIEW : BasicCodeAreaSection.CODE_MATRIX);
-        if (mirrorCursorPoint == null) {
+        Point mirrorCursorPoint = positionPoint;
+        if (!updatePointToPosition(mirrorCursorPoint, dataPosition, 0, section == BasicCodeAreaSection.CODE_MATRIX ? BasicCodeAreaSection.TEXT_PREVIEW : BasicCodeAreaSection.CODE_MATRIX)) {
             cursorDataCache.mirrorCursorRect.setSize(0, 0);
         } else {
             cursorDataCache.mirrorCursorRect.setBounds(mirrorCursorPoint.x, mirrorCursorPoint.y, metrics.getCharacterWidth() * (section == BasicCodeAreaSection.TEXT_PREVIEW ? codeType.getMaxDigitsForByte() : 1), metrics.getRowHeight());
@@ -1610,6 +1851,32 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
     @Override
     public void setColorsProfile(CodeAreaColorsProfile colorsProfile) {
         this.colorsProfile = colorsProfile;
+        colorSlots.compile(colorsProfile);
+        blitBuffer.invalidate();
+        codeArea.repaint();
+    }
+
+    /**
+     * Returns true if blit scrolling mode is used.
+     *
+     * @return true if blit scrolling is used
+     */
+    public boolean isBlitScrollingUsed() {
+        return blitScrollingUsed;
+    }
+
+    /**
+     * Sets whether painted content should be kept in persistent buffer so
+     * that vertical scrolling only shifts painted rows and paints newly
+     * exposed rows.
+     *
+     * @param blitScrollingUsed true to use blit scrolling
+     */
+    public void setBlitScrollingUsed(boolean blitScrollingUsed) {
+        this.blitScrollingUsed = blitScrollingUsed;
+        if (!blitScrollingUsed) {
+            blitBuffer.dispose();
+        }
         codeArea.repaint();
     }
 
@@ -1621,6 +1888,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
     @Override
     public void setLayoutProfile(SectionCodeAreaLayoutProfile layoutProfile) {
         this.layoutProfile = layoutProfile.createCopy();
+        blitBuffer.invalidate();
         resetLayout();
     }
 
@@ -1632,6 +1900,7 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
     @Override
     public void setThemeProfile(SectionCodeAreaThemeProfile themeProfile) {
         this.themeProfile = themeProfile.createCopy();
+        blitBuffer.invalidate();
         codeArea.repaint();
     }
 
@@ -1727,6 +1996,41 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
         return positionLength == 0 ? 1 : positionLength;
     }
 
+    /**
+     * Decodes first character of cursor data reusing cached buffers.
+     *
+     * @param charDataLength length of valid cursor data
+     * @param defaultChar character to use if nothing was decoded
+     * @return decoded character
+     */
+    private char decodeCursorChar(int charDataLength, char defaultChar) {
+        CharsetDecoder decoder = cursorDataCache.cursorDecoder;
+        if (decoder == null || !decoder.charset().equals(charset)) {
+            decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+            cursorDataCache.cursorDecoder = decoder;
+            cursorDataCache.cursorCharBuffer = null;
+        }
+        ByteBuffer dataBuffer = cursorDataCache.cursorDataBuffer;
+        if (dataBuffer == null || dataBuffer.array() != cursorDataCache.cursorData) {
+            dataBuffer = ByteBuffer.wrap(cursorDataCache.cursorData);
+            cursorDataCache.cursorDataBuffer = dataBuffer;
+            cursorDataCache.cursorCharBuffer = null;
+        }
+        CharBuffer charBuffer = cursorDataCache.cursorCharBuffer;
+        if (charBuffer == null) {
+            charBuffer = CharBuffer.allocate((int) Math.ceil(cursorDataCache.cursorData.length * (double) decoder.maxCharsPerByte()) + 1);
+            cursorDataCache.cursorCharBuffer = charBuffer;
+        }
+
+        dataBuffer.clear();
+        dataBuffer.limit(charDataLength);
+        charBuffer.clear();
+        decoder.reset();
+        decoder.decode(dataBuffer, charBuffer, true);
+        decoder.flush(charBuffer);
+        return charBuffer.position() > 0 ? charBuffer.get(0) : defaultChar;
+    }
+
     /**
      * Returns cursor rectangle.
      *
@@ -1744,8 +2048,8 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
     protected void updateRectToCursorPosition(Rectangle rect, long dataPosition, int codeOffset, CodeAreaSection section) {
         int characterWidth = metrics.getCharacterWidth();
         int rowHeight = metrics.getRowHeight();
-        Point cursorPoint = getPositionPoint(dataPosition, codeOffset, section);
-        if (cursorPoint == null) {
+        Point cursorPoint = positionPoint;
+        if (!updatePointToPosition(cursorPoint, dataPosition, codeOffset, section)) {
             rect.setBounds(0, 0, 0, 0);
         } else {
             DefaultCodeAreaCaret.CursorShape cursorShape = editOperation == EditOperation.INSERT ? DefaultCodeAreaCaret.CursorShape.INSERT : DefaultCodeAreaCaret.CursorShape.OVERWRITE;
@@ -1845,11 +2149,45 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
     }
 
     private void dataChanged() {
+        blitBuffer.invalidate();
         validateCaret();
         validateSelection();
         recomputeLayout();
     }
 
+    /**
+     * Repaints visible rows affected by modification of data in given range.
+     *
+     * @param startPosition start position of modified data
+     * @param length length of modified data
+     */
+    private void dataModified(long startPosition, long length) {
+        blitBuffer.preventShift();
+        if (!initialized || layoutChanged) {
+            codeArea.repaint();
+            return;
+        }
+
+        if (length <= 0) {
+            return;
+        }
+
+        int bytesPerRow = structure.getBytesPerRow();
+        int rowHeight = metrics.getRowHeight();
+        CodeAreaScrollPosition scrollPosition = scrolling.getScrollPosition();
+        long firstVisibleRow = scrollPosition.getRowPosition();
+        long lastVisibleRow = firstVisibleRow + dimensions.getRowsPerRect();
+        long startRow = Math.max(startPosition / bytesPerRow, firstVisibleRow);
+        long endRow = Math.min((startPosition + length - 1) / bytesPerRow, lastVisibleRow);
+        if (startRow > endRow) {
+            return;
+        }
+
+        Rectangle dataViewRect = dimensions.getDataViewRectangle();
+        int positionY = dataViewRect.y - scrollPosition.getRowOffset() + (int) (startRow - firstVisibleRow) * rowHeight;
+        codeArea.repaint(dataViewRect.x, positionY, dataViewRect.width, (int) (endRow - startRow + 1) * rowHeight);
+    }
+
     @Override
     public int getCharactersPerRow() {
         return structure.getHalfCharsPerRow();
@@ -1935,10 +2273,17 @@ public class SectionCodeAreaPainter implements CodeAreaPainter, ColorsProfileCap
 
         Rectangle caretRect = new Rectangle();
         Rectangle mirrorCursorRect = new Rectangle();
+        Rectangle cursorRect = new Rectangle();
         final Stroke dashedStroke = new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{2}, 0);
         int cursorCharsLength;
         char[] cursorChars;
         int cursorDataLength;
         byte[] cursorData;
+        @Nullable
+        CharsetDecoder cursorDecoder;
+        @Nullable
+        ByteBuffer cursorDataBuffer;
+        @Nullable
+        CharBuffer cursorCharBuffer;
     }
 }
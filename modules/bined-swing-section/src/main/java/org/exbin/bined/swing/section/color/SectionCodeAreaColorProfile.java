@@ -35,6 +35,7 @@ public class SectionCodeAreaColorProfile implements CodeAreaColorsProfile {
 
     protected final Map<CodeAreaColorType, Color> colors = new HashMap<>();
     protected boolean inheritSystemColors = true;
+    protected long stateStamp = 0;
 
     public SectionCodeAreaColorProfile() {
     }
@@ -73,10 +74,12 @@ public class SectionCodeAreaColorProfile implements CodeAreaColorsProfile {
     public void setColor(CodeAreaColorType colorType, Color color) {
         inheritSystemColors = false;
         colors.put(colorType, color);
+        stateStamp++;
     }
 
     public void removeColor(CodeAreaColorType colorType) {
         colors.remove(colorType);
+        stateStamp++;
     }
 
     public boolean isInheritSystemColors() {
@@ -140,6 +143,12 @@ public class SectionCodeAreaColorProfile implements CodeAreaColorsProfile {
 
             Color alternateBackground = CodeAreaSwingUtils.createOddColor(textBackground);
             colors.put(CodeAreaBasicColors.ALTERNATE_BACKGROUND, alternateBackground);
+            stateStamp++;
         }
     }
+
+    @Override
+    public long getStateStamp() {
+        return stateStamp;
+    }
 }
@@ -0,0 +1,738 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing.section.diff;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Diff engine computing alignment of two binary data.
+ * <p>
+ * Common prefix and suffix are skipped first. Remaining part of the source
+ * data is split into blocks indexed by rolling hash and compared data is
+ * scanned for matching blocks. Matches are extended and the chain of
+ * non-crossing matches with the largest total length is used as anchors.
+ * Gaps between anchors are compared using Myers algorithm when small enough
+ * or reported as single replaced range otherwise.
+ * <p>
+ * Computation runs in background, processes data in chunks and can be
+ * cancelled. Data must support concurrent reading.
+ */
+@NullMarked
+public class BinaryDiffEngine {
+
+    public static final int DEFAULT_BLOCK_SIZE = 32;
+    public static final int DEFAULT_MAX_GAP_SIZE = 64 * 1024;
+    public static final int DEFAULT_MAX_EDIT_DISTANCE = 256;
+    private static final int MAX_BLOCKS_COUNT = 1 << 22;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_MATCH_CHUNK = 256;
+    private static final long HASH_MULTIPLIER = 1099511628211L;
+    private static final long HASH_MIX = 0x9E3779B97F4A7C15L;
+    private static final int MOVE_NONE = -1;
+    private static final int MOVE_RIGHT = 0;
+    private static final int MOVE_DOWN = 1;
+
+    private static final ExecutorService DEFAULT_EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "BinaryDiffEngine");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    protected final Executor executor;
+    protected int blockSize = DEFAULT_BLOCK_SIZE;
+    protected int maxGapSize = DEFAULT_MAX_GAP_SIZE;
+    protected int maxEditDistance = DEFAULT_MAX_EDIT_DISTANCE;
+
+    /**
+     * Creates engine running computations in threads dedicated to the diff
+     * computations.
+     */
+    public BinaryDiffEngine() {
+        this(DEFAULT_EXECUTOR);
+    }
+
+    public BinaryDiffEngine(Executor executor) {
+        this.executor = executor;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Sets minimum size of the block used for anchor matching.
+     * <p>
+     * Block size is increased for large data to limit size of the block
+     * index.
+     *
+     * @param blockSize block size
+     */
+    public void setBlockSize(int blockSize) {
+        if (blockSize <= 0 || blockSize > BUFFER_SIZE) {
+            throw new IllegalArgumentException("Block size must be positive and at most " + BUFFER_SIZE);
+        }
+
+        this.blockSize = blockSize;
+    }
+
+    public int getMaxGapSize() {
+        return maxGapSize;
+    }
+
+    /**
+     * Sets maximum size of the gap between anchors compared byte by byte.
+     *
+     * @param maxGapSize maximum gap size
+     */
+    public void setMaxGapSize(int maxGapSize) {
+        if (maxGapSize < 0) {
+            throw new IllegalArgumentException("Maximum gap size cannot be negative");
+        }
+
+        this.maxGapSize = maxGapSize;
+    }
+
+    public int getMaxEditDistance() {
+        return maxEditDistance;
+    }
+
+    /**
+     * Sets maximum number of edits searched for in single gap.
+     * <p>
+     * Gaps with more edits are reported as single replaced range.
+     *
+     * @param maxEditDistance maximum edit distance
+     */
+    public void setMaxEditDistance(int maxEditDistance) {
+        if (maxEditDistance < 0) {
+            throw new IllegalArgumentException("Maximum edit distance cannot be negative");
+        }
+
+        this.maxEditDistance = maxEditDistance;
+    }
+
+    /**
+     * Starts diff computation in background.
+     *
+     * @param sourceData source data
+     * @param comparedData compared data
+     * @param listener listener for result
+     * @return diff task
+     */
+    public BinaryDiffTask diff(BinaryData sourceData, BinaryData comparedData, BinaryDiffListener listener) {
+        BinaryDiffTask task = new BinaryDiffTask(sourceData.getDataSize() + comparedData.getDataSize(), listener);
+        executor.execute(() -> {
+            BinaryDiffResult result = null;
+            try {
+                result = computeDiff(sourceData, comparedData, task);
+            } catch (Throwable ex) {
+                task.failed(ex);
+            } finally {
+                task.finish(result);
+            }
+        });
+
+        return task;
+    }
+
+    /**
+     * Computes diff in current thread.
+     *
+     * @param sourceData source data
+     * @param comparedData compared data
+     * @return diff result
+     */
+    public BinaryDiffResult computeDiff(BinaryData sourceData, BinaryData comparedData) {
+        BinaryDiffTask task = new BinaryDiffTask(sourceData.getDataSize() + comparedData.getDataSize(), new BinaryDiffListener() {
+        });
+        return Objects.requireNonNull(computeDiff(sourceData, comparedData, task));
+    }
+
+    /**
+     * Computes diff for given task.
+     *
+     * @param sourceData source data
+     * @param comparedData compared data
+     * @param task task
+     * @return diff result or null if cancelled
+     */
+    @Nullable
+    protected BinaryDiffResult computeDiff(BinaryData sourceData, BinaryData comparedData, BinaryDiffTask task) {
+        return new DiffRun(sourceData, comparedData, task).run();
+    }
+
+    private int getAnchorSize(long sourceLength) {
+        long anchorSize = Math.max(blockSize, (sourceLength + MAX_BLOCKS_COUNT - 1) / MAX_BLOCKS_COUNT);
+        return (int) Math.min(anchorSize, BUFFER_SIZE);
+    }
+
+    private static long hash(byte[] buffer, int offset, int length) {
+        long hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = hash * HASH_MULTIPLIER + (buffer[i] & 0xff);
+        }
+        return hash;
+    }
+
+    private static long power(long base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+
+    private static int hashSlot(long hash, int mask) {
+        return (int) ((hash * HASH_MIX) >>> 32) & mask;
+    }
+
+    /**
+     * Returns move leading to the furthest point on given diagonal.
+     *
+     * @param v furthest points of the previous step
+     * @param offset diagonal offset
+     * @param k diagonal
+     * @param n source length
+     * @param m compared length
+     * @return move type
+     */
+    private static int chooseMove(int[] v, int offset, int k, int n, int m) {
+        int down = v[offset + k + 1];
+        boolean downValid = down >= 0 && down - k <= m;
+        int right = v[offset + k - 1];
+        boolean rightValid = right >= 0 && right < n;
+        if (!rightValid) {
+            return downValid ? MOVE_DOWN : MOVE_NONE;
+        }
+        if (!downValid) {
+            return MOVE_RIGHT;
+        }
+
+        return down > right ? MOVE_DOWN : MOVE_RIGHT;
+    }
+
+    /**
+     * Single diff computation.
+     */
+    private final class DiffRun {
+
+        private final BinaryData source;
+        private final BinaryData compared;
+        private final BinaryDiffTask task;
+        private final byte[] sourceBuffer = new byte[BUFFER_SIZE];
+        private final byte[] comparedBuffer = new byte[BUFFER_SIZE];
+        private final HunkList hunks = new HunkList();
+
+        private DiffRun(BinaryData source, BinaryData compared, BinaryDiffTask task) {
+            this.source = source;
+            this.compared = compared;
+            this.task = task;
+        }
+
+        @Nullable
+        private BinaryDiffResult run() {
+            long sourceSize = source.getDataSize();
+            long comparedSize = compared.getDataSize();
+            long prefix = matchForward(0, sourceSize, 0, comparedSize);
+            long suffix = matchBackward(prefix, sourceSize, prefix, comparedSize);
+            task.dataProcessed(2 * (prefix + suffix));
+            if (!diffGap(prefix, sourceSize - suffix, prefix, comparedSize - suffix, Integer.MAX_VALUE)) {
+                return null;
+            }
+
+            long remaining = task.getTotalSize() - task.getProcessedSize();
+            if (remaining > 0) {
+                task.dataProcessed(remaining);
+            }
+            return hunks.toResult(sourceSize, comparedSize);
+        }
+
+        /**
+         * Computes differences of given ranges.
+         *
+         * @param sourceStart source start position
+         * @param sourceEnd source end position
+         * @param comparedStart compared start position
+         * @param comparedEnd compared end position
+         * @param parentAnchorSize anchor size used to find this gap
+         * @return false if cancelled
+         */
+        private boolean diffGap(long sourceStart, long sourceEnd, long comparedStart, long comparedEnd, int parentAnchorSize) {
+            long prefix = matchForward(sourceStart, sourceEnd, comparedStart, comparedEnd);
+            sourceStart += prefix;
+            comparedStart += prefix;
+            long suffix = matchBackward(sourceStart, sourceEnd, comparedStart, comparedEnd);
+            sourceEnd -= suffix;
+            comparedEnd -= suffix;
+            if (task.isCancelled()) {
+                return false;
+            }
+
+            long sourceLength = sourceEnd - sourceStart;
+            long comparedLength = comparedEnd - comparedStart;
+            if (sourceLength > 0 && comparedLength > 0) {
+                if (sourceLength <= maxGapSize && comparedLength <= maxGapSize) {
+                    if (diffMyers(sourceStart, (int) sourceLength, comparedStart, (int) comparedLength)) {
+                        return !task.isCancelled();
+                    }
+                } else if (getAnchorSize(sourceLength) < parentAnchorSize) {
+                    return alignAnchors(sourceStart, sourceEnd, comparedStart, comparedEnd);
+                }
+            }
+
+            hunks.add(sourceStart, sourceLength, comparedStart, comparedLength);
+            return true;
+        }
+
+        /**
+         * Splits given ranges using matching blocks and processes gaps.
+         *
+         * @param sourceStart source start position
+         * @param sourceEnd source end position
+         * @param comparedStart compared start position
+         * @param comparedEnd compared end position
+         * @return false if cancelled
+         */
+        private boolean alignAnchors(long sourceStart, long sourceEnd, long comparedStart, long comparedEnd) {
+            long sourceLength = sourceEnd - sourceStart;
+            int anchorSize = getAnchorSize(sourceLength);
+            if (sourceLength < anchorSize || comparedEnd - comparedStart < anchorSize) {
+                hunks.add(sourceStart, sourceLength, comparedStart, comparedEnd - comparedStart);
+                return true;
+            }
+
+            BlockIndex blockIndex = new BlockIndex((int) (sourceLength / anchorSize));
+            int blocksPerBuffer = BUFFER_SIZE / anchorSize;
+            int block = 0;
+            while (block < blockIndex.blocksCount) {
+                int count = Math.min(blocksPerBuffer, blockIndex.blocksCount - block);
+                source.copyToArray(sourceStart + (long) block * anchorSize, sourceBuffer, 0, count * anchorSize);
+                for (int i = 0; i < count; i++) {
+                    blockIndex.add(hash(sourceBuffer, i * anchorSize, anchorSize), block + i);
+                }
+                block += count;
+                task.dataProcessed((long) count * anchorSize);
+                if (task.isCancelled()) {
+                    return false;
+                }
+            }
+
+            AnchorList anchors = new AnchorList();
+            DataWindow incoming = new DataWindow(compared, comparedEnd);
+            DataWindow outgoing = new DataWindow(compared, comparedEnd);
+            long outgoingPower = power(HASH_MULTIPLIER, anchorSize);
+            long position = comparedStart;
+            long reportedPosition = position;
+            long hash = incoming.hash(position, anchorSize);
+            while (true) {
+                int matchedBlock = blockIndex.find(hash);
+                if (matchedBlock >= 0) {
+                    long sourcePosition = sourceStart + (long) matchedBlock * anchorSize;
+                    long length = matchForward(sourcePosition, sourceEnd, position, comparedEnd);
+                    if (length >= anchorSize) {
+                        anchors.add(sourcePosition, position, length);
+                        position += length;
+                        if (position + anchorSize > comparedEnd) {
+                            break;
+                        }
+                        hash = incoming.hash(position, anchorSize);
+                        continue;
+                    }
+                }
+
+                if (position + anchorSize >= comparedEnd) {
+                    break;
+                }
+                hash = hash * HASH_MULTIPLIER + (incoming.get(position + anchorSize) & 0xff) - (outgoing.get(position) & 0xff) * outgoingPower;
+                position++;
+                if (position - reportedPosition >= BUFFER_SIZE) {
+                    task.dataProcessed(position - reportedPosition);
+                    reportedPosition = position;
+                    if (task.isCancelled()) {
+                        return false;
+                    }
+                }
+            }
+            task.dataProcessed(Math.min(position, comparedEnd) - reportedPosition);
+
+            int[] chain = anchors.selectChain();
+            long sourcePosition = sourceStart;
+            long comparedPosition = comparedStart;
+            for (int index : chain) {
+                if (!diffGap(sourcePosition, anchors.sourceStarts[index], comparedPosition, anchors.comparedStarts[index], anchorSize)) {
+                    return false;
+                }
+                sourcePosition = anchors.sourceStarts[index] + anchors.lengths[index];
+                comparedPosition = anchors.comparedStarts[index] + anchors.lengths[index];
+            }
+
+            return diffGap(sourcePosition, sourceEnd, comparedPosition, comparedEnd, anchorSize);
+        }
+
+        /**
+         * Computes minimal edit script of given ranges using Myers algorithm.
+         *
+         * @param sourceStart source start position
+         * @param n source length
+         * @param comparedStart compared start position
+         * @param m compared length
+         * @return false if edit distance exceeds limit
+         */
+        private boolean diffMyers(long sourceStart, int n, long comparedStart, int m) {
+            byte[] a = new byte[n];
+            source.copyToArray(sourceStart, a, 0, n);
+            byte[] b = new byte[m];
+            compared.copyToArray(comparedStart, b, 0, m);
+
+            int max = Math.min(maxEditDistance, n + m);
+            int offset = max + 1;
+            int[] v = new int[2 * max + 3];
+            Arrays.fill(v, -1);
+            v[offset + 1] = 0;
+            int[][] trace = new int[max + 1][];
+            for (int d = 0; d <= max; d++) {
+                trace[d] = v.clone();
+                for (int k = -d; k <= d; k += 2) {
+                    int move = chooseMove(v, offset, k, n, m);
+                    if (move == MOVE_NONE) {
+                        v[offset + k] = -1;
+                        continue;
+                    }
+
+                    int x = move == MOVE_DOWN ? v[offset + k + 1] : v[offset + k - 1] + 1;
+                    int y = x - k;
+                    while (x < n && y < m && a[x] == b[y]) {
+                        x++;
+                        y++;
+                    }
+                    v[offset + k] = x;
+                    if (x == n && y == m) {
+                        addEditScript(trace, d, offset, n, m, sourceStart, comparedStart);
+                        return true;
+                    }
+                }
+
+                if (task.isCancelled()) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private void addEditScript(int[][] trace, int distance, int offset, int n, int m, long sourceStart, long comparedStart) {
+            int[] editX = new int[distance];
+            int[] editY = new int[distance];
+            boolean[] editInsert = new boolean[distance];
+            int x = n;
+            int y = m;
+            for (int d = distance; d > 0; d--) {
+                int[] v = trace[d];
+                int k = x - y;
+                boolean insert = chooseMove(v, offset, k, n, m) == MOVE_DOWN;
+                int previousK = insert ? k + 1 : k - 1;
+                int previousX = v[offset + previousK];
+                int previousY = previousX - previousK;
+                editX[d - 1] = previousX;
+                editY[d - 1] = previousY;
+                editInsert[d - 1] = insert;
+                x = previousX;
+                y = previousY;
+            }
+
+            int hunkX = 0;
+            int hunkY = 0;
+            int removedLength = 0;
+            int insertedLength = 0;
+            for (int i = 0; i < distance; i++) {
+                if (editX[i] != hunkX + removedLength || editY[i] != hunkY + insertedLength) {
+                    hunks.add(sourceStart + hunkX, removedLength, comparedStart + hunkY, insertedLength);
+                    hunkX = editX[i];
+                    hunkY = editY[i];
+                    removedLength = 0;
+                    insertedLength = 0;
+                }
+                if (editInsert[i]) {
+                    insertedLength++;
+                } else {
+                    removedLength++;
+                }
+            }
+            hunks.add(sourceStart + hunkX, removedLength, comparedStart + hunkY, insertedLength);
+        }
+
+        /**
+         * Returns length of the common prefix of given ranges.
+         */
+        private long matchForward(long sourceStart, long sourceEnd, long comparedStart, long comparedEnd) {
+            long limit = Math.min(sourceEnd - sourceStart, comparedEnd - comparedStart);
+            long length = 0;
+            int chunk = INITIAL_MATCH_CHUNK;
+            while (length < limit) {
+                int size = (int) Math.min(chunk, limit - length);
+                source.copyToArray(sourceStart + length, sourceBuffer, 0, size);
+                compared.copyToArray(comparedStart + length, comparedBuffer, 0, size);
+                int matched = 0;
+                while (matched < size && sourceBuffer[matched] == comparedBuffer[matched]) {
+                    matched++;
+                }
+                length += matched;
+                if (matched < size || task.isCancelled()) {
+                    break;
+                }
+                chunk = Math.min(chunk * 2, BUFFER_SIZE);
+            }
+
+            return length;
+        }
+
+        /**
+         * Returns length of the common suffix of given ranges.
+         */
+        private long matchBackward(long sourceStart, long sourceEnd, long comparedStart, long comparedEnd) {
+            long limit = Math.min(sourceEnd - sourceStart, comparedEnd - comparedStart);
+            long length = 0;
+            int chunk = INITIAL_MATCH_CHUNK;
+            while (length < limit) {
+                int size = (int) Math.min(chunk, limit - length);
+                source.copyToArray(sourceEnd - length - size, sourceBuffer, 0, size);
+                compared.copyToArray(comparedEnd - length - size, comparedBuffer, 0, size);
+                int index = size - 1;
+                while (index >= 0 && sourceBuffer[index] == comparedBuffer[index]) {
+                    index--;
+                }
+                int matched = size - 1 - index;
+                length += matched;
+                if (matched < size || task.isCancelled()) {
+                    break;
+                }
+                chunk = Math.min(chunk * 2, BUFFER_SIZE);
+            }
+
+            return length;
+        }
+    }
+
+    /**
+     * Open addressing index of blocks with unique hash.
+     * <p>
+     * Blocks with repeated hash are marked as ambiguous and not used as
+     * anchors.
+     */
+    private static final class BlockIndex {
+
+        private static final int AMBIGUOUS = -1;
+
+        private final int blocksCount;
+        private final int mask;
+        private final int[] checks;
+        private final int[] blocks;
+
+        private BlockIndex(int blocksCount) {
+            this.blocksCount = blocksCount;
+            int capacity = Integer.highestOneBit(Math.max(blocksCount, 1)) << 2;
+            mask = capacity - 1;
+            checks = new int[capacity];
+            blocks = new int[capacity];
+        }
+
+        private void add(long hash, int block) {
+            int check = (int) hash;
+            int slot = hashSlot(hash, mask);
+            while (blocks[slot] != 0) {
+                if (checks[slot] == check) {
+                    blocks[slot] = AMBIGUOUS;
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            checks[slot] = check;
+            blocks[slot] = block + 1;
+        }
+
+        private int find(long hash) {
+            int check = (int) hash;
+            int slot = hashSlot(hash, mask);
+            while (blocks[slot] != 0) {
+                if (checks[slot] == check) {
+                    return blocks[slot] == AMBIGUOUS ? -1 : blocks[slot] - 1;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Matching ranges found in data ordered by compared position.
+     */
+    private static final class AnchorList {
+
+        private long[] sourceStarts = new long[16];
+        private long[] comparedStarts = new long[16];
+        private long[] lengths = new long[16];
+        private int count = 0;
+
+        private void add(long sourceStart, long comparedStart, long length) {
+            if (count == lengths.length) {
+                int capacity = count + (count >> 1);
+                sourceStarts = Arrays.copyOf(sourceStarts, capacity);
+                comparedStarts = Arrays.copyOf(comparedStarts, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            sourceStarts[count] = sourceStart;
+            comparedStarts[count] = comparedStart;
+            lengths[count] = length;
+            count++;
+        }
+
+        /**
+         * Selects chain of anchors ordered on both sides with the largest
+         * total length.
+         *
+         * @return indexes of selected anchors
+         */
+        private int[] selectChain() {
+            long[] weights = new long[count];
+            int[] previous = new int[count];
+            // Chain ends by source end position with weight increasing with position
+            TreeMap<Long, Integer> chainEnds = new TreeMap<>();
+            for (int i = 0; i < count; i++) {
+                Map.Entry<Long, Integer> predecessor = chainEnds.floorEntry(sourceStarts[i]);
+                previous[i] = predecessor == null ? -1 : predecessor.getValue();
+                weights[i] = lengths[i] + (predecessor == null ? 0 : weights[predecessor.getValue()]);
+
+                long end = sourceStarts[i] + lengths[i];
+                Map.Entry<Long, Integer> dominating = chainEnds.floorEntry(end);
+                if (dominating != null && weights[dominating.getValue()] >= weights[i]) {
+                    continue;
+                }
+                chainEnds.put(end, i);
+                Map.Entry<Long, Integer> following = chainEnds.higherEntry(end);
+                while (following != null && weights[following.getValue()] <= weights[i]) {
+                    chainEnds.remove(following.getKey());
+                    following = chainEnds.higherEntry(end);
+                }
+            }
+
+            if (chainEnds.isEmpty()) {
+                return new int[0];
+            }
+
+            int last = chainEnds.lastEntry().getValue();
+            int chainLength = 0;
+            for (int index = last; index >= 0; index = previous[index]) {
+                chainLength++;
+            }
+            int[] chain = new int[chainLength];
+            for (int index = last; index >= 0; index = previous[index]) {
+                chain[--chainLength] = index;
+            }
+            return chain;
+        }
+    }
+
+    /**
+     * Growable list of hunks merging adjacent ranges.
+     */
+    private static final class HunkList {
+
+        private long[] sourceStarts = new long[16];
+        private long[] sourceLengths = new long[16];
+        private long[] comparedStarts = new long[16];
+        private long[] comparedLengths = new long[16];
+        private int count = 0;
+
+        private void add(long sourceStart, long sourceLength, long comparedStart, long comparedLength) {
+            if (sourceLength == 0 && comparedLength == 0) {
+                return;
+            }
+
+            if (count > 0) {
+                int last = count - 1;
+                if (sourceStarts[last] + sourceLengths[last] == sourceStart && comparedStarts[last] + comparedLengths[last] == comparedStart) {
+                    sourceLengths[last] += sourceLength;
+                    comparedLengths[last] += comparedLength;
+                    return;
+                }
+            }
+
+            if (count == sourceStarts.length) {
+                int capacity = count + (count >> 1);
+                sourceStarts = Arrays.copyOf(sourceStarts, capacity);
+                sourceLengths = Arrays.copyOf(sourceLengths, capacity);
+                comparedStarts = Arrays.copyOf(comparedStarts, capacity);
+                comparedLengths = Arrays.copyOf(comparedLengths, capacity);
+            }
+            sourceStarts[count] = sourceStart;
+            sourceLengths[count] = sourceLength;
+            comparedStarts[count] = comparedStart;
+            comparedLengths[count] = comparedLength;
+            count++;
+        }
+
+        private BinaryDiffResult toResult(long sourceSize, long comparedSize) {
+            return new BinaryDiffResult(sourceSize, comparedSize,
+                    Arrays.copyOf(sourceStarts, count), Arrays.copyOf(sourceLengths, count),
+                    Arrays.copyOf(comparedStarts, count), Arrays.copyOf(comparedLengths, count), count);
+        }
+    }
+
+    /**
+     * Buffered window for sequential reading of the data.
+     */
+    private static final class DataWindow {
+
+        private final BinaryData data;
+        private final long dataEnd;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private long bufferStart = 0;
+        private int bufferLength = 0;
+
+        private DataWindow(BinaryData data, long dataEnd) {
+            this.data = data;
+            this.dataEnd = dataEnd;
+        }
+
+        private byte get(long position) {
+            long offset = position - bufferStart;
+            if (offset < 0 || offset >= bufferLength) {
+                bufferStart = position;
+                bufferLength = (int) Math.min(buffer.length, dataEnd - position);
+                data.copyToArray(position, buffer, 0, bufferLength);
+                offset = 0;
+            }
+            return buffer[(int) offset];
+        }
+
+        private long hash(long position, int length) {
+            long hash = 0;
+            for (int i = 0; i < length; i++) {
+                hash = hash * HASH_MULTIPLIER + (get(position + i) & 0xff);
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing.section.diff;
+
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Listener for binary diff computation.
+ * <p>
+ * Methods are called from the background thread.
+ */
+@NullMarked
+public interface BinaryDiffListener {
+
+    /**
+     * Reports diff progress.
+     *
+     * @param processedSize size of already processed data
+     * @param totalSize total size of the data of both sides
+     */
+    default void progressChanged(long processedSize, long totalSize) {
+    }
+
+    /**
+     * Reports end of the diff computation.
+     *
+     * @param result diff result or null if cancelled
+     */
+    default void diffFinished(@Nullable BinaryDiffResult result) {
+    }
+
+    /**
+     * Reports end of the diff computation failed on processing of the data.
+     * <p>
+     * Called instead of {@link #diffFinished(BinaryDiffResult)}, by default
+     * reported as cancelled computation.
+     *
+     * @param failure first failure, following failures are suppressed
+     */
+    default void diffFailed(Throwable failure) {
+        diffFinished(null);
+    }
+}
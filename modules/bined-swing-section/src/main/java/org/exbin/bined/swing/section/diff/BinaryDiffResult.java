@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing.section.diff;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Result of binary diff as list of differing ranges.
+ * <p>
+ * Each hunk replaces range of the source data with range of the compared
+ * data. Data between hunks is equal on both sides. Hunks are stored in
+ * primitive arrays ordered by position on both sides, so that lookup is done
+ * using binary search.
+ * <p>
+ * Common part of the hunk is reported as modified, remaining part of the
+ * longer side as added to that side.
+ */
+@NullMarked
+public class BinaryDiffResult {
+
+    public static final int REGION_EQUAL = 0;
+    public static final int REGION_MODIFIED = 1;
+    public static final int REGION_ADDED = 2;
+
+    protected final long sourceSize;
+    protected final long comparedSize;
+    protected final long[] sourceStarts;
+    protected final long[] sourceLengths;
+    protected final long[] comparedStarts;
+    protected final long[] comparedLengths;
+    protected final int hunksCount;
+
+    public BinaryDiffResult(long sourceSize, long comparedSize, long[] sourceStarts, long[] sourceLengths, long[] comparedStarts, long[] comparedLengths, int hunksCount) {
+        this.sourceSize = sourceSize;
+        this.comparedSize = comparedSize;
+        this.sourceStarts = sourceStarts;
+        this.sourceLengths = sourceLengths;
+        this.comparedStarts = comparedStarts;
+        this.comparedLengths = comparedLengths;
+        this.hunksCount = hunksCount;
+    }
+
+    public long getSourceSize() {
+        return sourceSize;
+    }
+
+    public long getComparedSize() {
+        return comparedSize;
+    }
+
+    public int getHunksCount() {
+        return hunksCount;
+    }
+
+    public boolean isEqual() {
+        return hunksCount == 0;
+    }
+
+    public long getSourceStart(int index) {
+        checkIndex(index);
+        return sourceStarts[index];
+    }
+
+    public long getSourceLength(int index) {
+        checkIndex(index);
+        return sourceLengths[index];
+    }
+
+    public long getComparedStart(int index) {
+        checkIndex(index);
+        return comparedStarts[index];
+    }
+
+    public long getComparedLength(int index) {
+        checkIndex(index);
+        return comparedLengths[index];
+    }
+
+    /**
+     * Returns index of the first hunk ending after given source position.
+     *
+     * @param position source data position
+     * @return hunk index or hunks count if there is none
+     */
+    public int findSourceHunk(long position) {
+        int low = 0;
+        int high = hunksCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sourceStarts[middle] + sourceLengths[middle] <= position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Returns index of the first hunk starting after given source position.
+     *
+     * @param position source data position
+     * @return hunk index or -1 if there is none
+     */
+    public int findNextSourceHunk(long position) {
+        int index = findFirstSourceStartAfter(position);
+        return index < hunksCount ? index : -1;
+    }
+
+    /**
+     * Returns index of the last hunk starting before given source position.
+     *
+     * @param position source data position
+     * @return hunk index or -1 if there is none
+     */
+    public int findPreviousSourceHunk(long position) {
+        return findFirstSourceStartAfter(position - 1) - 1;
+    }
+
+    /**
+     * Returns type of region for given source position.
+     *
+     * @param position source data position
+     * @return region type
+     */
+    public int getRegionType(long position) {
+        int index = findSourceHunk(position);
+        return index < hunksCount ? getRegionType(index, position) : REGION_EQUAL;
+    }
+
+    /**
+     * Returns type of region for given source position within given hunk.
+     *
+     * @param index hunk index
+     * @param position source data position
+     * @return region type
+     */
+    public int getRegionType(int index, long position) {
+        long offset = position - sourceStarts[index];
+        if (offset < 0 || offset >= sourceLengths[index]) {
+            return REGION_EQUAL;
+        }
+
+        return offset < comparedLengths[index] ? REGION_MODIFIED : REGION_ADDED;
+    }
+
+    /**
+     * Returns position in the compared data aligned to given source position.
+     * <p>
+     * Positions in equal ranges are mapped exactly, positions inside of the
+     * hunk are mapped to the same offset in the compared range limited by
+     * its length.
+     *
+     * @param position source data position
+     * @return compared data position
+     */
+    public long alignPosition(long position) {
+        int low = findFirstSourceStartAfter(position);
+        long alignedPosition;
+        if (low == 0) {
+            alignedPosition = position;
+        } else {
+            int index = low - 1;
+            long offset = position - sourceStarts[index];
+            if (offset < sourceLengths[index]) {
+                alignedPosition = comparedStarts[index] + Math.min(offset, comparedLengths[index]);
+            } else {
+                alignedPosition = comparedStarts[index] + comparedLengths[index] + (offset - sourceLengths[index]);
+            }
+        }
+
+        return Math.max(0, Math.min(alignedPosition, comparedSize));
+    }
+
+    /**
+     * Returns result with swapped source and compared data.
+     * <p>
+     * Hunk arrays are shared with this result.
+     *
+     * @return inverted result
+     */
+    public BinaryDiffResult inverted() {
+        return new BinaryDiffResult(comparedSize, sourceSize, comparedStarts, comparedLengths, sourceStarts, sourceLengths, hunksCount);
+    }
+
+    private int findFirstSourceStartAfter(long position) {
+        int low = 0;
+        int high = hunksCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sourceStarts[middle] <= position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= hunksCount) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + hunksCount);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing.section.diff;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Running binary diff computation.
+ */
+@NullMarked
+public class BinaryDiffTask {
+
+    protected final long totalSize;
+    protected final BinaryDiffListener listener;
+    protected final AtomicBoolean cancelled = new AtomicBoolean();
+    protected final AtomicLong processedSize = new AtomicLong();
+    protected final CountDownLatch finished = new CountDownLatch(1);
+    protected final AtomicReference<Throwable> failure = new AtomicReference<>();
+    @Nullable
+    protected volatile BinaryDiffResult result;
+
+    public BinaryDiffTask(long totalSize, BinaryDiffListener listener) {
+        this.totalSize = totalSize;
+        this.listener = listener;
+    }
+
+    /**
+     * Requests cancellation of the computation.
+     * <p>
+     * Computation is stopped at the next processed chunk.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    public boolean isDone() {
+        return finished.getCount() == 0;
+    }
+
+    public long getProcessedSize() {
+        return processedSize.get();
+    }
+
+    public long getTotalSize() {
+        return totalSize;
+    }
+
+    /**
+     * Returns failure of the computation.
+     *
+     * @return first failure or null if computation didn't fail
+     */
+    @Nullable
+    public Throwable getFailure() {
+        return failure.get();
+    }
+
+    /**
+     * Returns result of the computation.
+     *
+     * @return result or null if not finished, cancelled or failed
+     */
+    @Nullable
+    public BinaryDiffResult getResult() {
+        return result;
+    }
+
+    /**
+     * Waits for the computation to finish.
+     *
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void waitFor() throws InterruptedException {
+        finished.await();
+    }
+
+    /**
+     * Reports processing of the part of the data.
+     *
+     * @param size size of processed data
+     */
+    protected void dataProcessed(long size) {
+        long processed = processedSize.addAndGet(size);
+        if (!cancelled.get()) {
+            listener.progressChanged(Math.min(processed, totalSize), totalSize);
+        }
+    }
+
+    /**
+     * Reports failure of the computation.
+     * <p>
+     * Remaining processing is cancelled.
+     *
+     * @param processingFailure failure
+     */
+    protected void failed(Throwable processingFailure) {
+        if (!failure.compareAndSet(null, processingFailure)) {
+            Throwable firstFailure = failure.get();
+            if (firstFailure != processingFailure) {
+                firstFailure.addSuppressed(processingFailure);
+            }
+        }
+        cancelled.set(true);
+    }
+
+    protected void finish(@Nullable BinaryDiffResult result) {
+        Throwable diffFailure = failure.get();
+        this.result = cancelled.get() ? null : result;
+        if (diffFailure != null) {
+            listener.diffFailed(diffFailure);
+        } else {
+            listener.diffFinished(this.result);
+        }
+        finished.countDown();
+    }
+}
@@ -24,9 +24,13 @@ import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.bined.swing.CodeAreaColorAssessor;
 import org.exbin.bined.swing.CodeAreaCore;
 import org.exbin.bined.swing.CodeAreaPaintState;
+import org.exbin.bined.swing.CodeAreaRowColors;
 
 /**
  * Highlighting color assessor for basic binary diff.
+ * <p>
+ * When diff result is available, colors are taken from its list of
+ * differing ranges. Otherwise bytes at identical positions are compared.
  */
 @NullMarked
 public class DiffHighlightCodeAreaColorAssessor implements CodeAreaColorAssessor {
@@ -36,8 +40,12 @@ public class DiffHighlightCodeAreaColorAssessor implements CodeAreaColorAssessor
     protected Color diffColor;
     protected Color addedColor;
 
+    @Nullable
+    protected BinaryDiffResult diffResult;
+
     protected CodeAreaCore codeArea;
     protected long dataSize;
+    private long colorStateStamp = 0;
 
     public DiffHighlightCodeAreaColorAssessor(CodeAreaCore codeArea, @Nullable CodeAreaColorAssessor parentColorAssessor, @Nullable BinaryData comparedData) {
         this.codeArea = codeArea;
@@ -60,16 +68,25 @@ public class DiffHighlightCodeAreaColorAssessor implements CodeAreaColorAssessor
     @Override
     public Color getPositionTextColor(long rowDataPosition, int byteOnRow, int charOnRow, CodeAreaSection section, boolean inSelection) {
         long position = rowDataPosition + byteOnRow;
-        if (comparedData != null && position >= comparedData.getDataSize()) {
-            return addedColor;
-        }
+        if (diffResult != null) {
+            if (position < dataSize) {
+                Color color = getRegionColor(diffResult.getRegionType(position));
+                if (color != null) {
+                    return color;
+                }
+            }
+        } else if (comparedData != null) {
+            if (position >= comparedData.getDataSize()) {
+                return addedColor;
+            }
 
-        if (comparedData != null && position < dataSize && position < comparedData.getDataSize()) {
-            byte sourceByte = codeArea.getContentData().getByte(position);
-            byte comparedByte = comparedData.getByte(position);
+            if (position < dataSize) {
+                byte sourceByte = codeArea.getContentData().getByte(position);
+                byte comparedByte = comparedData.getByte(position);
 
-            if (sourceByte != comparedByte) {
-                return diffColor;
+                if (sourceByte != comparedByte) {
+                    return diffColor;
+                }
             }
         }
 
@@ -90,22 +107,122 @@ public class DiffHighlightCodeAreaColorAssessor implements CodeAreaColorAssessor
         return null;
     }
 
+    @Override
+    public void assessRowColors(long rowDataPosition, CodeAreaRowColors rowColors) {
+        if (parentAssessor != null) {
+            parentAssessor.assessRowColors(rowDataPosition, rowColors);
+        }
+
+        if (diffResult != null) {
+            assessDiffRowColors(rowDataPosition, rowColors, diffResult);
+            return;
+        }
+
+        if (comparedData == null) {
+            return;
+        }
+
+        BinaryData contentData = codeArea.getContentData();
+        long comparedDataSize = comparedData.getDataSize();
+        int positionsCount = rowColors.getPositionsCount();
+        for (int i = 0; i < positionsCount; i++) {
+            long position = rowDataPosition + rowColors.getBytePosition(i);
+            if (position >= comparedDataSize) {
+                rowColors.setTextColor(i, addedColor);
+            } else if (position < dataSize && contentData.getByte(position) != comparedData.getByte(position)) {
+                rowColors.setTextColor(i, diffColor);
+            }
+        }
+    }
+
+    private void assessDiffRowColors(long rowDataPosition, CodeAreaRowColors rowColors, BinaryDiffResult result) {
+        int hunksCount = result.getHunksCount();
+        if (hunksCount == 0) {
+            return;
+        }
+
+        int positionsCount = rowColors.getPositionsCount();
+        int hunkIndex = 0;
+        long lastPosition = -1;
+        for (int i = 0; i < positionsCount; i++) {
+            long position = rowDataPosition + rowColors.getBytePosition(i);
+            if (position >= dataSize) {
+                continue;
+            }
+
+            if (position < lastPosition || lastPosition < 0) {
+                hunkIndex = result.findSourceHunk(position);
+            } else {
+                while (hunkIndex < hunksCount && result.getSourceStart(hunkIndex) + result.getSourceLength(hunkIndex) <= position) {
+                    hunkIndex++;
+                }
+            }
+            lastPosition = position;
+            if (hunkIndex == hunksCount) {
+                continue;
+            }
+
+            Color color = getRegionColor(result.getRegionType(hunkIndex, position));
+            if (color != null) {
+                rowColors.setTextColor(i, color);
+            }
+        }
+    }
+
+    @Nullable
+    private Color getRegionColor(int regionType) {
+        switch (regionType) {
+            case BinaryDiffResult.REGION_MODIFIED:
+                return diffColor;
+            case BinaryDiffResult.REGION_ADDED:
+                return addedColor;
+            default:
+                return null;
+        }
+    }
+
     @Override
     public Optional<CodeAreaColorAssessor> getParentColorAssessor() {
         return Optional.ofNullable(parentAssessor);
     }
 
+    @Override
+    public long getColorStateStamp() {
+        return parentAssessor == null ? colorStateStamp : colorStateStamp + parentAssessor.getColorStateStamp();
+    }
+
     public void setComparedData(BinaryData comparedData) {
         this.comparedData = comparedData;
+        diffResult = null;
+        colorStateStamp++;
         // Force repaint
         codeArea.notifyDataChanged();
     }
 
+    @Nullable
+    public BinaryDiffResult getDiffResult() {
+        return diffResult;
+    }
+
+    /**
+     * Sets diff result used for highlighting instead of positional
+     * comparison.
+     *
+     * @param diffResult diff result with this code area data as source or
+     * null to compare bytes at identical positions
+     */
+    public void setDiffResult(@Nullable BinaryDiffResult diffResult) {
+        this.diffResult = diffResult;
+        colorStateStamp++;
+        codeArea.repaint();
+    }
+
     public Color getDiffColor() {
         return diffColor;
     }
 
     public void setDiffColor(Color diffColor) {
         this.diffColor = diffColor;
+        colorStateStamp++;
     }
 }
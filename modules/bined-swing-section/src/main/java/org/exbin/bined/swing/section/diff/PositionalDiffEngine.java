@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing.section.diff;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Diff engine comparing bytes at identical positions in parallel chunks.
+ * <p>
+ * Data is split into chunks processed as separate tasks of the fork-join
+ * pool. Bytes are compared eight at a time as long values and differing
+ * ranges of all chunks are merged into single diff result ordered by
+ * position. Remaining part of the longer data is reported as added.
+ * <p>
+ * Data must support concurrent reading.
+ */
+@NullMarked
+public class PositionalDiffEngine {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    protected final ForkJoinPool pool;
+    protected int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    public PositionalDiffEngine() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public PositionalDiffEngine(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Starts comparison in background.
+     *
+     * @param sourceData source data
+     * @param comparedData compared data
+     * @param listener listener for result
+     * @return diff task
+     */
+    public BinaryDiffTask diff(BinaryData sourceData, BinaryData comparedData, BinaryDiffListener listener) {
+        long sourceSize = sourceData.getDataSize();
+        long comparedSize = comparedData.getDataSize();
+        long commonSize = Math.min(sourceSize, comparedSize);
+        long chunksCount = (commonSize + chunkSize - 1) / chunkSize;
+        if (chunksCount > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many chunks, increase chunk size");
+        }
+
+        BinaryDiffTask task = new BinaryDiffTask(sourceSize + comparedSize, listener);
+        if (chunksCount == 0) {
+            task.finish(createResult(sourceSize, comparedSize, new RangeList[0], task));
+            return task;
+        }
+
+        RangeList[] chunkRanges = new RangeList[(int) chunksCount];
+        AtomicInteger remainingChunks = new AtomicInteger((int) chunksCount);
+        for (int chunk = 0; chunk < chunksCount; chunk++) {
+            int chunkIndex = chunk;
+            long chunkStart = (long) chunk * chunkSize;
+            long chunkEnd = Math.min(chunkStart + chunkSize, commonSize);
+            pool.execute(() -> {
+                try {
+                    chunkRanges[chunkIndex] = compareChunk(sourceData, comparedData, chunkStart, chunkEnd, task);
+                } catch (Throwable ex) {
+                    task.failed(ex);
+                } finally {
+                    if (remainingChunks.decrementAndGet() == 0) {
+                        task.finish(task.isCancelled() ? null : createResult(sourceSize, comparedSize, chunkRanges, task));
+                    }
+                }
+            });
+        }
+
+        return task;
+    }
+
+    /**
+     * Compares given range of the data.
+     *
+     * @param sourceData source data
+     * @param comparedData compared data
+     * @param start start position
+     * @param end end position (exclusive)
+     * @param task diff task
+     * @return differing ranges
+     */
+    protected RangeList compareChunk(BinaryData sourceData, BinaryData comparedData, long start, long end, BinaryDiffTask task) {
+        RangeList ranges = new RangeList();
+        byte[] sourceBuffer = new byte[BUFFER_SIZE];
+        byte[] comparedBuffer = new byte[BUFFER_SIZE];
+        ByteBuffer sourceWords = ByteBuffer.wrap(sourceBuffer).order(ByteOrder.nativeOrder());
+        ByteBuffer comparedWords = ByteBuffer.wrap(comparedBuffer).order(ByteOrder.nativeOrder());
+        long position = start;
+        while (position < end && !task.isCancelled()) {
+            int length = (int) Math.min(BUFFER_SIZE, end - position);
+            sourceData.copyToArray(position, sourceBuffer, 0, length);
+            comparedData.copyToArray(position, comparedBuffer, 0, length);
+            int wordsLimit = length - Long.BYTES;
+            int offset = 0;
+            while (offset < length) {
+                while (offset <= wordsLimit && sourceWords.getLong(offset) == comparedWords.getLong(offset)) {
+                    offset += Long.BYTES;
+                }
+                while (offset < length && sourceBuffer[offset] == comparedBuffer[offset]) {
+                    offset++;
+                }
+                if (offset == length) {
+                    break;
+                }
+
+                int rangeStart = offset;
+                while (offset < length && sourceBuffer[offset] != comparedBuffer[offset]) {
+                    offset++;
+                }
+                ranges.add(position + rangeStart, offset - rangeStart);
+            }
+
+            position += length;
+            task.dataProcessed(2L * length);
+        }
+
+        return ranges;
+    }
+
+    @Nullable
+    private static BinaryDiffResult createResult(long sourceSize, long comparedSize, @Nullable RangeList[] chunkRanges, BinaryDiffTask task) {
+        long commonSize = Math.min(sourceSize, comparedSize);
+        RangeList ranges = new RangeList();
+        for (RangeList chunk : chunkRanges) {
+            if (chunk == null) {
+                // Chunk failed, failure is reported by the task
+                return null;
+            }
+            for (int i = 0; i < chunk.count; i++) {
+                ranges.add(chunk.starts[i], chunk.lengths[i]);
+            }
+        }
+
+        long remaining = task.getTotalSize() - task.getProcessedSize();
+        if (remaining > 0) {
+            task.dataProcessed(remaining);
+        }
+
+        if (sourceSize == comparedSize) {
+            long[] starts = Arrays.copyOf(ranges.starts, ranges.count);
+            long[] lengths = Arrays.copyOf(ranges.lengths, ranges.count);
+            return new BinaryDiffResult(sourceSize, comparedSize, starts, lengths, starts, lengths, ranges.count);
+        }
+
+        // Remaining part of the longer data forms the last hunk
+        ranges.add(commonSize, 0);
+        long[] starts = Arrays.copyOf(ranges.starts, ranges.count);
+        long[] sourceLengths = Arrays.copyOf(ranges.lengths, ranges.count);
+        long[] comparedLengths = Arrays.copyOf(ranges.lengths, ranges.count);
+        int last = ranges.count - 1;
+        long tailStart = starts[last];
+        sourceLengths[last] = sourceSize - tailStart;
+        comparedLengths[last] = comparedSize - tailStart;
+        return new BinaryDiffResult(sourceSize, comparedSize, starts, sourceLengths, starts, comparedLengths, ranges.count);
+    }
+
+    /**
+     * Growable list of ranges merging adjacent ranges.
+     */
+    protected static final class RangeList {
+
+        private long[] starts = new long[16];
+        private long[] lengths = new long[16];
+        private int count = 0;
+
+        private void add(long start, long length) {
+            if (count > 0 && starts[count - 1] + lengths[count - 1] == start) {
+                lengths[count - 1] += length;
+                return;
+            }
+
+            if (count == starts.length) {
+                int capacity = count + (count >> 1);
+                starts = Arrays.copyOf(starts, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+            }
+            starts[count] = start;
+            lengths[count] = length;
+            count++;
+        }
+    }
+}
@@ -17,7 +17,9 @@ package org.exbin.bined.swing.section.diff;
 
 import java.awt.BorderLayout;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.bined.EditMode;
 import org.exbin.bined.basic.CodeAreaScrollPosition;
@@ -26,6 +28,9 @@ import org.exbin.bined.swing.section.SectionCodeAreaPainter;
 
 /**
  * Panel for difference comparison of two code areas.
+ * <p>
+ * Alignment of both data is computed in background and used for highlighting
+ * and to keep aligned positions visible when scrolling.
  */
 @NullMarked
 public class SectCodeAreaDiffPanel extends javax.swing.JPanel {
@@ -34,7 +39,16 @@ public class SectCodeAreaDiffPanel extends javax.swing.JPanel {
     protected final SectCodeArea rightCodeArea;
     protected final DiffHighlightCodeAreaColorAssessor leftColorAssessor;
     protected final DiffHighlightCodeAreaColorAssessor rightColorAssessor;
+    protected final BinaryDiffEngine diffEngine = new BinaryDiffEngine();
+    protected final PositionalDiffEngine positionalDiffEngine = new PositionalDiffEngine();
+    protected boolean positionalDiffForEqualSize = true;
     protected volatile boolean updatingScrolling = false;
+    @Nullable
+    protected BinaryDiffTask diffTask;
+    @Nullable
+    protected BinaryDiffResult diffResult;
+    @Nullable
+    protected BinaryDiffResult invertedDiffResult;
 
     public SectCodeAreaDiffPanel() {
         initComponents();
@@ -56,41 +70,101 @@ public class SectCodeAreaDiffPanel extends javax.swing.JPanel {
         leftPanel.add(leftCodeArea, BorderLayout.CENTER);
         rightPanel.add(rightCodeArea, BorderLayout.CENTER);
 
-        leftCodeArea.addScrollingListener(() -> {
-            if (!updatingScrolling) {
-                updatingScrolling = true;
-                CodeAreaScrollPosition currentScrollPosition = rightCodeArea.getScrollPosition();
-                CodeAreaScrollPosition scrollPosition = leftCodeArea.getScrollPosition();
-                long maxRowPosition = rightCodeArea.getDataSize() / rightCodeArea.getMaxBytesPerRow();
-                if (scrollPosition.getRowPosition() > maxRowPosition) {
-                    if (currentScrollPosition.getRowPosition() >= maxRowPosition) {
-                        updatingScrolling = false;
-                        return;
-                    }
-                    scrollPosition.setRowPosition(maxRowPosition);
+        leftCodeArea.addScrollingListener(() -> syncScrollPosition(leftCodeArea, rightCodeArea, diffResult));
+        rightCodeArea.addScrollingListener(() -> syncScrollPosition(rightCodeArea, leftCodeArea, invertedDiffResult));
+    }
+
+    /**
+     * Scrolls target code area to position aligned with source code area.
+     *
+     * @param source source code area
+     * @param target target code area
+     * @param alignment diff result with source code area data as source or
+     * null to scroll by row number
+     */
+    protected void syncScrollPosition(SectCodeArea source, SectCodeArea target, @Nullable BinaryDiffResult alignment) {
+        if (updatingScrolling) {
+            return;
+        }
+
+        updatingScrolling = true;
+        try {
+            CodeAreaScrollPosition scrollPosition = new CodeAreaScrollPosition();
+            scrollPosition.setScrollPosition(source.getScrollPosition());
+            if (alignment != null) {
+                long sourcePosition = scrollPosition.getRowPosition() * source.getMaxBytesPerRow();
+                scrollPosition.setRowPosition(alignment.alignPosition(sourcePosition) / target.getMaxBytesPerRow());
+            }
+
+            CodeAreaScrollPosition currentScrollPosition = target.getScrollPosition();
+            long maxRowPosition = target.getDataSize() / target.getMaxBytesPerRow();
+            if (scrollPosition.getRowPosition() > maxRowPosition) {
+                if (currentScrollPosition.getRowPosition() >= maxRowPosition) {
+                    return;
                 }
-                rightCodeArea.setScrollPosition(scrollPosition);
-                updatingScrolling = false;
+                scrollPosition.setRowPosition(maxRowPosition);
             }
-        });
-
-        rightCodeArea.addScrollingListener(() -> {
-            if (!updatingScrolling) {
-                updatingScrolling = true;
-                CodeAreaScrollPosition currentScrollPosition = leftCodeArea.getScrollPosition();
-                CodeAreaScrollPosition scrollPosition = rightCodeArea.getScrollPosition();
-                long maxRowPosition = leftCodeArea.getDataSize() / leftCodeArea.getMaxBytesPerRow();
-                if (scrollPosition.getRowPosition() > maxRowPosition) {
-                    if (currentScrollPosition.getRowPosition() >= maxRowPosition) {
-                        updatingScrolling = false;
-                        return;
-                    }
-                    scrollPosition.setRowPosition(maxRowPosition);
+            target.setScrollPosition(scrollPosition);
+        } finally {
+            updatingScrolling = false;
+        }
+    }
+
+    /**
+     * Starts computation of the alignment of both data in background.
+     * <p>
+     * Bytes at identical positions are compared until the computation
+     * finishes.
+     */
+    protected void updateDiff() {
+        if (diffTask != null) {
+            diffTask.cancel();
+        }
+        diffResult = null;
+        invertedDiffResult = null;
+
+        BinaryData leftData = leftCodeArea.getContentData();
+        BinaryData rightData = rightCodeArea.getContentData();
+        BinaryDiffListener listener = new BinaryDiffListener() {
+            @Override
+            public void diffFinished(@Nullable BinaryDiffResult result) {
+                if (result != null) {
+                    SwingUtilities.invokeLater(() -> applyDiffResult(result));
                 }
-                leftCodeArea.setScrollPosition(scrollPosition);
-                updatingScrolling = false;
             }
-        });
+        };
+        if (positionalDiffForEqualSize && leftData.getDataSize() == rightData.getDataSize()) {
+            diffTask = positionalDiffEngine.diff(leftData, rightData, listener);
+        } else {
+            diffTask = diffEngine.diff(leftData, rightData, listener);
+        }
+    }
+
+    private void applyDiffResult(BinaryDiffResult result) {
+        if (diffTask == null || diffTask.getResult() != result) {
+            // Result of already replaced computation
+            return;
+        }
+
+        diffResult = result;
+        invertedDiffResult = result.inverted();
+        leftColorAssessor.setDiffResult(diffResult);
+        rightColorAssessor.setDiffResult(invertedDiffResult);
+    }
+
+    /**
+     * Moves carets to given difference and reveals it.
+     *
+     * @param index hunk index of diff result
+     */
+    protected void moveToDifference(int index) {
+        if (diffResult == null) {
+            return;
+        }
+
+        leftCodeArea.setActiveCaretPosition(diffResult.getSourceStart(index));
+        rightCodeArea.setActiveCaretPosition(diffResult.getComparedStart(index));
+        leftCodeArea.revealCursor();
     }
 
     /**
@@ -146,10 +220,84 @@ public class SectCodeAreaDiffPanel extends javax.swing.JPanel {
     public void setLeftContentData(BinaryData contentData) {
         leftCodeArea.setContentData(contentData);
         rightColorAssessor.setComparedData(contentData);
+        updateDiff();
     }
 
     public void setRightContentData(BinaryData contentData) {
         rightCodeArea.setContentData(contentData);
         leftColorAssessor.setComparedData(contentData);
+        updateDiff();
+    }
+
+    /**
+     * Returns result of the alignment of left data to right data.
+     *
+     * @return diff result or null if not yet computed
+     */
+    @Nullable
+    public BinaryDiffResult getDiffResult() {
+        return diffResult;
+    }
+
+    /**
+     * Returns number of differing ranges.
+     *
+     * @return differences count or 0 if not yet computed
+     */
+    public int getDifferencesCount() {
+        return diffResult == null ? 0 : diffResult.getHunksCount();
+    }
+
+    /**
+     * Moves to the first difference after caret of the left code area.
+     *
+     * @return true if difference was found
+     */
+    public boolean nextDifference() {
+        if (diffResult == null) {
+            return false;
+        }
+
+        int index = diffResult.findNextSourceHunk(leftCodeArea.getDataPosition());
+        if (index < 0) {
+            return false;
+        }
+
+        moveToDifference(index);
+        return true;
+    }
+
+    /**
+     * Moves to the last difference before caret of the left code area.
+     *
+     * @return true if difference was found
+     */
+    public boolean previousDifference() {
+        if (diffResult == null) {
+            return false;
+        }
+
+        int index = diffResult.findPreviousSourceHunk(leftCodeArea.getDataPosition());
+        if (index < 0) {
+            return false;
+        }
+
+        moveToDifference(index);
+        return true;
+    }
+
+    public boolean isPositionalDiffForEqualSize() {
+        return positionalDiffForEqualSize;
+    }
+
+    /**
+     * Sets whether data of equal size are compared by identical positions
+     * instead of computing alignment.
+     *
+     * @param positionalDiffForEqualSize true for positional comparison
+     */
+    public void setPositionalDiffForEqualSize(boolean positionalDiffForEqualSize) {
+        this.positionalDiffForEqualSize = positionalDiffForEqualSize;
+        updateDiff();
     }
 }
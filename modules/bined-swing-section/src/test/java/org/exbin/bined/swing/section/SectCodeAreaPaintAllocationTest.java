@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing.section;
+
+import java.awt.Rectangle;
+import org.exbin.bined.basic.CodeAreaViewMode;
+import org.exbin.bined.swing.CodeAreaPaintAllocation;
+import org.exbin.bined.swing.CodeAreaPainter;
+import org.jspecify.annotations.NullMarked;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for memory allocated while painting section code area.
+ */
+@NullMarked
+public class SectCodeAreaPaintAllocationTest {
+
+    public SectCodeAreaPaintAllocationTest() {
+    }
+
+    @Test
+    public void testSteadyStatePaintAllocation() throws Exception {
+        for (CodeAreaViewMode viewMode : CodeAreaViewMode.values()) {
+            long bytesPerFrame = CodeAreaPaintAllocation.measureBytesPerFrame(() -> createPainter(viewMode), null);
+            Assert.assertTrue(viewMode + ": " + bytesPerFrame + " bytes per frame", bytesPerFrame <= CodeAreaPaintAllocation.MAX_BYTES_PER_FRAME);
+        }
+    }
+
+    @Test
+    public void testClippedPaintAllocation() throws Exception {
+        long bytesPerFrame = CodeAreaPaintAllocation.measureBytesPerFrame(() -> createPainter(CodeAreaViewMode.DUAL), new Rectangle(100, 50, 300, 120));
+        Assert.assertTrue(bytesPerFrame + " bytes per frame", bytesPerFrame <= CodeAreaPaintAllocation.MAX_BYTES_PER_FRAME);
+    }
+
+    private static CodeAreaPainter createPainter(CodeAreaViewMode viewMode) {
+        SectCodeArea codeArea = new SectCodeArea();
+        CodeAreaPaintAllocation.initCodeArea(codeArea);
+        codeArea.setViewMode(viewMode);
+        return codeArea.getPainter();
+    }
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing.section.diff;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.jspecify.annotations.Nullable;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for binary diff engine.
+ */
+public class BinaryDiffEngineTest {
+
+    public BinaryDiffEngineTest() {
+    }
+
+    @Test
+    public void testEqualData() {
+        byte[] data = createRandomData(1000, 1);
+        BinaryDiffResult result = new BinaryDiffEngine().computeDiff(new ByteArrayData(data), new ByteArrayData(data.clone()));
+
+        Assert.assertTrue(result.isEqual());
+        Assert.assertEquals(BinaryDiffResult.REGION_EQUAL, result.getRegionType(500));
+        Assert.assertEquals(500, result.alignPosition(500));
+    }
+
+    @Test
+    public void testMinimalEditScript() {
+        byte[] source = "abcabba".getBytes();
+        byte[] compared = "cbabac".getBytes();
+        BinaryDiffResult result = new BinaryDiffEngine().computeDiff(new ByteArrayData(source), new ByteArrayData(compared));
+
+        assertValidResult(source, compared, result);
+        Assert.assertEquals(5, getEditCost(result));
+    }
+
+    @Test
+    public void testShiftedLargeData() {
+        byte[] source = createRandomData(300000, 2);
+        byte[] compared = new byte[source.length + 1];
+        System.arraycopy(source, 0, compared, 0, 1000);
+        compared[1000] = 7;
+        System.arraycopy(source, 1000, compared, 1001, source.length - 1000);
+        BinaryDiffResult result = new BinaryDiffEngine().computeDiff(new ByteArrayData(source), new ByteArrayData(compared));
+
+        assertValidResult(source, compared, result);
+        Assert.assertEquals(1, result.getHunksCount());
+        Assert.assertEquals(1000, result.getSourceStart(0));
+        Assert.assertEquals(0, result.getSourceLength(0));
+        Assert.assertEquals(1, result.getComparedLength(0));
+        Assert.assertEquals(BinaryDiffResult.REGION_EQUAL, result.getRegionType(200000));
+        Assert.assertEquals(200001, result.alignPosition(200000));
+
+        BinaryDiffResult inverted = result.inverted();
+        Assert.assertEquals(BinaryDiffResult.REGION_ADDED, inverted.getRegionType(1000));
+        Assert.assertEquals(200000, inverted.alignPosition(200001));
+    }
+
+    @Test
+    public void testRandomEdits() {
+        Random random = new Random(3);
+        BinaryDiffEngine diffEngine = new BinaryDiffEngine();
+        for (int i = 0; i < 10; i++) {
+            byte[] source = createRandomData(100000 + random.nextInt(200000), i);
+            byte[] compared = applyRandomEdits(source, random, 20);
+            BinaryDiffResult result = diffEngine.computeDiff(new ByteArrayData(source), new ByteArrayData(compared));
+
+            assertValidResult(source, compared, result);
+            Assert.assertTrue(getEditCost(result) < 20 * 200 * 2);
+        }
+    }
+
+    @Test
+    public void testModifiedRegion() {
+        byte[] source = createRandomData(100, 4);
+        byte[] compared = source.clone();
+        compared[10] ^= 1;
+        compared[11] ^= 1;
+        BinaryDiffResult result = new BinaryDiffEngine().computeDiff(new ByteArrayData(source), new ByteArrayData(compared));
+
+        assertValidResult(source, compared, result);
+        Assert.assertEquals(BinaryDiffResult.REGION_EQUAL, result.getRegionType(9));
+        Assert.assertEquals(BinaryDiffResult.REGION_MODIFIED, result.getRegionType(10));
+        Assert.assertEquals(BinaryDiffResult.REGION_MODIFIED, result.getRegionType(11));
+        Assert.assertEquals(BinaryDiffResult.REGION_EQUAL, result.getRegionType(12));
+    }
+
+    @Test
+    public void testBackgroundDiff() throws InterruptedException {
+        byte[] source = createRandomData(50000, 5);
+        byte[] compared = applyRandomEdits(source, new Random(5), 5);
+        AtomicReference<BinaryDiffResult> finishedResult = new AtomicReference<>();
+        BinaryDiffTask task = new BinaryDiffEngine().diff(new ByteArrayData(source), new ByteArrayData(compared), new BinaryDiffListener() {
+            @Override
+            public void diffFinished(@Nullable BinaryDiffResult result) {
+                finishedResult.set(result);
+            }
+        });
+        task.waitFor();
+
+        Assert.assertTrue(task.isDone());
+        Assert.assertNotNull(task.getResult());
+        Assert.assertSame(task.getResult(), finishedResult.get());
+        Assert.assertEquals(task.getTotalSize(), task.getProcessedSize());
+        assertValidResult(source, compared, task.getResult());
+    }
+
+    @Test
+    public void testCancelledDiff() throws InterruptedException {
+        byte[] source = createRandomData(50000, 6);
+        byte[] compared = applyRandomEdits(source, new Random(6), 5);
+        Runnable[] pending = new Runnable[1];
+        BinaryDiffTask task = new BinaryDiffEngine(command -> pending[0] = command).diff(new ByteArrayData(source), new ByteArrayData(compared), new BinaryDiffListener() {
+        });
+        task.cancel();
+        pending[0].run();
+
+        Assert.assertTrue(task.isDone());
+        Assert.assertNull(task.getResult());
+    }
+
+    @Test
+    public void testFailedDiff() throws InterruptedException {
+        byte[] source = createRandomData(50000, 7);
+        byte[] compared = applyRandomEdits(source, new Random(7), 5);
+        ByteArrayData failingData = new ByteArrayData(compared) {
+            @Override
+            public void copyToArray(long startFrom, byte[] target, int offset, int length) {
+                throw new IllegalStateException("Read failed");
+            }
+        };
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        BinaryDiffTask task = new BinaryDiffEngine().diff(new ByteArrayData(source), failingData, new BinaryDiffListener() {
+            @Override
+            public void diffFinished(@Nullable BinaryDiffResult result) {
+                Assert.fail("Failure should be reported instead");
+            }
+
+            @Override
+            public void diffFailed(Throwable diffFailure) {
+                failure.set(diffFailure);
+            }
+        });
+        task.waitFor();
+
+        Assert.assertTrue(task.isDone());
+        Assert.assertNull(task.getResult());
+        Assert.assertTrue(task.getFailure() instanceof IllegalStateException);
+        Assert.assertSame(task.getFailure(), failure.get());
+    }
+
+    private static void assertValidResult(byte[] source, byte[] compared, BinaryDiffResult result) {
+        long sourcePosition = 0;
+        long comparedPosition = 0;
+        for (int i = 0; i <= result.getHunksCount(); i++) {
+            long sourceEnd = i < result.getHunksCount() ? result.getSourceStart(i) : source.length;
+            long comparedEnd = i < result.getHunksCount() ? result.getComparedStart(i) : compared.length;
+            Assert.assertEquals(sourceEnd - sourcePosition, comparedEnd - comparedPosition);
+            for (long offset = 0; offset < sourceEnd - sourcePosition; offset++) {
+                Assert.assertEquals(source[(int) (sourcePosition + offset)], compared[(int) (comparedPosition + offset)]);
+            }
+            if (i < result.getHunksCount()) {
+                sourcePosition = sourceEnd + result.getSourceLength(i);
+                comparedPosition = comparedEnd + result.getComparedLength(i);
+            }
+        }
+    }
+
+    private static long getEditCost(BinaryDiffResult result) {
+        long cost = 0;
+        for (int i = 0; i < result.getHunksCount(); i++) {
+            cost += result.getSourceLength(i) + result.getComparedLength(i);
+        }
+        return cost;
+    }
+
+    private static byte[] createRandomData(int size, long seed) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private static byte[] applyRandomEdits(byte[] data, Random random, int editsCount) {
+        byte[] result = data.clone();
+        for (int i = 0; i < editsCount; i++) {
+            int position = random.nextInt(result.length);
+            int length = 1 + random.nextInt(200);
+            switch (random.nextInt(3)) {
+                case 0: {
+                    byte[] inserted = new byte[result.length + length];
+                    System.arraycopy(result, 0, inserted, 0, position);
+                    for (int j = 0; j < length; j++) {
+                        inserted[position + j] = (byte) random.nextInt();
+                    }
+                    System.arraycopy(result, position, inserted, position + length, result.length - position);
+                    result = inserted;
+                    break;
+                }
+                case 1: {
+                    length = Math.min(length, result.length - position);
+                    byte[] removed = new byte[result.length - length];
+                    System.arraycopy(result, 0, removed, 0, position);
+                    System.arraycopy(result, position + length, removed, position, result.length - position - length);
+                    result = removed;
+                    break;
+                }
+                default: {
+                    for (int j = position; j < Math.min(result.length, position + length); j++) {
+                        result[j] = (byte) random.nextInt();
+                    }
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing.section.diff;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for positional diff engine.
+ */
+public class PositionalDiffEngineTest {
+
+    public PositionalDiffEngineTest() {
+    }
+
+    @Test
+    public void testCompareAcrossChunks() throws InterruptedException {
+        Random random = new Random(1);
+        byte[] source = new byte[100000];
+        random.nextBytes(source);
+        byte[] compared = source.clone();
+        for (int i = 0; i < 200; i++) {
+            int position = random.nextInt(compared.length);
+            int length = 1 + random.nextInt(20);
+            if (position + length > 900 && position < 1100) {
+                continue;
+            }
+            for (int j = position; j < Math.min(compared.length, position + length); j++) {
+                compared[j] ^= (byte) (1 + random.nextInt(255));
+            }
+        }
+        // Difference crossing chunk boundary
+        compared[999] ^= 1;
+        compared[1000] ^= 1;
+
+        PositionalDiffEngine diffEngine = new PositionalDiffEngine();
+        diffEngine.setChunkSize(1000);
+        BinaryDiffResult result = compare(diffEngine, source, compared);
+
+        for (int i = 0; i < source.length; i++) {
+            int expected = source[i] != compared[i] ? BinaryDiffResult.REGION_MODIFIED : BinaryDiffResult.REGION_EQUAL;
+            Assert.assertEquals(expected, result.getRegionType(i));
+        }
+        for (int i = 1; i < result.getHunksCount(); i++) {
+            Assert.assertTrue(result.getSourceStart(i) > result.getSourceStart(i - 1) + result.getSourceLength(i - 1));
+        }
+        int index = result.findNextSourceHunk(990);
+        Assert.assertEquals(999, result.getSourceStart(index));
+        Assert.assertEquals(2, result.getSourceLength(index));
+        Assert.assertEquals(index, result.findPreviousSourceHunk(1001));
+    }
+
+    @Test
+    public void testDifferentSize() throws InterruptedException {
+        byte[] source = new byte[100];
+        Arrays.fill(source, (byte) 1);
+        byte[] compared = new byte[120];
+        Arrays.fill(compared, (byte) 1);
+        compared[99] = 2;
+
+        BinaryDiffResult result = compare(new PositionalDiffEngine(), source, compared);
+        Assert.assertEquals(1, result.getHunksCount());
+        Assert.assertEquals(99, result.getSourceStart(0));
+        Assert.assertEquals(1, result.getSourceLength(0));
+        Assert.assertEquals(21, result.getComparedLength(0));
+        Assert.assertEquals(BinaryDiffResult.REGION_MODIFIED, result.getRegionType(99));
+
+        BinaryDiffResult inverted = result.inverted();
+        Assert.assertEquals(BinaryDiffResult.REGION_MODIFIED, inverted.getRegionType(99));
+        Assert.assertEquals(BinaryDiffResult.REGION_ADDED, inverted.getRegionType(100));
+        Assert.assertEquals(BinaryDiffResult.REGION_ADDED, inverted.getRegionType(119));
+    }
+
+    @Test
+    public void testEqualData() throws InterruptedException {
+        byte[] source = new byte[5000];
+        new Random(2).nextBytes(source);
+
+        BinaryDiffResult result = compare(new PositionalDiffEngine(), source, source.clone());
+        Assert.assertTrue(result.isEqual());
+        Assert.assertEquals(-1, result.findNextSourceHunk(0));
+        Assert.assertEquals(-1, result.findPreviousSourceHunk(5000));
+    }
+
+    @Test
+    public void testFailedChunk() throws InterruptedException {
+        byte[] source = new byte[100000];
+        new Random(3).nextBytes(source);
+        ByteArrayData failingData = new ByteArrayData(source.clone()) {
+            @Override
+            public void copyToArray(long startFrom, byte[] target, int offset, int length) {
+                if (startFrom >= 50000) {
+                    throw new IllegalStateException("Read failed");
+                }
+                super.copyToArray(startFrom, target, offset, length);
+            }
+        };
+        PositionalDiffEngine diffEngine = new PositionalDiffEngine();
+        diffEngine.setChunkSize(10000);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        BinaryDiffTask task = diffEngine.diff(new ByteArrayData(source), failingData, new BinaryDiffListener() {
+            @Override
+            public void diffFailed(Throwable diffFailure) {
+                failure.set(diffFailure);
+            }
+        });
+        task.waitFor();
+
+        Assert.assertTrue(task.isDone());
+        Assert.assertNull(task.getResult());
+        Assert.assertTrue(task.getFailure() instanceof IllegalStateException);
+        Assert.assertSame(task.getFailure(), failure.get());
+    }
+
+    private static BinaryDiffResult compare(PositionalDiffEngine diffEngine, byte[] source, byte[] compared) throws InterruptedException {
+        BinaryDiffTask task = diffEngine.diff(new ByteArrayData(source), new ByteArrayData(compared), new BinaryDiffListener() {
+        });
+        task.waitFor();
+
+        Assert.assertTrue(task.isDone());
+        Assert.assertEquals(task.getTotalSize(), task.getProcessedSize());
+        BinaryDiffResult result = task.getResult();
+        Assert.assertNotNull(result);
+        return result;
+    }
+}
@@ -55,4 +55,18 @@ public interface CodeAreaCharAssessor extends CodeAreaPaintAssessor {
      * @return character assessor
      */
     Optional<CodeAreaCharAssessor> getParentCharAssessor();
+
+    /**
+     * Returns stamp of the assessor state affecting preview characters.
+     * <p>
+     * Stamp changes each time preview characters for the same data might
+     * change, painter discards cached rows then. Default implementation
+     * returns stamp of the parent assessor.
+     *
+     * @return state stamp
+     */
+    default long getStateStamp() {
+        Optional<CodeAreaCharAssessor> parentCharAssessor = getParentCharAssessor();
+        return parentCharAssessor.isPresent() ? parentCharAssessor.get().getStateStamp() : 0;
+    }
 }
@@ -53,10 +53,44 @@ public interface CodeAreaColorAssessor extends CodeAreaPaintAssessor {
     @Nullable
     Color getPositionBackgroundColor(long rowDataPosition, int offsetDataPosition, int columnPosition, CodeAreaSection section, boolean inSelection);
 
+    /**
+     * Assesses text and background colors for all positions of the row.
+     * <p>
+     * Default implementation calls position methods for each position.
+     *
+     * @param rowDataPosition row data position
+     * @param rowColors row positions and target colors
+     */
+    default void assessRowColors(long rowDataPosition, CodeAreaRowColors rowColors) {
+        int positionsCount = rowColors.getPositionsCount();
+        for (int i = 0; i < positionsCount; i++) {
+            int bytePosition = rowColors.getBytePosition(i);
+            int charPosition = rowColors.getCharPosition(i);
+            CodeAreaSection section = rowColors.getSection(i);
+            boolean inSelection = rowColors.isInSelection(i);
+            rowColors.setTextColor(i, getPositionTextColor(rowDataPosition, bytePosition, charPosition, section, inSelection));
+            rowColors.setBackgroundColor(i, getPositionBackgroundColor(rowDataPosition, bytePosition, charPosition, section, inSelection));
+        }
+    }
+
     /**
      * Returns parent color assessor if present.
      *
      * @return color assessor
      */
     Optional<CodeAreaColorAssessor> getParentColorAssessor();
+
+    /**
+     * Returns stamp of the assessor state affecting colors.
+     * <p>
+     * Stamp changes each time colors for the same data might change, painter
+     * doesn't reuse previously painted content then. Default implementation
+     * returns stamp of the parent assessor.
+     *
+     * @return state stamp
+     */
+    default long getColorStateStamp() {
+        Optional<CodeAreaColorAssessor> parentColorAssessor = getParentColorAssessor();
+        return parentColorAssessor.isPresent() ? parentColorAssessor.get().getColorStateStamp() : 0;
+    }
 }
@@ -120,6 +120,20 @@ public interface CodeAreaCommandHandler {
      */
     void wheelScroll(int scrollSize, ScrollBarOrientation orientation);
 
+    /**
+     * Performs scrolling by given possibly fractional amount.
+     *
+     * @param scrollUnits number of rows / characters to scroll (positive or
+     * negative)
+     * @param orientation scrollbar orientation
+     */
+    default void preciseWheelScroll(double scrollUnits, ScrollBarOrientation orientation) {
+        int scrollSize = (int) Math.round(scrollUnits);
+        if (scrollSize != 0) {
+            wheelScroll(scrollSize, orientation);
+        }
+    }
+
     /**
      * Checks whether edit is allowed.
      *
@@ -48,6 +48,7 @@ import javax.swing.text.Segment;
 import javax.swing.text.SimpleAttributeSet;
 import org.exbin.bined.CodeAreaControl;
 import org.exbin.bined.CodeAreaUtils;
+import org.exbin.bined.DataChangeType;
 import org.exbin.bined.DataChangedListener;
 import org.exbin.bined.capability.SelectionCapable;
 import org.exbin.auxiliary.binary_data.BinaryData;
@@ -242,6 +243,21 @@ public abstract class CodeAreaCore extends JTextComponent implements CodeAreaCon
         }
     }
 
+    /**
+     * Notifies component, that the internal data was changed in given range.
+     *
+     * @param startPosition start position of the change
+     * @param length length of the changed range in bytes
+     * @param changeType change type
+     */
+    public void notifyDataChanged(long startPosition, long length, DataChangeType changeType) {
+        dataChangedListeners.forEach((listener) -> listener.dataChanged(startPosition, length, changeType));
+        Document document = getDocument();
+        if (document instanceof SimulatedDocument) {
+            ((SimulatedDocument) document).notifyDataChanged();
+        }
+    }
+
     public void addDataChangedListener(DataChangedListener dataChangedListener) {
         dataChangedListeners.add(dataChangedListener);
     }
@@ -252,6 +268,15 @@ public abstract class CodeAreaCore extends JTextComponent implements CodeAreaCon
 
     public abstract void resetPainter();
 
+    /**
+     * Requests repaint of the area of the cursor only.
+     * <p>
+     * Default implementation repaints the whole component.
+     */
+    public void repaintCursor() {
+        repaint();
+    }
+
     public abstract void updateLayout();
 
     @NullMarked
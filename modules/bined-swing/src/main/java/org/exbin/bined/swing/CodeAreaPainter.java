@@ -20,6 +20,8 @@ import java.util.Optional;
 import org.jspecify.annotations.NullMarked;
 import org.exbin.bined.basic.BasicCodeAreaZone;
 import org.exbin.bined.CaretOverlapMode;
+import org.exbin.bined.ScrollBarOrientation;
+import org.exbin.bined.basic.BasicCodeAreaScrolling;
 import org.exbin.bined.basic.CodeAreaScrollPosition;
 import org.exbin.bined.basic.MovementDirection;
 import org.exbin.bined.basic.PositionScrollVisibility;
@@ -70,6 +72,19 @@ public interface CodeAreaPainter {
      */
     void paintCursor(Graphics g);
 
+    /**
+     * Requests repaint of the cursor area.
+     * <p>
+     * Covers both previously painted and current cursor position. Painter
+     * not supporting repaint of the cursor area only returns false and code
+     * area is repainted as whole.
+     *
+     * @return true if repaint was requested
+     */
+    default boolean repaintCursor() {
+        return false;
+    }
+
     /**
      * Resets complete painter state for new painting.
      */
@@ -187,6 +202,21 @@ public interface CodeAreaPainter {
      */
     CodeAreaScrollPosition computeScrolling(CodeAreaScrollPosition startPosition, ScrollingDirection direction);
 
+    /**
+     * Computes scrolling position for wheel movement of given magnitude.
+     *
+     * @param startPosition start position
+     * @param orientation scrolling orientation
+     * @param scrollUnits number of rows / characters to scroll
+     * @return target position
+     */
+    default CodeAreaScrollPosition computeWheelScrolling(CodeAreaScrollPosition startPosition, ScrollBarOrientation orientation, double scrollUnits) {
+        ScrollingDirection direction = orientation == ScrollBarOrientation.HORIZONTAL
+                ? (scrollUnits > 0 ? ScrollingDirection.LEFT : ScrollingDirection.RIGHT)
+                : (scrollUnits > 0 ? ScrollingDirection.DOWN : ScrollingDirection.UP);
+        return BasicCodeAreaScrolling.computeStepScrolling(startPosition, Math.round(Math.abs(scrollUnits)), position -> computeScrolling(position, direction));
+    }
+
     /**
      * Notifies that scroll position was modified.
      * <p>
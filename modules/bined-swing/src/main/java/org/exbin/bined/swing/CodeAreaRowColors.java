@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing;
+
+import java.awt.Color;
+import java.util.Arrays;
+import org.exbin.bined.CodeAreaSection;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Positions of the painted row with assessed text and background colors.
+ * <p>
+ * Arrays are reused between rows and grown only when necessary.
+ */
+@NullMarked
+public class CodeAreaRowColors {
+
+    protected int positionsCount = 0;
+    protected int[] bytePositions = new int[0];
+    protected int[] charPositions = new int[0];
+    protected CodeAreaSection[] sections = new CodeAreaSection[0];
+    protected boolean[] inSelection = new boolean[0];
+    protected Color[] textColors = new Color[0];
+    protected Color[] backgroundColors = new Color[0];
+
+    public CodeAreaRowColors() {
+    }
+
+    /**
+     * Clears positions and ensures capacity for given number of positions.
+     *
+     * @param capacity capacity
+     */
+    public void reset(int capacity) {
+        positionsCount = 0;
+        if (bytePositions.length < capacity) {
+            bytePositions = new int[capacity];
+            charPositions = new int[capacity];
+            sections = new CodeAreaSection[capacity];
+            inSelection = new boolean[capacity];
+            textColors = new Color[capacity];
+            backgroundColors = new Color[capacity];
+        }
+    }
+
+    /**
+     * Adds position.
+     *
+     * @param bytePosition byte position on the row
+     * @param charPosition character / column position on the row
+     * @param section section
+     * @param inSelection true if in selection
+     */
+    public void addPosition(int bytePosition, int charPosition, CodeAreaSection section, boolean inSelection) {
+        if (positionsCount == bytePositions.length) {
+            int capacity = positionsCount * 2 + 1;
+            bytePositions = Arrays.copyOf(bytePositions, capacity);
+            charPositions = Arrays.copyOf(charPositions, capacity);
+            sections = Arrays.copyOf(sections, capacity);
+            this.inSelection = Arrays.copyOf(this.inSelection, capacity);
+            textColors = Arrays.copyOf(textColors, capacity);
+            backgroundColors = Arrays.copyOf(backgroundColors, capacity);
+        }
+
+        bytePositions[positionsCount] = bytePosition;
+        charPositions[positionsCount] = charPosition;
+        sections[positionsCount] = section;
+        this.inSelection[positionsCount] = inSelection;
+        textColors[positionsCount] = null;
+        backgroundColors[positionsCount] = null;
+        positionsCount++;
+    }
+
+    public int getPositionsCount() {
+        return positionsCount;
+    }
+
+    public int getBytePosition(int index) {
+        return bytePositions[index];
+    }
+
+    public int getCharPosition(int index) {
+        return charPositions[index];
+    }
+
+    public CodeAreaSection getSection(int index) {
+        return sections[index];
+    }
+
+    public boolean isInSelection(int index) {
+        return inSelection[index];
+    }
+
+    @Nullable
+    public Color getTextColor(int index) {
+        return textColors[index];
+    }
+
+    public void setTextColor(int index, @Nullable Color color) {
+        textColors[index] = color;
+    }
+
+    @Nullable
+    public Color getBackgroundColor(int index) {
+        return backgroundColors[index];
+    }
+
+    public void setBackgroundColor(int index, @Nullable Color color) {
+        backgroundColors[index] = color;
+    }
+}
@@ -16,6 +16,8 @@
 package org.exbin.bined.swing;
 
 import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Rectangle;
 import java.awt.Toolkit;
 import java.awt.datatransfer.Clipboard;
 import java.awt.datatransfer.ClipboardOwner;
@@ -84,6 +86,39 @@ public class CodeAreaSwingUtils {
         return new Color(grayLevel, grayLevel, grayLevel);
     }
 
+    /**
+     * Stores clip bounds of graphics to target rectangle without allocation.
+     *
+     * @param g graphics
+     * @param target target rectangle
+     * @return true if graphics has clip, false if target was left unchanged
+     */
+    public static boolean getClipBounds(Graphics g, Rectangle target) {
+        target.width = Integer.MIN_VALUE;
+        g.getClipBounds(target);
+        return target.width != Integer.MIN_VALUE;
+    }
+
+    /**
+     * Computes intersection of two rectangles to target rectangle without
+     * allocation.
+     * <p>
+     * Result matches {@link Rectangle#intersection(java.awt.Rectangle)}.
+     *
+     * @param rect rectangle
+     * @param area intersected rectangle
+     * @param target target rectangle, can be one of the source rectangles
+     * @return target rectangle
+     */
+    public static Rectangle intersection(Rectangle rect, Rectangle area, Rectangle target) {
+        int x1 = Math.max(rect.x, area.x);
+        int y1 = Math.max(rect.y, area.y);
+        long x2 = Math.min((long) rect.x + rect.width, (long) area.x + area.width) - x1;
+        long y2 = Math.min((long) rect.y + rect.height, (long) area.y + area.height) - y1;
+        target.setBounds(x1, y1, (int) Math.max(x2, Integer.MIN_VALUE), (int) Math.max(y2, Integer.MIN_VALUE));
+        return target;
+    }
+
     public static int getVerticalScrollBarPolicy(ScrollBarVisibility scrollBarVisibility) {
         switch (scrollBarVisibility) {
             case NEVER:
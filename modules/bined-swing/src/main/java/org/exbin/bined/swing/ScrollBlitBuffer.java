@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.VolatileImage;
+import java.util.Arrays;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Persistent back buffer of painted code area allowing to scroll already
+ * painted rows by copying pixels.
+ * <p>
+ * Buffer keeps content painted for given scroll position and layout key. When
+ * only row position or row offset changes, rows are shifted and only newly
+ * exposed rows need to be painted. Caret should be painted over the buffer.
+ */
+@NullMarked
+public class ScrollBlitBuffer {
+
+    /**
+     * Shift value signaling that rows cannot be shifted.
+     */
+    public static final int NO_SHIFT = Integer.MIN_VALUE;
+
+    @Nullable
+    protected VolatileImage image;
+    protected int width;
+    protected int height;
+    protected int scale = 1;
+    protected boolean contentValid = false;
+    protected boolean shiftAllowed = true;
+    protected long[] layoutKey = new long[0];
+    protected long rowPosition;
+    protected int rowOffset;
+
+    /**
+     * Invalidates whole buffer content.
+     */
+    public void invalidate() {
+        contentValid = false;
+    }
+
+    /**
+     * Prevents shifting of rows for the next paint.
+     * <p>
+     * Should be called when content changes in a way which is repainted only
+     * partially, as partial repaint doesn't cover shifted rows.
+     */
+    public void preventShift() {
+        shiftAllowed = false;
+    }
+
+    /**
+     * Releases buffer image.
+     */
+    public void dispose() {
+        if (image != null) {
+            image.flush();
+            image = null;
+        }
+        contentValid = false;
+    }
+
+    /**
+     * Prepares buffer image for painting into given graphics.
+     *
+     * @param g target graphics
+     * @param width width of painted area
+     * @param height height of painted area
+     * @return graphics of the buffer or null if buffer cannot be used
+     */
+    @Nullable
+    public Graphics2D prepare(Graphics g, int width, int height) {
+        if (!(g instanceof Graphics2D) || width <= 0 || height <= 0) {
+            invalidate();
+            return null;
+        }
+
+        Graphics2D g2d = (Graphics2D) g;
+        AffineTransform transform = g2d.getTransform();
+        double scaleX = transform.getScaleX();
+        int targetScale = (int) scaleX;
+        if (transform.getShearX() != 0 || transform.getShearY() != 0 || targetScale < 1 || targetScale != scaleX || transform.getScaleY() != scaleX) {
+            // Shifting is not pixel exact for fractional scaling
+            dispose();
+            return null;
+        }
+
+        GraphicsConfiguration configuration = g2d.getDeviceConfiguration();
+        if (image != null && (this.width != width || this.height != height || scale != targetScale)) {
+            dispose();
+        }
+        if (image != null) {
+            int status = image.validate(configuration);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                dispose();
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                contentValid = false;
+            }
+        }
+        if (image == null) {
+            try {
+                image = configuration.createCompatibleVolatileImage(width * targetScale, height * targetScale, Transparency.OPAQUE);
+            } catch (RuntimeException ex) {
+                return null;
+            }
+            if (image == null) {
+                return null;
+            }
+            image.validate(configuration);
+            this.width = width;
+            this.height = height;
+            scale = targetScale;
+            contentValid = false;
+        }
+
+        Graphics2D bufferGraphics = image.createGraphics();
+        bufferGraphics.scale(scale, scale);
+        bufferGraphics.setRenderingHints(g2d.getRenderingHints());
+        bufferGraphics.setFont(g2d.getFont());
+        return bufferGraphics;
+    }
+
+    /**
+     * Returns true if buffer contains content painted for given layout.
+     *
+     * @param layoutKey values of layout properties affecting painted content
+     * @return true if content is valid
+     */
+    public boolean isContentValid(long[] layoutKey) {
+        return contentValid && Arrays.equals(this.layoutKey, layoutKey);
+    }
+
+    /**
+     * Computes vertical shift of buffered rows for given scroll position.
+     *
+     * @param rowPosition row position
+     * @param rowOffset row offset
+     * @param rowHeight row height
+     * @param areaHeight height of scrolled area
+     * @return shift in pixels or NO_SHIFT if whole area has to be painted
+     */
+    public int computeShift(long rowPosition, int rowOffset, int rowHeight, int areaHeight) {
+        if (!shiftAllowed || rowHeight <= 0) {
+            return NO_SHIFT;
+        }
+
+        long rowsDiff = this.rowPosition - rowPosition;
+        if (Math.abs(rowsDiff) > areaHeight / rowHeight + 1) {
+            return NO_SHIFT;
+        }
+
+        long shift = rowsDiff * rowHeight + this.rowOffset - rowOffset;
+        return Math.abs(shift) < areaHeight ? (int) shift : NO_SHIFT;
+    }
+
+    /**
+     * Shifts content of given area vertically.
+     *
+     * @param bufferGraphics buffer graphics
+     * @param area scrolled area
+     * @param shift vertical shift
+     * @return rectangle of newly exposed area
+     */
+    public Rectangle shift(Graphics2D bufferGraphics, Rectangle area, int shift) {
+        return shift(bufferGraphics, area, shift, new Rectangle());
+    }
+
+    /**
+     * Shifts content of given area vertically.
+     *
+     * @param bufferGraphics buffer graphics
+     * @param area scrolled area
+     * @param shift vertical shift
+     * @param exposedRect rectangle to store newly exposed area to
+     * @return exposed rectangle
+     */
+    public Rectangle shift(Graphics2D bufferGraphics, Rectangle area, int shift, Rectangle exposedRect) {
+        int copiedHeight = area.height - Math.abs(shift);
+        if (shift < 0) {
+            bufferGraphics.copyArea(area.x, area.y - shift, area.width, copiedHeight, 0, shift);
+            exposedRect.setBounds(area.x, area.y + copiedHeight, area.width, -shift);
+            return exposedRect;
+        }
+
+        bufferGraphics.copyArea(area.x, area.y, area.width, copiedHeight, 0, shift);
+        exposedRect.setBounds(area.x, area.y, area.width, shift);
+        return exposedRect;
+    }
+
+    /**
+     * Copies buffer to target graphics and remembers painted state.
+     *
+     * @param g target graphics
+     * @param layoutKey values of layout properties affecting painted content
+     * @param rowPosition row position
+     * @param rowOffset row offset
+     */
+    public void commit(Graphics g, long[] layoutKey, long rowPosition, int rowOffset) {
+        VolatileImage bufferImage = image;
+        if (bufferImage == null) {
+            return;
+        }
+
+        g.drawImage(bufferImage, 0, 0, width, height, null);
+        if (this.layoutKey.length != layoutKey.length) {
+            this.layoutKey = new long[layoutKey.length];
+        }
+        System.arraycopy(layoutKey, 0, this.layoutKey, 0, layoutKey.length);
+        this.rowPosition = rowPosition;
+        this.rowOffset = rowOffset;
+        contentValid = !bufferImage.contentsLost();
+        shiftAllowed = true;
+    }
+}
@@ -30,6 +30,7 @@ import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.auxiliary.binary_data.EmptyBinaryData;
 import org.exbin.bined.basic.BasicCodeAreaSection;
 import org.exbin.bined.ClipboardHandlingMode;
+import org.exbin.bined.DataChangeType;
 import org.exbin.bined.DefaultCodeAreaCaretPosition;
 import org.exbin.bined.CodeAreaSection;
 import org.exbin.bined.CodeAreaUtils;
@@ -39,6 +40,7 @@ import org.exbin.bined.CodeType;
 import org.exbin.bined.EditMode;
 import org.exbin.bined.EditOperation;
 import org.exbin.bined.CaretOverlapMode;
+import org.exbin.bined.ScrollBarOrientation;
 import org.exbin.bined.ScrollBarVisibility;
 import org.exbin.bined.ScrollingListener;
 import org.exbin.bined.SelectionChangedListener;
@@ -392,6 +394,11 @@ public class CodeArea extends CodeAreaCore implements DefaultCodeArea, CodeAreaS
         return painter.computeScrolling(startPosition, scrollingShift);
     }
 
+    @Override
+    public CodeAreaScrollPosition computeWheelScrolling(CodeAreaScrollPosition startPosition, ScrollBarOrientation orientation, double scrollUnits) {
+        return painter.computeWheelScrolling(startPosition, orientation, scrollUnits);
+    }
+
     public void updateScrollBars() {
         painter.updateScrollBars();
         repaint();
@@ -502,9 +509,16 @@ public class CodeArea extends CodeAreaCore implements DefaultCodeArea, CodeAreaS
         painter.reset();
     }
 
+    @Override
+    public void repaintCursor() {
+        if (!painter.repaintCursor()) {
+            repaint();
+        }
+    }
+
     protected void notifyCaretChanged() {
         painter.resetCaret();
-        repaint();
+        repaintCursor();
     }
 
     @Override
@@ -513,6 +527,14 @@ public class CodeArea extends CodeAreaCore implements DefaultCodeArea, CodeAreaS
         updateLayout();
     }
 
+    @Override
+    public void notifyDataChanged(long startPosition, long length, DataChangeType changeType) {
+        super.notifyDataChanged(startPosition, length, changeType);
+        if (changeType != DataChangeType.MODIFY) {
+            updateLayout();
+        }
+    }
+
     @Override
     public AntialiasingMode getAntialiasingMode() {
         return antialiasingMode;
@@ -532,23 +554,32 @@ public class CodeArea extends CodeAreaCore implements DefaultCodeArea, CodeAreaS
 
     @Override
     public void setSelection(SelectionRange selectionRange) {
+        boolean wasEmpty = selection.isEmpty();
         this.selection.setRange(CodeAreaUtils.requireNonNull(selectionRange));
         notifySelectionChanged();
-        repaint();
+        if (!wasEmpty || !selection.isEmpty()) {
+            repaint();
+        }
     }
 
     @Override
     public void setSelection(long start, long end) {
+        boolean wasEmpty = selection.isEmpty();
         this.selection.setSelection(start, end);
         notifySelectionChanged();
-        repaint();
+        if (!wasEmpty || !selection.isEmpty()) {
+            repaint();
+        }
     }
 
     @Override
     public void clearSelection() {
+        boolean wasEmpty = selection.isEmpty();
         this.selection.clearSelection();
         notifySelectionChanged();
-        repaint();
+        if (!wasEmpty || !selection.isEmpty()) {
+            repaint();
+        }
     }
 
     @Override
@@ -21,6 +21,7 @@ import java.nio.CharBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CoderMalfunctionError;
+import java.nio.charset.CoderResult;
 import java.nio.charset.CodingErrorAction;
 import java.util.Optional;
 import org.jspecify.annotations.Nullable;
@@ -47,6 +48,22 @@ public class DefaultCodeAreaCharAssessor implements CodeAreaCharAssessor {
     private ByteBuffer byteBuffer;
     private CharBuffer charBuffer = null;
 
+    /**
+     * Decode whole row at once instead of decoding each byte separately.
+     */
+    protected boolean rowDecoding = false;
+    /**
+     * Character returned for bytes which are part of preceding character.
+     */
+    protected char continuationCharacter = ' ';
+    private boolean rowDecoded = false;
+    private long stateStamp = 0;
+    private long decodedRowPosition;
+    private char[] rowCharacters = new char[0];
+    private boolean[] rowContinuation = new boolean[0];
+    @Nullable
+    private ByteBuffer rowByteBuffer;
+
     public DefaultCodeAreaCharAssessor() {
         parentAssessor = null;
     }
@@ -72,6 +89,7 @@ public class DefaultCodeAreaCharAssessor implements CodeAreaCharAssessor {
             this.charset = painterCharset;
         }
         rowData = codeAreaPainterState.getRowData();
+        rowDecoded = false;
     }
 
     @Override
@@ -81,6 +99,13 @@ public class DefaultCodeAreaCharAssessor implements CodeAreaCharAssessor {
         }
  
         if (maxBytesPerChar > 1) {
+            if (rowDecoding) {
+                if (!rowDecoded || decodedRowPosition != rowDataPosition) {
+                    decodeRow(rowDataPosition);
+                }
+                return rowCharacters[byteOnRow];
+            }
+
             decoder.reset();
 
             if (rowDataPosition + maxBytesPerChar > dataSize) {
@@ -144,11 +169,125 @@ public class DefaultCodeAreaCharAssessor implements CodeAreaCharAssessor {
         return ' ';
     }
 
+    /**
+     * Returns true if byte on row is part of character starting on preceding
+     * byte.
+     * <p>
+     * Only available in row decoding mode, returns false otherwise.
+     *
+     * @param rowDataPosition row data position
+     * @param byteOnRow byte on row
+     * @return true for continuation byte
+     */
+    public boolean isContinuationByte(long rowDataPosition, int byteOnRow) {
+        if (!rowDecoding || maxBytesPerChar <= 1 || byteOnRow > rowData.length - maxBytesPerChar || rowDataPosition >= dataSize) {
+            return false;
+        }
+
+        if (!rowDecoded || decodedRowPosition != rowDataPosition) {
+            decodeRow(rowDataPosition);
+        }
+        return rowContinuation[byteOnRow];
+    }
+
+    public boolean isRowDecoding() {
+        return rowDecoding;
+    }
+
+    /**
+     * Sets row decoding mode.
+     *
+     * @param rowDecoding true to decode whole row at once
+     */
+    public void setRowDecoding(boolean rowDecoding) {
+        this.rowDecoding = rowDecoding;
+        rowDecoded = false;
+        stateStamp++;
+    }
+
+    public char getContinuationCharacter() {
+        return continuationCharacter;
+    }
+
+    public void setContinuationCharacter(char continuationCharacter) {
+        this.continuationCharacter = continuationCharacter;
+        rowDecoded = false;
+        stateStamp++;
+    }
+
     @Override
     public Optional<CodeAreaCharAssessor> getParentCharAssessor() {
         return Optional.ofNullable(parentAssessor);
     }
 
+    @Override
+    public long getStateStamp() {
+        return parentAssessor == null ? stateStamp : stateStamp + parentAssessor.getStateStamp();
+    }
+
+    /**
+     * Decodes characters of the whole row in single pass.
+     * <p>
+     * Decoder output is limited to single character so that each character
+     * can be assigned to its first byte. Remaining bytes of the character are
+     * marked as continuation bytes.
+     *
+     * @param rowDataPosition row data position
+     */
+    private void decodeRow(long rowDataPosition) {
+        int rowDataLength = rowData.length;
+        if (rowCharacters.length != rowDataLength) {
+            rowCharacters = new char[rowDataLength];
+            rowContinuation = new boolean[rowDataLength];
+        }
+        if (rowByteBuffer == null || rowByteBuffer.array() != rowData) {
+            rowByteBuffer = ByteBuffer.wrap(rowData);
+        }
+
+        int rowBytes = rowDataLength - maxBytesPerChar + 1;
+        int validLength = (int) Math.min(rowDataLength, dataSize - rowDataPosition);
+        ByteBuffer input = rowByteBuffer;
+        input.clear();
+        input.limit(validLength);
+        decoder.reset();
+        int position = 0;
+        try {
+            while (position < rowBytes && position < validLength) {
+                charBuffer.clear();
+                charBuffer.limit(1);
+                CoderResult result = decoder.decode(input, charBuffer, true);
+                if (result.isOverflow() && charBuffer.position() == 0) {
+                    // Surrogate pairs require space for two characters
+                    charBuffer.limit(2);
+                    decoder.decode(input, charBuffer, true);
+                }
+
+                int nextPosition = input.position();
+                if (nextPosition == position) {
+                    nextPosition = position + 1;
+                    input.position(nextPosition);
+                }
+                rowCharacters[position] = charBuffer.position() > 0 ? charBuffer.get(0) : ' ';
+                rowContinuation[position] = false;
+                for (int i = position + 1; i < nextPosition && i < rowBytes; i++) {
+                    rowCharacters[i] = continuationCharacter;
+                    rowContinuation[i] = true;
+                }
+                position = nextPosition;
+            }
+        } catch (CoderMalfunctionError | BufferUnderflowException ex) {
+            // ignore
+        }
+
+        for (int i = position; i < rowBytes; i++) {
+            rowCharacters[i] = ' ';
+            rowContinuation[i] = false;
+        }
+
+        decodedRowPosition = rowDataPosition;
+        rowDecoded = true;
+    }
+
     /**
      * Precomputes widths for basic ascii characters.
      */
@@ -24,6 +24,7 @@ import org.exbin.bined.basic.BasicCodeAreaSection;
 import org.exbin.bined.color.CodeAreaBasicColors;
 import org.exbin.bined.swing.CodeAreaPaintState;
 import org.exbin.bined.swing.CodeAreaColorAssessor;
+import org.exbin.bined.swing.CodeAreaRowColors;
 import org.exbin.bined.swing.basic.color.CodeAreaColorsProfile;
 
 /**
@@ -98,6 +99,24 @@ public class DefaultCodeAreaColorAssessor implements CodeAreaColorAssessor {
         return null;
     }
 
+    @Override
+    public void assessRowColors(long rowDataPosition, CodeAreaRowColors rowColors) {
+        if (parentColorAssessor != null) {
+            parentColorAssessor.assessRowColors(rowDataPosition, rowColors);
+        }
+
+        int positionsCount = rowColors.getPositionsCount();
+        for (int i = 0; i < positionsCount; i++) {
+            if (rowColors.isInSelection(i)) {
+                CodeAreaSection section = rowColors.getSection(i);
+                rowColors.setTextColor(i, section == activeSection ? selectionColor : selectionMirrorColor);
+                if (section != BasicCodeAreaSection.CODE_MATRIX || rowColors.getCharPosition(i) != codeLastCharPos) {
+                    rowColors.setBackgroundColor(i, section == activeSection ? selectionBackground : selectionMirrorBackground);
+                }
+            }
+        }
+    }
+
     @Override
     public Optional<CodeAreaColorAssessor> getParentColorAssessor() {
         return Optional.ofNullable(parentColorAssessor);
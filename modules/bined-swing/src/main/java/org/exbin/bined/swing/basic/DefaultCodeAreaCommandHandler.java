@@ -727,7 +727,7 @@ public class DefaultCodeAreaCommandHandler implements CodeAreaCommandHandler {
         updateSelection(selecting, caretPosition);
 
         sequenceBreak();
-        codeArea.repaint();
+        codeArea.repaintCursor();
     }
 
     public void move(SelectingMode selectingMode, MovementDirection direction) {
@@ -746,7 +746,7 @@ public class DefaultCodeAreaCommandHandler implements CodeAreaCommandHandler {
         CodeAreaScrollPosition scrollPosition = ((ScrollingCapable) codeArea).computeScrolling(sourcePosition, direction);
         if (!sourcePosition.equals(scrollPosition)) {
             ((ScrollingCapable) codeArea).setScrollPosition(scrollPosition);
-            codeArea.resetPainter();
+            codeArea.repaint();
         }
     }
 
@@ -773,6 +773,16 @@ public class DefaultCodeAreaCommandHandler implements CodeAreaCommandHandler {
         }
     }
 
+    @Override
+    public void preciseWheelScroll(double scrollUnits, ScrollBarOrientation orientation) {
+        CodeAreaScrollPosition sourcePosition = ((ScrollingCapable) codeArea).getScrollPosition();
+        CodeAreaScrollPosition scrollPosition = ((ScrollingCapable) codeArea).computeWheelScrolling(sourcePosition, orientation, scrollUnits);
+        if (!sourcePosition.equals(scrollPosition)) {
+            ((ScrollingCapable) codeArea).setScrollPosition(scrollPosition);
+            codeArea.repaint();
+        }
+    }
+
     public boolean changeEditOperation() {
         EditMode editMode = ((EditModeCapable) codeArea).getEditMode();
         if (editMode == EditMode.EXPANDING || editMode == EditMode.CAPPED) {
@@ -813,8 +823,14 @@ public class DefaultCodeAreaCommandHandler implements CodeAreaCommandHandler {
     }
 
     protected void revealCursor() {
+        CodeAreaScrollPosition scrollPosition = new CodeAreaScrollPosition();
+        scrollPosition.setScrollPosition(((ScrollingCapable) codeArea).getScrollPosition());
         ((ScrollingCapable) codeArea).revealCursor();
-        codeArea.repaint();
+        if (scrollPosition.equals(((ScrollingCapable) codeArea).getScrollPosition())) {
+            codeArea.repaintCursor();
+        } else {
+            codeArea.repaint();
+        }
     }
 
     @Override
@@ -24,6 +24,7 @@ import java.awt.event.MouseWheelEvent;
 import java.awt.event.MouseWheelListener;
 import org.jspecify.annotations.NullMarked;
 import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
 import org.exbin.bined.ScrollBarOrientation;
 import org.exbin.bined.basic.SelectingMode;
 import org.exbin.bined.capability.CaretCapable;
@@ -45,6 +46,9 @@ public class DefaultCodeAreaMouseListener extends MouseAdapter implements MouseM
     protected final Cursor textCursor = Cursor.getPredefinedCursor(Cursor.TEXT_CURSOR);
     protected Cursor currentCursor;
     protected boolean mouseDown = false;
+    protected double pendingVerticalRotation = 0;
+    protected double pendingHorizontalRotation = 0;
+    protected boolean wheelScrollScheduled = false;
 
     public DefaultCodeAreaMouseListener(CodeAreaCore codeArea, JScrollPane view) {
         this.codeArea = codeArea;
@@ -120,12 +124,41 @@ public class DefaultCodeAreaMouseListener extends MouseAdapter implements MouseM
 
     @Override
     public void mouseWheelMoved(MouseWheelEvent me) {
-        if (!codeArea.isEnabled() || me.getWheelRotation() == 0) {
+        double rotation = me.getPreciseWheelRotation();
+        if (!codeArea.isEnabled() || rotation == 0) {
             return;
         }
 
-        ScrollBarOrientation orientation = me.isShiftDown() ? ScrollBarOrientation.HORIZONTAL : ScrollBarOrientation.VERTICAL;
-        int scrollAmount = me.getWheelRotation() > 0 ? MOUSE_SCROLL_LINES : -MOUSE_SCROLL_LINES;
-        codeArea.getCommandHandler().wheelScroll(scrollAmount, orientation);
+        if (me.isShiftDown()) {
+            pendingHorizontalRotation += rotation;
+        } else {
+            pendingVerticalRotation += rotation;
+        }
+
+        if (!wheelScrollScheduled) {
+            wheelScrollScheduled = true;
+            SwingUtilities.invokeLater(this::applyWheelScroll);
+        }
+    }
+
+    /**
+     * Applies wheel rotation accumulated since last call as single scroll.
+     */
+    protected void applyWheelScroll() {
+        wheelScrollScheduled = false;
+        double verticalRotation = pendingVerticalRotation;
+        double horizontalRotation = pendingHorizontalRotation;
+        pendingVerticalRotation = 0;
+        pendingHorizontalRotation = 0;
+        if (!codeArea.isEnabled()) {
+            return;
+        }
+
+        if (verticalRotation != 0) {
+            codeArea.getCommandHandler().preciseWheelScroll(verticalRotation * MOUSE_SCROLL_LINES, ScrollBarOrientation.VERTICAL);
+        }
+        if (horizontalRotation != 0) {
+            codeArea.getCommandHandler().preciseWheelScroll(horizontalRotation * MOUSE_SCROLL_LINES, ScrollBarOrientation.HORIZONTAL);
+        }
     }
 }
@@ -30,6 +30,7 @@ import java.awt.Stroke;
 import java.awt.event.ComponentAdapter;
 import java.awt.event.ComponentEvent;
 import java.awt.event.ComponentListener;
+import java.awt.image.VolatileImage;
 import java.nio.charset.Charset;
 import java.util.Arrays;
 import java.util.Optional;
@@ -49,6 +50,7 @@ import org.exbin.bined.CodeCharactersCase;
 import org.exbin.bined.CodeType;
 import org.exbin.bined.EditOperation;
 import org.exbin.bined.PositionCodeType;
+import org.exbin.bined.ScrollBarOrientation;
 import org.exbin.bined.CaretOverlapMode;
 import org.exbin.bined.basic.BasicBackgroundPaintMode;
 import org.exbin.bined.basic.BasicCodeAreaScrolling;
@@ -65,7 +67,9 @@ import org.exbin.bined.capability.RowWrappingCapable;
 import org.exbin.bined.capability.ScrollingCapable;
 import org.exbin.bined.swing.CodeAreaCore;
 import org.exbin.bined.swing.CodeAreaPainter;
+import org.exbin.bined.swing.CodeAreaRowColors;
 import org.exbin.bined.swing.CodeAreaSwingUtils;
+import org.exbin.bined.swing.ScrollBlitBuffer;
 import org.exbin.bined.swing.basic.DefaultCodeAreaCaret.CursorRenderingMode;
 import org.exbin.bined.swing.basic.color.BasicCodeAreaColorsProfile;
 import org.exbin.bined.swing.basic.color.BasicColorsCapableCodeAreaPainter;
@@ -74,6 +78,7 @@ import org.exbin.bined.swing.capability.FontCapable;
 import org.exbin.auxiliary.binary_data.BinaryData;
 import org.exbin.bined.CodeAreaCaretPosition;
 import org.exbin.bined.CodeAreaSelection;
+import org.exbin.bined.DataChangeType;
 import org.exbin.bined.DataChangedListener;
 import org.exbin.bined.basic.BasicCodeAreaLayout;
 import org.exbin.bined.basic.ScrollViewDimension;
@@ -141,6 +146,28 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
     protected RowDataCache rowDataCache = null;
     @Nullable
     protected CursorDataCache cursorDataCache = null;
+    protected final PreparedRowsCache preparedRowsCache = new PreparedRowsCache();
+    protected final CodeAreaRowColors rowColors = new CodeAreaRowColors();
+    protected final GlyphAtlas glyphAtlas = new GlyphAtlas();
+    protected boolean glyphAtlasUsed = false;
+    protected final ScrollBlitBuffer blitBuffer = new ScrollBlitBuffer();
+    protected final long[] blitLayoutKey = new long[26];
+    protected boolean blitScrollingUsed = false;
+    /**
+     * Range of characters intersecting current clip, used for painting rows.
+     */
+    protected int clipToChar = 0;
+    protected int clipRestFromChar = Integer.MAX_VALUE;
+    /**
+     * Rectangles reused during paint to avoid allocation.
+     */
+    protected final Rectangle paintClipBounds = new Rectangle();
+    protected final Rectangle paintClipRect = new Rectangle();
+    protected final Rectangle rowsClipBounds = new Rectangle();
+    protected final Rectangle blitClipBounds = new Rectangle();
+    protected final Rectangle blitScrolledRect = new Rectangle();
+    protected final Rectangle blitExposedRect = new Rectangle();
+    protected final Point positionPoint = new Point();
 
     public DefaultCodeAreaPainter(CodeAreaCore codeArea) {
         this.codeArea = codeArea;
@@ -191,7 +218,21 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
                 recomputeLayout();
             }
         };
-        codeAreaDataChangeListener = this::dataChanged;
+        codeAreaDataChangeListener = new DataChangedListener() {
+            @Override
+            public void dataChanged() {
+                DefaultCodeAreaPainter.this.dataChanged();
+            }
+
+            @Override
+            public void dataChanged(long startPosition, long length, DataChangeType changeType) {
+                if (changeType == DataChangeType.MODIFY) {
+                    dataModified(startPosition, length);
+                } else {
+                    DefaultCodeAreaPainter.this.dataChanged();
+                }
+            }
+        };
         DefaultCodeAreaPainter.this.rebuildColors();
     }
 
@@ -226,17 +267,20 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
     @Override
     public void resetColors() {
         resetColors = true;
+        blitBuffer.invalidate();
     }
 
     @Override
     public void resetFont() {
         fontChanged = true;
+        blitBuffer.invalidate();
         resetLayout();
     }
 
     @Override
     public void resetLayout() {
         layoutChanged = true;
+        preparedRowsCache.invalidate();
     }
 
     @Override
@@ -250,6 +294,7 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
     }
 
     protected void recomputeLayout() {
+        preparedRowsCache.invalidate();
         rowPositionLength = getRowPositionLength();
         recomputeDimensions();
 
@@ -338,6 +383,8 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
         rowDataCache.rowData = new byte[structure.getBytesPerRow() + metrics.getMaxBytesPerChar() - 1];
         rowDataCache.rowPositionCode = new char[rowPositionLength];
         rowDataCache.rowCharacters = new char[structure.getCharactersPerRow()];
+        preparedRowsCache.setup((dimensions.getRowsPerRect() + 1) * 2, structure.getBytesPerRow(), rowDataCache.rowData.length, rowDataCache.rowCharacters.length);
+        preparedRowsCache.setVisibleRange(visibility.getSkipToCode(), visibility.getSkipRestFromCode(), visibility.getSkipToPreview(), visibility.getSkipRestFromPreview());
     }
 
     public void fontChanged(Graphics g) {
@@ -348,6 +395,9 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
         charset = ((CharsetCapable) codeArea).getCharset();
         font = ((FontCapable) codeArea).getCodeFont();
         metrics.recomputeMetrics(g.getFontMetrics(font), charset);
+        preparedRowsCache.invalidate();
+        blitBuffer.invalidate();
+        metrics.getFontMetrics().ifPresent(fontMetrics -> glyphAtlas.setup(fontMetrics, metrics.getCharacterWidth()));
 
         recomputeDimensions();
         recomputeCharPositions();
@@ -394,16 +444,104 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
             recomputeCharPositions();
         }
 
+        if (blitScrollingUsed) {
+            paintBlitted(g);
+            return;
+        }
+
         paintOutsideArea(g);
         paintHeader(g);
         paintRowPosition(g);
         paintMainArea(g);
     }
 
+    /**
+     * Paints component using persistent buffer, shifting already painted rows
+     * when view was scrolled vertically.
+     *
+     * @param g graphics
+     */
+    protected void paintBlitted(Graphics g) {
+        Rectangle componentRect = dimensions.getComponentRectangle();
+        Graphics2D bufferGraphics = blitBuffer.prepare(g, componentRect.x + componentRect.width, componentRect.y + componentRect.height);
+        if (bufferGraphics == null) {
+            paintOutsideArea(g);
+            paintHeader(g);
+            paintRowPosition(g);
+            paintMainArea(g);
+            return;
+        }
+
+        updateBlitLayoutKey();
+        CodeAreaScrollPosition scrollPosition = scrolling.getScrollPosition();
+        Rectangle dataViewRect = dimensions.getDataViewRectangle();
+        boolean clipped = CodeAreaSwingUtils.getClipBounds(g, blitClipBounds);
+        Rectangle paintedRect = componentRect;
+        if (blitBuffer.isContentValid(blitLayoutKey)) {
+            int shift = blitBuffer.computeShift(scrollPosition.getRowPosition(), scrollPosition.getRowOffset(), metrics.getRowHeight(), dataViewRect.height);
+            Rectangle scrolledRect = blitScrolledRect;
+            scrolledRect.setBounds(componentRect.x, dataViewRect.y, componentRect.width, dataViewRect.height);
+            if (shift == 0) {
+                if (clipped) {
+                    paintedRect = blitClipBounds;
+                }
+            } else if (shift != ScrollBlitBuffer.NO_SHIFT && (!clipped || blitClipBounds.contains(scrolledRect))) {
+                paintedRect = blitBuffer.shift(bufferGraphics, scrolledRect, shift, blitExposedRect);
+            }
+        }
+
+        bufferGraphics.setClip(paintedRect);
+        paintOutsideArea(bufferGraphics);
+        paintHeader(bufferGraphics);
+        paintRowPosition(bufferGraphics);
+        paintMainAreaContent(bufferGraphics);
+        bufferGraphics.dispose();
+
+        blitBuffer.commit(g, blitLayoutKey, scrollPosition.getRowPosition(), scrollPosition.getRowOffset());
+        paintCursor(g);
+    }
+
+    /**
+     * Updates values of layout properties affecting content of blit buffer.
+     */
+    protected void updateBlitLayoutKey() {
+        Rectangle componentRect = dimensions.getComponentRectangle();
+        Rectangle dataViewRect = dimensions.getDataViewRectangle();
+        CodeAreaScrollPosition scrollPosition = scrolling.getScrollPosition();
+        CodeAreaSelection selectionHandler = ((SelectionCapable) codeArea).getSelectionHandler();
+        blitLayoutKey[0] = componentRect.x;
+        blitLayoutKey[1] = componentRect.y;
+        blitLayoutKey[2] = componentRect.width;
+        blitLayoutKey[3] = componentRect.height;
+        blitLayoutKey[4] = dataViewRect.x;
+        blitLayoutKey[5] = dataViewRect.y;
+        blitLayoutKey[6] = dataViewRect.width;
+        blitLayoutKey[7] = dataViewRect.height;
+        blitLayoutKey[8] = metrics.getRowHeight();
+        blitLayoutKey[9] = metrics.getCharacterWidth();
+        blitLayoutKey[10] = scrollPosition.getCharPosition();
+        blitLayoutKey[11] = scrollPosition.getCharOffset();
+        blitLayoutKey[12] = structure.getBytesPerRow();
+        blitLayoutKey[13] = structure.getCharactersPerRow();
+        blitLayoutKey[14] = structure.getCodeType().ordinal();
+        blitLayoutKey[15] = structure.getViewMode().ordinal();
+        blitLayoutKey[16] = codeCharactersCase.ordinal();
+        blitLayoutKey[17] = backgroundPaintMode.ordinal();
+        blitLayoutKey[18] = rowPositionLength;
+        blitLayoutKey[19] = codeArea.getDataSize();
+        blitLayoutKey[20] = selectionHandler.getStart();
+        blitLayoutKey[21] = selectionHandler.getEnd();
+        blitLayoutKey[22] = ((CaretCapable) codeArea).getActiveSection() == BasicCodeAreaSection.TEXT_PREVIEW ? 1 : 0;
+        blitLayoutKey[23] = glyphAtlasUsed ? 1 : 0;
+        blitLayoutKey[24] = colorAssessor.getColorStateStamp();
+        blitLayoutKey[25] = charAssessor.getStateStamp();
+    }
+
     protected synchronized void updateCache() {
         if (resetColors) {
             resetColors = false;
             rebuildColors();
+            preparedRowsCache.invalidate();
         }
     }
 
@@ -430,8 +568,8 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
         Rectangle headerArea = dimensions.getHeaderAreaRectangle();
         CodeAreaScrollPosition scrollPosition = scrolling.getScrollPosition();
 
-        Rectangle clipBounds = g.getClipBounds();
-        g.setClip(clipBounds != null ? clipBounds.intersection(headerArea) : headerArea);
+        boolean clipped = CodeAreaSwingUtils.getClipBounds(g, paintClipBounds);
+        g.setClip(clipped ? CodeAreaSwingUtils.intersection(paintClipBounds, headerArea, paintClipRect) : headerArea);
 
         int characterWidth = metrics.getCharacterWidth();
         int rowHeight = metrics.getRowHeight();
@@ -510,7 +648,7 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
             g.drawLine(lineX, headerArea.y, lineX, headerArea.y + headerArea.height);
         }
 
-        g.setClip(clipBounds);
+        g.setClip(clipped ? paintClipBounds : null);
     }
 
     public void paintRowPosition(Graphics g) {
@@ -522,8 +660,8 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
         int rowsPerRect = dimensions.getRowsPerRect();
         Rectangle rowPosRectangle = dimensions.getRowPositionAreaRectangle();
         Rectangle dataViewRectangle = dimensions.getDataViewRectangle();
-        Rectangle clipBounds = g.getClipBounds();
-        g.setClip(clipBounds != null ? clipBounds.intersection(rowPosRectangle) : rowPosRectangle);
+        boolean clipped = CodeAreaSwingUtils.getClipBounds(g, paintClipBounds);
+        g.setClip(clipped ? CodeAreaSwingUtils.intersection(paintClipBounds, rowPosRectangle, paintClipRect) : rowPosRectangle);
 
         g.setFont(font);
         g.setColor(colorsProfile.getTextBackground());
@@ -571,11 +709,23 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
         }
         g.drawLine(dataViewRectangle.x, dataViewRectangle.y - 1, dataViewRectangle.x + dataViewRectangle.width, dataViewRectangle.y - 1);
 
-        g.setClip(clipBounds);
+        g.setClip(clipped ? paintClipBounds : null);
     }
 
     @Override
     public void paintMainArea(Graphics g) {
+        paintMainAreaContent(g);
+        paintCursor(g);
+
+//        paintDebugInfo(g, mainAreaRect, scrollPosition);
+    }
+
+    /**
+     * Paints main area without cursor.
+     *
+     * @param g graphics
+     */
+    protected void paintMainAreaContent(Graphics g) {
         if (!initialized) {
             reset();
         }
@@ -590,10 +740,11 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
         int characterWidth = metrics.getCharacterWidth();
         int previewRelativeX = visibility.getPreviewRelativeX();
 
-        Rectangle clipBounds = g.getClipBounds();
-        g.setClip(clipBounds != null ? clipBounds.intersection(mainAreaRect) : mainAreaRect);
+        boolean clipped = CodeAreaSwingUtils.getClipBounds(g, paintClipBounds);
+        g.setClip(clipped ? CodeAreaSwingUtils.intersection(paintClipBounds, mainAreaRect, paintClipRect) : mainAreaRect);
         colorAssessor.startPaint(this);
         charAssessor.startPaint(this);
+        preparedRowsCache.setStateStamp(charAssessor.getStateStamp());
 
         paintBackground(g);
 
@@ -605,10 +756,7 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
         }
 
         paintRows(g);
-        g.setClip(clipBounds);
-        paintCursor(g);
-
-//        paintDebugInfo(g, mainAreaRect, scrollPosition);
+        g.setClip(clipped ? paintClipBounds : null);
     }
 
 //    // Debugging counter
@@ -648,8 +796,17 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
         if (backgroundPaintMode == BasicBackgroundPaintMode.STRIPED) {
             long dataPosition = scrollPosition.getRowPosition() * bytesPerRow + ((scrollPosition.getRowPosition() & 1) > 0 ? 0 : bytesPerRow);
             int stripePositionY = dataViewRect.y - scrollPosition.getRowOffset() + ((scrollPosition.getRowPosition() & 1) > 0 ? 0 : rowHeight);
+            int firstStripe = 0;
+            int lastStripe = rowsPerRect / 2;
+            Rectangle clipBounds = rowsClipBounds;
+            if (CodeAreaSwingUtils.getClipBounds(g, clipBounds)) {
+                firstStripe = Math.max(0, Math.floorDiv(clipBounds.y - stripePositionY, rowHeight * 2));
+                lastStripe = Math.min(lastStripe, Math.floorDiv(clipBounds.y + clipBounds.height - 1 - stripePositionY, rowHeight * 2));
+                stripePositionY += firstStripe * rowHeight * 2;
+                dataPosition += firstStripe * bytesPerRow * 2L;
+            }
             g.setColor(colorsProfile.getAlternateBackground());
-            for (int row = 0; row <= rowsPerRect / 2; row++) {
+            for (int row = firstStripe; row <= lastStripe; row++) {
                 if (dataPosition > dataSize) {
                     break;
                 }
@@ -674,13 +831,33 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
         int rowPositionX = dataViewX - scrollPosition.getCharPosition() * characterWidth - scrollPosition.getCharOffset();
         int rowPositionY = dataViewY - scrollPosition.getRowOffset();
 
+        // Limit painting to rows and characters intersecting clip with margin for overlapping glyphs
+        int firstRow = 0;
+        int lastRow = rowsPerRect;
+        Rectangle clipBounds = rowsClipBounds;
+        if (CodeAreaSwingUtils.getClipBounds(g, clipBounds)) {
+            firstRow = Math.max(0, Math.floorDiv(clipBounds.y - rowPositionY, rowHeight) - 1);
+            lastRow = Math.min(rowsPerRect, Math.floorDiv(clipBounds.y + clipBounds.height - 1 - rowPositionY, rowHeight) + 1);
+            clipToChar = Math.max(0, Math.floorDiv(clipBounds.x - rowPositionX, characterWidth) - 1);
+            clipRestFromChar = Math.max(clipToChar, Math.floorDiv(clipBounds.x + clipBounds.width - 1 - rowPositionX, characterWidth) + 2);
+            if (firstRow > 0) {
+                rowPositionY += firstRow * rowHeight;
+                if ((Long.MAX_VALUE - dataPosition) / bytesPerRow < firstRow) {
+                    dataPosition = Long.MAX_VALUE;
+                } else {
+                    dataPosition += (long) firstRow * bytesPerRow;
+                }
+            }
+        }
+
         g.setColor(colorsProfile.getTextColor());
-        for (int row = 0; row <= rowsPerRect; row++) {
+        for (int row = firstRow; row <= lastRow; row++) {
             if (dataPosition > dataSize) {
                 break;
             }
 
             prepareRowData(dataPosition);
+            prepareRowColors(dataPosition);
             paintRowBackground(g, dataPosition, rowPositionX, rowPositionY);
             paintRowText(g, dataPosition, rowPositionX, rowPositionY);
 
@@ -691,9 +868,16 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
                 dataPosition += bytesPerRow;
             }
         }
+
+        clipToChar = 0;
+        clipRestFromChar = Integer.MAX_VALUE;
     }
 
     protected void prepareRowData(long dataPosition) {
+        if (preparedRowsCache.load(dataPosition, rowDataCache.rowData, rowDataCache.rowCharacters)) {
+            return;
+        }
+
         int maxBytesPerChar = metrics.getMaxBytesPerChar();
         int bytesPerRow = structure.getBytesPerRow();
         long dataSize = codeArea.getDataSize();
@@ -725,14 +909,13 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
             int skipToCode = visibility.getSkipToCode();
             int skipRestFromCode = visibility.getSkipRestFromCode();
             int endCode = Math.min(skipRestFromCode, rowBytesLimit);
-            for (int byteOnRow = Math.max(skipToCode, rowStart); byteOnRow < endCode; byteOnRow++) {
-                byte dataByte = rowDataCache.rowData[byteOnRow];
-
-                int byteRowPos = structure.computeFirstCodeCharacterPos(byteOnRow);
+            int startCode = Math.max(skipToCode, rowStart);
+            if (startCode < endCode) {
+                int byteRowPos = structure.computeFirstCodeCharacterPos(startCode);
                 if (byteRowPos > 0) {
                     rowDataCache.rowCharacters[byteRowPos - 1] = ' ';
                 }
-                CodeAreaUtils.byteToCharsCode(dataByte, codeType, rowDataCache.rowCharacters, byteRowPos, codeCharactersCase);
+                CodeAreaUtils.bytesToCharsCode(rowDataCache.rowData, startCode, endCode - startCode, codeType, codeCharactersCase, rowDataCache.rowCharacters, byteRowPos, 1);
             }
 
             if (bytesPerRow > rowBytesLimit) {
@@ -756,26 +939,23 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
                 Arrays.fill(rowDataCache.rowCharacters, previewCharPos + rowBytesLimit, previewCharPos + bytesPerRow, ' ');
             }
         }
+
+        preparedRowsCache.store(dataPosition, rowDataCache.rowData, rowDataCache.rowCharacters);
     }
 
     /**
-     * Paints row background.
+     * Prepares colors for visible characters of the row.
      *
-     * @param g graphics
      * @param rowDataPosition row data position
-     * @param rowPositionX row position X
-     * @param rowPositionY row position Y
      */
-    public void paintRowBackground(Graphics g, long rowDataPosition, int rowPositionX, int rowPositionY) {
+    protected void prepareRowColors(long rowDataPosition) {
         int previewCharPos = visibility.getPreviewCharPos();
         CodeAreaViewMode viewMode = structure.getViewMode();
-        int charactersPerRow = structure.getCharactersPerRow();
-        int skipToChar = visibility.getSkipToChar();
-        int skipRestFromChar = visibility.getSkipRestFromChar();
+        int skipToChar = Math.max(visibility.getSkipToChar(), clipToChar);
+        int skipRestFromChar = Math.min(visibility.getSkipRestFromChar(), clipRestFromChar);
         CodeAreaSelection selectionHandler = ((SelectionCapable) codeArea).getSelectionHandler();
 
-        int renderOffset = skipToChar;
-        Color renderColor = null;
+        rowColors.reset(skipRestFromChar - skipToChar);
         for (int charOnRow = skipToChar; charOnRow < skipRestFromChar; charOnRow++) {
             CodeAreaSection section;
             int byteOnRow;
@@ -786,10 +966,35 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
                 byteOnRow = structure.computePositionByte(charOnRow);
                 section = BasicCodeAreaSection.CODE_MATRIX;
             }
-            boolean sequenceBreak = false;
 
             boolean inSelection = selectionHandler.isInSelection(rowDataPosition + byteOnRow);
-            Color color = colorAssessor.getPositionBackgroundColor(rowDataPosition, byteOnRow, charOnRow, section, inSelection);
+            rowColors.addPosition(byteOnRow, charOnRow, section, inSelection);
+        }
+
+        colorAssessor.assessRowColors(rowDataPosition, rowColors);
+    }
+
+    /**
+     * Paints row background.
+     * <p>
+     * Colors of the row has to be prepared first.
+     *
+     * @param g graphics
+     * @param rowDataPosition row data position
+     * @param rowPositionX row position X
+     * @param rowPositionY row position Y
+     */
+    public void paintRowBackground(Graphics g, long rowDataPosition, int rowPositionX, int rowPositionY) {
+        int charactersPerRow = structure.getCharactersPerRow();
+        int skipToChar = Math.max(visibility.getSkipToChar(), clipToChar);
+        int skipRestFromChar = Math.min(visibility.getSkipRestFromChar(), clipRestFromChar);
+
+        int renderOffset = skipToChar;
+        Color renderColor = null;
+        for (int charOnRow = skipToChar; charOnRow < skipRestFromChar; charOnRow++) {
+            boolean sequenceBreak = false;
+
+            Color color = rowColors.getBackgroundColor(charOnRow - skipToChar);
             if (!CodeAreaSwingUtils.areSameColors(color, renderColor)) {
                 sequenceBreak = true;
             }
@@ -813,7 +1018,7 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
 
         if (renderOffset < charactersPerRow) {
             if (renderColor != null) {
-                renderBackgroundSequence(g, renderOffset, charactersPerRow, rowPositionX, rowPositionY);
+                renderBackgroundSequence(g, renderOffset, Math.min(charactersPerRow, clipRestFromChar), rowPositionX, rowPositionY);
             }
         }
     }
@@ -895,6 +1100,8 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
 
     /**
      * Paints row text.
+     * <p>
+     * Colors of the row has to be prepared first.
      *
      * @param g graphics
      * @param rowDataPosition row data position
@@ -902,12 +1109,10 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
      * @param rowPositionY row position Y
      */
     public void paintRowText(Graphics g, long rowDataPosition, int rowPositionX, int rowPositionY) {
-        int previewCharPos = visibility.getPreviewCharPos();
         int charactersPerRow = structure.getCharactersPerRow();
         int rowHeight = metrics.getRowHeight();
         int characterWidth = metrics.getCharacterWidth();
         int subFontSpace = metrics.getSubFontSpace();
-        CodeAreaSelection selectionHandler = ((SelectionCapable) codeArea).getSelectionHandler();
 
         g.setFont(font);
         int positionY = rowPositionY + rowHeight - subFontSpace;
@@ -915,28 +1120,17 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
         Color lastColor = null;
         Color renderColor = null;
 
-        int skipToChar = visibility.getSkipToChar();
-        int skipRestFromChar = visibility.getSkipRestFromChar();
+        int skipToChar = Math.max(visibility.getSkipToChar(), clipToChar);
+        int skipRestFromChar = Math.min(visibility.getSkipRestFromChar(), clipRestFromChar);
         int renderOffset = skipToChar;
         for (int charOnRow = skipToChar; charOnRow < skipRestFromChar; charOnRow++) {
-            CodeAreaSection section;
-            int byteOnRow;
-            if (charOnRow >= previewCharPos) {
-                byteOnRow = charOnRow - previewCharPos;
-                section = BasicCodeAreaSection.TEXT_PREVIEW;
-            } else {
-                byteOnRow = structure.computePositionByte(charOnRow);
-                section = BasicCodeAreaSection.CODE_MATRIX;
-            }
-
             char currentChar = rowDataCache.rowCharacters[charOnRow];
             if (currentChar == ' ' && renderOffset == charOnRow) {
                 renderOffset++;
                 continue;
             }
 
-            boolean inSelection = selectionHandler.isInSelection(rowDataPosition + byteOnRow);
-            Color color = colorAssessor.getPositionTextColor(rowDataPosition, byteOnRow, charOnRow, section, inSelection);
+            Color color = rowColors.getTextColor(charOnRow - skipToChar);
             if (color == null) {
                 color = colorsProfile.getTextColor();
             }
@@ -975,8 +1169,60 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
                 g.setColor(renderColor);
             }
 
-            drawCenteredChars(g, rowDataCache.rowCharacters, renderOffset, charactersPerRow - renderOffset, characterWidth, rowPositionX + renderOffset * characterWidth, positionY);
+            int renderEnd = Math.min(charactersPerRow, clipRestFromChar);
+            if (renderEnd > renderOffset) {
+                drawCenteredChars(g, rowDataCache.rowCharacters, renderOffset, renderEnd - renderOffset, characterWidth, rowPositionX + renderOffset * characterWidth, positionY);
+            }
+        }
+    }
+
+    /**
+     * Returns true if glyph atlas rendering mode is used.
+     *
+     * @return true if glyph atlas is used
+     */
+    public boolean isGlyphAtlasUsed() {
+        return glyphAtlasUsed;
+    }
+
+    /**
+     * Sets whether characters should be copied from pre-rendered glyph atlas
+     * instead of rendering text.
+     * <p>
+     * Characters missing in atlas are still rendered as text.
+     *
+     * @param glyphAtlasUsed true to use glyph atlas
+     */
+    public void setGlyphAtlasUsed(boolean glyphAtlasUsed) {
+        this.glyphAtlasUsed = glyphAtlasUsed;
+        if (!glyphAtlasUsed) {
+            glyphAtlas.invalidate();
+        }
+        codeArea.repaint();
+    }
+
+    /**
+     * Returns true if blit scrolling mode is used.
+     *
+     * @return true if blit scrolling is used
+     */
+    public boolean isBlitScrollingUsed() {
+        return blitScrollingUsed;
+    }
+
+    /**
+     * Sets whether painted content should be kept in persistent buffer so
+     * that vertical scrolling only shifts painted rows and paints newly
+     * exposed rows.
+     *
+     * @param blitScrollingUsed true to use blit scrolling
+     */
+    public void setBlitScrollingUsed(boolean blitScrollingUsed) {
+        this.blitScrollingUsed = blitScrollingUsed;
+        if (!blitScrollingUsed) {
+            blitBuffer.dispose();
         }
+        codeArea.repaint();
     }
 
     @Override
@@ -987,6 +1233,7 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
     @Override
     public void setColorAssessor(CodeAreaColorAssessor colorAssessor) {
         this.colorAssessor = CodeAreaUtils.requireNonNull(colorAssessor);
+        blitBuffer.invalidate();
     }
 
     @Override
@@ -997,11 +1244,16 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
     @Override
     public void setCharAssessor(CodeAreaCharAssessor charAssessor) {
         this.charAssessor = charAssessor;
+        preparedRowsCache.invalidate();
+        blitBuffer.invalidate();
     }
 
     @Override
     public void paintCursor(Graphics g) {
         if (!codeArea.hasFocus()) {
+            if (cursorDataCache != null) {
+                cursorDataCache.caretRect.setSize(0, 0);
+            }
             return;
         }
 
@@ -1028,14 +1280,15 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
         }
 
         DefaultCodeAreaCaret caret = (DefaultCodeAreaCaret) ((CaretCapable) codeArea).getCodeAreaCaret();
-        Rectangle cursorRect = getCursorPositionRect(caret.getDataPosition(), caret.getCodeOffset(), caret.getSection());
+        Rectangle cursorRect = cursorDataCache.cursorRect;
+        updateRectToCursorPosition(cursorRect, caret.getDataPosition(), caret.getCodeOffset(), caret.getSection());
         if (cursorRect.isEmpty()) {
+            cursorDataCache.caretRect.setSize(0, 0);
             return;
         }
 
-        Rectangle scrolledCursorRect = new Rectangle(cursorRect.x, cursorRect.y, cursorRect.width, cursorRect.height);
-        Rectangle clipBounds = g.getClipBounds();
-        Rectangle intersection = scrolledCursorRect.intersection(mainAreaRect);
+        boolean clipped = CodeAreaSwingUtils.getClipBounds(g, paintClipBounds);
+        Rectangle intersection = CodeAreaSwingUtils.intersection(cursorRect, mainAreaRect, cursorDataCache.caretRect);
         boolean cursorVisible = caret.isCursorVisible() && !intersection.isEmpty();
 
         if (cursorVisible) {
@@ -1051,19 +1304,54 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
             updateMirrorCursorRect(caret.getDataPosition(), caret.getSection());
             Rectangle mirrorCursorRect = cursorDataCache.mirrorCursorRect;
             if (!mirrorCursorRect.isEmpty()) {
-                intersection = mainAreaRect.intersection(mirrorCursorRect);
+                intersection = CodeAreaSwingUtils.intersection(mainAreaRect, mirrorCursorRect, paintClipRect);
                 boolean mirrorCursorVisible = !intersection.isEmpty();
                 if (mirrorCursorVisible) {
                     g.setClip(intersection);
                     g.setColor(colorsProfile.getCursorColor());
-                    Graphics2D g2d = (Graphics2D) g.create();
+                    Graphics2D g2d = (Graphics2D) g;
+                    Stroke stroke = g2d.getStroke();
                     g2d.setStroke(cursorDataCache.dashedStroke);
                     g2d.drawRect(mirrorCursorRect.x, mirrorCursorRect.y, mirrorCursorRect.width - 1, mirrorCursorRect.height - 1);
-                    g2d.dispose();
+                    g2d.setStroke(stroke);
                 }
             }
         }
-        g.setClip(clipBounds);
+        g.setClip(clipped ? paintClipBounds : null);
+    }
+
+    @Override
+    public boolean repaintCursor() {
+        if (!initialized || layoutChanged || cursorDataCache == null) {
+            codeArea.repaint();
+            return true;
+        }
+
+        if (caretChanged) {
+            updateCaret();
+        }
+
+        // Previously painted cursor
+        if (!cursorDataCache.caretRect.isEmpty()) {
+            codeArea.repaint(cursorDataCache.caretRect);
+        }
+        if (!cursorDataCache.mirrorCursorRect.isEmpty()) {
+            codeArea.repaint(cursorDataCache.mirrorCursorRect);
+        }
+
+        DefaultCodeAreaCaret caret = (DefaultCodeAreaCaret) ((CaretCapable) codeArea).getCodeAreaCaret();
+        Rectangle cursorRect = getCursorPositionRect(caret.getDataPosition(), caret.getCodeOffset(), caret.getSection());
+        Rectangle intersection = cursorRect.intersection(dimensions.getMainAreaRectangle());
+        if (!intersection.isEmpty()) {
+            codeArea.repaint(intersection);
+        }
+        if (structure.getViewMode() == CodeAreaViewMode.DUAL && showMirrorCursor) {
+            updateMirrorCursorRect(caret.getDataPosition(), caret.getSection());
+            if (!cursorDataCache.mirrorCursorRect.isEmpty()) {
+                codeArea.repaint(cursorDataCache.mirrorCursorRect);
+            }
+        }
+        return true;
     }
 
     protected void paintCursorRect(Graphics g, int cursorX, int cursorY, int width, int height, CursorRenderingMode renderingMode, DefaultCodeAreaCaret caret) {
@@ -1239,6 +1527,13 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
         return scrolling.computeScrolling(startPosition, direction, rowsPerPage, rowsPerDocument);
     }
 
+    @Override
+    public CodeAreaScrollPosition computeWheelScrolling(CodeAreaScrollPosition startPosition, ScrollBarOrientation orientation, double scrollUnits) {
+        int rowsPerPage = dimensions.getRowsPerPage();
+        long rowsPerDocument = structure.getRowsPerDocument();
+        return scrolling.computeWheelScrolling(startPosition, orientation, scrollUnits, rowsPerPage, rowsPerDocument, metrics.getRowHeight());
+    }
+
     /**
      * Returns relative cursor position in code area or null if cursor is not
      * visible.
@@ -1250,6 +1545,20 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
      */
     @Nullable
     public Point getPositionPoint(long dataPosition, int codeOffset, CodeAreaSection section) {
+        Point point = new Point();
+        return updatePointToPosition(point, dataPosition, codeOffset, section) ? point : null;
+    }
+
+    /**
+     * Stores relative cursor position in code area to given point.
+     *
+     * @param point target point
+     * @param dataPosition data position
+     * @param codeOffset code offset
+     * @param section section
+     * @return true if cursor is visible and point was updated
+     */
+    protected boolean updatePointToPosition(Point point, long dataPosition, int codeOffset, CodeAreaSection section) {
         int bytesPerRow = structure.getBytesPerRow();
         int rowsPerRect = dimensions.getRowsPerRect();
         int characterWidth = metrics.getCharacterWidth();
@@ -1258,7 +1567,7 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
         CodeAreaScrollPosition scrollPosition = scrolling.getScrollPosition();
         long row = dataPosition / bytesPerRow - scrollPosition.getRowPosition();
         if (row < -1 || row > rowsPerRect) {
-            return null;
+            return false;
         }
 
         int byteOffset = (int) (dataPosition % bytesPerRow);
@@ -1273,13 +1582,14 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
         }
         caretX -= scrollPosition.getCharPosition() * characterWidth + scrollPosition.getCharOffset();
 
-        return new Point(caretX, caretY);
+        point.setLocation(caretX, caretY);
+        return true;
     }
 
     protected void updateMirrorCursorRect(long dataPosition, CodeAreaSection section) {
         CodeType codeType = structure.getCodeType();
-        Point mirrorCursorPoint = getPositionPoint(dataPosition, 0, section == BasicCodeAreaSection.CODE_MATRIX ? BasicCodeAreaSection.TEXT_PREVIEW : BasicCodeAreaSection.CODE_MATRIX);
-        if (mirrorCursorPoint == null) {
+        Point mirrorCursorPoint = positionPoint;
+        if (!updatePointToPosition(mirrorCursorPoint, dataPosition, 0, section == BasicCodeAreaSection.CODE_MATRIX ? BasicCodeAreaSection.TEXT_PREVIEW : BasicCodeAreaSection.CODE_MATRIX)) {
             cursorDataCache.mirrorCursorRect.setSize(0, 0);
         } else {
             cursorDataCache.mirrorCursorRect.setBounds(mirrorCursorPoint.x, mirrorCursorPoint.y, metrics.getCharacterWidth() * (section == BasicCodeAreaSection.TEXT_PREVIEW ? codeType.getMaxDigitsForByte() : 1), metrics.getRowHeight());
@@ -1327,6 +1637,49 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
      * @param positionY Y position of drawing area start
      */
     protected void drawCenteredChars(Graphics g, char[] drawnChars, int charOffset, int length, int cellWidth, int positionX, int positionY) {
+        if (glyphAtlasUsed && cellWidth == metrics.getCharacterWidth()) {
+            VolatileImage atlasImage = glyphAtlas.prepareImage(g);
+            if (atlasImage != null) {
+                int pos = 0;
+                int uncached = 0;
+                while (pos < length) {
+                    char drawnChar = drawnChars[charOffset + pos];
+                    if (glyphAtlas.isCached(drawnChar)) {
+                        if (uncached > 0) {
+                            drawCenteredCharsDirectly(g, drawnChars, charOffset + pos - uncached, uncached, cellWidth, positionX + (pos - uncached) * cellWidth, positionY);
+                            uncached = 0;
+                        }
+                        if (drawnChar != ' ') {
+                            glyphAtlas.drawGlyph(g, atlasImage, drawnChar, positionX + pos * cellWidth, positionY);
+                        }
+                    } else {
+                        uncached++;
+                    }
+                    pos++;
+                }
+                if (uncached > 0) {
+                    drawCenteredCharsDirectly(g, drawnChars, charOffset + pos - uncached, uncached, cellWidth, positionX + (pos - uncached) * cellWidth, positionY);
+                }
+                return;
+            }
+        }
+
+        drawCenteredCharsDirectly(g, drawnChars, charOffset, length, cellWidth, positionX, positionY);
+    }
+
+    /**
+     * Draws characters centering it to cells of the same width using text
+     * rendering.
+     *
+     * @param g graphics
+     * @param drawnChars array of chars
+     * @param charOffset index of target character in array
+     * @param length number of characters to draw
+     * @param cellWidth width of cell to center into
+     * @param positionX X position of drawing area start
+     * @param positionY Y position of drawing area start
+     */
+    protected void drawCenteredCharsDirectly(Graphics g, char[] drawnChars, int charOffset, int length, int cellWidth, int positionX, int positionY) {
         int pos = 0;
         int group = 0;
         while (pos < length) {
@@ -1412,8 +1765,8 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
     protected void updateRectToCursorPosition(Rectangle rect, long dataPosition, int codeOffset, CodeAreaSection section) {
         int characterWidth = metrics.getCharacterWidth();
         int rowHeight = metrics.getRowHeight();
-        Point cursorPoint = getPositionPoint(dataPosition, codeOffset, section);
-        if (cursorPoint == null) {
+        Point cursorPoint = positionPoint;
+        if (!updatePointToPosition(cursorPoint, dataPosition, codeOffset, section)) {
             rect.setBounds(0, 0, 0, 0);
         } else {
             DefaultCodeAreaCaret.CursorShape cursorShape = editOperation == EditOperation.INSERT ? DefaultCodeAreaCaret.CursorShape.INSERT : DefaultCodeAreaCaret.CursorShape.OVERWRITE;
@@ -1516,11 +1869,46 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
     }
 
     protected void dataChanged() {
+        blitBuffer.invalidate();
         validateCaret();
         validateSelection();
         recomputeLayout();
     }
 
+    /**
+     * Repaints visible rows affected by modification of data in given range.
+     *
+     * @param startPosition start position of modified data
+     * @param length length of modified data
+     */
+    protected void dataModified(long startPosition, long length) {
+        preparedRowsCache.invalidate(startPosition, startPosition + length);
+        blitBuffer.preventShift();
+        if (!initialized || layoutChanged) {
+            codeArea.repaint();
+            return;
+        }
+
+        if (length <= 0) {
+            return;
+        }
+
+        int bytesPerRow = structure.getBytesPerRow();
+        int rowHeight = metrics.getRowHeight();
+        CodeAreaScrollPosition scrollPosition = scrolling.getScrollPosition();
+        long firstVisibleRow = scrollPosition.getRowPosition();
+        long lastVisibleRow = firstVisibleRow + dimensions.getRowsPerRect();
+        long startRow = Math.max(startPosition / bytesPerRow, firstVisibleRow);
+        long endRow = Math.min((startPosition + length - 1) / bytesPerRow, lastVisibleRow);
+        if (startRow > endRow) {
+            return;
+        }
+
+        Rectangle dataViewRect = dimensions.getDataViewRectangle();
+        int positionY = dataViewRect.y - scrollPosition.getRowOffset() + (int) (startRow - firstVisibleRow) * rowHeight;
+        codeArea.repaint(dataViewRect.x, positionY, dataViewRect.width, (int) (endRow - startRow + 1) * rowHeight);
+    }
+
     @Override
     public int getCharactersPerRow() {
         return structure.getCharactersPerRow();
@@ -1603,6 +1991,7 @@ public class DefaultCodeAreaPainter implements CodeAreaPainter, BasicColorsCapab
 
         Rectangle caretRect = new Rectangle();
         Rectangle mirrorCursorRect = new Rectangle();
+        Rectangle cursorRect = new Rectangle();
         final Stroke dashedStroke = new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 0, new float[]{2}, 0);
         int cursorCharsLength;
         char[] cursorChars;
@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing.basic;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.VolatileImage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.exbin.bined.CodeAreaUtils;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Atlas of pre-rendered glyphs for fixed width cells.
+ * <p>
+ * Printable ASCII characters are rendered once per text color into volatile
+ * image and then copied into cells instead of rendering text. Image is
+ * rendered in device resolution so that scaled screens are not blurred.
+ */
+@NullMarked
+public class GlyphAtlas {
+
+    public static final char FIRST_GLYPH = 0x20;
+    public static final char LAST_GLYPH = 0x7e;
+    private static final int MAX_IMAGES = 32;
+
+    protected final int[] glyphIndexes = new int[LAST_GLYPH + 1];
+    protected char[] glyphs = new char[0];
+    @Nullable
+    protected Font font;
+    @Nullable
+    protected FontMetrics fontMetrics;
+    protected int cellWidth;
+    protected int slotWidth;
+    protected int slotHeight;
+    protected int paddingX;
+    protected int ascent;
+    @Nullable
+    protected Object antialiasingHint;
+    @Nullable
+    protected Object fractionalMetricsHint;
+    protected double scaleX = 1;
+    protected double scaleY = 1;
+    protected final Map<Integer, VolatileImage> images = new HashMap<>();
+
+    /**
+     * Sets up atlas for given font.
+     * <p>
+     * Only characters which fit into cell are included.
+     *
+     * @param fontMetrics font metrics
+     * @param cellWidth width of the cell
+     */
+    public void setup(FontMetrics fontMetrics, int cellWidth) {
+        if (this.fontMetrics == fontMetrics && this.cellWidth == cellWidth) {
+            return;
+        }
+
+        invalidate();
+        this.fontMetrics = fontMetrics;
+        this.font = fontMetrics.getFont();
+        this.cellWidth = cellWidth;
+        // Glyph ink may exceed advance and line metrics so slots are padded
+        paddingX = cellWidth / 2 + 1;
+        slotWidth = cellWidth + paddingX * 2;
+        ascent = Math.max(fontMetrics.getAscent(), fontMetrics.getMaxAscent()) + 1;
+        slotHeight = ascent + Math.max(fontMetrics.getDescent(), fontMetrics.getMaxDescent()) + 1;
+
+        Font setupFont = fontMetrics.getFont();
+        char[] candidates = new char[LAST_GLYPH - FIRST_GLYPH + 1];
+        int count = 0;
+        for (char value = 0; value <= LAST_GLYPH; value++) {
+            glyphIndexes[value] = -1;
+            if (value >= FIRST_GLYPH && setupFont.canDisplay(value) && fontMetrics.charWidth(value) <= cellWidth) {
+                glyphIndexes[value] = count;
+                candidates[count] = value;
+                count++;
+            }
+        }
+        glyphs = new char[count];
+        System.arraycopy(candidates, 0, glyphs, 0, count);
+    }
+
+    /**
+     * Releases all rendered images.
+     */
+    public void invalidate() {
+        for (VolatileImage image : images.values()) {
+            image.flush();
+        }
+        images.clear();
+    }
+
+    /**
+     * Returns true if character is present in atlas.
+     *
+     * @param value character
+     * @return true if cached
+     */
+    public boolean isCached(char value) {
+        return value <= LAST_GLYPH && glyphIndexes[value] >= 0;
+    }
+
+    /**
+     * Returns atlas image for current color and rendering hints of given
+     * graphics, rendering it if needed.
+     *
+     * @param g graphics
+     * @return image or null if atlas cannot be used for given graphics
+     */
+    @Nullable
+    public VolatileImage prepareImage(Graphics g) {
+        if (!(g instanceof Graphics2D) || fontMetrics == null || glyphs.length == 0) {
+            return null;
+        }
+
+        Graphics2D g2d = (Graphics2D) g;
+        AffineTransform transform = g2d.getTransform();
+        if (transform.getShearX() != 0 || transform.getShearY() != 0 || transform.getScaleX() <= 0 || transform.getScaleY() <= 0) {
+            return null;
+        }
+
+        Object currentAntialiasingHint = g2d.getRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING);
+        Object currentFractionalMetricsHint = g2d.getRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS);
+        if (!Objects.equals(currentAntialiasingHint, antialiasingHint) || !Objects.equals(currentFractionalMetricsHint, fractionalMetricsHint)
+                || transform.getScaleX() != scaleX || transform.getScaleY() != scaleY) {
+            invalidate();
+            antialiasingHint = currentAntialiasingHint;
+            fractionalMetricsHint = currentFractionalMetricsHint;
+            scaleX = transform.getScaleX();
+            scaleY = transform.getScaleY();
+        }
+
+        Color color = g2d.getColor();
+        GraphicsConfiguration configuration = g2d.getDeviceConfiguration();
+        VolatileImage image = images.get(color.getRGB());
+        if (image != null) {
+            int status = image.validate(configuration);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                image.flush();
+                image = null;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                renderGlyphs(image, color);
+            }
+        }
+
+        if (image == null) {
+            if (images.size() >= MAX_IMAGES) {
+                invalidate();
+            }
+            int imageWidth = (int) Math.ceil(glyphs.length * slotWidth * scaleX);
+            int imageHeight = (int) Math.ceil(slotHeight * scaleY);
+            try {
+                image = configuration.createCompatibleVolatileImage(imageWidth, imageHeight, Transparency.TRANSLUCENT);
+            } catch (RuntimeException ex) {
+                return null;
+            }
+            if (image == null) {
+                return null;
+            }
+            image.validate(configuration);
+            renderGlyphs(image, color);
+            images.put(color.getRGB(), image);
+        }
+
+        return image.contentsLost() ? null : image;
+    }
+
+    /**
+     * Draws cached character from atlas image.
+     *
+     * @param g graphics
+     * @param image atlas image
+     * @param value cached character
+     * @param positionX X position of the cell
+     * @param positionY Y position of the text baseline
+     */
+    public void drawGlyph(Graphics g, VolatileImage image, char value, int positionX, int positionY) {
+        int glyphIndex = glyphIndexes[value];
+        int targetX = positionX - paddingX;
+        int targetY = positionY - ascent;
+        int sourceX1 = (int) Math.round(glyphIndex * slotWidth * scaleX);
+        int sourceX2 = (int) Math.round((glyphIndex + 1) * slotWidth * scaleX);
+        int sourceY2 = (int) Math.round(slotHeight * scaleY);
+        g.drawImage(image, targetX, targetY, targetX + slotWidth, targetY + slotHeight, sourceX1, 0, sourceX2, sourceY2, null);
+    }
+
+    private void renderGlyphs(VolatileImage image, Color color) {
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Src);
+            g.setColor(new Color(0, 0, 0, 0));
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.setComposite(AlphaComposite.SrcOver);
+            g.scale(scaleX, scaleY);
+            if (antialiasingHint != null) {
+                g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, antialiasingHint);
+            }
+            if (fractionalMetricsHint != null) {
+                g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, fractionalMetricsHint);
+            }
+            g.setFont(CodeAreaUtils.requireNonNull(font));
+            g.setColor(color);
+            FontMetrics metrics = CodeAreaUtils.requireNonNull(fontMetrics);
+            for (int i = 0; i < glyphs.length; i++) {
+                int glyphX = i * slotWidth + paddingX + (cellWidth - metrics.charWidth(glyphs[i])) / 2;
+                g.drawChars(glyphs, i, 1, glyphX, ascent);
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+}
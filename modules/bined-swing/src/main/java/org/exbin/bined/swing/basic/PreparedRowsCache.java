@@ -0,0 +1,184 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing.basic;
+
+import org.jspecify.annotations.NullMarked;
+
+/**
+ * Cache of prepared row data and row characters keyed by row data position.
+ * <p>
+ * Rows are stored in slots by row index so that rows visible at the same time
+ * never replace each other and the least recently visible rows are replaced
+ * first when scrolling.
+ */
+@NullMarked
+public class PreparedRowsCache {
+
+    protected Row[] rows = new Row[0];
+    protected int bytesPerRow = 1;
+    protected int rowDataLength;
+    protected int rowCharactersLength;
+    protected int skipToCode;
+    protected int skipRestFromCode;
+    protected int skipToPreview;
+    protected int skipRestFromPreview;
+    protected long stateStamp;
+
+    /**
+     * Sets up cache for given layout.
+     * <p>
+     * Cache is cleared if any of the parameters changes.
+     *
+     * @param capacity maximum number of cached rows
+     * @param bytesPerRow bytes per row
+     * @param rowDataLength length of row data
+     * @param rowCharactersLength length of row characters
+     */
+    public void setup(int capacity, int bytesPerRow, int rowDataLength, int rowCharactersLength) {
+        if (rows.length == capacity && this.bytesPerRow == bytesPerRow && this.rowDataLength == rowDataLength && this.rowCharactersLength == rowCharactersLength) {
+            return;
+        }
+
+        this.bytesPerRow = bytesPerRow > 0 ? bytesPerRow : 1;
+        this.rowDataLength = rowDataLength;
+        this.rowCharactersLength = rowCharactersLength;
+        rows = new Row[capacity];
+        for (int i = 0; i < capacity; i++) {
+            rows[i] = new Row(rowDataLength, rowCharactersLength);
+        }
+    }
+
+    /**
+     * Sets visible ranges of bytes on row for code and preview sections.
+     * <p>
+     * Cache is cleared if any of the ranges changes as only visible parts of
+     * rows are prepared.
+     *
+     * @param skipToCode first visible code byte on row
+     * @param skipRestFromCode end of visible code bytes on row
+     * @param skipToPreview first visible preview byte on row
+     * @param skipRestFromPreview end of visible preview bytes on row
+     */
+    public void setVisibleRange(int skipToCode, int skipRestFromCode, int skipToPreview, int skipRestFromPreview) {
+        if (this.skipToCode == skipToCode && this.skipRestFromCode == skipRestFromCode && this.skipToPreview == skipToPreview && this.skipRestFromPreview == skipRestFromPreview) {
+            return;
+        }
+
+        this.skipToCode = skipToCode;
+        this.skipRestFromCode = skipRestFromCode;
+        this.skipToPreview = skipToPreview;
+        this.skipRestFromPreview = skipRestFromPreview;
+        invalidate();
+    }
+
+    /**
+     * Sets stamp of the state of the character assessor.
+     * <p>
+     * Cache is cleared if stamp changes.
+     *
+     * @param stateStamp state stamp
+     */
+    public void setStateStamp(long stateStamp) {
+        if (this.stateStamp == stateStamp) {
+            return;
+        }
+
+        this.stateStamp = stateStamp;
+        invalidate();
+    }
+
+    /**
+     * Invalidates all cached rows.
+     */
+    public void invalidate() {
+        for (Row row : rows) {
+            row.valid = false;
+        }
+    }
+
+    /**
+     * Invalidates cached rows containing data in given range.
+     *
+     * @param startPosition start data position
+     * @param endPosition end data position (exclusive)
+     */
+    public void invalidate(long startPosition, long endPosition) {
+        for (Row row : rows) {
+            if (row.valid && row.dataPosition < endPosition && row.dataPosition + rowDataLength > startPosition) {
+                row.valid = false;
+            }
+        }
+    }
+
+    /**
+     * Loads row from cache if available.
+     *
+     * @param rowDataPosition row data position
+     * @param rowData target row data
+     * @param rowCharacters target row characters
+     * @return true if row was found in cache
+     */
+    public boolean load(long rowDataPosition, byte[] rowData, char[] rowCharacters) {
+        if (rows.length == 0) {
+            return false;
+        }
+
+        Row row = rows[getSlot(rowDataPosition)];
+        if (!row.valid || row.dataPosition != rowDataPosition) {
+            return false;
+        }
+
+        System.arraycopy(row.rowData, 0, rowData, 0, rowDataLength);
+        System.arraycopy(row.rowCharacters, 0, rowCharacters, 0, rowCharactersLength);
+        return true;
+    }
+
+    /**
+     * Stores row to cache.
+     *
+     * @param rowDataPosition row data position
+     * @param rowData row data
+     * @param rowCharacters row characters
+     */
+    public void store(long rowDataPosition, byte[] rowData, char[] rowCharacters) {
+        if (rows.length == 0 || rowData.length != rowDataLength || rowCharacters.length != rowCharactersLength) {
+            return;
+        }
+
+        Row row = rows[getSlot(rowDataPosition)];
+        System.arraycopy(rowData, 0, row.rowData, 0, rowDataLength);
+        System.arraycopy(rowCharacters, 0, row.rowCharacters, 0, rowCharactersLength);
+        row.dataPosition = rowDataPosition;
+        row.valid = true;
+    }
+
+    private int getSlot(long rowDataPosition) {
+        return (int) Math.floorMod(Math.floorDiv(rowDataPosition, (long) bytesPerRow), (long) rows.length);
+    }
+
+    protected static class Row {
+
+        long dataPosition;
+        boolean valid = false;
+        final byte[] rowData;
+        final char[] rowCharacters;
+
+        public Row(int rowDataLength, int rowCharactersLength) {
+            rowData = new byte[rowDataLength];
+            rowCharacters = new char[rowCharactersLength];
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing.basic.color;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.exbin.bined.color.CodeAreaBasicColors;
+import org.exbin.bined.color.CodeAreaColorType;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Compiled form of colors profile with colors stored in flat array.
+ * <p>
+ * Each color type gets dense integer slot, basic colors use their ordinal.
+ * Colors are resolved from profile by compile method and compiled again by
+ * update method when state stamp of the profile changes.
+ */
+@NullMarked
+public class CodeAreaColorSlots {
+
+    private final List<CodeAreaColorType> colorTypes = new ArrayList<>();
+    private Color[] colors;
+    @Nullable
+    private CodeAreaColorsProfile compiledProfile;
+    private long compiledStateStamp;
+
+    public CodeAreaColorSlots() {
+        colorTypes.addAll(Arrays.asList(CodeAreaBasicColors.values()));
+        colors = new Color[colorTypes.size()];
+    }
+
+    /**
+     * Returns slot for given color type, allocating new slot if needed.
+     * <p>
+     * Colors for newly allocated slots are available after next compile.
+     *
+     * @param colorType color type
+     * @return slot index
+     */
+    public int getSlot(CodeAreaColorType colorType) {
+        if (colorType instanceof CodeAreaBasicColors) {
+            return ((CodeAreaBasicColors) colorType).ordinal();
+        }
+
+        int slot = colorTypes.indexOf(colorType);
+        if (slot == -1) {
+            slot = colorTypes.size();
+            colorTypes.add(colorType);
+            colors = Arrays.copyOf(colors, colorTypes.size());
+        }
+        return slot;
+    }
+
+    /**
+     * Resolves colors for all slots from given profile.
+     *
+     * @param colorsProfile colors profile
+     */
+    public void compile(CodeAreaColorsProfile colorsProfile) {
+        compiledProfile = colorsProfile;
+        compiledStateStamp = colorsProfile.getStateStamp();
+        for (int slot = 0; slot < colors.length; slot++) {
+            colors[slot] = colorsProfile.getColor(colorTypes.get(slot));
+        }
+    }
+
+    /**
+     * Resolves colors from given profile if it differs from compiled profile
+     * or its state changed since compilation.
+     *
+     * @param colorsProfile colors profile
+     * @return true if colors were compiled
+     */
+    public boolean update(CodeAreaColorsProfile colorsProfile) {
+        if (colorsProfile == compiledProfile && colorsProfile.getStateStamp() == compiledStateStamp) {
+            return false;
+        }
+
+        compile(colorsProfile);
+        return true;
+    }
+
+    /**
+     * Returns color for given slot.
+     *
+     * @param slot slot index
+     * @return color or null if not defined
+     */
+    @Nullable
+    public Color getColor(int slot) {
+        return colors[slot];
+    }
+
+    /**
+     * Returns basic color.
+     *
+     * @param colorType basic color type
+     * @return color or null if not defined
+     */
+    @Nullable
+    public Color getColor(CodeAreaBasicColors colorType) {
+        return colors[colorType.ordinal()];
+    }
+}
@@ -50,4 +50,18 @@ public interface CodeAreaColorsProfile {
      * Reinitialize colors.
      */
     void reinitialize();
+
+    /**
+     * Returns stamp of the profile state.
+     * <p>
+     * Stamp changes each time any color of the profile changes, painters
+     * refresh colors compiled from the profile then. Default implementation
+     * returns constant stamp and painter colors have to be reset after
+     * change.
+     *
+     * @return state stamp
+     */
+    default long getStateStamp() {
+        return 0;
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing;
+
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+import javax.swing.SwingUtilities;
+import org.exbin.auxiliary.binary_data.array.ByteArrayEditableData;
+import org.exbin.bined.capability.SelectionCapable;
+import org.exbin.bined.swing.capability.FontCapable;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.junit.Assume;
+
+/**
+ * Measurement of memory allocated while painting code area, shared by paint
+ * allocation tests.
+ */
+@NullMarked
+public final class CodeAreaPaintAllocation {
+
+    public static final int WIDTH = 800;
+    public static final int HEIGHT = 400;
+    /**
+     * Allowed allocation per frame, covers clip regions allocated by JDK.
+     */
+    public static final long MAX_BYTES_PER_FRAME = 512;
+
+    private static final int WARMUP_FRAMES = 200;
+    private static final int MEASURED_FRAMES = 100;
+
+    private CodeAreaPaintAllocation() {
+    }
+
+    /**
+     * Fills code area with sample data and sets fixed font, size and
+     * selection.
+     *
+     * @param codeArea code area
+     */
+    public static void initCodeArea(CodeAreaCore codeArea) {
+        byte[] data = new byte[0x10000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 7);
+        }
+        codeArea.setContentData(new ByteArrayEditableData(data));
+        ((FontCapable) codeArea).setCodeFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        codeArea.setSize(WIDTH, HEIGHT);
+        ((SelectionCapable) codeArea).setSelection(40, 900);
+    }
+
+    /**
+     * Measures average number of bytes allocated by painting single frame.
+     * <p>
+     * Code area is created and painted on event dispatch thread to not
+     * collide with layout updates. Test is skipped if allocated memory cannot
+     * be measured.
+     *
+     * @param painterFactory creates code area and returns its painter
+     * @param clip clip or null for full paint
+     * @return allocated bytes per frame
+     * @throws Exception if painting failed
+     */
+    public static long measureBytesPerFrame(Supplier<CodeAreaPainter> painterFactory, @Nullable Rectangle clip) throws Exception {
+        Assume.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported() && threadBean.isThreadAllocatedMemoryEnabled());
+
+        long[] result = new long[1];
+        SwingUtilities.invokeAndWait(() -> {
+            result[0] = measureBytesPerFrame(threadBean, painterFactory.get(), clip);
+        });
+        return result[0];
+    }
+
+    private static long measureBytesPerFrame(com.sun.management.ThreadMXBean threadBean, CodeAreaPainter painter, @Nullable Rectangle clip) {
+        long threadId = Thread.currentThread().getId();
+
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics g = image.getGraphics();
+        g.setClip(clip);
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            painter.paintComponent(g);
+        }
+
+        long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            painter.paintComponent(g);
+        }
+        long allocatedAfter = threadBean.getThreadAllocatedBytes(threadId);
+        g.dispose();
+
+        return (allocatedAfter - allocatedBefore) / MEASURED_FRAMES;
+    }
+}
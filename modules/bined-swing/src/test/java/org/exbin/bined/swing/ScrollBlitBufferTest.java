@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for ScrollBlitBuffer.
+ */
+public class ScrollBlitBufferTest {
+
+    private static final long[] LAYOUT_KEY = {1, 2, 3};
+
+    public ScrollBlitBufferTest() {
+    }
+
+    @Test
+    public void testComputeShift() {
+        ScrollBlitBuffer buffer = new ScrollBlitBuffer();
+        buffer.rowPosition = 10;
+        buffer.rowOffset = 0;
+
+        Assert.assertEquals(0, buffer.computeShift(10, 0, 15, 300));
+        Assert.assertEquals(-15, buffer.computeShift(11, 0, 15, 300));
+        Assert.assertEquals(30, buffer.computeShift(8, 0, 15, 300));
+        Assert.assertEquals(-20, buffer.computeShift(11, 5, 15, 300));
+        Assert.assertEquals(ScrollBlitBuffer.NO_SHIFT, buffer.computeShift(30, 0, 15, 300));
+        Assert.assertEquals(ScrollBlitBuffer.NO_SHIFT, buffer.computeShift(Long.MAX_VALUE / 2, 0, 15, 300));
+
+        buffer.preventShift();
+        Assert.assertEquals(ScrollBlitBuffer.NO_SHIFT, buffer.computeShift(11, 0, 15, 300));
+    }
+
+    @Test
+    public void testShift() {
+        BufferedImage image = new BufferedImage(10, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, 10, 100);
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 40, 10, 10);
+
+        ScrollBlitBuffer buffer = new ScrollBlitBuffer();
+        Rectangle exposed = buffer.shift(g, new Rectangle(0, 0, 10, 100), -20);
+        Assert.assertEquals(new Rectangle(0, 80, 10, 20), exposed);
+        Assert.assertEquals(Color.BLACK.getRGB(), image.getRGB(5, 25));
+        Assert.assertEquals(Color.WHITE.getRGB(), image.getRGB(5, 45));
+
+        exposed = buffer.shift(g, new Rectangle(0, 0, 10, 100), 30);
+        Assert.assertEquals(new Rectangle(0, 0, 10, 30), exposed);
+        Assert.assertEquals(Color.BLACK.getRGB(), image.getRGB(5, 55));
+        g.dispose();
+    }
+
+    @Test
+    public void testContentValidity() {
+        BufferedImage target = new BufferedImage(50, 50, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        ScrollBlitBuffer buffer = new ScrollBlitBuffer();
+        Graphics2D bufferGraphics = buffer.prepare(g, 50, 50);
+        if (bufferGraphics == null) {
+            // Volatile images are not available
+            g.dispose();
+            return;
+        }
+
+        Assert.assertFalse(buffer.isContentValid(LAYOUT_KEY));
+        bufferGraphics.dispose();
+        buffer.commit(g, LAYOUT_KEY, 5, 0);
+        Assert.assertTrue(buffer.isContentValid(LAYOUT_KEY));
+        Assert.assertFalse(buffer.isContentValid(new long[]{1, 2, 4}));
+
+        buffer.invalidate();
+        Assert.assertFalse(buffer.isContentValid(LAYOUT_KEY));
+        buffer.dispose();
+        g.dispose();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing.basic;
+
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import org.exbin.bined.basic.CodeAreaViewMode;
+import org.exbin.bined.swing.CodeAreaPaintAllocation;
+import org.exbin.bined.swing.CodeAreaPainter;
+import org.exbin.bined.swing.CodeAreaSwingUtils;
+import org.jspecify.annotations.NullMarked;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for memory allocated while painting code area.
+ */
+@NullMarked
+public class CodeAreaPaintAllocationTest {
+
+    public CodeAreaPaintAllocationTest() {
+    }
+
+    @Test
+    public void testSteadyStatePaintAllocation() throws Exception {
+        for (CodeAreaViewMode viewMode : CodeAreaViewMode.values()) {
+            long bytesPerFrame = CodeAreaPaintAllocation.measureBytesPerFrame(() -> createPainter(viewMode), null);
+            Assert.assertTrue(viewMode + ": " + bytesPerFrame + " bytes per frame", bytesPerFrame <= CodeAreaPaintAllocation.MAX_BYTES_PER_FRAME);
+        }
+    }
+
+    @Test
+    public void testClippedPaintAllocation() throws Exception {
+        long bytesPerFrame = CodeAreaPaintAllocation.measureBytesPerFrame(() -> createPainter(CodeAreaViewMode.DUAL), new Rectangle(100, 50, 300, 120));
+        Assert.assertTrue(bytesPerFrame + " bytes per frame", bytesPerFrame <= CodeAreaPaintAllocation.MAX_BYTES_PER_FRAME);
+    }
+
+    @Test
+    public void testClipIntersection() {
+        Rectangle rect = new Rectangle(10, 20, 30, 40);
+        Rectangle area = new Rectangle(25, 0, 100, 35);
+        Assert.assertEquals(rect.intersection(area), CodeAreaSwingUtils.intersection(rect, area, new Rectangle()));
+
+        Rectangle disjoint = new Rectangle(100, 100, 5, 5);
+        Assert.assertEquals(rect.intersection(disjoint), CodeAreaSwingUtils.intersection(rect, disjoint, new Rectangle()));
+
+        BufferedImage image = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+        Graphics g = image.getGraphics();
+        Rectangle bounds = new Rectangle();
+        Assert.assertFalse(CodeAreaSwingUtils.getClipBounds(g, bounds));
+        g.setClip(1, 2, 3, 4);
+        Assert.assertTrue(CodeAreaSwingUtils.getClipBounds(g, bounds));
+        Assert.assertEquals(new Rectangle(1, 2, 3, 4), bounds);
+        g.dispose();
+    }
+
+    private static CodeAreaPainter createPainter(CodeAreaViewMode viewMode) {
+        CodeArea codeArea = new CodeArea();
+        CodeAreaPaintAllocation.initCodeArea(codeArea);
+        codeArea.setViewMode(viewMode);
+        return codeArea.getPainter();
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing.basic;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import org.exbin.auxiliary.binary_data.BinaryData;
+import org.exbin.auxiliary.binary_data.array.ByteArrayData;
+import org.exbin.bined.CodeAreaSection;
+import org.exbin.bined.CodeAreaSelection;
+import org.exbin.bined.basic.BasicCodeAreaSection;
+import org.exbin.bined.swing.CodeAreaPaintState;
+import org.exbin.bined.swing.basic.color.BasicCodeAreaColorsProfile;
+import org.exbin.bined.swing.basic.color.CodeAreaColorsProfile;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for default code area character assessor.
+ */
+public class DefaultCodeAreaCharAssessorTest {
+
+    private static final char CONTINUATION_CHAR = '_';
+
+    public DefaultCodeAreaCharAssessorTest() {
+    }
+
+    @Test
+    public void testRowDecodingUtf8() {
+        byte[] text = "a\u00e9\u20ac\ud83d\ude00z".getBytes(StandardCharsets.UTF_8);
+        PaintState paintState = new PaintState(StandardCharsets.UTF_8, 4, text, text.length);
+        DefaultCodeAreaCharAssessor assessor = createRowAssessor(paintState);
+
+        char[] expected = {'a', '\u00e9', CONTINUATION_CHAR, '\u20ac', CONTINUATION_CHAR, CONTINUATION_CHAR, '\ud83d', CONTINUATION_CHAR, CONTINUATION_CHAR, CONTINUATION_CHAR, 'z'};
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals("Byte " + i, expected[i], assessor.getPreviewCharacter(0, i, 0, BasicCodeAreaSection.TEXT_PREVIEW));
+            Assert.assertEquals("Byte " + i, expected[i] == CONTINUATION_CHAR, assessor.isContinuationByte(0, i));
+        }
+    }
+
+    @Test
+    public void testRowDecodingMatchesPerByteDecoding() {
+        byte[] text = "x\u00fe\u0416\u4e2d.".getBytes(StandardCharsets.UTF_8);
+        PaintState paintState = new PaintState(StandardCharsets.UTF_8, 4, text, text.length);
+        DefaultCodeAreaCharAssessor rowAssessor = createRowAssessor(paintState);
+        DefaultCodeAreaCharAssessor byteAssessor = new DefaultCodeAreaCharAssessor();
+        byteAssessor.startPaint(paintState);
+
+        for (int i = 0; i < text.length; i++) {
+            if (!rowAssessor.isContinuationByte(0, i)) {
+                Assert.assertEquals("Byte " + i, byteAssessor.getPreviewCharacter(0, i, 0, BasicCodeAreaSection.TEXT_PREVIEW), rowAssessor.getPreviewCharacter(0, i, 0, BasicCodeAreaSection.TEXT_PREVIEW));
+            }
+        }
+    }
+
+    @Test
+    public void testRowDecodingUtf16() {
+        byte[] text = "AB\u0416".getBytes(StandardCharsets.UTF_16BE);
+        PaintState paintState = new PaintState(StandardCharsets.UTF_16BE, 4, text, text.length);
+        DefaultCodeAreaCharAssessor assessor = createRowAssessor(paintState);
+
+        char[] expected = {'A', CONTINUATION_CHAR, 'B', CONTINUATION_CHAR, '\u0416', CONTINUATION_CHAR};
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals("Byte " + i, expected[i], assessor.getPreviewCharacter(0, i, 0, BasicCodeAreaSection.TEXT_PREVIEW));
+        }
+    }
+
+    @Test
+    public void testRowDecodingDataEnd() {
+        byte[] text = "ab\u00e9".getBytes(StandardCharsets.UTF_8);
+        // Last byte of the character is behind the end of data
+        PaintState paintState = new PaintState(StandardCharsets.UTF_8, 4, text, text.length - 1);
+        DefaultCodeAreaCharAssessor assessor = createRowAssessor(paintState);
+
+        Assert.assertEquals('a', assessor.getPreviewCharacter(0, 0, 0, BasicCodeAreaSection.TEXT_PREVIEW));
+        Assert.assertEquals('b', assessor.getPreviewCharacter(0, 1, 0, BasicCodeAreaSection.TEXT_PREVIEW));
+        Assert.assertEquals('\ufffd', assessor.getPreviewCharacter(0, 2, 0, BasicCodeAreaSection.TEXT_PREVIEW));
+        Assert.assertEquals(' ', assessor.getPreviewCharacter(0, 3, 0, BasicCodeAreaSection.TEXT_PREVIEW));
+    }
+
+    @Test
+    public void testRowDecodingCache() {
+        byte[] text = "abcd".getBytes(StandardCharsets.UTF_8);
+        PaintState paintState = new PaintState(StandardCharsets.UTF_8, 4, text, 16);
+        DefaultCodeAreaCharAssessor assessor = createRowAssessor(paintState);
+        Assert.assertEquals('a', assessor.getPreviewCharacter(0, 0, 0, BasicCodeAreaSection.TEXT_PREVIEW));
+
+        // Row buffer is reused for next row
+        System.arraycopy("efgh".getBytes(StandardCharsets.UTF_8), 0, paintState.rowData, 0, 4);
+        Assert.assertEquals('a', assessor.getPreviewCharacter(0, 0, 0, BasicCodeAreaSection.TEXT_PREVIEW));
+        Assert.assertEquals('e', assessor.getPreviewCharacter(4, 0, 0, BasicCodeAreaSection.TEXT_PREVIEW));
+    }
+
+    private static DefaultCodeAreaCharAssessor createRowAssessor(PaintState paintState) {
+        DefaultCodeAreaCharAssessor assessor = new DefaultCodeAreaCharAssessor();
+        assessor.setRowDecoding(true);
+        assessor.setContinuationCharacter(CONTINUATION_CHAR);
+        assessor.startPaint(paintState);
+        return assessor;
+    }
+
+    private static class PaintState implements CodeAreaPaintState {
+
+        private final Charset charset;
+        private final int maxBytesPerChar;
+        private final byte[] rowData;
+        private final long dataSize;
+        private final CodeAreaColorsProfile colorsProfile = new BasicCodeAreaColorsProfile();
+
+        public PaintState(Charset charset, int maxBytesPerChar, byte[] data, long dataSize) {
+            this.charset = charset;
+            this.maxBytesPerChar = maxBytesPerChar;
+            this.dataSize = dataSize;
+            // Row buffer contains bytes per row and space for last character
+            rowData = new byte[data.length + maxBytesPerChar - 1];
+            System.arraycopy(data, 0, rowData, 0, data.length);
+        }
+
+        @Override
+        public CodeAreaSection getActiveSection() {
+            return BasicCodeAreaSection.TEXT_PREVIEW;
+        }
+
+        @Override
+        public CodeAreaColorsProfile getColorsProfile() {
+            return colorsProfile;
+        }
+
+        @Override
+        public Charset getCharset() {
+            return charset;
+        }
+
+        @Override
+        public byte[] getRowData() {
+            return rowData;
+        }
+
+        @Override
+        public int getMaxBytesPerChar() {
+            return maxBytesPerChar;
+        }
+
+        @Override
+        public int getCodeLastCharPos() {
+            return 0;
+        }
+
+        @Override
+        public int getCharactersPerRow() {
+            return rowData.length - maxBytesPerChar + 1;
+        }
+
+        @Override
+        public int getBytesPerRow() {
+            return rowData.length - maxBytesPerChar + 1;
+        }
+
+        @Override
+        public long getDataSize() {
+            return dataSize;
+        }
+
+        @Override
+        public BinaryData getContentData() {
+            return new ByteArrayData(rowData);
+        }
+
+        @Override
+        public CodeAreaSelection getSelectionHandler() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing.basic;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for GlyphAtlas.
+ */
+public class GlyphAtlasTest {
+
+    private static final int WIDTH = 200;
+    private static final int HEIGHT = 40;
+
+    public GlyphAtlasTest() {
+    }
+
+    @Test
+    public void testCachedCharacters() {
+        GlyphAtlas atlas = new GlyphAtlas();
+        BufferedImage target = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        FontMetrics fontMetrics = g.getFontMetrics(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        atlas.setup(fontMetrics, fontMetrics.charWidth('0'));
+        g.dispose();
+
+        Assert.assertTrue(atlas.isCached('0'));
+        Assert.assertTrue(atlas.isCached('F'));
+        Assert.assertTrue(atlas.isCached(' '));
+        Assert.assertFalse(atlas.isCached('\n'));
+        Assert.assertFalse(atlas.isCached('\u00e9'));
+    }
+
+    @Test
+    public void testDrawGlyph() {
+        Font font = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+        char[] chars = "09AFaf.~".toCharArray();
+
+        BufferedImage expected = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = expected.createGraphics();
+        g.setFont(font);
+        FontMetrics fontMetrics = g.getFontMetrics();
+        int cellWidth = fontMetrics.charWidth('0');
+        g.setColor(Color.BLUE);
+        for (int i = 0; i < chars.length; i++) {
+            g.drawChars(chars, i, 1, 10 + i * cellWidth + (cellWidth - fontMetrics.charWidth(chars[i])) / 2, 20);
+        }
+        g.dispose();
+
+        GlyphAtlas atlas = new GlyphAtlas();
+        atlas.setup(fontMetrics, cellWidth);
+        BufferedImage result = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        g = result.createGraphics();
+        g.setFont(font);
+        g.setColor(Color.BLUE);
+        VolatileImage atlasImage = atlas.prepareImage(g);
+        if (atlasImage != null) {
+            for (int i = 0; i < chars.length; i++) {
+                atlas.drawGlyph(g, atlasImage, chars[i], 10 + i * cellWidth, 20);
+            }
+        }
+        g.dispose();
+        atlas.invalidate();
+
+        if (atlasImage != null) {
+            Assert.assertArrayEquals(expected.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH), result.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH));
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing.basic;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for PreparedRowsCache.
+ */
+public class PreparedRowsCacheTest {
+
+    public PreparedRowsCacheTest() {
+    }
+
+    @Test
+    public void testStoreAndLoad() {
+        PreparedRowsCache cache = new PreparedRowsCache();
+        cache.setup(4, 16, 16, 4);
+        byte[] rowData = new byte[16];
+        char[] rowCharacters = new char[4];
+        rowData[0] = 1;
+        rowCharacters[0] = 'a';
+        cache.store(32, rowData, rowCharacters);
+
+        byte[] loadedData = new byte[16];
+        char[] loadedCharacters = new char[4];
+        Assert.assertFalse(cache.load(16, loadedData, loadedCharacters));
+        Assert.assertTrue(cache.load(32, loadedData, loadedCharacters));
+        Assert.assertEquals(1, loadedData[0]);
+        Assert.assertEquals('a', loadedCharacters[0]);
+
+        // Row in the same slot replaces previous row
+        cache.store(96, rowData, rowCharacters);
+        Assert.assertFalse(cache.load(32, loadedData, loadedCharacters));
+        Assert.assertTrue(cache.load(96, loadedData, loadedCharacters));
+    }
+
+    @Test
+    public void testInvalidateRange() {
+        PreparedRowsCache cache = new PreparedRowsCache();
+        cache.setup(4, 16, 18, 4);
+        byte[] rowData = new byte[18];
+        char[] rowCharacters = new char[4];
+        cache.store(0, rowData, rowCharacters);
+        cache.store(16, rowData, rowCharacters);
+        cache.store(32, rowData, rowCharacters);
+
+        // Row data overlaps following row for multibyte characters
+        cache.invalidate(17, 18);
+        Assert.assertFalse(cache.load(0, rowData, rowCharacters));
+        Assert.assertFalse(cache.load(16, rowData, rowCharacters));
+        Assert.assertTrue(cache.load(32, rowData, rowCharacters));
+    }
+
+    @Test
+    public void testInvalidateOnChange() {
+        PreparedRowsCache cache = new PreparedRowsCache();
+        cache.setup(4, 16, 16, 4);
+        byte[] rowData = new byte[16];
+        char[] rowCharacters = new char[4];
+        cache.store(0, rowData, rowCharacters);
+        cache.setup(4, 16, 16, 4);
+        Assert.assertTrue(cache.load(0, rowData, rowCharacters));
+
+        cache.setVisibleRange(0, 8, 0, 8);
+        Assert.assertFalse(cache.load(0, rowData, rowCharacters));
+
+        cache.store(0, rowData, rowCharacters);
+        cache.setup(8, 16, 16, 4);
+        Assert.assertFalse(cache.load(0, rowData, rowCharacters));
+
+        cache.store(0, rowData, rowCharacters);
+        cache.setStateStamp(0);
+        Assert.assertTrue(cache.load(0, rowData, rowCharacters));
+        cache.setStateStamp(1);
+        Assert.assertFalse(cache.load(0, rowData, rowCharacters));
+    }
+}
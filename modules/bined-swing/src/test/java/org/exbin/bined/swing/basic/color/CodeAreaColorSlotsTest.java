@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) ExBin Project, https://exbin.org
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.exbin.bined.swing.basic.color;
+
+import java.awt.Color;
+import java.util.HashMap;
+import java.util.Map;
+import org.exbin.bined.color.BasicCodeAreaDecorationColorType;
+import org.exbin.bined.color.CodeAreaBasicColors;
+import org.exbin.bined.color.CodeAreaColorType;
+import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test CodeAreaColorSlots class.
+ */
+@NullMarked
+public class CodeAreaColorSlotsTest {
+
+    @Test
+    public void testCompile() {
+        TestColorsProfile colorsProfile = new TestColorsProfile();
+        colorsProfile.colors.put(CodeAreaBasicColors.TEXT_COLOR, Color.RED);
+        colorsProfile.colors.put(BasicCodeAreaDecorationColorType.LINE, Color.BLUE);
+
+        CodeAreaColorSlots colorSlots = new CodeAreaColorSlots();
+        int lineSlot = colorSlots.getSlot(BasicCodeAreaDecorationColorType.LINE);
+        Assert.assertEquals(CodeAreaBasicColors.values().length, lineSlot);
+        Assert.assertEquals(lineSlot, colorSlots.getSlot(BasicCodeAreaDecorationColorType.LINE));
+        Assert.assertEquals(CodeAreaBasicColors.TEXT_BACKGROUND.ordinal(), colorSlots.getSlot(CodeAreaBasicColors.TEXT_BACKGROUND));
+        Assert.assertNull(colorSlots.getColor(lineSlot));
+
+        colorSlots.compile(colorsProfile);
+        Assert.assertEquals(Color.RED, colorSlots.getColor(CodeAreaBasicColors.TEXT_COLOR));
+        Assert.assertNull(colorSlots.getColor(CodeAreaBasicColors.TEXT_BACKGROUND));
+        Assert.assertEquals(Color.BLUE, colorSlots.getColor(lineSlot));
+
+        colorsProfile.colors.put(CodeAreaBasicColors.TEXT_COLOR, Color.GREEN);
+        Assert.assertEquals(Color.RED, colorSlots.getColor(CodeAreaBasicColors.TEXT_COLOR));
+        colorSlots.compile(colorsProfile);
+        Assert.assertEquals(Color.GREEN, colorSlots.getColor(CodeAreaBasicColors.TEXT_COLOR));
+    }
+
+    @Test
+    public void testUpdate() {
+        TestColorsProfile colorsProfile = new TestColorsProfile();
+        colorsProfile.colors.put(CodeAreaBasicColors.TEXT_COLOR, Color.RED);
+
+        CodeAreaColorSlots colorSlots = new CodeAreaColorSlots();
+        Assert.assertTrue(colorSlots.update(colorsProfile));
+        Assert.assertFalse(colorSlots.update(colorsProfile));
+        Assert.assertEquals(Color.RED, colorSlots.getColor(CodeAreaBasicColors.TEXT_COLOR));
+
+        colorsProfile.colors.put(CodeAreaBasicColors.TEXT_COLOR, Color.GREEN);
+        colorsProfile.stateStamp++;
+        Assert.assertTrue(colorSlots.update(colorsProfile));
+        Assert.assertEquals(Color.GREEN, colorSlots.getColor(CodeAreaBasicColors.TEXT_COLOR));
+
+        TestColorsProfile otherProfile = new TestColorsProfile();
+        otherProfile.stateStamp = colorsProfile.stateStamp;
+        Assert.assertTrue(colorSlots.update(otherProfile));
+        Assert.assertNull(colorSlots.getColor(CodeAreaBasicColors.TEXT_COLOR));
+    }
+
+    @NullMarked
+    private static class TestColorsProfile implements CodeAreaColorsProfile {
+
+        private final Map<CodeAreaColorType, Color> colors = new HashMap<>();
+        private long stateStamp = 0;
+
+        @Nullable
+        @Override
+        public Color getColor(CodeAreaColorType colorType) {
+            return colors.get(colorType);
+        }
+
+        @Nullable
+        @Override
+        public Color getColor(CodeAreaColorType colorType, @Nullable CodeAreaBasicColors basicAltColor) {
+            Color color = colors.get(colorType);
+            return color == null ? (basicAltColor == null ? null : colors.get(basicAltColor)) : color;
+        }
+
+        @Override
+        public void reinitialize() {
+        }
+
+        @Override
+        public long getStateStamp() {
+            return stateStamp;
+        }
+    }
+}
@@ -24,7 +24,6 @@ import java.awt.datatransfer.UnsupportedFlavorException;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.charset.Charset;
-import java.util.Arrays;
 import org.jspecify.annotations.Nullable;
 import org.jspecify.annotations.NullMarked;
 import org.eclipse.swt.SWT;
@@ -204,10 +203,10 @@ public class CodeAreaSwtUtils {
                 }
 
                 char[] targetData = new char[textLength];
-                Arrays.fill(targetData, ' ');
-                for (int i = 0; i < data.getDataSize(); i++) {
-                    CodeAreaUtils.byteToCharsCode(data.getByte(i), codeType, targetData, i * charsPerByte, charactersCase);
-                }
+                int dataSize = (int) data.getDataSize();
+                byte[] sourceData = new byte[dataSize];
+                data.copyToArray(0, sourceData, 0, dataSize);
+                CodeAreaUtils.bytesToCharsCode(sourceData, 0, dataSize, codeType, charactersCase, targetData, 0, 1);
                 return new String(targetData);
             }
         }